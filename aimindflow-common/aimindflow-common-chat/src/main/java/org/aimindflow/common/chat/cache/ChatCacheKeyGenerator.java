@@ -0,0 +1,67 @@
+package org.aimindflow.common.chat.cache;
+
+import cn.hutool.core.util.HexUtil;
+import org.aimindflow.common.chat.request.ChatRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 聊天缓存键生成器
+ *
+ * 对模型、温度、最大token数以及消息列表做规范化编码后计算SHA-256，
+ * 各字段带长度前缀，不受字段内容中的分隔符影响；stream与user字段不参与计算。
+ *
+ * @author HezaoHezao
+ */
+public class ChatCacheKeyGenerator {
+
+    private ChatCacheKeyGenerator() {
+    }
+
+    /**
+     * 生成缓存键
+     *
+     * @param chatRequest 聊天请求对象
+     * @return 缓存键
+     */
+    public static String generate(ChatRequest chatRequest) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, chatRequest.getModel());
+        update(digest, chatRequest.getTemperature() == null ? null : chatRequest.getTemperature().toString());
+        update(digest, chatRequest.getMaxTokens() == null ? null : chatRequest.getMaxTokens().toString());
+        if (chatRequest.getMessages() != null) {
+            for (ChatRequest.Message message : chatRequest.getMessages()) {
+                update(digest, message.getRole());
+                update(digest, message.getContent());
+            }
+        }
+        return HexUtil.encodeHexStr(digest.digest());
+    }
+
+    /**
+     * 写入带长度前缀的字段，null与空串区分编码
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            writeInt(digest, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void writeInt(MessageDigest digest, int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package org.aimindflow.common.chat.cache;
+
+import org.aimindflow.common.chat.response.ChatResponse;
+
+/**
+ * 聊天响应缓存存储接口
+ *
+ * @author HezaoHezao
+ */
+public interface ChatCacheStore {
+
+    /**
+     * 获取缓存的聊天响应
+     *
+     * @param key 缓存键
+     * @return 聊天响应，不存在或已过期时返回null
+     */
+    ChatResponse get(String key);
+
+    /**
+     * 缓存聊天响应
+     *
+     * @param key        缓存键
+     * @param response   聊天响应
+     * @param ttlSeconds 过期时间（秒）
+     */
+    void put(String key, ChatResponse response, long ttlSeconds);
+}
\ No newline at end of file
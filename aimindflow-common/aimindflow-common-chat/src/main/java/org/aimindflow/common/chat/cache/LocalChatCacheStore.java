@@ -0,0 +1,77 @@
+package org.aimindflow.common.chat.cache;
+
+import org.aimindflow.common.chat.response.ChatResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地聊天响应缓存
+ *
+ * 基于访问顺序的LRU缓存，超过最大条目数时淘汰最久未访问的条目，读取时惰性清理过期条目。
+ *
+ * @author HezaoHezao
+ */
+public class LocalChatCacheStore implements ChatCacheStore {
+
+    /**
+     * 缓存条目
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * 构造函数
+     *
+     * @param maxSize 最大条目数
+     */
+    public LocalChatCacheStore(int maxSize) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized ChatResponse get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.response;
+    }
+
+    @Override
+    public synchronized void put(String key, ChatResponse response, long ttlSeconds) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttlSeconds * 1000));
+    }
+
+    /**
+     * 获取当前条目数
+     *
+     * @return 条目数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final ChatResponse response;
+
+        private final long expireAt;
+
+        Entry(ChatResponse response, long expireAt) {
+            this.response = response;
+            this.expireAt = expireAt;
+        }
+    }
+}
\ No newline at end of file
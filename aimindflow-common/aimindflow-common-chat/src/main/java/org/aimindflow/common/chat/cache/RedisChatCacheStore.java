@@ -0,0 +1,43 @@
+package org.aimindflow.common.chat.cache;
+
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.aimindflow.common.redis.manager.RedisCacheManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis聊天响应缓存
+ *
+ * @author HezaoHezao
+ */
+public class RedisChatCacheStore implements ChatCacheStore {
+
+    /**
+     * 缓存键前缀
+     */
+    private static final String KEY_PREFIX = "chat:response:";
+
+    /**
+     * Redis缓存管理器
+     */
+    private final RedisCacheManager redisCacheManager;
+
+    /**
+     * 构造函数
+     *
+     * @param redisCacheManager Redis缓存管理器
+     */
+    public RedisChatCacheStore(RedisCacheManager redisCacheManager) {
+        this.redisCacheManager = redisCacheManager;
+    }
+
+    @Override
+    public ChatResponse get(String key) {
+        return redisCacheManager.get(KEY_PREFIX + key);
+    }
+
+    @Override
+    public void put(String key, ChatResponse response, long ttlSeconds) {
+        redisCacheManager.set(KEY_PREFIX + key, response, ttlSeconds, TimeUnit.SECONDS);
+    }
+}
\ No newline at end of file
@@ -1,8 +1,21 @@
 package org.aimindflow.common.chat.config;
 
 import cn.hutool.core.util.StrUtil;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.chat.cache.ChatCacheStore;
+import org.aimindflow.common.chat.cache.RedisChatCacheStore;
+import org.aimindflow.common.chat.factory.ChatHttpClientFactory;
 import org.aimindflow.common.chat.factory.ChatServiceFactory;
+import org.aimindflow.common.chat.metrics.ChatCacheMetrics;
+import org.aimindflow.common.chat.metrics.ChatHttpClientMetrics;
+import org.aimindflow.common.chat.metrics.ChatLimiterMetrics;
+import org.aimindflow.common.chat.metrics.ChatRouteMetrics;
 import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.redis.manager.RedisCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -15,19 +28,80 @@ import org.springframework.context.annotation.Configuration;
  * 绑定聊天配置，按需提供 ChatService 默认实现。
  */
 @Configuration
+@AutoConfigureAfter(name = "org.aimindflow.common.redis.config.RedisAutoConfiguration")
 @EnableConfigurationProperties(ChatConfig.class)
 @ConditionalOnProperty(prefix = "aimindflow.chat", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class ChatAutoConfiguration {
 
     /**
-     * 当配置了 apiKey 时，提供默认的 OpenAI 聊天服务实现。
+     * 当配置了 apiKey 或路由端点时，提供默认的 OpenAI 聊天服务实现，配置了多个端点时按延迟与错误率路由；启用限流时包装限流，启用响应缓存时在最外层包装缓存，
+     * 使缓存命中的请求不占用限流额度。
      */
     @Bean
     @ConditionalOnMissingBean(ChatService.class)
-    public ChatService chatService(ChatConfig chatConfig) {
-        if (StrUtil.isBlank(chatConfig.getApiKey())) {
+    public ChatService chatService(ChatConfig chatConfig, ObjectProvider<ChatCacheStore> remoteCacheStore) {
+        boolean routing = !chatConfig.getRouting().getEndpoints().isEmpty();
+        if (!routing && StrUtil.isBlank(chatConfig.getApiKey())) {
             return null;
         }
-        return ChatServiceFactory.createOpenAiChatService(chatConfig);
+        ChatService chatService = routing ? ChatServiceFactory.createRoutingChatService(chatConfig)
+                : ChatServiceFactory.createOpenAiChatService(chatConfig);
+        if (Boolean.TRUE.equals(chatConfig.getLimit().getEnabled())) {
+            chatService = ChatServiceFactory.createRateLimitedChatService(chatService, chatConfig.getLimit());
+        }
+        if (Boolean.TRUE.equals(chatConfig.getCache().getEnabled())) {
+            chatService = ChatServiceFactory.createCachingChatService(chatService, chatConfig.getCache(),
+                    remoteCacheStore.getIfAvailable());
+        }
+        return chatService;
+    }
+
+    /**
+     * Redis二级缓存配置，存在 RedisCacheManager 时作为响应缓存的二级存储
+     */
+    @Configuration
+    @ConditionalOnClass(RedisCacheManager.class)
+    @ConditionalOnProperty(prefix = "aimindflow.chat.cache", name = "redis-enabled", havingValue = "true", matchIfMissing = true)
+    public static class ChatRedisCacheConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ChatCacheStore.class)
+        @ConditionalOnBean(RedisCacheManager.class)
+        public ChatCacheStore redisChatCacheStore(RedisCacheManager redisCacheManager) {
+            return new RedisChatCacheStore(redisCacheManager);
+        }
+    }
+
+    /**
+     * 指标配置，存在 Micrometer 时导出共享客户端调度器与连接池指标，以及缓存、限流和路由指标。
+     * 聊天服务通过 ObjectProvider 获取：@ConditionalOnBean 在外层配置的 chatService 注册之前求值，不能用来判断。
+     */
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    public static class ChatMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ChatHttpClientMetrics chatHttpClientMetrics(ChatConfig chatConfig) {
+            return new ChatHttpClientMetrics(ChatHttpClientFactory.getSharedClient(chatConfig));
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ChatCacheMetrics chatCacheMetrics(ObjectProvider<ChatService> chatService) {
+            return new ChatCacheMetrics(chatService.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ChatLimiterMetrics chatLimiterMetrics(ObjectProvider<ChatService> chatService) {
+            return new ChatLimiterMetrics(chatService.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ChatRouteMetrics chatRouteMetrics(ObjectProvider<ChatService> chatService) {
+            return new ChatRouteMetrics(chatService.getIfAvailable());
+        }
     }
 }
\ No newline at end of file
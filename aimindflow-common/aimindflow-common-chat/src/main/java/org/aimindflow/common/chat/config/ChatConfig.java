@@ -3,6 +3,11 @@ package org.aimindflow.common.chat.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 聊天配置类
  *
@@ -66,4 +71,198 @@ public class ChatConfig {
      * 代理密码
      */
     private String proxyPassword;
+
+    /**
+     * 连接池最大空闲连接数
+     */
+    private Integer maxIdleConnections = 20;
+
+    /**
+     * 连接保活时间（秒）
+     */
+    private Integer keepAliveDuration = 300;
+
+    /**
+     * 调度器最大并发请求数
+     */
+    private Integer maxRequests = 256;
+
+    /**
+     * 调度器单个主机最大并发请求数
+     */
+    private Integer maxRequestsPerHost = 64;
+
+    /**
+     * 是否优先使用HTTP/2（多路复用）
+     */
+    private Boolean http2Enabled = true;
+
+    /**
+     * 响应缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 请求限流配置
+     */
+    private Limit limit = new Limit();
+
+    /**
+     * 多端点路由配置
+     */
+    private Routing routing = new Routing();
+
+    /**
+     * 响应缓存配置
+     */
+    @Data
+    public static class Cache {
+        /**
+         * 是否启用响应缓存
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 本地缓存最大条目数
+         */
+        private Integer localMaxSize = 10000;
+
+        /**
+         * 是否启用Redis二级缓存
+         */
+        private Boolean redisEnabled = true;
+
+        /**
+         * 默认过期时间（秒）
+         */
+        private Long defaultTtl = 3600L;
+
+        /**
+         * 按模型配置的过期时间（秒）
+         */
+        private Map<String, Long> modelTtl = new HashMap<>();
+    }
+
+    /**
+     * 请求限流配置
+     */
+    @Data
+    public static class Limit {
+        /**
+         * 是否启用请求限流
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 初始并发上限
+         */
+        private Integer initialLimit = 20;
+
+        /**
+         * 最小并发上限
+         */
+        private Integer minLimit = 1;
+
+        /**
+         * 最大并发上限
+         */
+        private Integer maxLimit = 200;
+
+        /**
+         * 被限流或超时后并发上限的收缩比例
+         */
+        private Double backoffRatio = 0.9;
+
+        /**
+         * 等待队列最大长度
+         */
+        private Integer maxQueueSize = 100;
+
+        /**
+         * 单个请求的总时限（毫秒），包含排队与执行时间
+         */
+        private Long deadline = 60000L;
+
+        /**
+         * 按模型配置的每分钟token上限，未配置的模型不限制
+         */
+        private Map<String, Long> tokensPerMinute = new HashMap<>();
+    }
+
+    /**
+     * 多端点路由配置
+     */
+    @Data
+    public static class Routing {
+        /**
+         * OpenAI兼容端点列表，为空时只使用官方端点
+         */
+        private List<Endpoint> endpoints = new ArrayList<>();
+
+        /**
+         * 熔断统计窗口大小（请求数）
+         */
+        private Integer windowSize = 20;
+
+        /**
+         * 窗口内达到该请求数后才判断是否熔断
+         */
+        private Integer minimumRequests = 10;
+
+        /**
+         * 触发熔断的错误率
+         */
+        private Double errorRateThreshold = 0.5;
+
+        /**
+         * 熔断持续时间（毫秒），到期后放行一个探测请求
+         */
+        private Long openDuration = 30000L;
+
+        /**
+         * 单次请求最多尝试的端点数，包括故障转移与对冲请求
+         */
+        private Integer maxAttempts = 2;
+
+        /**
+         * 是否对慢的非流式请求发起对冲请求
+         */
+        private Boolean hedgeEnabled = false;
+
+        /**
+         * 对冲等待时间（毫秒），为0时取所选端点平均延迟的2倍
+         */
+        private Long hedgeDelay = 0L;
+
+        /**
+         * 自动计算时的最小对冲等待时间（毫秒）
+         */
+        private Long minHedgeDelay = 200L;
+
+        /**
+         * 执行对冲请求的最大线程数，线程耗尽时不再发起对冲请求
+         */
+        private Integer hedgeMaxThreads = 64;
+    }
+
+    /**
+     * OpenAI兼容端点配置
+     */
+    @Data
+    public static class Endpoint {
+        /**
+         * 端点名称，用于日志与指标
+         */
+        private String name;
+
+        /**
+         * 聊天补全接口地址
+         */
+        private String url;
+
+        /**
+         * API密钥，为空时使用全局密钥
+         */
+        private String apiKey;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package org.aimindflow.common.chat.exception;
 
+import org.aimindflow.common.chat.constant.ChatErrorCode;
+
 /**
  * 聊天异常类
  *
@@ -75,6 +77,30 @@ public class ChatException extends RuntimeException {
         this.errorCode = errorCode;
     }
 
+    /**
+     * 按HTTP错误状态码创建异常：401与403为密钥错误，408为超时，其余4xx为参数错误，5xx为服务不可用。
+     * 429请使用{@link ChatRateLimitException}。
+     *
+     * @param code    HTTP状态码
+     * @param message 错误消息
+     * @return 聊天异常
+     */
+    public static ChatException fromHttpStatus(int code, String message) {
+        String errorCode;
+        if (code == 401 || code == 403) {
+            errorCode = ChatErrorCode.API_KEY_ERROR;
+        } else if (code == 408) {
+            errorCode = ChatErrorCode.TIMEOUT_ERROR;
+        } else if (code >= 400 && code < 500) {
+            errorCode = ChatErrorCode.PARAM_ERROR;
+        } else if (code >= 500) {
+            errorCode = ChatErrorCode.SERVICE_UNAVAILABLE;
+        } else {
+            errorCode = ChatErrorCode.UNKNOWN_ERROR;
+        }
+        return new ChatException(errorCode, message);
+    }
+
     /**
      * 获取错误码
      *
@@ -0,0 +1,69 @@
+package org.aimindflow.common.chat.exception;
+
+import org.aimindflow.common.chat.constant.ChatErrorCode;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 聊天限流异常
+ *
+ * 服务端返回429或本地限流器拒绝请求时抛出，携带建议的重试等待时间。
+ *
+ * @author HezaoHezao
+ */
+public class ChatRateLimitException extends ChatException {
+
+    /**
+     * 序列化ID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 建议的重试等待时间（毫秒），未知时为0
+     */
+    private final long retryAfterMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param message          错误消息
+     * @param retryAfterMillis 建议的重试等待时间（毫秒）
+     */
+    public ChatRateLimitException(String message, long retryAfterMillis) {
+        super(ChatErrorCode.RATE_LIMIT, message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * 获取建议的重试等待时间
+     *
+     * @return 重试等待时间（毫秒）
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * 解析Retry-After响应头，支持秒数与HTTP日期两种格式
+     *
+     * @param retryAfter Retry-After响应头
+     * @return 重试等待时间（毫秒），无法解析时返回0
+     */
+    public static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, (long) (Double.parseDouble(retryAfter.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime time = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, time.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+}
\ No newline at end of file
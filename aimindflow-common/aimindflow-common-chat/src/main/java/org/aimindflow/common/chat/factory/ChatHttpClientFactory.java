@@ -0,0 +1,191 @@
+package org.aimindflow.common.chat.factory;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import okhttp3.ConnectionPool;
+import okhttp3.Credentials;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.aimindflow.common.chat.config.ChatConfig;
+import org.aimindflow.common.chat.openai.OpenAiAuthInterceptor;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 聊天HTTP客户端工厂类
+ *
+ * 相同传输配置共享同一个连接池和调度器，各服务实例只在共享客户端上叠加自己的认证拦截器，
+ * 避免每个API密钥各自创建连接池、线程池并重复进行TLS握手。
+ *
+ * @author HezaoHezao
+ */
+public class ChatHttpClientFactory {
+
+    /**
+     * 共享客户端缓存，按传输配置区分
+     */
+    private static final Map<TransportKey, OkHttpClient> SHARED_CLIENTS = new ConcurrentHashMap<>();
+
+    private ChatHttpClientFactory() {
+    }
+
+    /**
+     * 获取共享HTTP客户端
+     *
+     * @param config 聊天配置
+     * @return 共享HTTP客户端
+     */
+    public static OkHttpClient getSharedClient(ChatConfig config) {
+        return SHARED_CLIENTS.computeIfAbsent(new TransportKey(config), key -> buildSharedClient(config));
+    }
+
+    /**
+     * 基于共享客户端创建带认证的HTTP客户端
+     *
+     * 派生客户端与共享客户端复用连接池和调度器，仅拦截器链不同。
+     *
+     * @param config          聊天配置
+     * @param authInterceptor 认证拦截器
+     * @return HTTP客户端
+     */
+    public static OkHttpClient createClient(ChatConfig config, OpenAiAuthInterceptor authInterceptor) {
+        return getSharedClient(config).newBuilder()
+                .addInterceptor(authInterceptor)
+                .build();
+    }
+
+    /**
+     * 获取所有共享HTTP客户端
+     *
+     * @return 共享HTTP客户端集合
+     */
+    public static Map<TransportKey, OkHttpClient> getSharedClients() {
+        return Collections.unmodifiableMap(SHARED_CLIENTS);
+    }
+
+    /**
+     * 构建共享HTTP客户端
+     *
+     * @param config 聊天配置
+     * @return 共享HTTP客户端
+     */
+    private static OkHttpClient buildSharedClient(ChatConfig config) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                        config.getKeepAliveDuration(), TimeUnit.SECONDS))
+                .connectTimeout(config.getConnectTimeout(), TimeUnit.SECONDS)
+                .writeTimeout(config.getWriteTimeout(), TimeUnit.SECONDS)
+                .readTimeout(config.getReadTimeout(), TimeUnit.SECONDS);
+
+        if (Boolean.TRUE.equals(config.getHttp2Enabled())) {
+            builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        } else {
+            builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+        }
+
+        // 配置代理
+        if (StrUtil.isNotBlank(config.getProxyHost()) && config.getProxyPort() != null) {
+            builder.proxy(new Proxy(Proxy.Type.HTTP, new InetSocketAddress(config.getProxyHost(), config.getProxyPort())));
+            if (StrUtil.isNotBlank(config.getProxyUsername())) {
+                String credential = Credentials.basic(config.getProxyUsername(), StrUtil.nullToEmpty(config.getProxyPassword()));
+                builder.proxyAuthenticator((route, response) -> {
+                    // 已带认证信息仍返回407时说明凭据错误，不再重试
+                    if (response.request().header("Proxy-Authorization") != null) {
+                        return null;
+                    }
+                    return response.request().newBuilder()
+                            .header("Proxy-Authorization", credential)
+                            .build();
+                });
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 传输配置键
+     */
+    public static final class TransportKey {
+
+        private final Integer connectTimeout;
+        private final Integer writeTimeout;
+        private final Integer readTimeout;
+        private final Integer maxIdleConnections;
+        private final Integer keepAliveDuration;
+        private final Integer maxRequests;
+        private final Integer maxRequestsPerHost;
+        private final Boolean http2Enabled;
+        private final String proxyHost;
+        private final Integer proxyPort;
+        private final String proxyUsername;
+
+        /**
+         * 代理密码摘要，密码变更后使用新的客户端，键中不保存明文密码
+         */
+        private final String proxyPasswordDigest;
+
+        TransportKey(ChatConfig config) {
+            this.connectTimeout = config.getConnectTimeout();
+            this.writeTimeout = config.getWriteTimeout();
+            this.readTimeout = config.getReadTimeout();
+            this.maxIdleConnections = config.getMaxIdleConnections();
+            this.keepAliveDuration = config.getKeepAliveDuration();
+            this.maxRequests = config.getMaxRequests();
+            this.maxRequestsPerHost = config.getMaxRequestsPerHost();
+            this.http2Enabled = config.getHttp2Enabled();
+            this.proxyHost = config.getProxyHost();
+            this.proxyPort = config.getProxyPort();
+            this.proxyUsername = config.getProxyUsername();
+            this.proxyPasswordDigest = config.getProxyPassword() == null ? null : DigestUtil.sha256Hex(config.getProxyPassword());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TransportKey)) {
+                return false;
+            }
+            TransportKey that = (TransportKey) o;
+            return Objects.equals(connectTimeout, that.connectTimeout)
+                    && Objects.equals(writeTimeout, that.writeTimeout)
+                    && Objects.equals(readTimeout, that.readTimeout)
+                    && Objects.equals(maxIdleConnections, that.maxIdleConnections)
+                    && Objects.equals(keepAliveDuration, that.keepAliveDuration)
+                    && Objects.equals(maxRequests, that.maxRequests)
+                    && Objects.equals(maxRequestsPerHost, that.maxRequestsPerHost)
+                    && Objects.equals(http2Enabled, that.http2Enabled)
+                    && Objects.equals(proxyHost, that.proxyHost)
+                    && Objects.equals(proxyPort, that.proxyPort)
+                    && Objects.equals(proxyUsername, that.proxyUsername)
+                    && Objects.equals(proxyPasswordDigest, that.proxyPasswordDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(connectTimeout, writeTimeout, readTimeout, maxIdleConnections, keepAliveDuration,
+                    maxRequests, maxRequestsPerHost, http2Enabled, proxyHost, proxyPort, proxyUsername, proxyPasswordDigest);
+        }
+
+        @Override
+        public String toString() {
+            return (proxyHost == null ? "direct" : proxyHost + ":" + proxyPort)
+                    + (Boolean.TRUE.equals(http2Enabled) ? "/h2" : "/http1")
+                    + "/" + maxRequestsPerHost;
+        }
+    }
+}
\ No newline at end of file
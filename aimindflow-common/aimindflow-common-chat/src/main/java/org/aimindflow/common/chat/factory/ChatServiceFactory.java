@@ -1,10 +1,20 @@
 package org.aimindflow.common.chat.factory;
 
+import cn.hutool.core.util.StrUtil;
+import org.aimindflow.common.chat.cache.ChatCacheStore;
+import org.aimindflow.common.chat.cache.LocalChatCacheStore;
 import org.aimindflow.common.chat.config.ChatConfig;
 import org.aimindflow.common.chat.openai.DefaultOpenAiAuthInterceptor;
 import org.aimindflow.common.chat.openai.OpenAiAuthInterceptor;
+import org.aimindflow.common.chat.route.ChatEndpoint;
 import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.chat.service.impl.CachingChatServiceImpl;
 import org.aimindflow.common.chat.service.impl.OpenAiChatServiceImpl;
+import org.aimindflow.common.chat.service.impl.RateLimitedChatServiceImpl;
+import org.aimindflow.common.chat.service.impl.RoutingChatServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 聊天服务工厂类
@@ -23,8 +33,8 @@ public class ChatServiceFactory {
         // 创建认证拦截器
         OpenAiAuthInterceptor authInterceptor = new DefaultOpenAiAuthInterceptor(config.getApiKey());
         
-        // 创建聊天服务
-        return new OpenAiChatServiceImpl(authInterceptor);
+        // 创建聊天服务，复用相同传输配置的连接池和调度器
+        return new OpenAiChatServiceImpl(config, authInterceptor);
     }
 
     /**
@@ -48,4 +58,87 @@ public class ChatServiceFactory {
     public static ChatService createOpenAiChatService(OpenAiAuthInterceptor authInterceptor) {
         return new OpenAiChatServiceImpl(authInterceptor);
     }
+
+    /**
+     * 创建自定义认证的OpenAI聊天服务
+     *
+     * @param config          聊天配置，用于选择共享的传输客户端
+     * @param authInterceptor 认证拦截器
+     * @return 聊天服务实例
+     */
+    public static ChatService createOpenAiChatService(ChatConfig config, OpenAiAuthInterceptor authInterceptor) {
+        return new OpenAiChatServiceImpl(config, authInterceptor);
+    }
+
+    /**
+     * 创建带响应缓存的聊天服务
+     *
+     * @param delegate    被装饰的聊天服务
+     * @param cacheConfig 缓存配置
+     * @param remoteStore 二级缓存，可为空
+     * @return 聊天服务实例
+     */
+    public static ChatService createCachingChatService(ChatService delegate, ChatConfig.Cache cacheConfig,
+                                                       ChatCacheStore remoteStore) {
+        ChatCacheStore localStore = new LocalChatCacheStore(cacheConfig.getLocalMaxSize());
+        return new CachingChatServiceImpl(delegate, localStore, remoteStore, cacheConfig);
+    }
+
+    /**
+     * 创建带并发与token限流的聊天服务
+     *
+     * @param delegate    被装饰的聊天服务
+     * @param limitConfig 限流配置
+     * @return 聊天服务实例
+     */
+    public static ChatService createRateLimitedChatService(ChatService delegate, ChatConfig.Limit limitConfig) {
+        return new RateLimitedChatServiceImpl(delegate, limitConfig);
+    }
+
+    /**
+     * 创建多端点路由聊天服务
+     *
+     * 每个端点使用独立的认证拦截器，传输层复用相同配置的共享客户端。
+     *
+     * @param config 聊天配置，端点未配置密钥时使用全局密钥
+     * @return 聊天服务实例
+     */
+    public static ChatService createRoutingChatService(ChatConfig config) {
+        ChatConfig.Routing routing = config.getRouting();
+        List<ChatEndpoint> endpoints = new ArrayList<>(routing.getEndpoints().size());
+        for (ChatConfig.Endpoint endpoint : routing.getEndpoints()) {
+            String apiKey = StrUtil.isBlank(endpoint.getApiKey()) ? config.getApiKey() : endpoint.getApiKey();
+            OpenAiAuthInterceptor authInterceptor = new DefaultOpenAiAuthInterceptor(apiKey);
+            ChatService chatService = new OpenAiChatServiceImpl(
+                    ChatHttpClientFactory.createClient(config, authInterceptor), endpoint.getUrl());
+            String name = StrUtil.isBlank(endpoint.getName()) ? endpoint.getUrl() : endpoint.getName();
+            endpoints.add(new ChatEndpoint(name, chatService, routing));
+        }
+        return new RoutingChatServiceImpl(endpoints, routing);
+    }
+
+    /**
+     * 沿装饰链查找指定类型的聊天服务
+     *
+     * @param chatService 聊天服务
+     * @param type        目标类型
+     * @param <T>         目标类型
+     * @return 找到的聊天服务，不存在时返回null
+     */
+    public static <T extends ChatService> T unwrap(ChatService chatService, Class<T> type) {
+        ChatService current = chatService;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            if (current instanceof CachingChatServiceImpl) {
+                current = ((CachingChatServiceImpl) current).getDelegate();
+            } else if (current instanceof RateLimitedChatServiceImpl) {
+                current = ((RateLimitedChatServiceImpl) current).getDelegate();
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,338 @@
+package org.aimindflow.common.chat.limit;
+
+import org.aimindflow.common.chat.config.ChatConfig;
+import org.aimindflow.common.chat.constant.ChatErrorCode;
+import org.aimindflow.common.chat.exception.ChatException;
+import org.aimindflow.common.chat.exception.ChatRateLimitException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 自适应并发限流器
+ *
+ * 采用AIMD算法调整并发上限：请求成功时加性增长，被服务端限流或超时时乘性收缩。
+ * 超出上限的请求进入有界FIFO队列等待；若按当前平均耗时估算已无法在时限内完成则直接拒绝。
+ * 服务端返回Retry-After时，在该时间之前暂停放行新请求。
+ *
+ * @author HezaoHezao
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 平均耗时的平滑系数
+     */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 等待队列
+     */
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final int maxQueueSize;
+
+    /**
+     * 当前并发上限
+     */
+    private double limit;
+
+    /**
+     * 执行中的请求数
+     */
+    private int inFlight;
+
+    /**
+     * 暂停放行截止时间（纳秒时间戳）
+     */
+    private long blockedUntil;
+
+    /**
+     * 请求平均耗时（纳秒）
+     */
+    private double latencyNanos;
+
+    private final AtomicLong queuedCount = new AtomicLong();
+
+    private final AtomicLong queuedNanos = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param config 限流配置
+     */
+    public AdaptiveConcurrencyLimiter(ChatConfig.Limit config) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(this.minLimit, config.getMaxLimit());
+        this.backoffRatio = config.getBackoffRatio();
+        this.maxQueueSize = config.getMaxQueueSize();
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, config.getInitialLimit()));
+        this.blockedUntil = System.nanoTime();
+    }
+
+    /**
+     * 获取执行许可，必要时排队等待
+     *
+     * @param deadlineNanos 请求时限（纳秒时间戳）
+     * @return 执行许可
+     * @throws ChatRateLimitException 队列已满或预计无法在时限内完成
+     */
+    public Permit acquire(long deadlineNanos) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < currentLimit() && start - blockedUntil >= 0) {
+                inFlight++;
+                return new Permit(start);
+            }
+            if (waiters.size() >= maxQueueSize) {
+                rejectedCount.incrementAndGet();
+                throw new ChatRateLimitException("Chat request queue is full", retryHintMillis(start));
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            waiters.addLast(waiter);
+            try {
+                while (!waiter.granted) {
+                    long now = System.nanoTime();
+                    long expectedEnd = Math.max(now, blockedUntil) + (long) latencyNanos;
+                    if (expectedEnd - deadlineNanos >= 0) {
+                        waiters.remove(waiter);
+                        rejectedCount.incrementAndGet();
+                        throw new ChatRateLimitException("Chat request would exceed its deadline", retryHintMillis(now));
+                    }
+                    long waitNanos = deadlineNanos - (long) latencyNanos - now;
+                    if (now - blockedUntil < 0) {
+                        waitNanos = Math.min(waitNanos, blockedUntil - now);
+                    }
+                    waiter.condition.awaitNanos(waitNanos);
+                    if (!waiter.granted) {
+                        grantWaiters();
+                    }
+                }
+            } catch (InterruptedException e) {
+                waiters.remove(waiter);
+                if (waiter.granted) {
+                    inFlight--;
+                    grantWaiters();
+                }
+                Thread.currentThread().interrupt();
+                throw new ChatException(ChatErrorCode.SYSTEM_ERROR, "Interrupted while waiting for chat request permit", e);
+            }
+
+            long now = System.nanoTime();
+            queuedCount.incrementAndGet();
+            queuedNanos.addAndGet(now - start);
+            return new Permit(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按顺序唤醒可放行的等待者，调用方需持有锁
+     */
+    private void grantWaiters() {
+        long now = System.nanoTime();
+        if (now - blockedUntil < 0) {
+            return;
+        }
+        int currentLimit = currentLimit();
+        while (!waiters.isEmpty() && inFlight < currentLimit) {
+            Waiter waiter = waiters.pollFirst();
+            waiter.granted = true;
+            inFlight++;
+            waiter.condition.signal();
+        }
+    }
+
+    private int currentLimit() {
+        return Math.max(minLimit, (int) limit);
+    }
+
+    private long retryHintMillis(long now) {
+        long blocked = blockedUntil - now;
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(blocked, (long) latencyNanos));
+    }
+
+    private void release(long latency, boolean success, boolean dropped, long retryAfterMillis) {
+        lock.lock();
+        try {
+            int previousInFlight = inFlight;
+            inFlight--;
+            if (success) {
+                latencyNanos = latencyNanos == 0 ? latency
+                        : latencyNanos * (1 - LATENCY_SMOOTHING) + latency * LATENCY_SMOOTHING;
+                // 仅在并发接近上限时增长，避免低负载下上限无限膨胀
+                if (previousInFlight * 2 >= currentLimit()) {
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+            } else if (dropped) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                if (retryAfterMillis > 0) {
+                    long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+                    if (until - blockedUntil > 0) {
+                        blockedUntil = until;
+                    }
+                }
+            }
+            grantWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前并发上限
+     *
+     * @return 并发上限
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取执行中的请求数
+     *
+     * @return 执行中的请求数
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取排队中的请求数
+     *
+     * @return 排队中的请求数
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取经过排队的请求数
+     *
+     * @return 经过排队的请求数
+     */
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    /**
+     * 获取累计排队时间
+     *
+     * @return 累计排队时间（纳秒）
+     */
+    public long getQueuedNanos() {
+        return queuedNanos.get();
+    }
+
+    /**
+     * 获取被拒绝的请求数
+     *
+     * @return 被拒绝的请求数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 执行许可，只能释放一次
+     */
+    public final class Permit {
+
+        private final long startNanos;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * 首个响应到达的耗时，未记录时为-1
+         */
+        private volatile long firstResponseNanos = -1;
+
+        Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * 记录首个响应到达时间，作为流式请求的延迟样本，许可在流结束时才释放
+         */
+        public void firstResponse() {
+            if (firstResponseNanos < 0) {
+                firstResponseNanos = System.nanoTime() - startNanos;
+            }
+        }
+
+        /**
+         * 请求成功，记录过首个响应时以其耗时作为延迟样本
+         */
+        public void success() {
+            if (released.compareAndSet(false, true)) {
+                long latency = firstResponseNanos >= 0 ? firstResponseNanos : System.nanoTime() - startNanos;
+                release(latency, true, false, 0);
+            }
+        }
+
+        /**
+         * 请求被服务端限流或超时
+         *
+         * @param retryAfterMillis 服务端建议的重试等待时间（毫秒）
+         */
+        public void dropped(long retryAfterMillis) {
+            if (released.compareAndSet(false, true)) {
+                release(0, false, true, retryAfterMillis);
+            }
+        }
+
+        /**
+         * 请求因其他原因结束，不影响并发上限
+         */
+        public void ignore() {
+            if (released.compareAndSet(false, true)) {
+                release(0, false, false, 0);
+            }
+        }
+    }
+
+    /**
+     * 等待者
+     */
+    private static final class Waiter {
+
+        private final Condition condition;
+
+        private boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+package org.aimindflow.common.chat.limit;
+
+import org.aimindflow.common.chat.constant.ChatErrorCode;
+import org.aimindflow.common.chat.exception.ChatException;
+import org.aimindflow.common.chat.exception.ChatRateLimitException;
+import org.aimindflow.common.chat.request.ChatRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按模型的token速率限制器
+ *
+ * 每个模型一个令牌桶，容量为每分钟token上限并按该速率连续补充。
+ * 请求前按估算值扣减，请求结束后按实际用量修正，允许短暂透支。
+ *
+ * @author HezaoHezao
+ */
+public class TokenRateLimiter {
+
+    /**
+     * 未指定最大token数时按此值估算输出
+     */
+    private static final int DEFAULT_COMPLETION_TOKENS = 256;
+
+    /**
+     * 每条消息的格式开销token数
+     */
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    /**
+     * 按模型配置的每分钟token上限
+     */
+    private final Map<String, Long> tokensPerMinute;
+
+    /**
+     * 各模型令牌桶
+     */
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param tokensPerMinute 按模型配置的每分钟token上限
+     */
+    public TokenRateLimiter(Map<String, Long> tokensPerMinute) {
+        this.tokensPerMinute = tokensPerMinute;
+    }
+
+    /**
+     * 扣减token额度，额度不足时等待补充
+     *
+     * @param model         模型名称
+     * @param tokens        预计消耗的token数
+     * @param deadlineNanos 请求时限（纳秒时间戳）
+     * @throws ChatRateLimitException 时限内无法获得足够额度
+     */
+    public void acquire(String model, long tokens, long deadlineNanos) {
+        Bucket bucket = bucket(model);
+        if (bucket == null) {
+            return;
+        }
+        while (true) {
+            long waitNanos = bucket.tryAcquire(tokens);
+            if (waitNanos == 0) {
+                return;
+            }
+            if (System.nanoTime() + waitNanos - deadlineNanos >= 0) {
+                throw new ChatRateLimitException("Token rate limit exceeded for model " + model,
+                        TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChatException(ChatErrorCode.SYSTEM_ERROR, "Interrupted while waiting for token budget", e);
+            }
+        }
+    }
+
+    /**
+     * 按实际用量修正额度
+     *
+     * @param model  模型名称
+     * @param delta  实际用量与估算值之差，正数表示多扣减
+     */
+    public void adjust(String model, long delta) {
+        Bucket bucket = bucket(model);
+        if (bucket != null && delta != 0) {
+            bucket.adjust(delta);
+        }
+    }
+
+    /**
+     * 获取模型剩余的token额度
+     *
+     * @param model 模型名称
+     * @return 剩余额度，未限制的模型返回-1
+     */
+    public long getAvailable(String model) {
+        Bucket bucket = bucket(model);
+        return bucket == null ? -1 : bucket.available();
+    }
+
+    /**
+     * 估算请求消耗的token数，按每4个字符约1个token粗略计算
+     *
+     * @param chatRequest 聊天请求对象
+     * @return 估算的token数
+     */
+    public static long estimateTokens(ChatRequest chatRequest) {
+        long tokens = chatRequest.getMaxTokens() != null ? chatRequest.getMaxTokens() : DEFAULT_COMPLETION_TOKENS;
+        return tokens + estimatePromptTokens(chatRequest);
+    }
+
+    /**
+     * 估算请求消息本身的token数，不含输出
+     *
+     * @param chatRequest 聊天请求对象
+     * @return 估算的token数
+     */
+    public static long estimatePromptTokens(ChatRequest chatRequest) {
+        long tokens = 0;
+        if (chatRequest.getMessages() != null) {
+            for (ChatRequest.Message message : chatRequest.getMessages()) {
+                int length = message.getContent() == null ? 0 : message.getContent().length();
+                tokens += MESSAGE_OVERHEAD_TOKENS + estimateTextTokens(length);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 按字符数估算文本的token数
+     *
+     * @param length 字符数
+     * @return 估算的token数
+     */
+    public static long estimateTextTokens(long length) {
+        return (length + 3) / 4;
+    }
+
+    private Bucket bucket(String model) {
+        if (model == null) {
+            return null;
+        }
+        Long limit = tokensPerMinute.get(model);
+        if (limit == null || limit <= 0) {
+            return null;
+        }
+        return buckets.computeIfAbsent(model, m -> new Bucket(limit));
+    }
+
+    /**
+     * 令牌桶
+     */
+    private static final class Bucket {
+
+        private final double capacity;
+
+        private final double tokensPerNano;
+
+        private double available;
+
+        private long lastRefill;
+
+        Bucket(long tokensPerMinute) {
+            this.capacity = tokensPerMinute;
+            this.tokensPerNano = tokensPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.available = tokensPerMinute;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * 尝试扣减，成功返回0，否则返回需要等待的纳秒数
+         */
+        synchronized long tryAcquire(long tokens) {
+            refill();
+            // 超过容量的单次请求只要求桶满即可放行，避免永久等待
+            double required = Math.min(tokens, capacity);
+            if (available >= required) {
+                available -= tokens;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((required - available) / tokensPerNano));
+        }
+
+        synchronized void adjust(long delta) {
+            refill();
+            available = Math.min(capacity, available - delta);
+        }
+
+        synchronized long available() {
+            refill();
+            return (long) available;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
\ No newline at end of file
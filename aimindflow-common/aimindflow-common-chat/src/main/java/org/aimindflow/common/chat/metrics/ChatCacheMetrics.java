@@ -0,0 +1,56 @@
+package org.aimindflow.common.chat.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.chat.service.impl.CachingChatServiceImpl;
+
+/**
+ * 聊天响应缓存指标
+ *
+ * 导出本地缓存命中、二级缓存命中、未命中以及不满足缓存条件的请求次数。
+ *
+ * @author HezaoHezao
+ */
+public class ChatCacheMetrics implements MeterBinder {
+
+    /**
+     * 指标名
+     */
+    private static final String NAME = "aimindflow.chat.cache.requests";
+
+    /**
+     * 聊天服务
+     */
+    private final ChatService chatService;
+
+    /**
+     * 构造函数
+     *
+     * @param chatService 聊天服务，为null或非缓存实现时不导出指标
+     */
+    public ChatCacheMetrics(ChatService chatService) {
+        this.chatService = chatService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(chatService instanceof CachingChatServiceImpl)) {
+            return;
+        }
+        CachingChatServiceImpl service = (CachingChatServiceImpl) chatService;
+        FunctionCounter.builder(NAME, service, CachingChatServiceImpl::getLocalHits)
+                .tag("result", "hit").tag("tier", "local")
+                .register(registry);
+        FunctionCounter.builder(NAME, service, CachingChatServiceImpl::getRemoteHits)
+                .tag("result", "hit").tag("tier", "redis")
+                .register(registry);
+        FunctionCounter.builder(NAME, service, CachingChatServiceImpl::getMisses)
+                .tag("result", "miss").tag("tier", "none")
+                .register(registry);
+        FunctionCounter.builder(NAME, service, CachingChatServiceImpl::getBypasses)
+                .tag("result", "bypass").tag("tier", "none")
+                .register(registry);
+    }
+}
\ No newline at end of file
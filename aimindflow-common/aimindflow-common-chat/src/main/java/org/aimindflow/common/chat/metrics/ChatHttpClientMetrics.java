@@ -0,0 +1,51 @@
+package org.aimindflow.common.chat.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.OkHttpClient;
+
+/**
+ * 聊天HTTP客户端指标
+ *
+ * 导出共享客户端调度器的排队/运行请求数以及连接池连接数。
+ *
+ * @author HezaoHezao
+ */
+public class ChatHttpClientMetrics implements MeterBinder {
+
+    /**
+     * 指标名前缀
+     */
+    private static final String PREFIX = "aimindflow.chat.http";
+
+    /**
+     * 共享HTTP客户端
+     */
+    private final OkHttpClient client;
+
+    /**
+     * 构造函数
+     *
+     * @param client 共享HTTP客户端
+     */
+    public ChatHttpClientMetrics(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(PREFIX + ".dispatcher.queued", client, c -> c.dispatcher().queuedCallsCount())
+                .description("等待调度的请求数")
+                .register(registry);
+        Gauge.builder(PREFIX + ".dispatcher.running", client, c -> c.dispatcher().runningCallsCount())
+                .description("正在执行的请求数")
+                .register(registry);
+        Gauge.builder(PREFIX + ".pool.connections", client, c -> c.connectionPool().connectionCount())
+                .description("连接池连接总数")
+                .register(registry);
+        Gauge.builder(PREFIX + ".pool.idle", client, c -> c.connectionPool().idleConnectionCount())
+                .description("连接池空闲连接数")
+                .register(registry);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package org.aimindflow.common.chat.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.chat.factory.ChatServiceFactory;
+import org.aimindflow.common.chat.limit.AdaptiveConcurrencyLimiter;
+import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.chat.service.impl.RateLimitedChatServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 聊天请求限流指标
+ *
+ * 导出当前并发上限、执行中与排队中的请求数、被拒绝次数以及排队耗时。
+ *
+ * @author HezaoHezao
+ */
+public class ChatLimiterMetrics implements MeterBinder {
+
+    /**
+     * 指标名前缀
+     */
+    private static final String PREFIX = "aimindflow.chat.limiter";
+
+    /**
+     * 聊天服务
+     */
+    private final ChatService chatService;
+
+    /**
+     * 构造函数
+     *
+     * @param chatService 聊天服务，为null或未启用限流时不导出指标
+     */
+    public ChatLimiterMetrics(ChatService chatService) {
+        this.chatService = chatService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RateLimitedChatServiceImpl service = ChatServiceFactory.unwrap(chatService, RateLimitedChatServiceImpl.class);
+        if (service == null) {
+            return;
+        }
+        AdaptiveConcurrencyLimiter limiter = service.getConcurrencyLimiter();
+        Gauge.builder(PREFIX + ".limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("当前自适应并发上限")
+                .register(registry);
+        Gauge.builder(PREFIX + ".inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("正在执行的聊天请求数")
+                .register(registry);
+        Gauge.builder(PREFIX + ".queued", limiter, AdaptiveConcurrencyLimiter::getQueueSize)
+                .description("等待许可的聊天请求数")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .description("被限流拒绝的聊天请求数")
+                .register(registry);
+        FunctionTimer.builder(PREFIX + ".queue.time", limiter,
+                        AdaptiveConcurrencyLimiter::getQueuedCount,
+                        AdaptiveConcurrencyLimiter::getQueuedNanos,
+                        TimeUnit.NANOSECONDS)
+                .description("聊天请求等待许可的耗时")
+                .register(registry);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package org.aimindflow.common.chat.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.chat.factory.ChatServiceFactory;
+import org.aimindflow.common.chat.route.ChatEndpoint;
+import org.aimindflow.common.chat.route.EndpointCircuitBreaker;
+import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.chat.service.impl.RoutingChatServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多端点路由指标
+ *
+ * 按端点导出平均延迟、平均错误率、执行中请求数、熔断器状态以及成功与失败次数。
+ *
+ * @author HezaoHezao
+ */
+public class ChatRouteMetrics implements MeterBinder {
+
+    /**
+     * 指标名前缀
+     */
+    private static final String PREFIX = "aimindflow.chat.endpoint";
+
+    /**
+     * 聊天服务
+     */
+    private final ChatService chatService;
+
+    /**
+     * 构造函数
+     *
+     * @param chatService 聊天服务，为null或未启用路由时不导出指标
+     */
+    public ChatRouteMetrics(ChatService chatService) {
+        this.chatService = chatService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RoutingChatServiceImpl service = ChatServiceFactory.unwrap(chatService, RoutingChatServiceImpl.class);
+        if (service == null) {
+            return;
+        }
+        for (ChatEndpoint endpoint : service.getEndpoints()) {
+            String name = endpoint.getName();
+            Gauge.builder(PREFIX + ".latency", endpoint, e -> e.getLatency(TimeUnit.MILLISECONDS))
+                    .tag("endpoint", name)
+                    .baseUnit("milliseconds")
+                    .description("端点平均延迟")
+                    .register(registry);
+            Gauge.builder(PREFIX + ".error.rate", endpoint, ChatEndpoint::getErrorRate)
+                    .tag("endpoint", name)
+                    .description("端点平均错误率")
+                    .register(registry);
+            Gauge.builder(PREFIX + ".inflight", endpoint, ChatEndpoint::getInFlight)
+                    .tag("endpoint", name)
+                    .description("端点上正在执行的聊天请求数")
+                    .register(registry);
+            Gauge.builder(PREFIX + ".circuit.open", endpoint,
+                            e -> e.getCircuitBreaker().getState() == EndpointCircuitBreaker.State.CLOSED ? 0 : 1)
+                    .tag("endpoint", name)
+                    .description("端点熔断器是否处于打开或半开状态")
+                    .register(registry);
+            FunctionCounter.builder(PREFIX + ".requests", endpoint, ChatEndpoint::getSuccessCount)
+                    .tag("endpoint", name).tag("result", "success")
+                    .register(registry);
+            FunctionCounter.builder(PREFIX + ".requests", endpoint, ChatEndpoint::getFailureCount)
+                    .tag("endpoint", name).tag("result", "failure")
+                    .register(registry);
+        }
+    }
+}
\ No newline at end of file
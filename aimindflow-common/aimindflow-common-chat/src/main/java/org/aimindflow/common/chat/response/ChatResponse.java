@@ -62,6 +62,11 @@ public class ChatResponse {
          */
         private Message message;
 
+        /**
+         * 增量消息（流式响应）
+         */
+        private Message delta;
+
         /**
          * 结束原因
          */
@@ -0,0 +1,244 @@
+package org.aimindflow.common.chat.route;
+
+import org.aimindflow.common.chat.config.ChatConfig;
+import org.aimindflow.common.chat.service.ChatService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 路由端点
+ *
+ * 包装单个端点的聊天服务，记录平均延迟、平均错误率与执行中的请求数，并持有该端点的熔断器。
+ *
+ * @author HezaoHezao
+ */
+public class ChatEndpoint {
+
+    /**
+     * 平均值的平滑系数
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * 计算得分时错误率的上限，避免除零
+     */
+    private static final double MAX_ERROR_RATE = 0.95;
+
+    /**
+     * 延迟样本的衰减时间常数（纳秒），长时间未被选中的端点得分逐渐降低，从而重新获得样本
+     */
+    private static final double LATENCY_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * 错误惩罚（纳秒），按平均错误率叠加到延迟上，避免快速失败的端点因延迟低而吸引流量
+     */
+    private static final double ERROR_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 端点名称
+     */
+    private final String name;
+
+    /**
+     * 端点聊天服务
+     */
+    private final ChatService chatService;
+
+    /**
+     * 熔断器
+     */
+    private final EndpointCircuitBreaker circuitBreaker;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong successCount = new AtomicLong();
+
+    private final AtomicLong failureCount = new AtomicLong();
+
+    /**
+     * 平均延迟（纳秒），0表示尚无样本
+     */
+    private double latencyNanos;
+
+    /**
+     * 最近一次请求结果的时间（纳秒时间戳）
+     */
+    private long lastSampleNanos;
+
+    /**
+     * 平均错误率
+     */
+    private double errorRate;
+
+    /**
+     * 构造函数
+     *
+     * @param name        端点名称
+     * @param chatService 端点聊天服务
+     * @param config      路由配置
+     */
+    public ChatEndpoint(String name, ChatService chatService, ChatConfig.Routing config) {
+        this.name = name;
+        this.chatService = chatService;
+        this.circuitBreaker = new EndpointCircuitBreaker(config);
+    }
+
+    /**
+     * 计算负载得分，越低越优先；尚无请求结果的端点得分最低，以便尽快获得样本。
+     * 失败请求不计入延迟，而是按平均错误率叠加固定惩罚，快速失败的端点得分不会低于正常端点。
+     *
+     * @return 负载得分
+     */
+    public synchronized double score() {
+        double idle = System.nanoTime() - lastSampleNanos;
+        double cost = (latencyNanos + errorRate * ERROR_PENALTY_NANOS) * Math.exp(-idle / LATENCY_DECAY_NANOS);
+        return cost * (inFlight.get() + 1) / (1 - Math.min(errorRate, MAX_ERROR_RATE));
+    }
+
+    /**
+     * 判断端点是否健康，即熔断器处于关闭状态
+     *
+     * @return 是否健康
+     */
+    public boolean isHealthy() {
+        return circuitBreaker.getState() == EndpointCircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * 请求开始
+     */
+    public void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求成功
+     *
+     * @param latencyNanos 请求延迟（纳秒）
+     */
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        successCount.incrementAndGet();
+        synchronized (this) {
+            updateLatency(latencyNanos);
+            this.errorRate = this.errorRate * (1 - SMOOTHING);
+        }
+        circuitBreaker.onSuccess();
+    }
+
+    /**
+     * 请求失败
+     */
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        failureCount.incrementAndGet();
+        synchronized (this) {
+            this.errorRate = this.errorRate * (1 - SMOOTHING) + SMOOTHING;
+            this.lastSampleNanos = System.nanoTime();
+        }
+        circuitBreaker.onFailure();
+    }
+
+    /**
+     * 请求被放弃，例如下游取消订阅，不计入统计
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+        circuitBreaker.onIgnore();
+    }
+
+    /**
+     * 对冲请求中较慢的一方被放弃，以已等待的时间作为延迟样本的下限，
+     * 避免慢端点因始终被放弃而得不到样本、得分一直偏低
+     *
+     * @param elapsedNanos 已等待时间（纳秒）
+     */
+    public void onAbandoned(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            updateLatency(elapsedNanos);
+        }
+        circuitBreaker.onIgnore();
+    }
+
+    private void updateLatency(long sampleNanos) {
+        latencyNanos = latencyNanos == 0 ? sampleNanos
+                : latencyNanos * (1 - SMOOTHING) + sampleNanos * SMOOTHING;
+        lastSampleNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取端点名称
+     *
+     * @return 端点名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取端点聊天服务
+     *
+     * @return 端点聊天服务
+     */
+    public ChatService getChatService() {
+        return chatService;
+    }
+
+    /**
+     * 获取熔断器
+     *
+     * @return 熔断器
+     */
+    public EndpointCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 获取平均延迟
+     *
+     * @param unit 时间单位
+     * @return 平均延迟
+     */
+    public synchronized double getLatency(TimeUnit unit) {
+        return latencyNanos / unit.toNanos(1);
+    }
+
+    /**
+     * 获取平均错误率
+     *
+     * @return 平均错误率
+     */
+    public synchronized double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * 获取执行中的请求数
+     *
+     * @return 执行中的请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 获取成功请求数
+     *
+     * @return 成功请求数
+     */
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    /**
+     * 获取失败请求数
+     *
+     * @return 失败请求数
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+}
\ No newline at end of file
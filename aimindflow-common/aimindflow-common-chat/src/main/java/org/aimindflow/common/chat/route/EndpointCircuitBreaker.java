@@ -0,0 +1,182 @@
+package org.aimindflow.common.chat.route;
+
+import org.aimindflow.common.chat.config.ChatConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端点熔断器
+ *
+ * 按最近固定数量请求的错误率判断：达到阈值后进入打开状态拒绝请求，
+ * 打开持续时间到期后进入半开状态，只放行一个探测请求，探测成功则关闭，失败则重新打开。
+ *
+ * @author HezaoHezao
+ */
+public class EndpointCircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 关闭，正常放行
+         */
+        CLOSED,
+        /**
+         * 打开，拒绝请求
+         */
+        OPEN,
+        /**
+         * 半开，放行一个探测请求
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * 最近请求结果，true表示失败
+     */
+    private final boolean[] window;
+
+    private final int minimumRequests;
+
+    private final double errorRateThreshold;
+
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+
+    private int position;
+
+    private int recorded;
+
+    private int failures;
+
+    private long openedAt;
+
+    private boolean probing;
+
+    /**
+     * 构造函数
+     *
+     * @param config 路由配置
+     */
+    public EndpointCircuitBreaker(ChatConfig.Routing config) {
+        this.window = new boolean[Math.max(1, config.getWindowSize())];
+        this.minimumRequests = Math.min(window.length, Math.max(1, config.getMinimumRequests()));
+        this.errorRateThreshold = config.getErrorRateThreshold();
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+    }
+
+    /**
+     * 判断当前是否可能放行请求，不改变状态
+     *
+     * @return 是否可能放行
+     */
+    public synchronized boolean isAvailable() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return System.nanoTime() - openedAt >= openDurationNanos;
+            default:
+                return !probing;
+        }
+    }
+
+    /**
+     * 尝试获取放行许可，半开状态下只有一个请求能获得许可
+     *
+     * @return 是否放行
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probing) {
+                    return false;
+                }
+                probing = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 记录请求成功
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            state = State.CLOSED;
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * 记录请求失败
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumRequests
+                && failures >= errorRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    /**
+     * 请求被放弃，不计入统计，仅释放探测许可
+     */
+    public synchronized void onIgnore() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    /**
+     * 获取当前状态
+     *
+     * @return 熔断器状态
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        reset();
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        probing = false;
+    }
+}
\ No newline at end of file
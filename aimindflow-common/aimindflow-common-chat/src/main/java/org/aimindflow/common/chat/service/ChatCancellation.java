@@ -0,0 +1,62 @@
+package org.aimindflow.common.chat.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 聊天请求取消令牌
+ *
+ * 调用方持有令牌，不再需要结果时调用cancel；服务实现发起HTTP调用时通过onCancel登记中止动作，
+ * 取消时直接中止底层调用，不必等待阻塞中的读取结束。先取消后登记时，登记的动作立即执行。
+ *
+ * @author HezaoHezao
+ */
+public final class ChatCancellation {
+
+    /**
+     * 已取消的标记
+     */
+    private static final Runnable CANCELLED = () -> {
+    };
+
+    /**
+     * 登记的中止动作
+     */
+    private final AtomicReference<Runnable> action = new AtomicReference<>();
+
+    /**
+     * 登记中止动作，替换之前登记的动作
+     *
+     * @param onCancel 中止动作
+     */
+    public void onCancel(Runnable onCancel) {
+        while (true) {
+            Runnable current = action.get();
+            if (current == CANCELLED) {
+                onCancel.run();
+                return;
+            }
+            if (action.compareAndSet(current, onCancel)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 取消请求，执行已登记的中止动作，重复调用无效
+     */
+    public void cancel() {
+        Runnable current = action.getAndSet(CANCELLED);
+        if (current != null && current != CANCELLED) {
+            current.run();
+        }
+    }
+
+    /**
+     * 是否已取消
+     *
+     * @return 是否已取消
+     */
+    public boolean isCancelled() {
+        return action.get() == CANCELLED;
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.aimindflow.common.chat.service;
 
 import org.aimindflow.common.chat.request.ChatRequest;
 import org.aimindflow.common.chat.response.ChatResponse;
+import org.reactivestreams.Publisher;
 
 /**
  * 聊天服务接口
@@ -18,6 +19,19 @@ public interface ChatService {
      */
     ChatResponse sendChatRequest(ChatRequest chatRequest);
 
+    /**
+     * 发送可取消的聊天请求
+     *
+     * 取消后底层调用被中止，方法以异常结束。不支持中止的实现忽略取消令牌。
+     *
+     * @param chatRequest  聊天请求对象
+     * @param cancellation 取消令牌，可为null
+     * @return 聊天响应对象
+     */
+    default ChatResponse sendChatRequest(ChatRequest chatRequest, ChatCancellation cancellation) {
+        return sendChatRequest(chatRequest);
+    }
+
     /**
      * 发送流式聊天请求
      *
@@ -26,6 +40,16 @@ public interface ChatService {
      */
     void sendStreamChatRequest(ChatRequest chatRequest, StreamChatCallback callback);
 
+    /**
+     * 发送流式聊天请求，以支持背压的发布者形式返回响应分片
+     *
+     * 每次订阅发起一次请求，只按下游请求的数量读取分片，取消订阅会中止底层调用。
+     *
+     * @param chatRequest 聊天请求对象
+     * @return 聊天响应分片发布者
+     */
+    Publisher<ChatResponse> streamChatRequest(ChatRequest chatRequest);
+
     /**
      * 流式聊天回调接口
      */
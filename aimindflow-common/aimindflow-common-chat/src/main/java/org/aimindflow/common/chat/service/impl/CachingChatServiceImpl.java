@@ -0,0 +1,428 @@
+package org.aimindflow.common.chat.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.chat.cache.ChatCacheKeyGenerator;
+import org.aimindflow.common.chat.cache.ChatCacheStore;
+import org.aimindflow.common.chat.config.ChatConfig;
+import org.aimindflow.common.chat.constant.ChatConstants;
+import org.aimindflow.common.chat.request.ChatRequest;
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.aimindflow.common.chat.service.ChatCancellation;
+import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.chat.stream.CallbackSubscriber;
+import org.aimindflow.common.chat.stream.ChatReplayPublisher;
+import org.aimindflow.common.chat.utils.ChatUtils;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带响应缓存的聊天服务
+ *
+ * 仅缓存 temperature 为0的确定性请求，先查本地缓存再查二级缓存，二级命中时回填本地缓存。
+ * 流式请求命中时按分片回放缓存的完整响应，未命中时在流正常结束后拼装完整响应写入缓存。
+ * 本地缓存保存响应的副本，命中时也返回副本，调用方修改响应不会影响缓存。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class CachingChatServiceImpl implements ChatService, DisposableBean {
+
+    /**
+     * 被装饰的聊天服务
+     */
+    private final ChatService delegate;
+
+    /**
+     * 本地缓存
+     */
+    private final ChatCacheStore localStore;
+
+    /**
+     * 二级缓存，可为空
+     */
+    private final ChatCacheStore remoteStore;
+
+    /**
+     * 缓存配置
+     */
+    private final ChatConfig.Cache cacheConfig;
+
+    private final AtomicLong localHits = new AtomicLong();
+
+    private final AtomicLong remoteHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong bypasses = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate    被装饰的聊天服务
+     * @param localStore  本地缓存
+     * @param remoteStore 二级缓存，可为空
+     * @param cacheConfig 缓存配置
+     */
+    public CachingChatServiceImpl(ChatService delegate, ChatCacheStore localStore,
+                                  ChatCacheStore remoteStore, ChatConfig.Cache cacheConfig) {
+        this.delegate = delegate;
+        this.localStore = localStore;
+        this.remoteStore = remoteStore;
+        this.cacheConfig = cacheConfig;
+    }
+
+    @Override
+    public ChatResponse sendChatRequest(ChatRequest chatRequest) {
+        return sendChatRequest(chatRequest, null);
+    }
+
+    @Override
+    public ChatResponse sendChatRequest(ChatRequest chatRequest, ChatCancellation cancellation) {
+        if (!isCacheable(chatRequest)) {
+            bypasses.incrementAndGet();
+            return delegate.sendChatRequest(chatRequest, cancellation);
+        }
+        String key = ChatCacheKeyGenerator.generate(chatRequest);
+        ChatResponse cached = lookup(key, chatRequest.getModel());
+        if (cached != null) {
+            return cached;
+        }
+        misses.incrementAndGet();
+        ChatResponse response = delegate.sendChatRequest(chatRequest, cancellation);
+        store(key, chatRequest.getModel(), response);
+        return response;
+    }
+
+    @Override
+    public void sendStreamChatRequest(ChatRequest chatRequest, StreamChatCallback callback) {
+        Publisher<ChatResponse> publisher;
+        try {
+            publisher = streamChatRequest(chatRequest);
+        } catch (Exception e) {
+            log.error("Failed to send stream chat request", e);
+            callback.onError(e);
+            return;
+        }
+        publisher.subscribe(new CallbackSubscriber(callback));
+    }
+
+    @Override
+    public Publisher<ChatResponse> streamChatRequest(ChatRequest chatRequest) {
+        if (!isCacheable(chatRequest)) {
+            bypasses.incrementAndGet();
+            return delegate.streamChatRequest(chatRequest);
+        }
+        String key = ChatCacheKeyGenerator.generate(chatRequest);
+        ChatResponse cached = lookup(key, chatRequest.getModel());
+        if (cached != null) {
+            return new ChatReplayPublisher(toStreamChunks(cached));
+        }
+        misses.incrementAndGet();
+        Publisher<ChatResponse> upstream = delegate.streamChatRequest(chatRequest);
+        String model = chatRequest.getModel();
+        return subscriber -> upstream.subscribe(new RecordingSubscriber(subscriber, key, model));
+    }
+
+    /**
+     * 判断请求是否可缓存，仅 temperature 明确为0的请求输出稳定
+     *
+     * @param chatRequest 聊天请求对象
+     * @return 是否可缓存
+     */
+    private boolean isCacheable(ChatRequest chatRequest) {
+        return Boolean.TRUE.equals(cacheConfig.getEnabled())
+                && chatRequest.getTemperature() != null
+                && chatRequest.getTemperature() == 0D;
+    }
+
+    /**
+     * 依次查询本地缓存与二级缓存
+     */
+    private ChatResponse lookup(String key, String model) {
+        ChatResponse cached = localStore.get(key);
+        if (cached != null) {
+            localHits.incrementAndGet();
+            return copy(cached);
+        }
+        if (remoteStore == null) {
+            return null;
+        }
+        try {
+            cached = remoteStore.get(key);
+        } catch (Exception e) {
+            log.warn("Failed to read chat response cache, key: {}", key, e);
+            return null;
+        }
+        if (cached == null) {
+            return null;
+        }
+        // 二级缓存可能带有进程内近端缓存，同样返回副本
+        remoteHits.incrementAndGet();
+        localStore.put(key, copy(cached), resolveTtl(model));
+        return copy(cached);
+    }
+
+    /**
+     * 写入本地缓存与二级缓存
+     */
+    private void store(String key, String model, ChatResponse response) {
+        if (!ChatUtils.isResponseSuccessful(response)) {
+            return;
+        }
+        long ttl = resolveTtl(model);
+        localStore.put(key, copy(response), ttl);
+        if (remoteStore != null) {
+            try {
+                remoteStore.put(key, response, ttl);
+            } catch (Exception e) {
+                log.warn("Failed to write chat response cache, key: {}", key, e);
+            }
+        }
+    }
+
+    /**
+     * 获取模型对应的过期时间
+     */
+    private long resolveTtl(String model) {
+        Long ttl = model == null ? null : cacheConfig.getModelTtl().get(model);
+        return ttl != null ? ttl : cacheConfig.getDefaultTtl();
+    }
+
+    /**
+     * 将完整响应拆分为流式分片
+     */
+    private static List<ChatResponse> toStreamChunks(ChatResponse cached) {
+        List<ChatResponse> chunks = new ArrayList<>(cached.getChoices().size());
+        for (ChatResponse.Choice choice : cached.getChoices()) {
+            ChatResponse chunk = new ChatResponse();
+            chunk.setId(cached.getId());
+            chunk.setObject("chat.completion.chunk");
+            chunk.setCreated(cached.getCreated());
+            chunk.setModel(cached.getModel());
+
+            ChatResponse.Choice chunkChoice = new ChatResponse.Choice();
+            chunkChoice.setIndex(choice.getIndex());
+            chunkChoice.setDelta(choice.getMessage());
+            chunkChoice.setFinishReason(choice.getFinishReason());
+            List<ChatResponse.Choice> chunkChoices = new ArrayList<>(1);
+            chunkChoices.add(chunkChoice);
+            chunk.setChoices(chunkChoices);
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * 深拷贝响应
+     */
+    private static ChatResponse copy(ChatResponse response) {
+        ChatResponse copy = new ChatResponse();
+        copy.setId(response.getId());
+        copy.setObject(response.getObject());
+        copy.setCreated(response.getCreated());
+        copy.setModel(response.getModel());
+        copy.setSystemFingerprint(response.getSystemFingerprint());
+        if (response.getChoices() != null) {
+            List<ChatResponse.Choice> choices = new ArrayList<>(response.getChoices().size());
+            for (ChatResponse.Choice choice : response.getChoices()) {
+                ChatResponse.Choice choiceCopy = new ChatResponse.Choice();
+                choiceCopy.setIndex(choice.getIndex());
+                choiceCopy.setMessage(copy(choice.getMessage()));
+                choiceCopy.setDelta(copy(choice.getDelta()));
+                choiceCopy.setFinishReason(choice.getFinishReason());
+                choices.add(choiceCopy);
+            }
+            copy.setChoices(choices);
+        }
+        if (response.getUsage() != null) {
+            ChatResponse.Usage usage = new ChatResponse.Usage();
+            usage.setPromptTokens(response.getUsage().getPromptTokens());
+            usage.setCompletionTokens(response.getUsage().getCompletionTokens());
+            usage.setTotalTokens(response.getUsage().getTotalTokens());
+            copy.setUsage(usage);
+        }
+        return copy;
+    }
+
+    private static ChatResponse.Message copy(ChatResponse.Message message) {
+        if (message == null) {
+            return null;
+        }
+        ChatResponse.Message copy = new ChatResponse.Message();
+        copy.setRole(message.getRole());
+        copy.setContent(message.getContent());
+        return copy;
+    }
+
+    /**
+     * 获取被装饰的聊天服务
+     *
+     * @return 被装饰的聊天服务
+     */
+    public ChatService getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 销毁被装饰的聊天服务，例如释放路由服务的对冲线程池
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean) {
+            ((DisposableBean) delegate).destroy();
+        }
+    }
+
+    /**
+     * 获取本地缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getLocalHits() {
+        return localHits.get();
+    }
+
+    /**
+     * 获取二级缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getRemoteHits() {
+        return remoteHits.get();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 获取不满足缓存条件而直接转发的次数
+     *
+     * @return 直接转发次数
+     */
+    public long getBypasses() {
+        return bypasses.get();
+    }
+
+    /**
+     * 记录流式分片并在正常结束后写入缓存的订阅者
+     */
+    private final class RecordingSubscriber implements Subscriber<ChatResponse> {
+
+        private final Subscriber<? super ChatResponse> actual;
+
+        private final String key;
+
+        private final String model;
+
+        private final Map<Integer, ChatResponse.Choice> choices = new TreeMap<>();
+
+        private final Map<Integer, StringBuilder> contents = new TreeMap<>();
+
+        private ChatResponse first;
+
+        RecordingSubscriber(Subscriber<? super ChatResponse> actual, String key, String model) {
+            this.actual = actual;
+            this.key = key;
+            this.model = model;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            actual.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(ChatResponse chunk) {
+            record(chunk);
+            actual.onNext(chunk);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                ChatResponse response = assemble();
+                if (response != null) {
+                    store(key, model, response);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to cache stream chat response, key: {}", key, e);
+            }
+            actual.onComplete();
+        }
+
+        private void record(ChatResponse chunk) {
+            if (first == null) {
+                first = chunk;
+            }
+            if (chunk.getChoices() == null) {
+                return;
+            }
+            for (ChatResponse.Choice delta : chunk.getChoices()) {
+                int index = delta.getIndex() == null ? 0 : delta.getIndex();
+                ChatResponse.Choice choice = choices.computeIfAbsent(index, i -> {
+                    ChatResponse.Choice c = new ChatResponse.Choice();
+                    c.setIndex(i);
+                    c.setMessage(new ChatResponse.Message());
+                    c.getMessage().setRole(ChatConstants.ROLE_ASSISTANT);
+                    return c;
+                });
+                if (delta.getDelta() != null) {
+                    if (delta.getDelta().getRole() != null) {
+                        choice.getMessage().setRole(delta.getDelta().getRole());
+                    }
+                    if (delta.getDelta().getContent() != null) {
+                        contents.computeIfAbsent(index, i -> new StringBuilder()).append(delta.getDelta().getContent());
+                    }
+                }
+                if (delta.getFinishReason() != null) {
+                    choice.setFinishReason(delta.getFinishReason());
+                }
+            }
+        }
+
+        /**
+         * 拼装完整响应，存在未正常结束的选项时不缓存
+         */
+        private ChatResponse assemble() {
+            if (first == null || choices.isEmpty()) {
+                return null;
+            }
+            List<ChatResponse.Choice> assembled = new ArrayList<>(choices.size());
+            for (Map.Entry<Integer, ChatResponse.Choice> entry : choices.entrySet()) {
+                ChatResponse.Choice choice = entry.getValue();
+                if (choice.getFinishReason() == null) {
+                    return null;
+                }
+                StringBuilder content = contents.get(entry.getKey());
+                choice.getMessage().setContent(content == null ? "" : content.toString());
+                assembled.add(choice);
+            }
+            ChatResponse response = new ChatResponse();
+            response.setId(first.getId());
+            response.setObject("chat.completion");
+            response.setCreated(first.getCreated());
+            response.setModel(first.getModel());
+            response.setChoices(assembled);
+            return response;
+        }
+    }
+}
\ No newline at end of file
@@ -1,16 +1,22 @@
 package org.aimindflow.common.chat.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
-import okio.BufferedSource;
+import org.aimindflow.common.chat.config.ChatConfig;
+import org.aimindflow.common.chat.constant.ChatErrorCode;
+import org.aimindflow.common.chat.exception.ChatException;
+import org.aimindflow.common.chat.exception.ChatRateLimitException;
+import org.aimindflow.common.chat.factory.ChatHttpClientFactory;
 import org.aimindflow.common.chat.openai.OpenAiAuthInterceptor;
 import org.aimindflow.common.chat.request.ChatRequest;
 import org.aimindflow.common.chat.response.ChatResponse;
+import org.aimindflow.common.chat.service.ChatCancellation;
 import org.aimindflow.common.chat.service.ChatService;
-
-import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import org.aimindflow.common.chat.stream.CallbackSubscriber;
+import org.aimindflow.common.chat.stream.ChatStreamPublisher;
+import org.reactivestreams.Publisher;
 
 /**
  * OpenAI聊天服务实现
@@ -25,6 +31,16 @@ public class OpenAiChatServiceImpl implements ChatService {
      */
     private static final String API_URL = "https://api.openai.com/v1/chat/completions";
 
+    /**
+     * 请求过于频繁的HTTP状态码
+     */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * JSON媒体类型
+     */
+    private static final MediaType JSON = MediaType.parse("application/json");
+
     /**
      * HTTP客户端
      */
@@ -36,17 +52,47 @@ public class OpenAiChatServiceImpl implements ChatService {
     private final ObjectMapper objectMapper;
 
     /**
-     * 构造函数
+     * 聊天补全接口地址
+     */
+    private final String apiUrl;
+
+    /**
+     * 构造函数，使用默认传输配置的共享客户端
      *
      * @param authInterceptor 认证拦截器
      */
     public OpenAiChatServiceImpl(OpenAiAuthInterceptor authInterceptor) {
-        this.client = new OkHttpClient.Builder()
-                .addInterceptor(authInterceptor)
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .build();
+        this(new ChatConfig(), authInterceptor);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config          聊天配置
+     * @param authInterceptor 认证拦截器
+     */
+    public OpenAiChatServiceImpl(ChatConfig config, OpenAiAuthInterceptor authInterceptor) {
+        this(ChatHttpClientFactory.createClient(config, authInterceptor));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param client 已配置认证的HTTP客户端
+     */
+    public OpenAiChatServiceImpl(OkHttpClient client) {
+        this(client, API_URL);
+    }
+
+    /**
+     * 构造函数，用于OpenAI兼容的网关或镜像端点
+     *
+     * @param client 已配置认证的HTTP客户端
+     * @param apiUrl 聊天补全接口地址
+     */
+    public OpenAiChatServiceImpl(OkHttpClient client, String apiUrl) {
+        this.client = client;
+        this.apiUrl = apiUrl;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -58,31 +104,54 @@ public class OpenAiChatServiceImpl implements ChatService {
      */
     @Override
     public ChatResponse sendChatRequest(ChatRequest chatRequest) {
+        return sendChatRequest(chatRequest, null);
+    }
+
+    /**
+     * 发送可取消的聊天请求，取消时中止HTTP调用
+     *
+     * @param chatRequest  聊天请求对象
+     * @param cancellation 取消令牌，可为null
+     * @return 聊天响应对象
+     */
+    @Override
+    public ChatResponse sendChatRequest(ChatRequest chatRequest, ChatCancellation cancellation) {
         try {
             // 设置非流式响应
             chatRequest.setStream(false);
             
-            // 构建请求体
-            String requestBody = objectMapper.writeValueAsString(chatRequest);
-            RequestBody body = RequestBody.create(requestBody, MediaType.parse("application/json"));
-            
             // 构建请求
-            Request request = new Request.Builder()
-                    .url(API_URL)
-                    .post(body)
-                    .build();
+            Request request = buildRequest(chatRequest);
             
-            // 发送请求
-            try (Response response = client.newCall(request).execute()) {
+            // 发送请求，登记取消动作以便中止阻塞中的读取
+            Call call = client.newCall(request);
+            if (cancellation != null) {
+                cancellation.onCancel(call::cancel);
+            }
+            try (Response response = call.execute()) {
+                if (response.code() == HTTP_TOO_MANY_REQUESTS) {
+                    throw new ChatRateLimitException("Unexpected code " + response,
+                            ChatRateLimitException.parseRetryAfter(response.header("Retry-After")));
+                }
                 if (!response.isSuccessful()) {
-                    throw new IOException("Unexpected code " + response);
+                    throw ChatException.fromHttpStatus(response.code(), "Unexpected code " + response);
                 }
                 
                 // 解析响应
                 String responseBody = response.body().string();
                 return objectMapper.readValue(responseBody, ChatResponse.class);
             }
+        } catch (ChatRateLimitException e) {
+            log.warn("Chat request rate limited, retry after {} ms", e.getRetryAfterMillis());
+            throw e;
+        } catch (ChatException e) {
+            log.error("Chat request failed: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
+            if (cancellation != null && cancellation.isCancelled()) {
+                log.debug("Chat request cancelled");
+                throw new ChatException(ChatErrorCode.SYSTEM_ERROR, "Chat request cancelled", e);
+            }
             log.error("Failed to send chat request", e);
             throw new RuntimeException("Failed to send chat request", e);
         }
@@ -96,74 +165,50 @@ public class OpenAiChatServiceImpl implements ChatService {
      */
     @Override
     public void sendStreamChatRequest(ChatRequest chatRequest, StreamChatCallback callback) {
+        Publisher<ChatResponse> publisher;
         try {
-            // 设置流式响应
-            chatRequest.setStream(true);
-            
-            // 构建请求体
-            String requestBody = objectMapper.writeValueAsString(chatRequest);
-            RequestBody body = RequestBody.create(requestBody, MediaType.parse("application/json"));
-            
-            // 构建请求
-            Request request = new Request.Builder()
-                    .url(API_URL)
-                    .post(body)
-                    .build();
-            
-            // 发送异步请求
-            client.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    callback.onError(e);
-                }
-
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    if (!response.isSuccessful()) {
-                        callback.onError(new IOException("Unexpected code " + response));
-                        return;
-                    }
-                    
-                    try (ResponseBody responseBody = response.body()) {
-                        if (responseBody == null) {
-                            callback.onError(new IOException("Response body is null"));
-                            return;
-                        }
-                        
-                        // 处理SSE流
-                        try (BufferedSource source = responseBody.source()) {
-                            while (!source.exhausted()) {
-                                String line = source.readUtf8Line();
-                                if (line == null) {
-                                    break;
-                                }
-                                
-                                if (line.startsWith("data: ")) {
-                                    String data = line.substring(6);
-                                    if ("[DONE]".equals(data)) {
-                                        callback.onComplete();
-                                        break;
-                                    }
-                                    
-                                    try {
-                                        ChatResponse chatResponse = objectMapper.readValue(data, ChatResponse.class);
-                                        callback.onResponse(chatResponse);
-                                    } catch (Exception e) {
-                                        log.error("Failed to parse SSE data: {}", data, e);
-                                    }
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        callback.onError(e);
-                    } finally {
-                        callback.onComplete();
-                    }
-                }
-            });
+            publisher = streamChatRequest(chatRequest);
         } catch (Exception e) {
             log.error("Failed to send stream chat request", e);
             callback.onError(e);
+            return;
+        }
+        // 以无界需求订阅，onComplete与onError只回调一次
+        publisher.subscribe(new CallbackSubscriber(callback));
+    }
+
+    /**
+     * 发送流式聊天请求，以支持背压的发布者形式返回响应分片
+     *
+     * @param chatRequest 聊天请求对象
+     * @return 聊天响应分片发布者
+     */
+    @Override
+    public Publisher<ChatResponse> streamChatRequest(ChatRequest chatRequest) {
+        // 设置流式响应
+        chatRequest.setStream(true);
+        try {
+            return new ChatStreamPublisher(client, buildRequest(chatRequest));
+        } catch (JsonProcessingException e) {
+            throw new ChatException(ChatErrorCode.PARAM_ERROR, "Failed to serialize chat request", e);
         }
     }
+
+    /**
+     * 构建HTTP请求
+     *
+     * @param chatRequest 聊天请求对象
+     * @return HTTP请求
+     * @throws JsonProcessingException 序列化异常
+     */
+    private Request buildRequest(ChatRequest chatRequest) throws JsonProcessingException {
+        // 构建请求体
+        byte[] requestBody = objectMapper.writeValueAsBytes(chatRequest);
+        RequestBody body = RequestBody.create(requestBody, JSON);
+
+        return new Request.Builder()
+                .url(apiUrl)
+                .post(body)
+                .build();
+    }
 }
\ No newline at end of file
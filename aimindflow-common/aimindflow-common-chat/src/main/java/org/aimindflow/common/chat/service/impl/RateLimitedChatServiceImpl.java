@@ -0,0 +1,346 @@
+package org.aimindflow.common.chat.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.chat.config.ChatConfig;
+import org.aimindflow.common.chat.exception.ChatRateLimitException;
+import org.aimindflow.common.chat.limit.AdaptiveConcurrencyLimiter;
+import org.aimindflow.common.chat.limit.TokenRateLimiter;
+import org.aimindflow.common.chat.request.ChatRequest;
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.aimindflow.common.chat.service.ChatCancellation;
+import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.chat.stream.CallbackSubscriber;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 带并发与token限流的聊天服务
+ *
+ * 请求先按模型扣减token额度，再获取自适应并发许可后转发给被装饰的服务。
+ * 服务端返回429或请求超时时收缩并发上限，并在Retry-After期间暂停放行；
+ * 无法在配置的时限内开始执行的请求会被直接拒绝，而不是无限排队。
+ * 流式请求在整个流期间占用并发许可，结束时按usage或已输出内容修正token额度。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class RateLimitedChatServiceImpl implements ChatService, DisposableBean {
+
+    /**
+     * 被装饰的聊天服务
+     */
+    private final ChatService delegate;
+
+    /**
+     * 并发限流器
+     */
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * token限流器
+     */
+    private final TokenRateLimiter tokenRateLimiter;
+
+    /**
+     * 请求时限（纳秒）
+     */
+    private final long deadlineNanos;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate    被装饰的聊天服务
+     * @param limitConfig 限流配置
+     */
+    public RateLimitedChatServiceImpl(ChatService delegate, ChatConfig.Limit limitConfig) {
+        this.delegate = delegate;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(limitConfig);
+        this.tokenRateLimiter = new TokenRateLimiter(limitConfig.getTokensPerMinute());
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(limitConfig.getDeadline());
+    }
+
+    @Override
+    public ChatResponse sendChatRequest(ChatRequest chatRequest) {
+        return sendChatRequest(chatRequest, null);
+    }
+
+    @Override
+    public ChatResponse sendChatRequest(ChatRequest chatRequest, ChatCancellation cancellation) {
+        String model = chatRequest.getModel();
+        long estimated = TokenRateLimiter.estimateTokens(chatRequest);
+        AdaptiveConcurrencyLimiter.Permit permit = acquire(model, estimated);
+
+        ChatResponse response;
+        try {
+            response = delegate.sendChatRequest(chatRequest, cancellation);
+        } catch (RuntimeException e) {
+            release(permit, e);
+            throw e;
+        }
+        permit.success();
+        if (response != null && response.getUsage() != null && response.getUsage().getTotalTokens() != null) {
+            tokenRateLimiter.adjust(model, response.getUsage().getTotalTokens() - estimated);
+        }
+        return response;
+    }
+
+    @Override
+    public void sendStreamChatRequest(ChatRequest chatRequest, StreamChatCallback callback) {
+        publish(chatRequest).subscribe(new CallbackSubscriber(callback));
+    }
+
+    @Override
+    public Publisher<ChatResponse> streamChatRequest(ChatRequest chatRequest) {
+        return publish(chatRequest);
+    }
+
+    /**
+     * 构建流式发布者，每次订阅时获取许可，流结束、出错或取消时释放
+     */
+    private Publisher<ChatResponse> publish(ChatRequest chatRequest) {
+        return subscriber -> {
+            String model = chatRequest.getModel();
+            long estimated = TokenRateLimiter.estimateTokens(chatRequest);
+            AdaptiveConcurrencyLimiter.Permit permit;
+            Publisher<ChatResponse> upstream;
+            try {
+                permit = acquire(model, estimated);
+            } catch (RuntimeException e) {
+                subscriber.onSubscribe(EmptySubscription.INSTANCE);
+                subscriber.onError(e);
+                return;
+            }
+            try {
+                upstream = delegate.streamChatRequest(chatRequest);
+            } catch (RuntimeException e) {
+                permit.ignore();
+                tokenRateLimiter.adjust(model, -estimated);
+                subscriber.onSubscribe(EmptySubscription.INSTANCE);
+                subscriber.onError(e);
+                return;
+            }
+            upstream.subscribe(new PermitSubscriber(subscriber, permit, tokenRateLimiter, model, estimated,
+                    TokenRateLimiter.estimatePromptTokens(chatRequest)));
+        };
+    }
+
+    /**
+     * 依次获取token额度与并发许可，未获得并发许可时退还token额度
+     */
+    private AdaptiveConcurrencyLimiter.Permit acquire(String model, long estimated) {
+        long deadline = System.nanoTime() + deadlineNanos;
+        tokenRateLimiter.acquire(model, estimated, deadline);
+        try {
+            return concurrencyLimiter.acquire(deadline);
+        } catch (RuntimeException e) {
+            tokenRateLimiter.adjust(model, -estimated);
+            throw e;
+        }
+    }
+
+    /**
+     * 按失败原因释放许可：限流与超时收缩并发上限，其他异常不影响上限
+     */
+    private static void release(AdaptiveConcurrencyLimiter.Permit permit, Throwable throwable) {
+        if (throwable instanceof ChatRateLimitException) {
+            permit.dropped(((ChatRateLimitException) throwable).getRetryAfterMillis());
+        } else if (isTimeout(throwable)) {
+            permit.dropped(0);
+        } else {
+            permit.ignore();
+        }
+    }
+
+    private static boolean isTimeout(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedIOException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取被装饰的聊天服务
+     *
+     * @return 被装饰的聊天服务
+     */
+    public ChatService getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 销毁被装饰的聊天服务，例如释放路由服务的对冲线程池
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean) {
+            ((DisposableBean) delegate).destroy();
+        }
+    }
+
+    /**
+     * 获取并发限流器
+     *
+     * @return 并发限流器
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * 获取token限流器
+     *
+     * @return token限流器
+     */
+    public TokenRateLimiter getTokenRateLimiter() {
+        return tokenRateLimiter;
+    }
+
+    /**
+     * 持有许可直到流结束的订阅者
+     *
+     * 以首个分片到达时间作为延迟样本；流结束、出错或取消时释放许可，并按实际用量修正token额度：
+     * 分片携带usage时以其为准，否则按请求消息估算值加已输出内容估算。
+     */
+    private static final class PermitSubscriber implements Subscriber<ChatResponse>, Subscription {
+
+        private final Subscriber<? super ChatResponse> actual;
+
+        private final AdaptiveConcurrencyLimiter.Permit permit;
+
+        private final TokenRateLimiter tokenRateLimiter;
+
+        private final String model;
+
+        /**
+         * 获取许可时扣减的token数
+         */
+        private final long estimated;
+
+        /**
+         * 请求消息的估算token数
+         */
+        private final long promptTokens;
+
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        /**
+         * 已输出的内容字符数，只在onNext中更新
+         */
+        private long contentLength;
+
+        /**
+         * 分片携带的实际用量
+         */
+        private volatile Integer usageTokens;
+
+        private Subscription upstream;
+
+        PermitSubscriber(Subscriber<? super ChatResponse> actual, AdaptiveConcurrencyLimiter.Permit permit,
+                         TokenRateLimiter tokenRateLimiter, String model, long estimated, long promptTokens) {
+            this.actual = actual;
+            this.permit = permit;
+            this.tokenRateLimiter = tokenRateLimiter;
+            this.model = model;
+            this.estimated = estimated;
+            this.promptTokens = promptTokens;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ChatResponse chunk) {
+            permit.firstResponse();
+            record(chunk);
+            actual.onNext(chunk);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (settle()) {
+                release(permit, throwable);
+            }
+            actual.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (settle()) {
+                permit.success();
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            if (settle()) {
+                permit.ignore();
+            }
+            upstream.cancel();
+        }
+
+        private void record(ChatResponse chunk) {
+            if (chunk.getUsage() != null && chunk.getUsage().getTotalTokens() != null) {
+                usageTokens = chunk.getUsage().getTotalTokens();
+            }
+            if (chunk.getChoices() == null) {
+                return;
+            }
+            for (ChatResponse.Choice choice : chunk.getChoices()) {
+                if (choice.getDelta() != null && choice.getDelta().getContent() != null) {
+                    contentLength += choice.getDelta().getContent().length();
+                }
+            }
+        }
+
+        /**
+         * 流结束时修正token额度，只执行一次
+         *
+         * @return 是否首次结束
+         */
+        private boolean settle() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            Integer usage = usageTokens;
+            long actualTokens = usage != null ? usage : promptTokens + TokenRateLimiter.estimateTextTokens(contentLength);
+            tokenRateLimiter.adjust(model, actualTokens - estimated);
+            return true;
+        }
+    }
+
+    /**
+     * 获取许可失败时交给下游的空订阅
+     */
+    private enum EmptySubscription implements Subscription {
+
+        INSTANCE;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,564 @@
+package org.aimindflow.common.chat.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.chat.config.ChatConfig;
+import org.aimindflow.common.chat.constant.ChatErrorCode;
+import org.aimindflow.common.chat.exception.ChatException;
+import org.aimindflow.common.chat.request.ChatRequest;
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.aimindflow.common.chat.route.ChatEndpoint;
+import org.aimindflow.common.chat.service.ChatCancellation;
+import org.aimindflow.common.chat.service.ChatService;
+import org.aimindflow.common.chat.stream.CallbackSubscriber;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多端点路由聊天服务
+ *
+ * 在多个OpenAI兼容端点之间分配请求：从熔断器可放行的端点中随机取两个，熔断器关闭的端点优先，
+ * 同为关闭或同为半开时选择平均延迟、执行中请求数与错误率综合得分较低的一个。请求失败时转移到其他端点；启用对冲时，
+ * 非流式请求在等待超过对冲时间后向另一个端点发起相同请求，采用先成功返回的结果并中止其余请求的HTTP调用。
+ * 流式请求只在收到首个分片之前进行故障转移。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class RoutingChatServiceImpl implements ChatService, DisposableBean {
+
+    /**
+     * 对冲线程编号
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * 自动计算对冲时间时相对平均延迟的倍数
+     */
+    private static final int HEDGE_LATENCY_MULTIPLIER = 2;
+
+    /**
+     * 路由端点
+     */
+    private final List<ChatEndpoint> endpoints;
+
+    /**
+     * 路由配置
+     */
+    private final ChatConfig.Routing config;
+
+    /**
+     * 执行对冲请求的线程池，线程数有上限，空闲线程60秒后回收
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 构造函数
+     *
+     * @param endpoints 路由端点
+     * @param config    路由配置
+     */
+    public RoutingChatServiceImpl(List<ChatEndpoint> endpoints, ChatConfig.Routing config) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            throw new ChatException(ChatErrorCode.PARAM_ERROR, "At least one chat endpoint is required");
+        }
+        this.endpoints = Collections.unmodifiableList(new ArrayList<>(endpoints));
+        this.config = config;
+        this.executor = new ThreadPoolExecutor(0, Math.max(1, config.getHedgeMaxThreads()), 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "chat-hedge-" + THREAD_NUMBER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public ChatResponse sendChatRequest(ChatRequest chatRequest) {
+        if (Boolean.TRUE.equals(config.getHedgeEnabled()) && endpoints.size() > 1 && config.getMaxAttempts() > 1) {
+            return new HedgedCall(chatRequest).execute();
+        }
+        Set<ChatEndpoint> tried = new HashSet<>();
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= config.getMaxAttempts(); attempt++) {
+            ChatEndpoint endpoint = select(tried);
+            if (endpoint == null) {
+                break;
+            }
+            tried.add(endpoint);
+            try {
+                return call(endpoint, chatRequest, null, null);
+            } catch (RuntimeException e) {
+                if (isClientError(e)) {
+                    throw e;
+                }
+                log.warn("Chat endpoint {} failed on attempt {}", endpoint.getName(), attempt, e);
+                lastError = e;
+            }
+        }
+        throw lastError != null ? lastError : unavailable();
+    }
+
+    @Override
+    public void sendStreamChatRequest(ChatRequest chatRequest, StreamChatCallback callback) {
+        streamChatRequest(chatRequest).subscribe(new CallbackSubscriber(callback));
+    }
+
+    @Override
+    public Publisher<ChatResponse> streamChatRequest(ChatRequest chatRequest) {
+        return subscriber -> {
+            RoutingSubscription subscription = new RoutingSubscription(subscriber, chatRequest);
+            subscriber.onSubscribe(subscription);
+            subscription.connect(null);
+        };
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 获取路由端点
+     *
+     * @return 路由端点
+     */
+    public List<ChatEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 选择端点并占用熔断器许可，没有可用端点时返回null
+     *
+     * @param excluded 本次请求已尝试过的端点
+     * @return 选中的端点
+     */
+    private ChatEndpoint select(Set<ChatEndpoint> excluded) {
+        List<ChatEndpoint> candidates = new ArrayList<>(endpoints.size());
+        for (ChatEndpoint endpoint : endpoints) {
+            if (!excluded.contains(endpoint) && endpoint.getCircuitBreaker().isAvailable()) {
+                candidates.add(endpoint);
+            }
+        }
+        while (!candidates.isEmpty()) {
+            ChatEndpoint chosen;
+            if (candidates.size() == 1) {
+                chosen = candidates.get(0);
+            } else {
+                // 随机两选一，避免所有调用方同时涌向同一个得分最低的端点
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int first = random.nextInt(candidates.size());
+                int second = random.nextInt(candidates.size() - 1);
+                if (second >= first) {
+                    second++;
+                }
+                ChatEndpoint a = candidates.get(first);
+                ChatEndpoint b = candidates.get(second);
+                chosen = prefer(a, b) ? a : b;
+            }
+            if (chosen.getCircuitBreaker().tryAcquire()) {
+                chosen.onStart();
+                return chosen;
+            }
+            candidates.remove(chosen);
+        }
+        return null;
+    }
+
+    /**
+     * 在指定端点上执行非流式请求并记录结果
+     *
+     * @param endpoint     端点
+     * @param request      聊天请求对象
+     * @param decided      对冲请求是否已有结果，为null表示非对冲请求
+     * @param cancellation 取消令牌，可为null
+     * @return 聊天响应对象
+     */
+    private ChatResponse call(ChatEndpoint endpoint, ChatRequest request, AtomicBoolean decided,
+                              ChatCancellation cancellation) {
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = endpoint.getChatService().sendChatRequest(request, cancellation);
+            endpoint.onSuccess(System.nanoTime() - start);
+            return response;
+        } catch (RuntimeException e) {
+            if (decided != null && decided.get()) {
+                endpoint.onAbandoned(System.nanoTime() - start);
+            } else if (isClientError(e)) {
+                endpoint.onIgnore();
+            } else {
+                endpoint.onFailure();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 计算对冲等待时间，自动计算且端点尚无延迟样本时不对冲
+     *
+     * @param endpoint 首个请求的端点
+     * @return 对冲等待时间（纳秒），-1表示不对冲
+     */
+    private long hedgeDelayNanos(ChatEndpoint endpoint) {
+        if (config.getHedgeDelay() > 0) {
+            return TimeUnit.MILLISECONDS.toNanos(config.getHedgeDelay());
+        }
+        double latency = endpoint.getLatency(TimeUnit.NANOSECONDS);
+        if (latency == 0) {
+            return -1;
+        }
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(config.getMinHedgeDelay()),
+                (long) latency * HEDGE_LATENCY_MULTIPLIER);
+    }
+
+    /**
+     * 比较两个端点，熔断器关闭的端点优先于打开或半开的端点，其次比较负载得分
+     *
+     * @return a是否优先
+     */
+    private static boolean prefer(ChatEndpoint a, ChatEndpoint b) {
+        boolean healthy = a.isHealthy();
+        if (healthy != b.isHealthy()) {
+            return healthy;
+        }
+        return a.score() <= b.score();
+    }
+
+    private static boolean isClientError(Throwable throwable) {
+        return throwable instanceof ChatException
+                && ChatErrorCode.PARAM_ERROR.equals(((ChatException) throwable).getErrorCode());
+    }
+
+    private static ChatException unavailable() {
+        return new ChatException(ChatErrorCode.SERVICE_UNAVAILABLE, "No available chat endpoint");
+    }
+
+    /**
+     * 对冲的非流式请求
+     */
+    private final class HedgedCall {
+
+        private final ChatRequest request;
+
+        private final CompletionService<ChatResponse> completionService = new ExecutorCompletionService<>(executor);
+
+        private final List<HedgeTask> tasks = new ArrayList<>();
+
+        private final Set<ChatEndpoint> tried = new HashSet<>();
+
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        HedgedCall(ChatRequest request) {
+            this.request = request;
+        }
+
+        ChatResponse execute() {
+            ChatEndpoint primary = select(tried);
+            if (primary == null) {
+                throw unavailable();
+            }
+            if (!launch(primary)) {
+                // 对冲线程耗尽，在当前线程执行且不对冲
+                return call(primary, request, null, null);
+            }
+            int running = 1;
+            long hedgeDelay = hedgeDelayNanos(primary);
+            long hedgeAt = System.nanoTime() + hedgeDelay;
+            boolean hedgePending = hedgeDelay >= 0;
+            RuntimeException lastError = null;
+            try {
+                while (running > 0) {
+                    Future<ChatResponse> done;
+                    if (hedgePending && tasks.size() < config.getMaxAttempts()) {
+                        done = completionService.poll(hedgeAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (done == null) {
+                            hedgePending = false;
+                            if (launchNext()) {
+                                running++;
+                            }
+                            continue;
+                        }
+                    } else {
+                        done = completionService.take();
+                    }
+                    running--;
+                    try {
+                        return done.get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        RuntimeException error = cause instanceof RuntimeException
+                                ? (RuntimeException) cause : new ChatException(ChatErrorCode.SYSTEM_ERROR, cause.getMessage(), cause);
+                        if (isClientError(error)) {
+                            throw error;
+                        }
+                        lastError = error;
+                        if (tasks.size() < config.getMaxAttempts() && launchNext()) {
+                            running++;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChatException(ChatErrorCode.SYSTEM_ERROR, "Interrupted while waiting for chat response", e);
+            } finally {
+                decided.set(true);
+                for (HedgeTask task : tasks) {
+                    task.cancel();
+                }
+            }
+            throw lastError != null ? lastError : unavailable();
+        }
+
+        private boolean launchNext() {
+            ChatEndpoint endpoint = select(tried);
+            if (endpoint == null) {
+                return false;
+            }
+            log.debug("Launching chat request on endpoint {}", endpoint.getName());
+            if (!launch(endpoint)) {
+                endpoint.onIgnore();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * 提交端点请求，线程池已满时返回false
+         */
+        private boolean launch(ChatEndpoint endpoint) {
+            tried.add(endpoint);
+            HedgeTask task = new HedgeTask(endpoint);
+            try {
+                task.future = completionService.submit(task::run);
+            } catch (RejectedExecutionException e) {
+                log.debug("Chat hedge executor exhausted, skip endpoint {}", endpoint.getName());
+                return false;
+            }
+            tasks.add(task);
+            return true;
+        }
+
+        /**
+         * 单个端点上的请求，开始执行与取消之间只有一方负责请求结束的记录，
+         * 尚未开始即被取消时由取消方释放执行中计数与熔断器探测许可。
+         * 中断线程无法打断阻塞的套接字读取，取消时通过取消令牌中止HTTP调用
+         */
+        private final class HedgeTask {
+
+            private final ChatEndpoint endpoint;
+
+            private final AtomicBoolean claimed = new AtomicBoolean();
+
+            private final ChatCancellation cancellation = new ChatCancellation();
+
+            private Future<ChatResponse> future;
+
+            HedgeTask(ChatEndpoint endpoint) {
+                this.endpoint = endpoint;
+            }
+
+            ChatResponse run() {
+                if (!claimed.compareAndSet(false, true)) {
+                    throw unavailable();
+                }
+                return call(endpoint, request, decided, cancellation);
+            }
+
+            void cancel() {
+                if (future.isDone()) {
+                    return;
+                }
+                cancellation.cancel();
+                future.cancel(true);
+                if (claimed.compareAndSet(false, true)) {
+                    endpoint.onIgnore();
+                }
+            }
+        }
+    }
+
+    /**
+     * 流式请求的订阅，在收到首个分片之前可切换到其他端点
+     */
+    private final class RoutingSubscription implements Subscription {
+
+        private final Subscriber<? super ChatResponse> downstream;
+
+        private final ChatRequest request;
+
+        private final Set<ChatEndpoint> tried = new HashSet<>();
+
+        /**
+         * 下游累计请求数，仅用于切换端点时补发需求
+         */
+        private long requested;
+
+        private boolean cancelled;
+
+        private Attempt current;
+
+        RoutingSubscription(Subscriber<? super ChatResponse> downstream, ChatRequest request) {
+            this.downstream = downstream;
+            this.request = request;
+        }
+
+        /**
+         * 连接到新的端点
+         *
+         * @param lastError 上一个端点的错误，首次连接时为null
+         */
+        void connect(Throwable lastError) {
+            ChatEndpoint endpoint;
+            Attempt attempt = null;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                endpoint = tried.size() < config.getMaxAttempts() ? select(tried) : null;
+                if (endpoint != null) {
+                    tried.add(endpoint);
+                    attempt = new Attempt(endpoint);
+                    current = attempt;
+                }
+            }
+            if (endpoint == null) {
+                downstream.onError(lastError != null ? lastError : unavailable());
+                return;
+            }
+            Publisher<ChatResponse> upstream;
+            try {
+                upstream = endpoint.getChatService().streamChatRequest(request);
+            } catch (RuntimeException e) {
+                endpoint.onIgnore();
+                downstream.onError(e);
+                return;
+            }
+            upstream.subscribe(attempt);
+        }
+
+        @Override
+        public void request(long n) {
+            Subscription upstream;
+            synchronized (this) {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+                upstream = current == null ? null : current.upstream;
+            }
+            if (upstream != null) {
+                upstream.request(n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Attempt attempt;
+            synchronized (this) {
+                cancelled = true;
+                attempt = current;
+            }
+            if (attempt != null) {
+                attempt.settleIgnore();
+                if (attempt.upstream != null) {
+                    attempt.upstream.cancel();
+                }
+            }
+        }
+
+        /**
+         * 单个端点上的一次尝试
+         */
+        private final class Attempt implements Subscriber<ChatResponse> {
+
+            private final ChatEndpoint endpoint;
+
+            private final long start = System.nanoTime();
+
+            private final AtomicBoolean settled = new AtomicBoolean();
+
+            private volatile Subscription upstream;
+
+            private boolean emitted;
+
+            Attempt(ChatEndpoint endpoint) {
+                this.endpoint = endpoint;
+            }
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                long demand;
+                synchronized (RoutingSubscription.this) {
+                    if (cancelled) {
+                        s.cancel();
+                        return;
+                    }
+                    upstream = s;
+                    demand = requested;
+                }
+                if (demand > 0) {
+                    s.request(demand);
+                }
+            }
+
+            @Override
+            public void onNext(ChatResponse chunk) {
+                if (!emitted) {
+                    emitted = true;
+                    // 以首个分片的到达时间作为端点延迟样本
+                    if (settled.compareAndSet(false, true)) {
+                        endpoint.onSuccess(System.nanoTime() - start);
+                    }
+                }
+                downstream.onNext(chunk);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (emitted) {
+                    downstream.onError(throwable);
+                    return;
+                }
+                if (isClientError(throwable)) {
+                    settleIgnore();
+                    downstream.onError(throwable);
+                    return;
+                }
+                if (settled.compareAndSet(false, true)) {
+                    endpoint.onFailure();
+                }
+                log.warn("Chat endpoint {} failed before first chunk", endpoint.getName(), throwable);
+                connect(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                if (settled.compareAndSet(false, true)) {
+                    endpoint.onSuccess(System.nanoTime() - start);
+                }
+                downstream.onComplete();
+            }
+
+            void settleIgnore() {
+                if (settled.compareAndSet(false, true)) {
+                    endpoint.onIgnore();
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package org.aimindflow.common.chat.stream;
+
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.aimindflow.common.chat.service.ChatService;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * 回调订阅者
+ *
+ * 将流式回调接口适配为无界需求的订阅者，回调抛出的异常会取消订阅并转为onError。
+ *
+ * @author HezaoHezao
+ */
+public class CallbackSubscriber implements Subscriber<ChatResponse> {
+
+    /**
+     * 流式聊天回调
+     */
+    private final ChatService.StreamChatCallback callback;
+
+    /**
+     * 当前订阅
+     */
+    private Subscription subscription;
+
+    /**
+     * 是否已结束
+     */
+    private boolean done;
+
+    /**
+     * 构造函数
+     *
+     * @param callback 流式聊天回调
+     */
+    public CallbackSubscriber(ChatService.StreamChatCallback callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.subscription = s;
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(ChatResponse response) {
+        if (done) {
+            return;
+        }
+        try {
+            callback.onResponse(response);
+        } catch (Throwable e) {
+            done = true;
+            subscription.cancel();
+            callback.onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (!done) {
+            done = true;
+            callback.onError(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (!done) {
+            done = true;
+            callback.onComplete();
+        }
+    }
+}
\ No newline at end of file
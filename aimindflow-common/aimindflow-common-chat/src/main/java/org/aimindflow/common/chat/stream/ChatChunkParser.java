@@ -0,0 +1,157 @@
+package org.aimindflow.common.chat.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import okio.Buffer;
+import org.aimindflow.common.chat.response.ChatResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式聊天分片解析器
+ *
+ * 使用Jackson流式解析器只提取分片中的 id、model、created 以及
+ * choices[].index、choices[].delta、choices[].finish_reason，其余字段直接跳过。
+ *
+ * @author HezaoHezao
+ */
+public class ChatChunkParser {
+
+    /**
+     * JSON工厂，线程安全，全局共享
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private ChatChunkParser() {
+    }
+
+    /**
+     * 解析流式分片
+     *
+     * @param eventData 事件data内容，解析后被消费
+     * @return 聊天响应对象
+     * @throws IOException 解析异常
+     */
+    public static ChatResponse parse(Buffer eventData) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(eventData.inputStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Stream chunk is not a JSON object");
+            }
+            ChatResponse response = new ChatResponse();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "id":
+                        response.setId(parser.getValueAsString());
+                        break;
+                    case "object":
+                        response.setObject(parser.getValueAsString());
+                        break;
+                    case "model":
+                        response.setModel(parser.getValueAsString());
+                        break;
+                    case "created":
+                        response.setCreated(token == JsonToken.VALUE_NULL ? null : parser.getValueAsLong());
+                        break;
+                    case "choices":
+                        response.setChoices(parseChoices(parser, token));
+                        break;
+                    case "usage":
+                        response.setUsage(parseUsage(parser, token));
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            return response;
+        }
+    }
+
+    /**
+     * 解析choices数组
+     */
+    private static List<ChatResponse.Choice> parseChoices(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<ChatResponse.Choice> choices = new ArrayList<>(1);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ChatResponse.Choice choice = new ChatResponse.Choice();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                switch (field) {
+                    case "index":
+                        choice.setIndex(valueToken == JsonToken.VALUE_NULL ? null : parser.getValueAsInt());
+                        break;
+                    case "delta":
+                        choice.setDelta(parseDelta(parser, valueToken));
+                        break;
+                    case "finish_reason":
+                        choice.setFinishReason(valueToken == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            choices.add(choice);
+        }
+        return choices;
+    }
+
+    /**
+     * 解析usage对象，开启stream_options.include_usage时最后一个分片携带
+     */
+    private static ChatResponse.Usage parseUsage(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        ChatResponse.Usage usage = new ChatResponse.Usage();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            Integer value = valueToken == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : null;
+            if ("prompt_tokens".equals(field)) {
+                usage.setPromptTokens(value);
+            } else if ("completion_tokens".equals(field)) {
+                usage.setCompletionTokens(value);
+            } else if ("total_tokens".equals(field)) {
+                usage.setTotalTokens(value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * 解析delta对象
+     */
+    private static ChatResponse.Message parseDelta(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        ChatResponse.Message delta = new ChatResponse.Message();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            if ("content".equals(field)) {
+                delta.setContent(valueToken == JsonToken.VALUE_NULL ? null : parser.getText());
+            } else if ("role".equals(field)) {
+                delta.setRole(valueToken == JsonToken.VALUE_NULL ? null : parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return delta;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package org.aimindflow.common.chat.stream;
+
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 流式分片回放发布者
+ *
+ * 按下游需求依次发出预先准备好的响应分片，用于回放缓存中的完整响应。
+ *
+ * @author HezaoHezao
+ */
+public class ChatReplayPublisher implements Publisher<ChatResponse> {
+
+    /**
+     * 响应分片
+     */
+    private final List<ChatResponse> chunks;
+
+    /**
+     * 构造函数
+     *
+     * @param chunks 响应分片
+     */
+    public ChatReplayPublisher(List<ChatResponse> chunks) {
+        this.chunks = chunks;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ChatResponse> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        subscriber.onSubscribe(new ReplaySubscription(subscriber));
+    }
+
+    /**
+     * 回放订阅
+     */
+    private final class ReplaySubscription implements Subscription {
+
+        private final Subscriber<? super ChatResponse> subscriber;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private int index;
+
+        private volatile boolean cancelled;
+
+        ReplaySubscription(Subscriber<? super ChatResponse> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("request amount must be positive, but was " + n));
+                return;
+            }
+            while (true) {
+                long current = requested.get();
+                long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                if (requested.compareAndSet(current, next)) {
+                    break;
+                }
+            }
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            while (true) {
+                long r = requested.get();
+                long emitted = 0;
+                while (emitted != r && index < chunks.size()) {
+                    if (cancelled) {
+                        return;
+                    }
+                    subscriber.onNext(chunks.get(index++));
+                    emitted++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (index == chunks.size()) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                requested.addAndGet(-emitted);
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,257 @@
+package org.aimindflow.common.chat.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.aimindflow.common.chat.exception.ChatException;
+import org.aimindflow.common.chat.exception.ChatRateLimitException;
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 流式聊天发布者
+ *
+ * 每次订阅发起一次新的HTTP调用，并且只在下游有需求时才从响应流中读取下一个事件，
+ * 需求耗尽时停止读取，由TCP流控向上游施加背压。取消订阅会中止底层调用，
+ * onComplete与onError保证只发出一次。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class ChatStreamPublisher implements Publisher<ChatResponse> {
+
+    /**
+     * HTTP客户端
+     */
+    private final OkHttpClient client;
+
+    /**
+     * HTTP请求
+     */
+    private final Request request;
+
+    /**
+     * 构造函数
+     *
+     * @param client  HTTP客户端
+     * @param request HTTP请求
+     */
+    public ChatStreamPublisher(OkHttpClient client, Request request) {
+        this.client = client;
+        this.request = request;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ChatResponse> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        StreamSubscription subscription = new StreamSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * 单个订阅
+     */
+    private final class StreamSubscription implements Subscription, Callback {
+
+        private final Subscriber<? super ChatResponse> subscriber;
+
+        /**
+         * 恢复读取时使用的执行器，避免在下游调用request的线程上阻塞IO
+         */
+        private final Executor executor;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private final AtomicBoolean terminated = new AtomicBoolean();
+
+        private volatile boolean cancelled;
+
+        private volatile Call call;
+
+        private volatile ResponseBody body;
+
+        private volatile SseEventReader reader;
+
+        StreamSubscription(Subscriber<? super ChatResponse> subscriber) {
+            this.subscriber = subscriber;
+            this.executor = client.dispatcher().executorService();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                signalError(new IllegalArgumentException("request amount must be positive, but was " + n));
+                cancel();
+                return;
+            }
+            addRequested(n);
+            if (started.compareAndSet(false, true)) {
+                Call newCall = client.newCall(request);
+                call = newCall;
+                if (cancelled) {
+                    newCall.cancel();
+                    return;
+                }
+                newCall.enqueue(this);
+            } else if (reader != null && wip.getAndIncrement() == 0) {
+                executor.execute(this::drainLoop);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            Call current = call;
+            if (current != null) {
+                current.cancel();
+            }
+            if (wip.getAndIncrement() == 0) {
+                closeBody();
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            signalError(e);
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            ResponseBody responseBody = response.body();
+            if (response.code() == 429) {
+                response.close();
+                signalError(new ChatRateLimitException("Unexpected code " + response,
+                        ChatRateLimitException.parseRetryAfter(response.header("Retry-After"))));
+                return;
+            }
+            if (!response.isSuccessful()) {
+                response.close();
+                signalError(ChatException.fromHttpStatus(response.code(), "Unexpected code " + response));
+                return;
+            }
+            if (responseBody == null) {
+                response.close();
+                signalError(new IOException("Response body is null"));
+                return;
+            }
+            body = responseBody;
+            if (cancelled) {
+                closeBody();
+                return;
+            }
+            reader = new SseEventReader(responseBody.source());
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        /**
+         * 按下游需求读取事件，同一时刻只有一个线程进入
+         */
+        private void drainLoop() {
+            int missed = 1;
+            while (true) {
+                if (cancelled) {
+                    closeBody();
+                    return;
+                }
+                long r = requested.get();
+                long emitted = 0;
+                while (emitted != r) {
+                    if (cancelled) {
+                        closeBody();
+                        return;
+                    }
+                    Buffer data;
+                    try {
+                        data = reader.nextEvent();
+                    } catch (IOException e) {
+                        closeBody();
+                        signalError(e);
+                        return;
+                    }
+                    if (data == null || SseEventReader.isDone(data)) {
+                        closeBody();
+                        signalComplete();
+                        return;
+                    }
+
+                    ChatResponse chunk;
+                    try {
+                        chunk = ChatChunkParser.parse(data);
+                    } catch (IOException e) {
+                        log.error("Failed to parse SSE data", e);
+                        continue;
+                    }
+                    subscriber.onNext(chunk);
+                    emitted++;
+                }
+                if (emitted != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void addRequested(long n) {
+            while (true) {
+                long current = requested.get();
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+                long next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+                if (requested.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private void closeBody() {
+            ResponseBody current = body;
+            if (current != null) {
+                body = null;
+                current.close();
+            }
+        }
+
+        private void signalComplete() {
+            if (terminated.compareAndSet(false, true)) {
+                subscriber.onComplete();
+            }
+        }
+
+        private void signalError(Throwable throwable) {
+            if (!cancelled && terminated.compareAndSet(false, true)) {
+                subscriber.onError(throwable);
+            }
+        }
+    }
+}
\ No newline at end of file
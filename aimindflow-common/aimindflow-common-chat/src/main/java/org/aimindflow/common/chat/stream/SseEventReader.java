@@ -0,0 +1,116 @@
+package org.aimindflow.common.chat.stream;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+
+import java.io.IOException;
+
+/**
+ * SSE事件读取器
+ *
+ * 直接在Okio缓冲区上按行扫描，data字段内容通过段移动写入复用的缓冲区，
+ * 不为每一行创建字符串。多行data字段按规范以换行符拼接，空行表示事件结束。
+ *
+ * @author HezaoHezao
+ */
+public class SseEventReader {
+
+    /**
+     * data字段名
+     */
+    private static final ByteString DATA_FIELD = ByteString.encodeUtf8("data:");
+
+    /**
+     * 流式响应结束标记
+     */
+    private static final ByteString DONE_MARKER = ByteString.encodeUtf8("[DONE]");
+
+    /**
+     * 数据源
+     */
+    private final BufferedSource source;
+
+    /**
+     * 当前事件的data内容，跨事件复用
+     */
+    private final Buffer data = new Buffer();
+
+    /**
+     * 构造函数
+     *
+     * @param source 数据源
+     */
+    public SseEventReader(BufferedSource source) {
+        this.source = source;
+    }
+
+    /**
+     * 读取下一个事件的data内容
+     *
+     * 返回的缓冲区在下一次调用时会被清空，调用方需在此之前消费完毕。
+     *
+     * @return data内容，流结束时返回null
+     * @throws IOException IO异常
+     */
+    public Buffer nextEvent() throws IOException {
+        data.clear();
+        boolean hasData = false;
+        while (true) {
+            long lineEnd = source.indexOf((byte) '\n');
+            long lineLength;
+            long terminatorLength;
+            if (lineEnd == -1) {
+                // 流已结束，剩余字节作为最后一行
+                lineLength = source.getBuffer().size();
+                if (lineLength == 0) {
+                    return hasData ? data : null;
+                }
+                terminatorLength = 0;
+            } else {
+                lineLength = lineEnd;
+                terminatorLength = 1;
+            }
+            if (lineLength > 0 && source.getBuffer().getByte(lineLength - 1) == '\r') {
+                lineLength--;
+                terminatorLength++;
+            }
+
+            if (lineLength == 0) {
+                source.skip(terminatorLength);
+                if (hasData) {
+                    return data;
+                }
+                continue;
+            }
+
+            if (lineLength >= DATA_FIELD.size() && source.rangeEquals(0, DATA_FIELD)) {
+                source.skip(DATA_FIELD.size());
+                lineLength -= DATA_FIELD.size();
+                if (lineLength > 0 && source.getBuffer().getByte(0) == ' ') {
+                    source.skip(1);
+                    lineLength--;
+                }
+                if (hasData) {
+                    data.writeByte('\n');
+                }
+                source.readFully(data, lineLength);
+                hasData = true;
+            } else {
+                // 注释行及event、id、retry等字段不参与解析
+                source.skip(lineLength);
+            }
+            source.skip(terminatorLength);
+        }
+    }
+
+    /**
+     * 判断事件内容是否为结束标记
+     *
+     * @param eventData 事件data内容
+     * @return 是否为结束标记
+     */
+    public static boolean isDone(Buffer eventData) {
+        return eventData.size() == DONE_MARKER.size() && eventData.rangeEquals(0, DONE_MARKER);
+    }
+}
\ No newline at end of file
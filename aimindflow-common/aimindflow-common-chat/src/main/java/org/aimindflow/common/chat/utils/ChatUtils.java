@@ -90,6 +90,25 @@ public class ChatUtils {
         return choice.getMessage().getContent();
     }
 
+    /**
+     * 从流式聊天分片中提取增量文本内容
+     *
+     * @param chatResponse 流式聊天分片
+     * @return 增量文本内容
+     */
+    public static String extractDeltaContent(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getChoices() == null || chatResponse.getChoices().isEmpty()) {
+            return "";
+        }
+
+        ChatResponse.Choice choice = chatResponse.getChoices().get(0);
+        if (choice == null || choice.getDelta() == null || choice.getDelta().getContent() == null) {
+            return "";
+        }
+
+        return choice.getDelta().getContent();
+    }
+
     /**
      * 判断聊天响应是否成功
      *
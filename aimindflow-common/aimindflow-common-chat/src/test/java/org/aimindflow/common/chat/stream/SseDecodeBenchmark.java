@@ -0,0 +1,114 @@
+package org.aimindflow.common.chat.stream;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okio.Buffer;
+import org.aimindflow.common.chat.response.ChatResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSE流式响应解码基准测试
+ *
+ * 对比按行读取字符串并用ObjectMapper反序列化（原实现）与SseEventReader加ChatChunkParser直接在缓冲区上解码，
+ * 每次操作解码一个包含chunks个增量的完整流式响应。
+ *
+ * 运行方式：mvn test-compile 后执行本类的main方法，或通过org.openjdk.jmh.Main指定本类。
+ *
+ * @author HezaoHezao
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseDecodeBenchmark {
+
+    private static final String CHUNK = "data: {\"id\":\"chatcmpl-8abc\",\"object\":\"chat.completion.chunk\","
+            + "\"created\":1700000000,\"model\":\"gpt-4o-mini\",\"system_fingerprint\":\"fp_44709d6fcb\","
+            + "\"choices\":[{\"index\":0,\"delta\":{\"content\":\"%s\"},\"logprobs\":null,\"finish_reason\":null}]}\n\n";
+
+    @Param({"50", "500"})
+    private int chunks;
+
+    private byte[] body;
+
+    private ObjectMapper objectMapper;
+
+    private Buffer source;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(": keep-alive\n\n");
+        for (int i = 0; i < chunks; i++) {
+            sb.append(String.format(CHUNK, "token" + i + " 你好"));
+        }
+        sb.append("data: [DONE]\n\n");
+        body = sb.toString().getBytes(StandardCharsets.UTF_8);
+        objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        source = new Buffer().write(body);
+    }
+
+    /**
+     * 原实现：逐行创建字符串，每个增量完整反序列化
+     */
+    @Benchmark
+    public void lineAndObjectMapper(Blackhole blackhole) throws IOException {
+        while (!source.exhausted()) {
+            String line = source.readUtf8Line();
+            if (line == null) {
+                break;
+            }
+            if (line.startsWith("data: ")) {
+                String data = line.substring(6);
+                if ("[DONE]".equals(data)) {
+                    break;
+                }
+                blackhole.consume(objectMapper.readValue(data, ChatResponse.class));
+            }
+        }
+    }
+
+    /**
+     * 现实现：在缓冲区上扫描事件，流式解析增量
+     */
+    @Benchmark
+    public void bufferAndStreamingParser(Blackhole blackhole) throws IOException {
+        SseEventReader reader = new SseEventReader(source);
+        Buffer data;
+        while ((data = reader.nextEvent()) != null) {
+            if (SseEventReader.isDone(data)) {
+                break;
+            }
+            blackhole.consume(ChatChunkParser.parse(data));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SseDecodeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
\ No newline at end of file
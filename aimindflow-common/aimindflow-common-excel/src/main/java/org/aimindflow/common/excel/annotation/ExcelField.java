@@ -8,6 +8,8 @@ import java.lang.annotation.Target;
 /**
  * Excel字段注解，用于标记导出到Excel的字段
  *
+ * 仅在类上标记@ExcelSheet时生效。
+ *
  * @author HezaoHezao
  */
 @Target(ElementType.FIELD)
@@ -0,0 +1,19 @@
+package org.aimindflow.common.excel.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Excel工作表注解，标记在类上时按@ExcelField映射导入导出的列
+ *
+ * 标记后只映射带@ExcelField注解的字段，表头使用注解名称并按order排序，同时应用列宽、日期格式、数据字典和必填设置。
+ * 未标记的类按声明顺序映射全部实例字段，表头为字段名称，忽略@ExcelField注解。
+ *
+ * @author HezaoHezao
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExcelSheet {
+}
\ No newline at end of file
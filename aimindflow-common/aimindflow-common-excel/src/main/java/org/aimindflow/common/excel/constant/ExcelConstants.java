@@ -34,6 +34,31 @@ public class ExcelConstants {
      */
     public static final int MAX_COLUMN_WIDTH = 255;
 
+    /**
+     * EasyExcel读取时跳过的表头行数
+     */
+    public static final int HEAD_ROW_NUMBER = 1;
+
+    /**
+     * 单个工作表的最大行数（xlsx，含表头）
+     */
+    public static final int MAX_SHEET_ROWS = 1048576;
+
+    /**
+     * 流式导出时内存中保留的行数，超出的行写入临时文件
+     */
+    public static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+    /**
+     * 流式导出时每批写入的行数
+     */
+    public static final int WRITE_BATCH_SIZE = 1000;
+
+    /**
+     * 估算列宽时采样的数据行数
+     */
+    public static final int COLUMN_WIDTH_SAMPLE_ROWS = 100;
+
     /**
      * 默认行高
      */
@@ -11,6 +11,8 @@ import java.util.function.Consumer;
 /**
  * Excel数据导入监听器
  *
+ * 在解析线程中按批同步调用处理器。需要解析、转换与写入并行时使用ExcelImportPipeline。
+ *
  * @author HezaoHezao
  */
 @Slf4j
@@ -19,7 +21,7 @@ public class ExcelDataListener<T> extends AnalysisEventListener<T> {
     /**
      * 数据列表
      */
-    private final List<T> dataList = new ArrayList<>();
+    private List<T> dataList;
 
     /**
      * 批处理大小
@@ -49,6 +51,7 @@ public class ExcelDataListener<T> extends AnalysisEventListener<T> {
     public ExcelDataListener(int batchSize, Consumer<List<T>> dataConsumer) {
         this.batchSize = batchSize;
         this.dataConsumer = dataConsumer;
+        this.dataList = new ArrayList<>(batchSize);
     }
 
     @Override
@@ -57,8 +60,6 @@ public class ExcelDataListener<T> extends AnalysisEventListener<T> {
         // 达到批处理大小，进行处理
         if (dataList.size() >= batchSize) {
             processData();
-            // 清空数据列表
-            dataList.clear();
         }
     }
 
@@ -72,12 +73,14 @@ public class ExcelDataListener<T> extends AnalysisEventListener<T> {
     }
 
     /**
-     * 处理数据
+     * 处理数据，批次列表直接交给处理器，之后使用新的列表
      */
     private void processData() {
-        log.info("Excel数据处理中，本批次数据量：{}", dataList.size());
+        List<T> batch = dataList;
+        dataList = new ArrayList<>(batchSize);
+        log.debug("Excel数据处理中，本批次数据量：{}", batch.size());
         try {
-            dataConsumer.accept(new ArrayList<>(dataList));
+            dataConsumer.accept(batch);
         } catch (Exception e) {
             log.error("Excel数据处理异常", e);
         }
@@ -0,0 +1,290 @@
+package org.aimindflow.common.excel.mapping;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 单元格读写转换
+ *
+ * 按字段类型在建立映射时选定写入和读取函数，逐行处理时不再判断类型。
+ *
+ * @author HezaoHezao
+ */
+final class CellConverters {
+
+    private CellConverters() {
+    }
+
+    /**
+     * 单元格写入
+     */
+    @FunctionalInterface
+    interface CellWriter {
+
+        void write(Cell cell, Object value);
+    }
+
+    /**
+     * 单元格读取
+     */
+    @FunctionalInterface
+    interface CellReader {
+
+        Object read(Cell cell);
+    }
+
+    /**
+     * 选择写入函数，值不为null
+     *
+     * @param type 值类型
+     * @return 写入函数
+     */
+    static CellWriter writer(Class<?> type) {
+        Class<?> target = wrap(type);
+        if (target == String.class) {
+            return (cell, value) -> cell.setCellValue((String) value);
+        }
+        if (target == Integer.class || target == Long.class || target == Double.class || target == Float.class
+                || target == Short.class || target == Byte.class) {
+            return (cell, value) -> cell.setCellValue(((Number) value).doubleValue());
+        }
+        if (target == Boolean.class) {
+            return (cell, value) -> cell.setCellValue((Boolean) value);
+        }
+        if (target == Object.class || target == Number.class) {
+            return CellConverters::writeDynamic;
+        }
+        return (cell, value) -> cell.setCellValue(value.toString());
+    }
+
+    /**
+     * 选择导出时的格式化函数，用于数据字典和日期格式
+     *
+     * @param type       字段类型
+     * @param dateFormat 日期格式
+     * @param labels     数据字典，值到显示文本
+     * @return 格式化函数，不需要格式化时返回null
+     */
+    static Function<Object, String> formatter(Class<?> type, String dateFormat, Map<String, String> labels) {
+        if (!labels.isEmpty()) {
+            return value -> {
+                String key = value.toString();
+                return labels.getOrDefault(key, key);
+            };
+        }
+        if (dateFormat.isEmpty()) {
+            return null;
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(dateFormat);
+        if (Date.class.isAssignableFrom(type)) {
+            return value -> formatter.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) value).getTime()), ZoneId.systemDefault()));
+        }
+        if (TemporalAccessor.class.isAssignableFrom(type)) {
+            return value -> formatter.format((TemporalAccessor) value);
+        }
+        return null;
+    }
+
+    /**
+     * 选择读取函数，空单元格读取为null
+     *
+     * @param type       字段类型
+     * @param dateFormat 日期格式
+     * @param values     数据字典，显示文本到值
+     * @return 读取函数
+     */
+    static CellReader reader(Class<?> type, String dateFormat, Map<String, String> values) {
+        Class<?> target = wrap(type);
+        Function<String, Object> fromText = fromText(target, dateFormat);
+        if (!values.isEmpty()) {
+            return cell -> {
+                String text = text(cell);
+                return text == null ? null : fromText.apply(values.getOrDefault(text, text));
+            };
+        }
+        if (target == Date.class || target == LocalDate.class || target == LocalDateTime.class) {
+            return cell -> {
+                if (isNumeric(cell)) {
+                    return fromDateTime(target, cell.getLocalDateTimeCellValue());
+                }
+                String text = text(cell);
+                return text == null ? null : fromText.apply(text);
+            };
+        }
+        Function<Double, Object> fromNumber = fromNumber(target);
+        if (fromNumber == null) {
+            return cell -> {
+                String text = text(cell);
+                return text == null ? null : fromText.apply(text);
+            };
+        }
+        return cell -> {
+            if (isNumeric(cell)) {
+                return fromNumber.apply(cell.getNumericCellValue());
+            }
+            String text = text(cell);
+            return text == null ? null : fromText.apply(text);
+        };
+    }
+
+    /**
+     * 解析数据字典，格式：0=男,1=女
+     *
+     * @param dict 数据字典
+     * @return 值到显示文本
+     */
+    static Map<String, String> parseDict(String dict) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (String item : dict.split(",")) {
+            int i = item.indexOf('=');
+            if (i > 0) {
+                labels.put(item.substring(0, i).trim(), item.substring(i + 1).trim());
+            }
+        }
+        return labels;
+    }
+
+    private static void writeDynamic(Cell cell, Object value) {
+        if (value instanceof String) {
+            cell.setCellValue((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Double) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+
+    private static boolean isNumeric(Cell cell) {
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        return type == CellType.NUMERIC;
+    }
+
+    /**
+     * 读取单元格文本，空单元格返回null
+     */
+    private static String text(Cell cell) {
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        switch (type) {
+            case STRING:
+                String text = cell.getStringCellValue().trim();
+                return text.isEmpty() ? null : text;
+            case NUMERIC:
+                return NumberToTextConverter.toText(cell.getNumericCellValue());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            default:
+                return null;
+        }
+    }
+
+    private static Function<Double, Object> fromNumber(Class<?> target) {
+        if (target == Integer.class) {
+            return Double::intValue;
+        } else if (target == Long.class) {
+            return Double::longValue;
+        } else if (target == Double.class) {
+            return value -> value;
+        } else if (target == Float.class) {
+            return Double::floatValue;
+        } else if (target == Short.class) {
+            return Double::shortValue;
+        } else if (target == Byte.class) {
+            return Double::byteValue;
+        } else if (target == BigDecimal.class) {
+            return value -> new BigDecimal(NumberToTextConverter.toText(value));
+        } else if (target == BigInteger.class) {
+            return value -> BigDecimal.valueOf(value).toBigInteger();
+        } else if (target == String.class) {
+            return NumberToTextConverter::toText;
+        } else if (target == Boolean.class) {
+            return value -> value != 0;
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> fromText(Class<?> target, String dateFormat) {
+        DateTimeFormatter formatter = dateFormat.isEmpty() ? null : DateTimeFormatter.ofPattern(dateFormat);
+        if (target == String.class) {
+            return text -> text;
+        } else if (target == Integer.class) {
+            return Integer::valueOf;
+        } else if (target == Long.class) {
+            return Long::valueOf;
+        } else if (target == Double.class) {
+            return Double::valueOf;
+        } else if (target == Float.class) {
+            return Float::valueOf;
+        } else if (target == Short.class) {
+            return Short::valueOf;
+        } else if (target == Byte.class) {
+            return Byte::valueOf;
+        } else if (target == BigDecimal.class) {
+            return BigDecimal::new;
+        } else if (target == BigInteger.class) {
+            return BigInteger::new;
+        } else if (target == Boolean.class) {
+            return text -> "1".equals(text) || Boolean.parseBoolean(text);
+        } else if (target == LocalDate.class) {
+            return text -> formatter == null ? LocalDate.parse(text) : LocalDate.parse(text, formatter);
+        } else if (target == LocalDateTime.class) {
+            return text -> formatter == null ? LocalDateTime.parse(text) : LocalDateTime.parse(text, formatter);
+        } else if (target == Date.class) {
+            return text -> fromDateTime(Date.class, formatter == null ? LocalDateTime.parse(text) : LocalDateTime.parse(text, formatter));
+        } else if (target.isEnum()) {
+            return text -> Enum.valueOf((Class) target, text);
+        }
+        return text -> {
+            throw new IllegalArgumentException("不支持的字段类型: " + target.getName());
+        };
+    }
+
+    private static Object fromDateTime(Class<?> target, LocalDateTime value) {
+        if (target == LocalDate.class) {
+            return value.toLocalDate();
+        } else if (target == Date.class) {
+            return Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return value;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+}
\ No newline at end of file
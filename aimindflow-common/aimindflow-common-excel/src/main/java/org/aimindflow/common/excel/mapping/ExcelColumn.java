@@ -0,0 +1,137 @@
+package org.aimindflow.common.excel.mapping;
+
+import org.aimindflow.common.excel.exception.ExcelException;
+import org.apache.poi.ss.usermodel.Cell;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * Excel列映射，对应对象的一个字段
+ *
+ * @author HezaoHezao
+ */
+public final class ExcelColumn {
+
+    /**
+     * 表头名称
+     */
+    private final String name;
+
+    /**
+     * 字段名称
+     */
+    private final String fieldName;
+
+    /**
+     * 列宽（字符数），0表示按内容估算
+     */
+    private final int width;
+
+    /**
+     * 导入时是否必填
+     */
+    private final boolean required;
+
+    /**
+     * 已设置为可访问的字段
+     */
+    private final Field field;
+
+    private final Function<Object, String> formatter;
+
+    private final CellConverters.CellWriter writer;
+
+    private final CellConverters.CellReader reader;
+
+    ExcelColumn(String name, Field field, int width, boolean required, Function<Object, String> formatter,
+                CellConverters.CellWriter writer, CellConverters.CellReader reader) {
+        this.name = name;
+        this.fieldName = field.getName();
+        this.width = width;
+        this.required = required;
+        this.field = field;
+        this.formatter = formatter;
+        this.writer = writer;
+        this.reader = reader;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * 获取导出值，已按数据字典和日期格式转换
+     *
+     * @param bean 对象
+     * @return 导出值
+     */
+    public Object getValue(Object bean) {
+        Object value;
+        try {
+            value = field.get(bean);
+        } catch (IllegalAccessException e) {
+            throw new ExcelException("读取字段值失败: " + fieldName, e);
+        }
+        return value == null || formatter == null ? value : formatter.apply(value);
+    }
+
+    /**
+     * 写入单元格
+     *
+     * @param cell  单元格
+     * @param value 导出值
+     */
+    public void writeCell(Cell cell, Object value) {
+        if (value == null) {
+            cell.setCellValue("");
+        } else {
+            writer.write(cell, value);
+        }
+    }
+
+    /**
+     * 读取单元格并转换为字段类型
+     *
+     * @param cell 单元格
+     * @return 字段值，空单元格为null
+     * @throws RuntimeException 单元格内容无法转换为字段类型
+     */
+    public Object readCell(Cell cell) {
+        return cell == null ? null : reader.read(cell);
+    }
+
+    /**
+     * 是否可以设置字段值，final字段不能导入
+     */
+    boolean canSet() {
+        return !Modifier.isFinal(field.getModifiers());
+    }
+
+    /**
+     * 设置字段值
+     *
+     * @param bean  对象
+     * @param value 字段值
+     */
+    public void setValue(Object bean, Object value) {
+        try {
+            field.set(bean, value);
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new ExcelException("设置字段值失败: " + fieldName, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,240 @@
+package org.aimindflow.common.excel.mapping;
+
+import org.aimindflow.common.excel.annotation.ExcelField;
+import org.aimindflow.common.excel.annotation.ExcelSheet;
+import org.aimindflow.common.excel.exception.ExcelException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Excel行映射
+ *
+ * 按类解析一次字段和@ExcelField注解并缓存可访问的字段，导入导出时按预先排好的列顺序直接读写，不再逐行查找字段。
+ * 类上标记@ExcelSheet时只映射带@ExcelField注解的字段并按order排序，否则按声明顺序映射全部实例字段，
+ * 表头为字段名称，与未使用注解时的导入导出结果一致。
+ *
+ * @param <T> 数据类型
+ * @author HezaoHezao
+ */
+public final class ExcelRowMapping<T> {
+
+    private static final ClassValue<ExcelRowMapping<?>> CACHE = new ClassValue<ExcelRowMapping<?>>() {
+        @Override
+        protected ExcelRowMapping<?> computeValue(Class<?> type) {
+            return new ExcelRowMapping<>(type);
+        }
+    };
+
+    private final Class<T> type;
+
+    private final List<ExcelColumn> exportColumns;
+
+    private final List<ExcelColumn> importColumns;
+
+    /**
+     * 导入列，键为表头名称和字段名称
+     */
+    private final Map<String, ExcelColumn> importColumnsByName = new HashMap<>();
+
+    /**
+     * 导出列，键为字段名称和表头名称
+     */
+    private final Map<String, ExcelColumn> exportColumnsByName = new HashMap<>();
+
+    private final String[] headers;
+
+    /**
+     * 无参构造函数，没有时为null
+     */
+    private final Constructor<T> constructor;
+
+    /**
+     * 是否按@ExcelField注解映射
+     */
+    private final boolean annotated;
+
+    private ExcelRowMapping(Class<T> type) {
+        this.type = type;
+        this.annotated = type.isAnnotationPresent(ExcelSheet.class);
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            fields.add(field);
+        }
+
+        List<Field> exportFields = new ArrayList<>();
+        List<Field> importFields = new ArrayList<>();
+        for (Field field : fields) {
+            ExcelField excelField = annotation(field);
+            if (annotated && excelField == null) {
+                continue;
+            }
+            if (excelField == null || excelField.isExport()) {
+                exportFields.add(field);
+            }
+            if (excelField == null || excelField.isImport()) {
+                importFields.add(field);
+            }
+        }
+        if (annotated) {
+            Comparator<Field> byOrder = Comparator.comparingInt(field -> field.getAnnotation(ExcelField.class).order());
+            exportFields.sort(byOrder);
+            importFields.sort(byOrder);
+        }
+
+        Map<Field, ExcelColumn> columns = new HashMap<>();
+        List<ExcelColumn> exports = new ArrayList<>(exportFields.size());
+        for (Field field : exportFields) {
+            ExcelColumn column = columns.computeIfAbsent(field, this::createColumn);
+            exports.add(column);
+            exportColumnsByName.put(column.getFieldName(), column);
+        }
+        for (ExcelColumn column : exports) {
+            exportColumnsByName.putIfAbsent(column.getName(), column);
+        }
+        List<ExcelColumn> imports = new ArrayList<>(importFields.size());
+        for (Field field : importFields) {
+            ExcelColumn column = columns.computeIfAbsent(field, this::createColumn);
+            if (column.canSet()) {
+                imports.add(column);
+                importColumnsByName.put(column.getName(), column);
+            }
+        }
+        for (ExcelColumn column : imports) {
+            importColumnsByName.putIfAbsent(column.getFieldName(), column);
+        }
+        this.exportColumns = Collections.unmodifiableList(exports);
+        this.importColumns = Collections.unmodifiableList(imports);
+        this.headers = exports.stream().map(ExcelColumn::getName).toArray(String[]::new);
+        this.constructor = noArgsConstructor(type);
+    }
+
+    /**
+     * 获取类的行映射
+     *
+     * @param type 类
+     * @param <T>  数据类型
+     * @return 行映射
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ExcelRowMapping<T> of(Class<T> type) {
+        return (ExcelRowMapping<T>) CACHE.get(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 获取导出列，按导出顺序
+     *
+     * @return 导出列
+     */
+    public List<ExcelColumn> getExportColumns() {
+        return exportColumns;
+    }
+
+    /**
+     * 获取导入列
+     *
+     * @return 导入列
+     */
+    public List<ExcelColumn> getImportColumns() {
+        return importColumns;
+    }
+
+    /**
+     * 按字段名称或表头名称获取导出列
+     *
+     * @param name 字段名称或表头名称
+     * @return 导出列，不存在时返回null
+     */
+    public ExcelColumn getExportColumn(String name) {
+        return exportColumnsByName.get(name);
+    }
+
+    /**
+     * 按表头名称或字段名称获取导入列
+     *
+     * @param header 表头
+     * @return 导入列，不存在时返回null
+     */
+    public ExcelColumn getImportColumn(String header) {
+        return importColumnsByName.get(header);
+    }
+
+    /**
+     * 获取导出表头
+     *
+     * @return 表头
+     */
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    /**
+     * 创建对象实例
+     *
+     * @return 对象实例
+     * @throws ExcelException 类没有无参构造函数
+     */
+    public T newInstance() {
+        if (constructor == null) {
+            throw new ExcelException("类没有可访问的无参构造函数: " + type.getName());
+        }
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ExcelException("创建对象实例失败: " + type.getName(), e);
+        }
+    }
+
+    private ExcelColumn createColumn(Field field) {
+        ExcelField excelField = annotation(field);
+        String name = excelField != null && !excelField.name().isEmpty() ? excelField.name() : field.getName();
+        String dateFormat = excelField != null ? excelField.dateFormat() : "";
+        Map<String, String> labels = excelField != null ? CellConverters.parseDict(excelField.dict()) : Collections.emptyMap();
+        Map<String, String> values = new HashMap<>();
+        labels.forEach((value, label) -> values.put(label, value));
+
+        Function<Object, String> formatter = CellConverters.formatter(field.getType(), dateFormat, labels);
+        try {
+            field.setAccessible(true);
+        } catch (RuntimeException e) {
+            throw new ExcelException("无法访问字段: " + field.getName(), e);
+        }
+        return new ExcelColumn(name, field,
+                excelField != null ? excelField.width() : 0,
+                excelField != null && excelField.required(), formatter,
+                CellConverters.writer(formatter != null ? String.class : field.getType()),
+                CellConverters.reader(field.getType(), dateFormat, values));
+    }
+
+    private static <T> Constructor<T> noArgsConstructor(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取字段的@ExcelField注解，类上未标记@ExcelSheet时忽略注解
+     */
+    private ExcelField annotation(Field field) {
+        return annotated ? field.getAnnotation(ExcelField.class) : null;
+    }
+}
\ No newline at end of file
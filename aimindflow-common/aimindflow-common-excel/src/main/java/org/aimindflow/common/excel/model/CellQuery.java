@@ -0,0 +1,181 @@
+package org.aimindflow.common.excel.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 单元格查询
+ *
+ * 一次登记同一工作表中的多个单元格、行和列，读取时在一次解析中全部得到。
+ * 行列索引均从0开始，行索引为工作表中的行号，包含表头行；EasyExcel实现的readCell、readRow和readColumn
+ * 仍不返回表头行。只查询单元格和行时，读到最后一个目标行即停止解析。
+ * 列数据默认每行一个值，缺失的行以空字符串补齐，下标与行号对应；调用skipEmptyRows后跳过不存在的行和
+ * 所有单元格均为空的行，与EasyExcel读取一致，此时下标不再与行号对应。
+ *
+ * @author HezaoHezao
+ */
+public class CellQuery {
+
+    /**
+     * 工作表索引
+     */
+    private final int sheetIndex;
+
+    /**
+     * 查询的单元格，键为行索引，值为列索引
+     */
+    private final Map<Integer, Set<Integer>> cells = new HashMap<>();
+
+    /**
+     * 查询的行
+     */
+    private final Set<Integer> rows = new HashSet<>();
+
+    /**
+     * 查询的列
+     */
+    private final Set<Integer> columns = new TreeSet<>();
+
+    /**
+     * 单元格和行查询中最大的行索引
+     */
+    private int maxRow = -1;
+
+    /**
+     * 列数据的起始行
+     */
+    private int firstRow;
+
+    /**
+     * 列数据是否跳过不存在和全部为空的行
+     */
+    private boolean skipEmptyRows;
+
+    /**
+     * 构造函数
+     *
+     * @param sheetIndex 工作表索引
+     */
+    public CellQuery(int sheetIndex) {
+        this.sheetIndex = sheetIndex;
+    }
+
+    /**
+     * 创建单元格查询
+     *
+     * @param sheetIndex 工作表索引
+     * @return 单元格查询
+     */
+    public static CellQuery of(int sheetIndex) {
+        return new CellQuery(sheetIndex);
+    }
+
+    /**
+     * 查询单元格
+     *
+     * @param rowIndex    行索引
+     * @param columnIndex 列索引
+     * @return 单元格查询
+     */
+    public CellQuery cell(int rowIndex, int columnIndex) {
+        checkIndex(rowIndex);
+        checkIndex(columnIndex);
+        cells.computeIfAbsent(rowIndex, k -> new HashSet<>()).add(columnIndex);
+        maxRow = Math.max(maxRow, rowIndex);
+        return this;
+    }
+
+    /**
+     * 查询行
+     *
+     * @param rowIndex 行索引
+     * @return 单元格查询
+     */
+    public CellQuery row(int rowIndex) {
+        checkIndex(rowIndex);
+        rows.add(rowIndex);
+        maxRow = Math.max(maxRow, rowIndex);
+        return this;
+    }
+
+    /**
+     * 查询列，需要读取整个工作表
+     *
+     * @param columnIndex 列索引
+     * @return 单元格查询
+     */
+    public CellQuery column(int columnIndex) {
+        checkIndex(columnIndex);
+        columns.add(columnIndex);
+        return this;
+    }
+
+    /**
+     * 设置列数据的起始行，之前的行不计入列数据
+     *
+     * @param rowIndex 行索引
+     * @return 单元格查询
+     */
+    public CellQuery fromRow(int rowIndex) {
+        checkIndex(rowIndex);
+        firstRow = rowIndex;
+        return this;
+    }
+
+    /**
+     * 列数据跳过不存在的行和所有单元格均为空的行，不再以空字符串补齐
+     *
+     * @return 单元格查询
+     */
+    public CellQuery skipEmptyRows() {
+        skipEmptyRows = true;
+        return this;
+    }
+
+    public int getSheetIndex() {
+        return sheetIndex;
+    }
+
+    public Map<Integer, Set<Integer>> getCells() {
+        return Collections.unmodifiableMap(cells);
+    }
+
+    public Set<Integer> getRows() {
+        return Collections.unmodifiableSet(rows);
+    }
+
+    public Set<Integer> getColumns() {
+        return Collections.unmodifiableSet(columns);
+    }
+
+    public int getMaxRow() {
+        return maxRow;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public boolean isSkipEmptyRows() {
+        return skipEmptyRows;
+    }
+
+    /**
+     * 是否没有查询目标
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return cells.isEmpty() && rows.isEmpty() && columns.isEmpty();
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("索引不能小于0: " + index);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package org.aimindflow.common.excel.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单元格查询结果
+ *
+ * 行存在但单元格为空时值为空字符串，行不存在时为null；行数据中间的空单元格以空字符串补齐；
+ * 列数据从查询的起始行开始，每行一个值，缺失的行为空字符串；查询设置了skipEmptyRows时只包含存在且不全为空的行。
+ *
+ * @author HezaoHezao
+ */
+public class CellQueryResult {
+
+    private final Map<Long, String> cells = new HashMap<>();
+
+    private final Map<Integer, List<String>> rows = new HashMap<>();
+
+    private final Map<Integer, List<String>> columns = new HashMap<>();
+
+    /**
+     * 获取单元格值
+     *
+     * @param rowIndex    行索引
+     * @param columnIndex 列索引
+     * @return 单元格值，行不存在时为null
+     */
+    public String getCell(int rowIndex, int columnIndex) {
+        return cells.get(key(rowIndex, columnIndex));
+    }
+
+    /**
+     * 获取行数据
+     *
+     * @param rowIndex 行索引
+     * @return 行数据，行不存在时为null
+     */
+    public List<String> getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    /**
+     * 获取列数据
+     *
+     * @param columnIndex 列索引
+     * @return 列数据，未查询该列时为null
+     */
+    public List<String> getColumn(int columnIndex) {
+        return columns.get(columnIndex);
+    }
+
+    public void putCell(int rowIndex, int columnIndex, String value) {
+        cells.put(key(rowIndex, columnIndex), value);
+    }
+
+    public void putRow(int rowIndex, List<String> values) {
+        rows.put(rowIndex, values);
+    }
+
+    public void putColumn(int columnIndex, List<String> values) {
+        columns.put(columnIndex, values);
+    }
+
+    private static long key(int rowIndex, int columnIndex) {
+        return ((long) rowIndex << 32) | (columnIndex & 0xFFFFFFFFL);
+    }
+}
\ No newline at end of file
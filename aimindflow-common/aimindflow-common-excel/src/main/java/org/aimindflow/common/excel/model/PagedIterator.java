@@ -0,0 +1,96 @@
+package org.aimindflow.common.excel.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * 分页查询迭代器
+ *
+ * 按页调用查询函数并逐条返回数据，同一时刻只持有一页数据，用于将分页查询接入流式导出。
+ * 查询结果为空或不足一页时结束。
+ *
+ * @param <T> 数据类型
+ * @author HezaoHezao
+ */
+public class PagedIterator<T> implements Iterator<T> {
+
+    /**
+     * 每页条数
+     */
+    private final int pageSize;
+
+    /**
+     * 分页查询函数，参数为页码（从1开始）和每页条数
+     */
+    private final BiFunction<Integer, Integer, ? extends Collection<T>> pageLoader;
+
+    /**
+     * 当前页码
+     */
+    private int pageNum;
+
+    /**
+     * 当前页的数据
+     */
+    private Iterator<T> current = Collections.emptyIterator();
+
+    /**
+     * 当前页是否为最后一页
+     */
+    private boolean lastPage;
+
+    /**
+     * 构造函数
+     *
+     * @param pageSize   每页条数
+     * @param pageLoader 分页查询函数，参数为页码（从1开始）和每页条数
+     */
+    public PagedIterator(int pageSize, BiFunction<Integer, Integer, ? extends Collection<T>> pageLoader) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
+        }
+        this.pageSize = pageSize;
+        this.pageLoader = pageLoader;
+    }
+
+    /**
+     * 创建分页查询迭代器
+     *
+     * @param pageSize   每页条数
+     * @param pageLoader 分页查询函数，参数为页码（从1开始）和每页条数
+     * @param <T>        数据类型
+     * @return 分页查询迭代器
+     */
+    public static <T> PagedIterator<T> of(int pageSize, BiFunction<Integer, Integer, ? extends Collection<T>> pageLoader) {
+        return new PagedIterator<>(pageSize, pageLoader);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (lastPage) {
+                return false;
+            }
+            Collection<T> page = pageLoader.apply(++pageNum, pageSize);
+            if (page == null || page.isEmpty()) {
+                lastPage = true;
+                current = Collections.emptyIterator();
+                return false;
+            }
+            lastPage = page.size() < pageSize;
+            current = page.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package org.aimindflow.common.excel.pipeline;
+
+import java.util.List;
+
+/**
+ * 批量写入器
+ *
+ * 由导入管道的多个写入线程并发调用，实现需要线程安全；按顺序提交时同一时刻只有一个批次在写入。
+ *
+ * @param <R> 持久化对象类型
+ * @author HezaoHezao
+ */
+@FunctionalInterface
+public interface BatchWriter<R> {
+
+    /**
+     * 写入一批数据，失败时整批重试，重试耗尽后整批写入死信文件
+     *
+     * @param batch 数据列表
+     * @throws Exception 写入失败
+     */
+    void write(List<R> batch) throws Exception;
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package org.aimindflow.common.excel.pipeline;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 死信文件写入
+ *
+ * 每行记录行号、失败阶段、原因和行数据，以制表符分隔；首次出现失败行时才创建文件。
+ *
+ * @author HezaoHezao
+ */
+final class DeadLetterWriter implements Closeable {
+
+    private final Path file;
+
+    private BufferedWriter writer;
+
+    private boolean closed;
+
+    DeadLetterWriter(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 记录一行失败数据
+     *
+     * @param rowNumber 行号（从1开始）
+     * @param stage     失败阶段
+     * @param cause     失败原因
+     * @param data      行数据
+     * @throws IOException 写入失败
+     */
+    synchronized void write(int rowNumber, String stage, Throwable cause, Object data) throws IOException {
+        if (file == null || closed) {
+            return;
+        }
+        if (writer == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write("行号\t阶段\t原因\t数据");
+            writer.newLine();
+        }
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        writer.write(rowNumber + "\t" + stage + "\t" + clean(message) + "\t" + clean(String.valueOf(data)));
+        writer.newLine();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private static String clean(String text) {
+        return text.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+    }
+}
\ No newline at end of file
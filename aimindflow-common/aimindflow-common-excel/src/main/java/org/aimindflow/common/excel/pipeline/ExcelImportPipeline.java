@@ -0,0 +1,487 @@
+package org.aimindflow.common.excel.pipeline;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.enums.CellDataTypeEnum;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.alibaba.excel.exception.ExcelDataConvertException;
+import com.alibaba.excel.metadata.Cell;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.excel.constant.ExcelConstants;
+import org.aimindflow.common.excel.exception.ExcelException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Excel分阶段导入管道
+ *
+ * 解析、转换和写入分别在调用线程、转换线程和多个写入线程中执行，阶段之间通过有界队列传递批次，
+ * 下游处理不过来时上游阻塞，内存中只保留少量批次。解析或转换失败的行以及重试耗尽的批次写入死信文件，
+ * 其余数据继续导入。
+ *
+ * @param <T> 解析出的行类型
+ * @param <R> 持久化对象类型
+ * @author HezaoHezao
+ */
+@Slf4j
+public class ExcelImportPipeline<T, R> {
+
+    /**
+     * 队列等待的检查间隔（毫秒），用于及时响应中止
+     */
+    private static final long POLL_INTERVAL = 100L;
+
+    private static final String STAGE_PARSE = "解析";
+
+    private static final String STAGE_CONVERT = "转换";
+
+    private static final String STAGE_WRITE = "写入";
+
+    private final Class<T> rowClass;
+
+    private final RowConverter<T, R> converter;
+
+    private final BatchWriter<R> writer;
+
+    private final ImportOptions options;
+
+    private volatile Consumer<ImportProgress> progressListener;
+
+    /**
+     * 构造函数
+     *
+     * @param rowClass  行类型
+     * @param converter 行转换器
+     * @param writer    批量写入器
+     */
+    public ExcelImportPipeline(Class<T> rowClass, RowConverter<T, R> converter, BatchWriter<R> writer) {
+        this(rowClass, converter, writer, new ImportOptions());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param rowClass  行类型
+     * @param converter 行转换器
+     * @param writer    批量写入器
+     * @param options   管道配置
+     */
+    public ExcelImportPipeline(Class<T> rowClass, RowConverter<T, R> converter, BatchWriter<R> writer, ImportOptions options) {
+        if (options.getBatchSize() <= 0 || options.getQueueCapacity() <= 0 || options.getWriterThreads() <= 0) {
+            throw new IllegalArgumentException("批次大小、队列容量和写入线程数必须大于0");
+        }
+        this.rowClass = rowClass;
+        this.converter = converter;
+        this.writer = writer;
+        this.options = options;
+    }
+
+    /**
+     * 设置进度监听器，每完成一个批次在写入线程中调用一次
+     *
+     * @param progressListener 进度监听器
+     * @return 导入管道
+     */
+    public ExcelImportPipeline<T, R> onProgress(Consumer<ImportProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * 执行导入，所有批次写入完成后返回
+     *
+     * @param inputStream 输入流
+     * @return 导入结果
+     * @throws ExcelException 解析失败、死信文件写入失败或导入被中断
+     */
+    public ImportProgress execute(InputStream inputStream) {
+        return new Execution().run(inputStream);
+    }
+
+    /**
+     * 批次
+     */
+    private static final class Batch<E> {
+
+        /**
+         * 结束标记
+         */
+        private static final Batch<?> END = new Batch<>(-1, Collections.emptyList(), new int[0]);
+
+        /**
+         * 批次序号
+         */
+        private final long seq;
+
+        private final List<E> rows;
+
+        /**
+         * 各行在文件中的行号（从1开始）
+         */
+        private final int[] rowNumbers;
+
+        private Batch(long seq, List<E> rows, int[] rowNumbers) {
+            this.seq = seq;
+            this.rows = rows;
+            this.rowNumbers = rowNumbers;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <E> Batch<E> end() {
+            return (Batch<E>) END;
+        }
+    }
+
+    /**
+     * 一次导入的执行状态
+     */
+    private final class Execution {
+
+        private final BlockingQueue<Batch<T>> parsedQueue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+
+        private final BlockingQueue<Batch<R>> convertedQueue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+
+        private final DeadLetterWriter deadLetters = new DeadLetterWriter(options.getDeadLetterFile());
+
+        private final long startNanos = System.nanoTime();
+
+        private final LongAdder parsedRows = new LongAdder();
+
+        private final LongAdder writtenRows = new LongAdder();
+
+        private final LongAdder skippedRows = new LongAdder();
+
+        private final LongAdder failedRows = new LongAdder();
+
+        private final LongAdder completedBatches = new LongAdder();
+
+        private final LongAdder retries = new LongAdder();
+
+        /**
+         * 按顺序提交时下一个可写入的批次序号
+         */
+        private final Object commitLock = new Object();
+
+        private long nextCommitSeq;
+
+        private volatile boolean aborted;
+
+        private volatile Throwable failure;
+
+        ImportProgress run(InputStream inputStream) {
+            List<Thread> threads = new ArrayList<>(options.getWriterThreads() + 1);
+            threads.add(startThread("excel-import-convert", this::convertLoop));
+            for (int i = 0; i < options.getWriterThreads(); i++) {
+                threads.add(startThread("excel-import-write-" + (i + 1), this::writeLoop));
+            }
+            try {
+                EasyExcel.read(inputStream, rowClass, new ParseListener()).sheet(options.getSheetNo()).doRead();
+                put(parsedQueue, Batch.end());
+            } catch (Throwable e) {
+                abort(e);
+            }
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+                threads.forEach(Thread::interrupt);
+            } finally {
+                try {
+                    deadLetters.close();
+                } catch (IOException e) {
+                    log.error("关闭死信文件失败", e);
+                }
+            }
+
+            ImportProgress result = snapshot(true);
+            if (failure != null) {
+                log.error("Excel导入中止，已写入{}行，失败{}行", result.getWrittenRows(), result.getFailedRows());
+                throw new ExcelException(ExcelConstants.ERROR_IMPORT, failure);
+            }
+            log.info("Excel导入完成，解析{}行，写入{}行，跳过{}行，失败{}行，耗时{}ms", result.getParsedRows(),
+                    result.getWrittenRows(), result.getSkippedRows(), result.getFailedRows(), result.getElapsedMillis());
+            return result;
+        }
+
+        /**
+         * 转换阶段，单线程执行以保持批次顺序
+         */
+        private void convertLoop() {
+            while (true) {
+                Batch<T> batch = take(parsedQueue);
+                if (batch == null) {
+                    return;
+                }
+                if (batch == Batch.END) {
+                    for (int i = 0; i < options.getWriterThreads(); i++) {
+                        put(convertedQueue, Batch.end());
+                    }
+                    return;
+                }
+                int size = batch.rows.size();
+                List<R> converted = new ArrayList<>(size);
+                int[] rowNumbers = new int[size];
+                for (int i = 0; i < size; i++) {
+                    T row = batch.rows.get(i);
+                    try {
+                        R value = converter.convert(row);
+                        if (value == null) {
+                            skippedRows.increment();
+                        } else {
+                            rowNumbers[converted.size()] = batch.rowNumbers[i];
+                            converted.add(value);
+                        }
+                    } catch (Exception e) {
+                        reject(batch.rowNumbers[i], STAGE_CONVERT, e, row);
+                    }
+                }
+                put(convertedQueue, new Batch<>(batch.seq, converted, rowNumbers));
+            }
+        }
+
+        /**
+         * 写入阶段，多个线程并发执行
+         */
+        private void writeLoop() {
+            while (true) {
+                Batch<R> batch = take(convertedQueue);
+                if (batch == null || batch == Batch.END) {
+                    return;
+                }
+                if (options.isOrdered()) {
+                    if (!awaitTurn(batch.seq)) {
+                        return;
+                    }
+                    try {
+                        writeWithRetry(batch);
+                    } finally {
+                        synchronized (commitLock) {
+                            nextCommitSeq++;
+                            commitLock.notifyAll();
+                        }
+                    }
+                } else {
+                    writeWithRetry(batch);
+                }
+                completedBatches.increment();
+                Consumer<ImportProgress> listener = progressListener;
+                if (listener != null) {
+                    listener.accept(snapshot(false));
+                }
+            }
+        }
+
+        private boolean awaitTurn(long seq) {
+            synchronized (commitLock) {
+                while (nextCommitSeq != seq) {
+                    if (aborted) {
+                        return false;
+                    }
+                    try {
+                        commitLock.wait(POLL_INTERVAL);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ExcelException("Excel导入被中断", e);
+                    }
+                }
+                return true;
+            }
+        }
+
+        private void writeWithRetry(Batch<R> batch) {
+            if (batch.rows.isEmpty()) {
+                return;
+            }
+            int attempt = 0;
+            while (true) {
+                try {
+                    writer.write(batch.rows);
+                    writtenRows.add(batch.rows.size());
+                    return;
+                } catch (Exception e) {
+                    if (attempt >= options.getMaxRetries() || aborted) {
+                        log.error("Excel导入第{}批写入失败，已重试{}次", batch.seq + 1, attempt, e);
+                        for (int i = 0; i < batch.rows.size(); i++) {
+                            reject(batch.rowNumbers[i], STAGE_WRITE, e, batch.rows.get(i));
+                        }
+                        return;
+                    }
+                    attempt++;
+                    retries.increment();
+                    log.warn("Excel导入第{}批写入失败，第{}次重试: {}", batch.seq + 1, attempt, e.getMessage());
+                    try {
+                        Thread.sleep(options.getRetryInterval() * attempt);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw new ExcelException("Excel导入被中断", ie);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 记录失败行
+         */
+        private void reject(int rowNumber, String stage, Throwable cause, Object data) {
+            failedRows.increment();
+            log.debug("Excel导入第{}行{}失败: {}", rowNumber, stage, cause.getMessage());
+            try {
+                deadLetters.write(rowNumber, stage, cause, data);
+            } catch (IOException e) {
+                throw new ExcelException("写入死信文件失败", e);
+            }
+        }
+
+        private Thread startThread(String name, Runnable task) {
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    abort(e);
+                }
+            }, name);
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+        }
+
+        private synchronized void abort(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            }
+            aborted = true;
+        }
+
+        /**
+         * 放入队列，队列满时阻塞直到有空位或导入中止
+         */
+        private <E> void put(BlockingQueue<E> queue, E item) {
+            try {
+                while (!aborted) {
+                    if (queue.offer(item, POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExcelException("Excel导入被中断", e);
+            }
+            throw new ExcelException("Excel导入已中止");
+        }
+
+        /**
+         * 从队列取出，导入中止时返回null
+         */
+        private <E> E take(BlockingQueue<E> queue) {
+            try {
+                while (!aborted) {
+                    E item = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                    if (item != null) {
+                        return item;
+                    }
+                }
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExcelException("Excel导入被中断", e);
+            }
+        }
+
+        private ImportProgress snapshot(boolean finished) {
+            ImportProgress progress = new ImportProgress();
+            progress.setParsedRows(parsedRows.sum());
+            progress.setWrittenRows(writtenRows.sum());
+            progress.setSkippedRows(skippedRows.sum());
+            progress.setFailedRows(failedRows.sum());
+            progress.setCompletedBatches(completedBatches.sum());
+            progress.setRetries(retries.sum());
+            progress.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            progress.setFinished(finished);
+            return progress;
+        }
+
+        /**
+         * 解析阶段，在调用线程中按批放入队列，批次列表直接移交不复制
+         */
+        private final class ParseListener extends AnalysisEventListener<T> {
+
+            private final int batchSize = options.getBatchSize();
+
+            private List<T> rows = new ArrayList<>(batchSize);
+
+            private int[] rowNumbers = new int[batchSize];
+
+            private long seq;
+
+            @Override
+            public void invoke(T data, AnalysisContext context) {
+                parsedRows.increment();
+                rowNumbers[rows.size()] = context.readRowHolder().getRowIndex() + 1;
+                rows.add(data);
+                if (rows.size() >= batchSize) {
+                    emit();
+                }
+            }
+
+            @Override
+            public void doAfterAllAnalysed(AnalysisContext context) {
+                if (!rows.isEmpty()) {
+                    emit();
+                }
+            }
+
+            @Override
+            public void onException(Exception exception, AnalysisContext context) throws Exception {
+                if (!(exception instanceof ExcelDataConvertException)) {
+                    throw exception;
+                }
+                // 单元格格式错误只影响当前行
+                ExcelDataConvertException e = (ExcelDataConvertException) exception;
+                parsedRows.increment();
+                reject(e.getRowIndex() + 1, STAGE_PARSE, e, cellValues(context.readRowHolder().getCellMap()));
+            }
+
+            /**
+             * 读取原始单元格值，用于记录无法解析的行
+             */
+            private List<Object> cellValues(Map<Integer, Cell> cellMap) {
+                List<Object> values = new ArrayList<>(cellMap.size());
+                for (Cell cell : cellMap.values()) {
+                    if (!(cell instanceof ReadCellData)) {
+                        values.add(cell);
+                        continue;
+                    }
+                    ReadCellData<?> cellData = (ReadCellData<?>) cell;
+                    if (cellData.getType() == CellDataTypeEnum.NUMBER) {
+                        values.add(cellData.getNumberValue());
+                    } else if (cellData.getType() == CellDataTypeEnum.BOOLEAN) {
+                        values.add(cellData.getBooleanValue());
+                    } else {
+                        values.add(cellData.getStringValue());
+                    }
+                }
+                return values;
+            }
+
+            private void emit() {
+                put(parsedQueue, new Batch<>(seq++, rows, rowNumbers));
+                rows = new ArrayList<>(batchSize);
+                rowNumbers = new int[batchSize];
+            }
+        }
+    }
+}
\ No newline at end of file
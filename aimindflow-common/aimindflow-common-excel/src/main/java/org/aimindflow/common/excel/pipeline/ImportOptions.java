@@ -0,0 +1,56 @@
+package org.aimindflow.common.excel.pipeline;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * 导入管道配置
+ *
+ * 内存中最多同时存在 2 * queueCapacity + writerThreads + 2 个批次，与文件行数无关。
+ *
+ * @author HezaoHezao
+ */
+@Data
+public class ImportOptions {
+
+    /**
+     * 每批行数
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 各阶段之间队列可容纳的批次数，队列满时上游阻塞
+     */
+    private int queueCapacity = 2;
+
+    /**
+     * 写入线程数
+     */
+    private int writerThreads = 2;
+
+    /**
+     * 是否按文件顺序提交，开启后批次依次写入，写入线程之间不再并行
+     */
+    private boolean ordered = false;
+
+    /**
+     * 单个批次写入失败后的最大重试次数
+     */
+    private int maxRetries = 3;
+
+    /**
+     * 重试间隔（毫秒），第n次重试等待n倍间隔
+     */
+    private long retryInterval = 200;
+
+    /**
+     * 读取的工作表索引
+     */
+    private int sheetNo = 0;
+
+    /**
+     * 死信文件，记录解析、转换和写入失败的行，为null时只计数不记录
+     */
+    private Path deadLetterFile;
+}
\ No newline at end of file
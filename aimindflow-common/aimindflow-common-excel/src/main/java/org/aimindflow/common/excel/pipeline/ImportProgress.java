@@ -0,0 +1,61 @@
+package org.aimindflow.common.excel.pipeline;
+
+import lombok.Data;
+
+/**
+ * 导入进度
+ *
+ * @author HezaoHezao
+ */
+@Data
+public class ImportProgress {
+
+    /**
+     * 已解析行数
+     */
+    private long parsedRows;
+
+    /**
+     * 已写入行数
+     */
+    private long writtenRows;
+
+    /**
+     * 转换器跳过的行数
+     */
+    private long skippedRows;
+
+    /**
+     * 失败行数，已写入死信文件
+     */
+    private long failedRows;
+
+    /**
+     * 已完成的批次数
+     */
+    private long completedBatches;
+
+    /**
+     * 批次重试次数
+     */
+    private long retries;
+
+    /**
+     * 已耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 是否已完成
+     */
+    private boolean finished;
+
+    /**
+     * 获取写入吞吐量
+     *
+     * @return 每秒写入行数
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? writtenRows * 1000.0 / elapsedMillis : 0;
+    }
+}
\ No newline at end of file
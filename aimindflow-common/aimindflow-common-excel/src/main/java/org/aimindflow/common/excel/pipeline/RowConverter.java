@@ -0,0 +1,23 @@
+package org.aimindflow.common.excel.pipeline;
+
+/**
+ * 行转换器
+ *
+ * 在导入管道的转换线程中逐行调用，负责校验并转换为待持久化的对象。
+ *
+ * @param <T> 解析出的行类型
+ * @param <R> 持久化对象类型
+ * @author HezaoHezao
+ */
+@FunctionalInterface
+public interface RowConverter<T, R> {
+
+    /**
+     * 转换一行数据
+     *
+     * @param row 行数据
+     * @return 持久化对象，返回null表示跳过该行
+     * @throws Exception 校验或转换失败，该行写入死信文件
+     */
+    R convert(T row) throws Exception;
+}
\ No newline at end of file
@@ -0,0 +1,362 @@
+package org.aimindflow.common.excel.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.excel.constant.ExcelConstants;
+import org.aimindflow.common.excel.exception.ExcelException;
+import org.aimindflow.common.excel.model.CellQuery;
+import org.aimindflow.common.excel.model.CellQueryResult;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.Styles;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * 工作表随机访问索引
+ *
+ * 将工作表XML解压到临时文件并内存映射，每隔固定行数记录一次行在文件中的偏移量。
+ * 查询时从目标行所在区块的起点开始解析，读到目标行即停止，适合对同一文件反复查询。
+ * 仅支持xlsx文件；可并发查询，用完后需要关闭以删除临时文件。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public final class SheetIndex implements Closeable {
+
+    /**
+     * 索引间隔行数
+     */
+    private static final int INDEX_INTERVAL = 64;
+
+    private final Path xmlFile;
+
+    private final MappedByteBuffer buffer;
+
+    private final SharedStrings sharedStrings;
+
+    private final Styles styles;
+
+    /**
+     * 工作表XML开头到sheetData开始标签结束的长度，解析时作为每段数据的前缀
+     */
+    private final int headerLength;
+
+    /**
+     * 索引的行索引，升序
+     */
+    private int[] indexedRows = new int[16];
+
+    /**
+     * 索引的行在文件中的偏移量
+     */
+    private int[] indexedOffsets = new int[16];
+
+    private int indexSize;
+
+    private int rowCount;
+
+    private int lastRow = -1;
+
+    private SheetIndex(Path xmlFile, SharedStrings sharedStrings, Styles styles) throws IOException {
+        this.xmlFile = xmlFile;
+        this.sharedStrings = sharedStrings;
+        this.styles = styles;
+        try (FileChannel channel = FileChannel.open(xmlFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ExcelException("工作表XML超过2GB，不支持建立索引");
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.headerLength = buildIndex();
+    }
+
+    /**
+     * 为工作表建立索引
+     *
+     * @param inputStream 输入流
+     * @param sheetIndex  工作表索引
+     * @return 工作表索引
+     * @throws ExcelException 文件不是xlsx或读取失败
+     */
+    public static SheetIndex open(InputStream inputStream, int sheetIndex) {
+        Path xmlFile = null;
+        try (WorkbookSource source = WorkbookSource.open(inputStream)) {
+            if (!source.isOoxml()) {
+                throw new ExcelException(ExcelConstants.ERROR_FILE_TYPE);
+            }
+            xmlFile = Files.createTempFile("excel-sheet-", ".xml");
+            try (InputStream sheet = source.openSheet(sheetIndex)) {
+                Files.copy(sheet, xmlFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new SheetIndex(xmlFile, source.getSharedStrings(), source.getStyles());
+        } catch (IOException | RuntimeException e) {
+            delete(xmlFile);
+            if (e instanceof ExcelException) {
+                throw (ExcelException) e;
+            }
+            throw new ExcelException(ExcelConstants.ERROR_FILE_READ, e);
+        }
+    }
+
+    /**
+     * 读取单元格
+     *
+     * @param rowIndex    行索引
+     * @param columnIndex 列索引
+     * @return 单元格值，行不存在时为null
+     */
+    public String getCell(int rowIndex, int columnIndex) {
+        return query(CellQuery.of(0).cell(rowIndex, columnIndex)).getCell(rowIndex, columnIndex);
+    }
+
+    /**
+     * 读取行
+     *
+     * @param rowIndex 行索引
+     * @return 行数据，行不存在时为null
+     */
+    public List<String> getRow(int rowIndex) {
+        return query(CellQuery.of(0).row(rowIndex)).getRow(rowIndex);
+    }
+
+    /**
+     * 执行查询，忽略查询中的工作表索引。单元格和行按所在区块分别定位，列需要读取全部行
+     *
+     * @param query 单元格查询
+     * @return 查询结果
+     */
+    public CellQueryResult query(CellQuery query) {
+        CellQueryResult result = new CellQueryResult();
+        SheetQueryHandler handler = new SheetQueryHandler(query, result);
+        if (query.isEmpty() || indexSize == 0) {
+            return result;
+        }
+        if (!query.getColumns().isEmpty()) {
+            parse(handler, indexedOffsets[0]);
+            return result;
+        }
+        NavigableSet<Integer> targets = new TreeSet<>(query.getRows());
+        targets.addAll(query.getCells().keySet());
+        // 每个区块只解析一次，读到区块内最后一个目标行即停止
+        while (!targets.isEmpty() && targets.first() <= lastRow) {
+            int block = blockOf(targets.first());
+            int blockEnd = block + 1 < indexSize ? indexedRows[block + 1] : Integer.MAX_VALUE;
+            NavigableSet<Integer> blockTargets = targets.headSet(blockEnd, false);
+            handler.setStopRow(blockTargets.last());
+            parse(handler, indexedOffsets[block]);
+            targets = targets.tailSet(blockEnd, true);
+        }
+        return result;
+    }
+
+    /**
+     * 获取行数
+     *
+     * @return 工作表XML中的行数
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 获取最后一行的行索引
+     *
+     * @return 最后一行的行索引，没有数据时为-1
+     */
+    public int getLastRowIndex() {
+        return lastRow;
+    }
+
+    @Override
+    public void close() {
+        delete(xmlFile);
+    }
+
+    private void parse(SheetQueryHandler handler, int offset) {
+        InputStream xml = new SequenceInputStream(new BufferInputStream(buffer, 0, headerLength),
+                new BufferInputStream(buffer, offset, buffer.capacity()));
+        try {
+            WorkbookSource.parse(xml, sharedStrings, styles, handler);
+        } catch (IOException e) {
+            throw new ExcelException(ExcelConstants.ERROR_FILE_READ, e);
+        }
+    }
+
+    private int blockOf(int rowIndex) {
+        int i = Arrays.binarySearch(indexedRows, 0, indexSize, rowIndex);
+        return i >= 0 ? i : Math.max(0, -i - 2);
+    }
+
+    /**
+     * 扫描行标签建立稀疏索引
+     *
+     * @return sheetData开始标签结束后的偏移量
+     */
+    private int buildIndex() {
+        int limit = buffer.capacity();
+        int nameStart = indexOf(bytes("sheetData"), 0, limit);
+        if (nameStart < 0) {
+            throw new ExcelException(ExcelConstants.ERROR_FILE_READ);
+        }
+        // 取得命名空间前缀，如<x:sheetData>
+        int tagStart = nameStart;
+        while (tagStart > 0 && buffer.get(tagStart) != '<') {
+            tagStart--;
+        }
+        String prefix = ascii(tagStart + 1, nameStart);
+        int tagEnd = indexOf(bytes(">"), nameStart, limit);
+        if (tagEnd < 0 || buffer.get(tagEnd - 1) == '/') {
+            return tagEnd + 1;
+        }
+        int dataEnd = indexOf(bytes("</" + prefix + "sheetData"), tagEnd, limit);
+        byte[] rowTag = bytes("<" + prefix + "row");
+        int pos = tagEnd + 1;
+        int end = dataEnd < 0 ? limit : dataEnd;
+        while ((pos = indexOf(rowTag, pos, end)) >= 0) {
+            int next = pos + rowTag.length;
+            byte b = buffer.get(next);
+            if (b == '>' || b == '/' || b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                int rowIndex = rowIndex(next, end);
+                rowIndex = rowIndex >= 0 ? rowIndex : lastRow + 1;
+                if (rowCount % INDEX_INTERVAL == 0) {
+                    addIndex(rowIndex, pos);
+                }
+                rowCount++;
+                lastRow = rowIndex;
+            }
+            pos = next;
+        }
+        return tagEnd + 1;
+    }
+
+    private void addIndex(int rowIndex, int offset) {
+        if (indexSize == indexedRows.length) {
+            indexedRows = Arrays.copyOf(indexedRows, indexSize * 2);
+            indexedOffsets = Arrays.copyOf(indexedOffsets, indexSize * 2);
+        }
+        indexedRows[indexSize] = rowIndex;
+        indexedOffsets[indexSize] = offset;
+        indexSize++;
+    }
+
+    /**
+     * 读取行标签的r属性（从1开始），转为行索引
+     *
+     * @return 行索引，没有r属性时为-1
+     */
+    private int rowIndex(int from, int limit) {
+        for (int i = from; i + 3 < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '>') {
+                return -1;
+            }
+            if (b == 'r' && buffer.get(i + 1) == '=' && isSpace(buffer.get(i - 1))) {
+                int value = 0;
+                for (int j = i + 3; j < limit; j++) {
+                    byte d = buffer.get(j);
+                    if (d < '0' || d > '9') {
+                        break;
+                    }
+                    value = value * 10 + (d - '0');
+                }
+                return value - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(byte[] pattern, int from, int limit) {
+        byte first = pattern[0];
+        for (int i = from, max = limit - pattern.length; i <= max; i++) {
+            if (buffer.get(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && buffer.get(i + j) == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String ascii(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void delete(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败: {}", file, e);
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * 读取映射缓冲区一段数据的输入流，各自持有独立的读取位置
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer source, int from, int to) {
+            ByteBuffer duplicate = source.duplicate();
+            ((Buffer) duplicate).limit(to);
+            ((Buffer) duplicate).position(from);
+            this.buffer = duplicate;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package org.aimindflow.common.excel.reader;
+
+import org.aimindflow.common.excel.model.CellQuery;
+import org.aimindflow.common.excel.model.CellQueryResult;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 单元格查询的行处理器
+ *
+ * 只为查询目标保存数据，其余行不分配任何对象。只查询单元格和行时，读完停止行后抛出STOP中止解析。
+ *
+ * @author HezaoHezao
+ */
+final class SheetQueryHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+    /**
+     * 中止解析的信号，不生成堆栈
+     */
+    static final RuntimeException STOP = new RuntimeException("stop", null, false, false) {
+
+        private static final long serialVersionUID = 1L;
+    };
+
+    private final CellQuery query;
+
+    private final CellQueryResult result;
+
+    /**
+     * 查询的列，升序
+     */
+    private final int[] columns;
+
+    private final List<List<String>> columnValues;
+
+    private final String[] currentColumnValues;
+
+    /**
+     * 列数据的起始行
+     */
+    private final int firstRow;
+
+    private final boolean skipEmptyRows;
+
+    /**
+     * 读完该行后停止解析
+     */
+    private int stopRow;
+
+    private int lastRow = -1;
+
+    private int currentRow;
+
+    private int nextColumn;
+
+    private Set<Integer> currentCells;
+
+    private List<String> currentRowValues;
+
+    /**
+     * 当前行是否有非空单元格
+     */
+    private boolean currentRowHasValue;
+
+    SheetQueryHandler(CellQuery query, CellQueryResult result) {
+        this.query = query;
+        this.result = result;
+        this.columns = query.getColumns().stream().mapToInt(Integer::intValue).toArray();
+        this.columnValues = new ArrayList<>(columns.length);
+        for (int column : columns) {
+            List<String> values = new ArrayList<>();
+            columnValues.add(values);
+            result.putColumn(column, values);
+        }
+        this.currentColumnValues = new String[columns.length];
+        this.firstRow = query.getFirstRow();
+        this.skipEmptyRows = query.isSkipEmptyRows();
+        this.stopRow = columns.length > 0 ? Integer.MAX_VALUE : query.getMaxRow();
+    }
+
+    /**
+     * 设置停止行，查询列时需要读取全部行，设置无效
+     *
+     * @param stopRow 停止行
+     */
+    void setStopRow(int stopRow) {
+        if (columns.length == 0) {
+            this.stopRow = stopRow;
+        }
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+        // 列数据中缺失的行以空字符串补齐
+        if (!skipEmptyRows) {
+            for (int row = Math.max(lastRow + 1, firstRow); row < rowNum; row++) {
+                for (List<String> values : columnValues) {
+                    values.add("");
+                }
+            }
+        }
+        currentRow = rowNum;
+        nextColumn = 0;
+        currentRowHasValue = false;
+        currentCells = query.getCells().get(rowNum);
+        if (currentCells != null) {
+            for (Integer column : currentCells) {
+                result.putCell(rowNum, column, "");
+            }
+        }
+        currentRowValues = query.getRows().contains(rowNum) ? new ArrayList<>() : null;
+        Arrays.fill(currentColumnValues, null);
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+        cell(cellReference == null ? nextColumn : columnIndex(cellReference), formattedValue);
+    }
+
+    /**
+     * 处理单元格
+     *
+     * @param column 列索引
+     * @param value  格式化后的值
+     */
+    void cell(int column, String value) {
+        nextColumn = column + 1;
+        String text = value == null ? "" : value;
+        if (!currentRowHasValue && !text.trim().isEmpty()) {
+            currentRowHasValue = true;
+        }
+        if (currentRowValues != null) {
+            while (currentRowValues.size() < column) {
+                currentRowValues.add("");
+            }
+            currentRowValues.add(text);
+        }
+        if (currentCells != null && currentCells.contains(column)) {
+            result.putCell(currentRow, column, text);
+        }
+        if (columns.length > 0) {
+            int i = Arrays.binarySearch(columns, column);
+            if (i >= 0) {
+                currentColumnValues[i] = text;
+            }
+        }
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+        if (currentRowValues != null) {
+            result.putRow(rowNum, currentRowValues);
+        }
+        if (rowNum >= firstRow && (currentRowHasValue || !skipEmptyRows)) {
+            for (int i = 0; i < columns.length; i++) {
+                columnValues.get(i).add(currentColumnValues[i] == null ? "" : currentColumnValues[i]);
+            }
+        }
+        lastRow = rowNum;
+        if (rowNum >= stopRow) {
+            throw STOP;
+        }
+    }
+
+    /**
+     * 是否为中止解析的信号，解析器可能会包装处理器抛出的异常
+     *
+     * @param e 异常
+     * @return 是否为中止信号
+     */
+    static boolean isStop(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t == STOP) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从单元格引用（如AB12）解析列索引
+     */
+    private static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package org.aimindflow.common.excel.reader;
+
+import org.aimindflow.common.excel.model.CellQuery;
+import org.aimindflow.common.excel.model.CellQueryResult;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 单遍单元格查询
+ *
+ * xlsx以SAX方式解析一次工作表，同时回答查询中的全部单元格、行和列，不为非目标行分配对象，
+ * 只查询单元格和行时读到最后一个目标行即停止。xls文件按行遍历一次。
+ *
+ * @author HezaoHezao
+ */
+public final class SheetQueryReader {
+
+    private SheetQueryReader() {
+    }
+
+    /**
+     * 执行查询
+     *
+     * @param inputStream 输入流
+     * @param query       单元格查询
+     * @return 查询结果
+     * @throws IOException 读取失败
+     */
+    public static CellQueryResult query(InputStream inputStream, CellQuery query) throws IOException {
+        CellQueryResult result = new CellQueryResult();
+        if (query.isEmpty()) {
+            return result;
+        }
+        SheetQueryHandler handler = new SheetQueryHandler(query, result);
+        try (WorkbookSource source = WorkbookSource.open(inputStream)) {
+            if (source.isOoxml()) {
+                try (InputStream sheet = source.openSheet(query.getSheetIndex())) {
+                    WorkbookSource.parse(sheet, source.getSharedStrings(), source.getStyles(), handler);
+                }
+            } else {
+                readWorkbook(source.getFile(), query.getSheetIndex(), handler);
+            }
+        }
+        return result;
+    }
+
+    private static void readWorkbook(Path file, int sheetIndex, SheetQueryHandler handler) throws IOException {
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+            Sheet sheet = workbook.getSheetAt(sheetIndex);
+            for (Row row : sheet) {
+                handler.startRow(row.getRowNum());
+                for (Cell cell : row) {
+                    handler.cell(cell.getColumnIndex(), formatter.formatCellValue(cell));
+                }
+                handler.endRow(row.getRowNum());
+            }
+        } catch (RuntimeException e) {
+            if (!SheetQueryHandler.isStop(e)) {
+                throw e;
+            }
+        }
+    }
+}
\ No newline at end of file
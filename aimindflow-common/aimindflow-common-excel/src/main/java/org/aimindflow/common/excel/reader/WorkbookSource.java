@@ -0,0 +1,190 @@
+package org.aimindflow.common.excel.reader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.Styles;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * 读取用的工作簿文件
+ *
+ * 输入流先复制到临时文件，xlsx按需打开压缩包中的工作表，不把整个文件读入内存；关闭时删除临时文件。
+ *
+ * @author HezaoHezao
+ */
+final class WorkbookSource implements Closeable {
+
+    private static final ThreadLocal<XMLReader> PARSERS = new ThreadLocal<>();
+
+    private static final ThreadLocal<DataFormatter> FORMATTERS = ThreadLocal.withInitial(DataFormatter::new);
+
+    private static final DefaultHandler EMPTY_HANDLER = new DefaultHandler();
+
+    private final Path file;
+
+    private final boolean ooxml;
+
+    private OPCPackage pkg;
+
+    private XSSFReader reader;
+
+    private SharedStrings sharedStrings;
+
+    private Styles styles;
+
+    private WorkbookSource(Path file) throws IOException {
+        this.file = file;
+        this.ooxml = FileMagic.valueOf(file.toFile()) == FileMagic.OOXML;
+    }
+
+    /**
+     * 打开输入流
+     *
+     * @param inputStream 输入流
+     * @return 工作簿文件
+     * @throws IOException 复制失败
+     */
+    static WorkbookSource open(InputStream inputStream) throws IOException {
+        Path file = Files.createTempFile("excel-read-", ".tmp");
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            return new WorkbookSource(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * 是否为xlsx文件
+     */
+    boolean isOoxml() {
+        return ooxml;
+    }
+
+    /**
+     * 打开工作表的XML数据
+     *
+     * @param sheetIndex 工作表索引
+     * @return 工作表XML输入流
+     * @throws IOException 读取失败或工作表不存在
+     */
+    InputStream openSheet(int sheetIndex) throws IOException {
+        try {
+            Iterator<InputStream> sheets = getReader().getSheetsData();
+            for (int i = 0; sheets.hasNext(); i++) {
+                InputStream sheet = sheets.next();
+                if (i == sheetIndex) {
+                    return sheet;
+                }
+                sheet.close();
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException(e);
+        }
+        throw new IllegalArgumentException("工作表不存在: " + sheetIndex);
+    }
+
+    SharedStrings getSharedStrings() throws IOException {
+        if (sharedStrings == null) {
+            getReader();
+            try {
+                sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            } catch (SAXException e) {
+                throw new IOException(e);
+            }
+        }
+        return sharedStrings;
+    }
+
+    Styles getStyles() throws IOException {
+        if (styles == null) {
+            try {
+                styles = getReader().getStylesTable();
+            } catch (OpenXML4JException e) {
+                throw new IOException(e);
+            }
+        }
+        return styles;
+    }
+
+    private XSSFReader getReader() throws IOException {
+        if (reader == null) {
+            try {
+                pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+                reader = new XSSFReader(pkg);
+            } catch (OpenXML4JException e) {
+                throw new IOException(e);
+            }
+        }
+        return reader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pkg != null) {
+                pkg.revert();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 解析工作表XML，处理器发出中止信号时正常返回。解析器按线程复用，索引反复查询时不必每次创建
+     *
+     * @param sheetXml      工作表XML
+     * @param sharedStrings 共享字符串
+     * @param styles        样式
+     * @param handler       行处理器
+     * @throws IOException 解析失败
+     */
+    static void parse(InputStream sheetXml, SharedStrings sharedStrings, Styles styles,
+                      SheetQueryHandler handler) throws IOException {
+        XMLReader parser = PARSERS.get();
+        try {
+            if (parser == null) {
+                parser = XMLHelper.newXMLReader();
+                PARSERS.set(parser);
+            }
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, sharedStrings, handler, FORMATTERS.get(), false));
+            parser.parse(new InputSource(sheetXml));
+        } catch (SAXException | RuntimeException e) {
+            if (!SheetQueryHandler.isStop(e)) {
+                throw new IOException(e);
+            }
+        } catch (ParserConfigurationException e) {
+            throw new IOException(e);
+        } finally {
+            // 不让复用的解析器持有共享字符串
+            if (parser != null) {
+                parser.setContentHandler(EMPTY_HANDLER);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,9 +1,14 @@
 package org.aimindflow.common.excel.service;
 
+import org.aimindflow.common.excel.model.CellQuery;
+import org.aimindflow.common.excel.model.CellQueryResult;
+
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Excel服务接口
@@ -46,6 +51,61 @@ public interface ExcelService {
      */
     <T> boolean exportExcel(String sheetName, List<T> dataList, Class<T> clazz, OutputStream outputStream);
 
+    /**
+     * 流式导出Excel（基于数据迭代器）
+     * 数据边读边写，内存中只保留有限的行，列宽按表头和前若干行估算，
+     * 超过单个工作表的行数上限时续写到新的工作表。分页查询可通过PagedIterator接入。
+     * 导出失败时不向输出流写出工作簿，不会产生只含部分数据的文件
+     *
+     * @param sheetName    工作表名称
+     * @param headers      表头
+     * @param data         数据迭代器
+     * @param outputStream 输出流
+     * @param <T>          数据类型
+     * @return 是否成功
+     */
+    <T> boolean exportExcel(String sheetName, String[] headers, Iterator<T> data, OutputStream outputStream);
+
+    /**
+     * 流式导出Excel（基于对象迭代器，使用注解）
+     *
+     * @param sheetName    工作表名称
+     * @param data         数据迭代器
+     * @param clazz        数据类型
+     * @param outputStream 输出流
+     * @param <T>          数据类型
+     * @return 是否成功
+     */
+    <T> boolean exportExcel(String sheetName, Iterator<T> data, Class<T> clazz, OutputStream outputStream);
+
+    /**
+     * 流式导出Excel（基于数据流），数据流由调用方关闭
+     *
+     * @param sheetName    工作表名称
+     * @param headers      表头
+     * @param data         数据流
+     * @param outputStream 输出流
+     * @param <T>          数据类型
+     * @return 是否成功
+     */
+    default <T> boolean exportExcel(String sheetName, String[] headers, Stream<T> data, OutputStream outputStream) {
+        return exportExcel(sheetName, headers, data.iterator(), outputStream);
+    }
+
+    /**
+     * 流式导出Excel（基于对象流，使用注解），数据流由调用方关闭
+     *
+     * @param sheetName    工作表名称
+     * @param data         数据流
+     * @param clazz        数据类型
+     * @param outputStream 输出流
+     * @param <T>          数据类型
+     * @return 是否成功
+     */
+    default <T> boolean exportExcel(String sheetName, Stream<T> data, Class<T> clazz, OutputStream outputStream) {
+        return exportExcel(sheetName, data.iterator(), clazz, outputStream);
+    }
+
     /**
      * 导入Excel（返回对象列表）
      *
@@ -95,4 +155,13 @@ public interface ExcelService {
      * @return 列数据
      */
     List<String> readColumn(InputStream inputStream, int sheetIndex, int columnIndex);
+
+    /**
+     * 批量读取Excel单元格、行和列，一次读取回答查询中的全部目标
+     *
+     * @param inputStream 输入流
+     * @param query       单元格查询
+     * @return 查询结果
+     */
+    CellQueryResult readCells(InputStream inputStream, CellQuery query);
 }
\ No newline at end of file
@@ -1,22 +1,39 @@
 package org.aimindflow.common.excel.service.impl;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.event.AnalysisEventListener;
+import com.alibaba.excel.write.handler.context.CellWriteHandlerContext;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.alibaba.excel.write.style.column.AbstractColumnWidthStyleStrategy;
 import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.excel.constant.ExcelConstants;
+import org.aimindflow.common.excel.listener.ExcelDataListener;
+import org.aimindflow.common.excel.model.CellQuery;
+import org.aimindflow.common.excel.model.CellQueryResult;
+import org.aimindflow.common.excel.reader.SheetQueryReader;
 import org.aimindflow.common.excel.service.ExcelService;
+import org.aimindflow.common.excel.util.ColumnWidthEstimator;
+import org.aimindflow.common.excel.util.ExcelUtils;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 /**
  * 基于EasyExcel的Excel服务实现
  *
+ * 数据导出按批次增量写入，内存占用与行数无关。
+ *
  * @author HezaoHezao
  */
 @Slf4j
@@ -31,59 +48,76 @@ public class EasyExcelServiceImpl implements ExcelService {
 
     @Override
     public <T> boolean exportExcel(String sheetName, String[] headers, List<T> dataList, OutputStream outputStream) {
+        return exportExcel(sheetName, headers, dataList.iterator(), outputStream);
+    }
+
+    @Override
+    public <T> boolean exportExcel(String sheetName, List<T> dataList, Class<T> clazz, OutputStream outputStream) {
+        return exportExcel(sheetName, dataList.iterator(), clazz, outputStream);
+    }
+
+    @Override
+    public <T> boolean exportExcel(String sheetName, String[] headers, Iterator<T> data, OutputStream outputStream) {
+        // 创建表头
+        List<List<String>> headList = new ArrayList<>();
+        for (String header : headers) {
+            List<String> head = new ArrayList<>();
+            head.add(header);
+            headList.add(head);
+        }
+
+        ExcelWriter writer = null;
+        boolean completed = false;
         try {
-            // 将数据转换为Map列表
-            List<Map<String, Object>> mapList = new ArrayList<>();
-            for (T data : dataList) {
-                if (data instanceof Map) {
-                    mapList.add((Map<String, Object>) data);
-                } else {
+            writer = EasyExcel.write(outputStream)
+                    .registerWriteHandler(new SampledColumnWidthStrategy())
+                    .build();
+            SheetWriter sheetWriter = new SheetWriter(writer, sheetName, headList);
+            while (data.hasNext()) {
+                T item = data.next();
+                if (!(item instanceof Map)) {
                     log.warn("EasyExcel导出非Map对象时，请使用带Class参数的方法");
                     return false;
                 }
-            }
-
-            // 创建表头
-            List<List<String>> headList = new ArrayList<>();
-            for (String header : headers) {
-                List<String> head = new ArrayList<>();
-                head.add(header);
-                headList.add(head);
-            }
-
-            // 创建数据列表
-            List<List<Object>> dataRows = new ArrayList<>();
-            for (Map<String, Object> map : mapList) {
-                List<Object> row = new ArrayList<>();
+                // 按表头顺序转换为行数据，只保留当前批次
+                Map<?, ?> map = (Map<?, ?>) item;
+                List<Object> row = new ArrayList<>(headers.length);
                 for (String header : headers) {
                     row.add(map.get(header));
                 }
-                dataRows.add(row);
+                sheetWriter.add(row);
             }
-
-            // 导出Excel
-            EasyExcel.write(outputStream)
-                    .sheet(sheetName)
-                    .head(headList)
-                    .doWrite(dataRows);
-
+            sheetWriter.flush();
+            completed = true;
             return true;
         } catch (Exception e) {
             log.error("EasyExcel导出失败", e);
             return false;
+        } finally {
+            finish(writer, completed);
         }
     }
 
     @Override
-    public <T> boolean exportExcel(String sheetName, List<T> dataList, Class<T> clazz, OutputStream outputStream) {
+    public <T> boolean exportExcel(String sheetName, Iterator<T> data, Class<T> clazz, OutputStream outputStream) {
+        ExcelWriter writer = null;
+        boolean completed = false;
         try {
-            EasyExcel.write(outputStream, clazz)
-                    .sheet(sheetName)
-                    .doWrite(dataList);
+            writer = EasyExcel.write(outputStream, clazz)
+                    .registerWriteHandler(new SampledColumnWidthStrategy())
+                    .build();
+            SheetWriter sheetWriter = new SheetWriter(writer, sheetName, null);
+            while (data.hasNext()) {
+                sheetWriter.add(data.next());
+            }
+            sheetWriter.flush();
+            completed = true;
             return true;
         } catch (Exception e) {
             log.error("EasyExcel导出失败", e);
             return false;
+        } finally {
+            finish(writer, completed);
         }
     }
 
@@ -92,17 +126,8 @@ public class EasyExcelServiceImpl implements ExcelService {
         List<T> dataList = new ArrayList<>();
 
         try {
-            EasyExcel.read(inputStream, clazz, new AnalysisEventListener<T>() {
-                @Override
-                public void invoke(T data, AnalysisContext context) {
-                    dataList.add(data);
-                }
-
-                @Override
-                public void doAfterAllAnalysed(AnalysisContext context) {
-                    log.info("Excel解析完成，共{}条数据", dataList.size());
-                }
-            }).sheet().doRead();
+            EasyExcel.read(inputStream, clazz, new ExcelDataListener<T>(dataList::addAll)).sheet().doRead();
+            log.info("Excel解析完成，共{}条数据", dataList.size());
         } catch (Exception e) {
             log.error("EasyExcel导入失败", e);
         }
@@ -137,90 +162,169 @@ public class EasyExcelServiceImpl implements ExcelService {
         return dataList;
     }
 
+    /**
+     * 读取单元格，与EasyExcel读取一致：行索引为工作表中的行号，表头行不返回
+     */
     @Override
     public String readCell(InputStream inputStream, int sheetIndex, int rowIndex, int columnIndex) {
-        List<List<String>> data = new ArrayList<>();
+        if (rowIndex < ExcelConstants.HEAD_ROW_NUMBER) {
+            return null;
+        }
+        return readCells(inputStream, CellQuery.of(sheetIndex).cell(rowIndex, columnIndex)).getCell(rowIndex, columnIndex);
+    }
 
-        try {
-            EasyExcel.read(inputStream, new AnalysisEventListener<Map<Integer, String>>() {
-                @Override
-                public void invoke(Map<Integer, String> rowData, AnalysisContext context) {
-                    if (context.readRowHolder().getRowIndex() == rowIndex) {
-                        List<String> row = new ArrayList<>();
-                        for (int i = 0; i <= columnIndex; i++) {
-                            row.add(rowData.getOrDefault(i, ""));
-                        }
-                        data.add(row);
-                    }
-                }
+    /**
+     * 读取行，与EasyExcel读取一致：行索引为工作表中的行号，表头行不返回
+     */
+    @Override
+    public List<String> readRow(InputStream inputStream, int sheetIndex, int rowIndex) {
+        if (rowIndex < ExcelConstants.HEAD_ROW_NUMBER) {
+            return new ArrayList<>();
+        }
+        List<String> rowData = readCells(inputStream, CellQuery.of(sheetIndex).row(rowIndex)).getRow(rowIndex);
+        return rowData != null ? rowData : new ArrayList<>();
+    }
 
-                @Override
-                public void doAfterAllAnalysed(AnalysisContext context) {
-                }
-            }).sheet(sheetIndex).doRead();
+    /**
+     * 读取列，与EasyExcel读取一致：不含表头行，跳过不存在和全部为空的行
+     */
+    @Override
+    public List<String> readColumn(InputStream inputStream, int sheetIndex, int columnIndex) {
+        CellQuery query = CellQuery.of(sheetIndex).column(columnIndex).fromRow(ExcelConstants.HEAD_ROW_NUMBER).skipEmptyRows();
+        List<String> columnData = readCells(inputStream, query).getColumn(columnIndex);
+        return columnData != null ? columnData : new ArrayList<>();
+    }
 
-            if (!data.isEmpty() && data.get(0).size() > columnIndex) {
-                return data.get(0).get(columnIndex);
-            }
+    @Override
+    public CellQueryResult readCells(InputStream inputStream, CellQuery query) {
+        try {
+            return SheetQueryReader.query(inputStream, query);
         } catch (Exception e) {
             log.error("EasyExcel读取单元格失败", e);
+            return new CellQueryResult();
         }
+    }
 
-        return null;
+    /**
+     * 结束写入。导出中途失败时只释放临时文件，不向输出流写出只含部分数据的工作簿
+     *
+     * @param writer    写入器
+     * @param completed 是否全部写入成功
+     */
+    private static void finish(ExcelWriter writer, boolean completed) {
+        if (writer == null) {
+            return;
+        }
+        if (completed) {
+            writer.finish();
+            return;
+        }
+        // EasyExcel在异常结束时先关闭工作簿再清理临时文件，未刷出的行会清理失败，这里先行清理
+        Workbook workbook = writer.writeContext().writeWorkbookHolder().getWorkbook();
+        if (workbook instanceof SXSSFWorkbook) {
+            ((SXSSFWorkbook) workbook).dispose();
+        }
+        writer.writeContext().finish(true);
     }
 
-    @Override
-    public List<String> readRow(InputStream inputStream, int sheetIndex, int rowIndex) {
-        List<List<String>> data = new ArrayList<>();
+    /**
+     * 分批写入工作表，超过行数上限时续写到新的工作表
+     */
+    private static final class SheetWriter {
 
-        try {
-            EasyExcel.read(inputStream, new AnalysisEventListener<Map<Integer, String>>() {
-                @Override
-                public void invoke(Map<Integer, String> rowData, AnalysisContext context) {
-                    if (context.readRowHolder().getRowIndex() == rowIndex) {
-                        List<String> row = new ArrayList<>();
-                        int maxColumnIndex = rowData.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
-                        for (int i = 0; i <= maxColumnIndex; i++) {
-                            row.add(rowData.getOrDefault(i, ""));
-                        }
-                        data.add(row);
-                    }
-                }
+        private final ExcelWriter writer;
 
-                @Override
-                public void doAfterAllAnalysed(AnalysisContext context) {
-                }
-            }).sheet(sheetIndex).doRead();
+        private final String sheetName;
+
+        private final List<List<String>> headList;
+
+        private final List<Object> batch = new ArrayList<>(ExcelConstants.WRITE_BATCH_SIZE);
+
+        private WriteSheet sheet;
 
-            if (!data.isEmpty()) {
-                return data.get(0);
+        private int sheetNo;
+
+        private int rowCount;
+
+        SheetWriter(ExcelWriter writer, String sheetName, List<List<String>> headList) {
+            this.writer = writer;
+            this.sheetName = sheetName;
+            this.headList = headList;
+            this.sheet = createSheet();
+        }
+
+        /**
+         * 添加一行数据，达到批次大小时写入
+         *
+         * @param row 行数据
+         */
+        void add(Object row) {
+            // 表头占用一行
+            if (rowCount >= ExcelConstants.MAX_SHEET_ROWS - 1) {
+                flush();
+                sheetNo++;
+                sheet = createSheet();
+                rowCount = 0;
+            }
+            batch.add(row);
+            rowCount++;
+            if (batch.size() >= ExcelConstants.WRITE_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * 写入当前批次，没有数据的工作表也会写出表头
+         */
+        void flush() {
+            if (!batch.isEmpty() || rowCount == 0) {
+                writer.write(batch, sheet);
+                batch.clear();
             }
-        } catch (Exception e) {
-            log.error("EasyExcel读取行失败", e);
         }
 
-        return new ArrayList<>();
+        private WriteSheet createSheet() {
+            WriteSheet writeSheet = EasyExcel.writerSheet(sheetNo, ExcelUtils.getSheetName(sheetName, sheetNo)).build();
+            if (headList != null) {
+                writeSheet.setHead(headList);
+            }
+            return writeSheet;
+        }
     }
 
-    @Override
-    public List<String> readColumn(InputStream inputStream, int sheetIndex, int columnIndex) {
-        List<String> columnData = new ArrayList<>();
+    /**
+     * 按表头和前若干行估算列宽，不扫描全部数据，续写的工作表使用相同的列宽
+     */
+    private static final class SampledColumnWidthStrategy extends AbstractColumnWidthStyleStrategy {
 
-        try {
-            EasyExcel.read(inputStream, new AnalysisEventListener<Map<Integer, String>>() {
-                @Override
-                public void invoke(Map<Integer, String> rowData, AnalysisContext context) {
-                    columnData.add(rowData.getOrDefault(columnIndex, ""));
-                }
+        private final ColumnWidthEstimator widthEstimator = new ColumnWidthEstimator();
 
-                @Override
-                public void doAfterAllAnalysed(AnalysisContext context) {
+        private Sheet lastSheet;
+
+        private int sheetCount;
+
+        private int columnCount;
+
+        @Override
+        protected void setColumnWidth(CellWriteHandlerContext context) {
+            Sheet sheet = context.getWriteSheetHolder().getSheet();
+            if (sheet != lastSheet) {
+                if (lastSheet != null) {
+                    widthEstimator.apply(sheet, columnCount);
                 }
-            }).sheet(sheetIndex).doRead();
-        } catch (Exception e) {
-            log.error("EasyExcel读取列失败", e);
+                lastSheet = sheet;
+                sheetCount++;
+            }
+            boolean head = Boolean.TRUE.equals(context.getHead());
+            if (sheetCount > 1 || (!head && context.getRowIndex() > ExcelConstants.COLUMN_WIDTH_SAMPLE_ROWS)) {
+                return;
+            }
+            int column = context.getColumnIndex();
+            Object value = head || context.getOriginalValue() == null ? context.getCell().toString() : context.getOriginalValue();
+            columnCount = Math.max(columnCount, column + 1);
+            if (widthEstimator.sample(column, value)) {
+                sheet.setColumnWidth(column, widthEstimator.getColumnWidth(column));
+            }
         }
-
-        return columnData;
     }
 }
\ No newline at end of file
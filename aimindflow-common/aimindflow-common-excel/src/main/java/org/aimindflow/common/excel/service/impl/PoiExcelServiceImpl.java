@@ -1,10 +1,18 @@
 package org.aimindflow.common.excel.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.excel.constant.ExcelConstants;
+import org.aimindflow.common.excel.exception.ExcelException;
+import org.aimindflow.common.excel.mapping.ExcelColumn;
+import org.aimindflow.common.excel.mapping.ExcelRowMapping;
+import org.aimindflow.common.excel.model.CellQuery;
+import org.aimindflow.common.excel.model.CellQueryResult;
 import org.aimindflow.common.excel.service.ExcelService;
+import org.aimindflow.common.excel.template.ExcelTemplate;
+import org.aimindflow.common.excel.util.ColumnWidthEstimator;
+import org.aimindflow.common.excel.util.ExcelUtils;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.IndexedColors;
@@ -12,21 +20,24 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 基于POI的Excel服务实现
  *
+ * 数据导出使用SXSSF流式写入，内存占用与行数无关。
+ *
  * @author HezaoHezao
  */
 @Slf4j
@@ -35,38 +46,11 @@ public class PoiExcelServiceImpl implements ExcelService {
 
     @Override
     public boolean exportExcel(String templatePath, Map<String, Object> data, OutputStream outputStream) {
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(templatePath);
-             Workbook workbook = WorkbookFactory.create(is)) {
-
-            // 遍历所有工作表
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                // 遍历所有行
-                for (int j = 0; j <= sheet.getLastRowNum(); j++) {
-                    Row row = sheet.getRow(j);
-                    if (row != null) {
-                        // 遍历所有单元格
-                        for (int k = 0; k < row.getLastCellNum(); k++) {
-                            Cell cell = row.getCell(k);
-                            if (cell != null && cell.getCellType() == CellType.STRING) {
-                                String cellValue = cell.getStringCellValue();
-                                // 替换模板中的占位符
-                                for (Map.Entry<String, Object> entry : data.entrySet()) {
-                                    String placeholder = "${" + entry.getKey() + "}";
-                                    if (cellValue.contains(placeholder)) {
-                                        cellValue = cellValue.replace(placeholder, entry.getValue().toString());
-                                        cell.setCellValue(cellValue);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-
-            workbook.write(outputStream);
+        try {
+            // 模板按路径编译并缓存，每次只替换占位符所在的单元格
+            ExcelTemplate.load(templatePath).render(data, outputStream);
             return true;
-        } catch (IOException e) {
+        } catch (IOException | ExcelException e) {
             log.error("导出Excel失败", e);
             return false;
         }
@@ -74,9 +58,42 @@ public class PoiExcelServiceImpl implements ExcelService {
 
     @Override
     public <T> boolean exportExcel(String sheetName, String[] headers, List<T> dataList, OutputStream outputStream) {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet(sheetName);
+        return exportExcel(sheetName, headers, dataList.iterator(), outputStream);
+    }
+
+    @Override
+    public <T> boolean exportExcel(String sheetName, List<T> dataList, Class<T> clazz, OutputStream outputStream) {
+        return exportExcel(sheetName, dataList.iterator(), clazz, outputStream);
+    }
 
+    @Override
+    public <T> boolean exportExcel(String sheetName, String[] headers, Iterator<T> data, OutputStream outputStream) {
+        return export(sheetName, headers, null, data, outputStream);
+    }
+
+    @Override
+    public <T> boolean exportExcel(String sheetName, Iterator<T> data, Class<T> clazz, OutputStream outputStream) {
+        // 按字段映射生成表头和列宽
+        ExcelRowMapping<T> mapping = ExcelRowMapping.of(clazz);
+        return export(sheetName, mapping.getHeaders(), mapping.getExportColumns(), data, outputStream);
+    }
+
+    /**
+     * 流式导出
+     *
+     * @param sheetName    工作表名称
+     * @param headers      表头
+     * @param columns      列映射，用于设置注解指定的列宽，可为null
+     * @param data         数据迭代器
+     * @param outputStream 输出流
+     * @return 是否成功
+     */
+    private boolean export(String sheetName, String[] headers, List<ExcelColumn> columns, Iterator<?> data,
+                           OutputStream outputStream) {
+        // 内存中只保留最近的若干行，其余行写入压缩的临时文件
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ExcelConstants.ROW_ACCESS_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
             // 创建表头样式
             CellStyle headerStyle = workbook.createCellStyle();
             headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
@@ -85,51 +102,36 @@ public class PoiExcelServiceImpl implements ExcelService {
             headerFont.setBold(true);
             headerStyle.setFont(headerFont);
 
-            // 创建表头
-            Row headerRow = sheet.createRow(0);
+            // 按表头和前若干行估算列宽
+            ColumnWidthEstimator widthEstimator = new ColumnWidthEstimator();
             for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
+                widthEstimator.sample(i, headers[i]);
             }
 
-            // 填充数据
+            // 填充数据，超过行数上限时续写到新的工作表
+            int sheetIndex = 0;
+            Sheet sheet = createSheet(workbook, sheetName, sheetIndex, headers, headerStyle);
             int rowNum = 1;
-            for (T data : dataList) {
-                Row row = sheet.createRow(rowNum++);
-                if (data instanceof Map) {
-                    // 处理Map类型数据
-                    Map<?, ?> map = (Map<?, ?>) data;
-                    int colNum = 0;
-                    for (String header : headers) {
-                        Cell cell = row.createCell(colNum++);
-                        Object value = map.get(header);
-                        setCellValue(cell, value);
-                    }
-                } else {
-                    // 处理普通对象
-                    Field[] fields = data.getClass().getDeclaredFields();
-                    int colNum = 0;
-                    for (Field field : fields) {
-                        if (colNum >= headers.length) {
-                            break;
-                        }
-                        field.setAccessible(true);
-                        Cell cell = row.createCell(colNum++);
-                        try {
-                            Object value = field.get(data);
-                            setCellValue(cell, value);
-                        } catch (IllegalAccessException e) {
-                            log.error("获取字段值失败", e);
-                            cell.setCellValue("");
-                        }
-                    }
+            long total = 0;
+            while (data.hasNext()) {
+                Object item = data.next();
+                if (rowNum >= ExcelConstants.MAX_SHEET_ROWS) {
+                    sheet = createSheet(workbook, sheetName, ++sheetIndex, headers, headerStyle);
+                    rowNum = 1;
                 }
+                Row row = sheet.createRow(rowNum++);
+                writeRow(row, headers, item, total++ < ExcelConstants.COLUMN_WIDTH_SAMPLE_ROWS ? widthEstimator : null);
             }
 
-            // 自动调整列宽
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            // 设置列宽
+            for (int i = 0; i <= sheetIndex; i++) {
+                Sheet target = workbook.getSheetAt(i);
+                widthEstimator.apply(target, headers.length);
+                for (int j = 0; columns != null && j < columns.size(); j++) {
+                    if (columns.get(j).getWidth() > 0) {
+                        target.setColumnWidth(j, Math.min(columns.get(j).getWidth(), ExcelConstants.MAX_COLUMN_WIDTH) * 256);
+                    }
+                }
             }
 
             workbook.write(outputStream);
@@ -137,34 +139,38 @@ public class PoiExcelServiceImpl implements ExcelService {
         } catch (IOException e) {
             log.error("导出Excel失败", e);
             return false;
+        } finally {
+            // 删除临时文件
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                log.warn("关闭Excel工作簿失败", e);
+            }
         }
     }
 
-    @Override
-    public <T> boolean exportExcel(String sheetName, List<T> dataList, Class<T> clazz, OutputStream outputStream) {
-        // 获取类的所有字段作为表头
-        Field[] fields = clazz.getDeclaredFields();
-        String[] headers = new String[fields.length];
-        for (int i = 0; i < fields.length; i++) {
-            headers[i] = fields[i].getName();
-        }
-
-        return exportExcel(sheetName, headers, dataList, outputStream);
-    }
-
     @Override
     public <T> List<T> importExcel(InputStream inputStream, Class<T> clazz) {
         List<T> dataList = new ArrayList<>();
+        ExcelRowMapping<T> mapping = ExcelRowMapping.of(clazz);
 
         try (Workbook workbook = WorkbookFactory.create(inputStream)) {
             Sheet sheet = workbook.getSheetAt(0);
-            // 获取表头
+            // 获取表头，按表头名称匹配列映射
             Row headerRow = sheet.getRow(0);
             int cellCount = headerRow.getLastCellNum();
-            String[] headers = new String[cellCount];
+            ExcelColumn[] columns = new ExcelColumn[cellCount];
             for (int i = 0; i < cellCount; i++) {
                 Cell cell = headerRow.getCell(i);
-                headers[i] = cell.getStringCellValue();
+                if (cell == null) {
+                    continue;
+                }
+                String header = cell.getStringCellValue();
+                columns[i] = mapping.getImportColumn(header);
+                if (columns[i] == null) {
+                    log.warn("字段不存在: {}", header);
+                }
             }
 
             // 获取数据
@@ -174,27 +180,36 @@ public class PoiExcelServiceImpl implements ExcelService {
                     continue;
                 }
 
+                T obj;
                 try {
-                    T obj = clazz.newInstance();
-                    for (int j = 0; j < cellCount; j++) {
-                        Cell cell = row.getCell(j);
-                        if (cell == null) {
-                            continue;
-                        }
-
-                        String fieldName = headers[j];
-                        try {
-                            Field field = clazz.getDeclaredField(fieldName);
-                            field.setAccessible(true);
-                            Object value = getCellValue(cell, field.getType());
-                            field.set(obj, value);
-                        } catch (NoSuchFieldException e) {
-                            log.warn("字段不存在: {}", fieldName);
-                        }
+                    obj = mapping.newInstance();
+                } catch (ExcelException e) {
+                    log.error("创建对象实例失败", e);
+                    continue;
+                }
+                boolean valid = true;
+                for (int j = 0; j < cellCount; j++) {
+                    ExcelColumn column = columns[j];
+                    if (column == null) {
+                        continue;
+                    }
+                    Object value;
+                    try {
+                        value = column.readCell(row.getCell(j));
+                    } catch (RuntimeException e) {
+                        log.warn("第{}行字段{}转换失败: {}", i + 1, column.getName(), e.getMessage());
+                        continue;
+                    }
+                    if (value != null) {
+                        column.setValue(obj, value);
+                    } else if (column.isRequired()) {
+                        log.warn("第{}行缺少必填字段: {}", i + 1, column.getName());
+                        valid = false;
+                        break;
                     }
+                }
+                if (valid) {
                     dataList.add(obj);
-                } catch (InstantiationException | IllegalAccessException e) {
-                    log.error("创建对象实例失败", e);
                 }
             }
         } catch (IOException e) {
@@ -309,6 +324,128 @@ public class PoiExcelServiceImpl implements ExcelService {
         return columnData;
     }
 
+    @Override
+    public CellQueryResult readCells(InputStream inputStream, CellQuery query) {
+        CellQueryResult result = new CellQueryResult();
+
+        try (Workbook workbook = WorkbookFactory.create(inputStream)) {
+            Sheet sheet = workbook.getSheetAt(query.getSheetIndex());
+
+            // 单元格
+            for (Map.Entry<Integer, Set<Integer>> entry : query.getCells().entrySet()) {
+                Row row = sheet.getRow(entry.getKey());
+                if (row == null) {
+                    continue;
+                }
+                for (Integer columnIndex : entry.getValue()) {
+                    Cell cell = row.getCell(columnIndex);
+                    result.putCell(entry.getKey(), columnIndex, cell == null ? "" : getCellValue(cell, String.class).toString());
+                }
+            }
+
+            // 行
+            for (Integer rowIndex : query.getRows()) {
+                Row row = sheet.getRow(rowIndex);
+                if (row == null) {
+                    continue;
+                }
+                List<String> rowData = new ArrayList<>();
+                for (int i = 0; i < row.getLastCellNum(); i++) {
+                    Cell cell = row.getCell(i);
+                    rowData.add(cell == null ? "" : getCellValue(cell, String.class).toString());
+                }
+                result.putRow(rowIndex, rowData);
+            }
+
+            // 列，所有列在一次遍历中读取
+            if (!query.getColumns().isEmpty()) {
+                List<Integer> columnIndexes = new ArrayList<>(query.getColumns());
+                List<List<String>> columns = new ArrayList<>(columnIndexes.size());
+                for (Integer columnIndex : columnIndexes) {
+                    List<String> columnData = new ArrayList<>();
+                    columns.add(columnData);
+                    result.putColumn(columnIndex, columnData);
+                }
+                for (int i = 0; i <= sheet.getLastRowNum(); i++) {
+                    Row row = sheet.getRow(i);
+                    for (int j = 0; j < columnIndexes.size(); j++) {
+                        Cell cell = row == null ? null : row.getCell(columnIndexes.get(j));
+                        columns.get(j).add(cell == null ? "" : getCellValue(cell, String.class).toString());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("读取Excel单元格失败", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * 创建工作表并写入表头
+     *
+     * @param workbook    工作簿
+     * @param sheetName   工作表名称
+     * @param sheetIndex  工作表索引
+     * @param headers     表头
+     * @param headerStyle 表头样式
+     * @return 工作表
+     */
+    private Sheet createSheet(Workbook workbook, String sheetName, int sheetIndex, String[] headers, CellStyle headerStyle) {
+        Sheet sheet = workbook.createSheet(ExcelUtils.getSheetName(sheetName, sheetIndex));
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        return sheet;
+    }
+
+    /**
+     * 写入一行数据
+     *
+     * @param row            行
+     * @param headers        表头
+     * @param data           数据
+     * @param widthEstimator 列宽估算器，不再采样时为null
+     */
+    private void writeRow(Row row, String[] headers, Object data, ColumnWidthEstimator widthEstimator) {
+        if (data instanceof Map) {
+            // 处理Map类型数据
+            Map<?, ?> map = (Map<?, ?>) data;
+            for (int i = 0; i < headers.length; i++) {
+                writeCell(row, i, map.get(headers[i]), widthEstimator);
+            }
+            return;
+        }
+        // 处理普通对象，按类缓存的列映射读取字段
+        List<ExcelColumn> columns = ExcelRowMapping.of(data.getClass()).getExportColumns();
+        for (int i = 0; i < columns.size() && i < headers.length; i++) {
+            ExcelColumn column = columns.get(i);
+            Object value = column.getValue(data);
+            column.writeCell(row.createCell(i), value);
+            if (widthEstimator != null) {
+                widthEstimator.sample(i, value);
+            }
+        }
+    }
+
+    /**
+     * 写入单元格并采样列宽
+     *
+     * @param row            行
+     * @param column         列索引
+     * @param value          值
+     * @param widthEstimator 列宽估算器，不再采样时为null
+     */
+    private void writeCell(Row row, int column, Object value, ColumnWidthEstimator widthEstimator) {
+        setCellValue(row.createCell(column), value);
+        if (widthEstimator != null) {
+            widthEstimator.sample(column, value);
+        }
+    }
+
     /**
      * 设置单元格值
      *
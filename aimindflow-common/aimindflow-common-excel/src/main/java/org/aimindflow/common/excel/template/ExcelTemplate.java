@@ -0,0 +1,497 @@
+package org.aimindflow.common.excel.template;
+
+import org.aimindflow.common.excel.constant.ExcelConstants;
+import org.aimindflow.common.excel.exception.ExcelException;
+import org.aimindflow.common.excel.mapping.ExcelColumn;
+import org.aimindflow.common.excel.mapping.ExcelRowMapping;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 编译后的Excel模板
+ *
+ * 模板只加载和扫描一次，缓存文件内容和占位符所在的单元格位置。每次渲染从缓存的文件内容创建工作簿，
+ * 只处理有占位符的单元格。
+ *
+ * 占位符格式为${key}，值为null时替换为空字符串，数据中没有对应的键或属性时保留占位符原文。
+ * 单元格只有一个占位符时按值的类型写入，数字和布尔值写为对应类型，日期在单元格为日期格式时写为日期。
+ * ${list.property}先按完整名称查找，数据中没有时从list的值中读取属性，属性从Map或对象的导出列中读取
+ * （按字段名称或表头名称）。list的值为集合、迭代器、数据流或数组时所在行为循环行，每个元素生成一行；
+ * 其他情况下与普通占位符相同，只替换占位符所在的单元格。
+ * 工作表只有一个循环行展开且该行是xlsx工作表的最后一行时，数据边读边写，其他情况下先读取全部数据再插入行。
+ * 循环行展开时复制样式、行高和常量值，公式单元格展开后为空，不复制合并单元格。
+ *
+ * @author HezaoHezao
+ */
+public final class ExcelTemplate {
+
+    private static final Map<String, ExcelTemplate> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 模板文件内容
+     */
+    private final byte[] image;
+
+    private final boolean xlsx;
+
+    private final List<SheetPlan> sheets;
+
+    private ExcelTemplate(byte[] image) throws IOException {
+        this.image = image;
+        try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(image))) {
+            this.xlsx = workbook instanceof XSSFWorkbook;
+            List<SheetPlan> plans = new ArrayList<>();
+            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+                SheetPlan plan = compile(workbook.getSheetAt(i), i);
+                if (plan != null) {
+                    plans.add(plan);
+                }
+            }
+            this.sheets = Collections.unmodifiableList(plans);
+        }
+    }
+
+    /**
+     * 加载类路径下的模板，编译结果按路径缓存
+     *
+     * @param templatePath 模板路径
+     * @return 模板
+     * @throws ExcelException 模板不存在或无法解析
+     */
+    public static ExcelTemplate load(String templatePath) {
+        return CACHE.computeIfAbsent(templatePath, path -> {
+            try (InputStream is = ExcelTemplate.class.getClassLoader().getResourceAsStream(path)) {
+                if (is == null) {
+                    throw new ExcelException(ExcelConstants.ERROR_TEMPLATE_NOT_FOUND + ": " + path);
+                }
+                return compile(IOUtils.toByteArray(is));
+            } catch (IOException e) {
+                throw new ExcelException(ExcelConstants.ERROR_FILE_READ, e);
+            }
+        });
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param image 模板文件内容
+     * @return 模板
+     * @throws IOException 模板无法解析
+     */
+    public static ExcelTemplate compile(byte[] image) throws IOException {
+        return new ExcelTemplate(image.clone());
+    }
+
+    /**
+     * 移除缓存的模板，模板文件更新后调用
+     *
+     * @param templatePath 模板路径
+     */
+    public static void evict(String templatePath) {
+        CACHE.remove(templatePath);
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param data         数据
+     * @param outputStream 输出流
+     * @throws IOException    写入失败
+     * @throws ExcelException 循环数据超过工作表的行数上限
+     */
+    public void render(Map<String, Object> data, OutputStream outputStream) throws IOException {
+        Map<String, Object> values = data != null ? data : Collections.emptyMap();
+        try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(image))) {
+            List<PendingLoop> streams = new ArrayList<>();
+            for (SheetPlan plan : sheets) {
+                render(workbook, plan, values, streams);
+            }
+            if (streams.isEmpty()) {
+                workbook.write(outputStream);
+                return;
+            }
+            // 模板中的行保留在原工作簿，循环数据追加在最后一行之后
+            SXSSFWorkbook streaming = new SXSSFWorkbook((XSSFWorkbook) workbook, ExcelConstants.ROW_ACCESS_WINDOW_SIZE);
+            try {
+                for (PendingLoop pending : streams) {
+                    stream(streaming, pending, values);
+                }
+                streaming.write(outputStream);
+            } finally {
+                streaming.dispose();
+            }
+        }
+    }
+
+    private static SheetPlan compile(Sheet sheet, int sheetIndex) {
+        List<Placeholder> placeholders = new ArrayList<>();
+        List<LoopRow> loops = new ArrayList<>();
+        for (Row row : sheet) {
+            List<Placeholder> cells = new ArrayList<>();
+            String loopKey = null;
+            for (Cell cell : row) {
+                if (cell.getCellType() != CellType.STRING) {
+                    continue;
+                }
+                TemplateText text = TemplateText.parse(cell.getStringCellValue());
+                if (text == null) {
+                    continue;
+                }
+                cells.add(new Placeholder(row.getRowNum(), cell.getColumnIndex(), text));
+                for (int i = 0; loopKey == null && i < text.size(); i++) {
+                    loopKey = text.getOwner(i);
+                }
+            }
+            if (loopKey != null) {
+                loops.add(new LoopRow(row, loopKey, cells));
+            } else {
+                placeholders.addAll(cells);
+            }
+        }
+        if (placeholders.isEmpty() && loops.isEmpty()) {
+            return null;
+        }
+        // 从下往上插入行，插入时不影响上方循环行的位置
+        loops.sort((a, b) -> Integer.compare(b.rowIndex, a.rowIndex));
+        return new SheetPlan(sheetIndex, sheet.getLastRowNum(), placeholders, loops);
+    }
+
+    private void render(Workbook workbook, SheetPlan plan, Map<String, Object> data, List<PendingLoop> streams) {
+        Sheet sheet = workbook.getSheetAt(plan.sheetIndex);
+        replace(sheet, plan.placeholders, data);
+        List<PendingLoop> loops = new ArrayList<>();
+        for (LoopRow loop : plan.loops) {
+            Iterator<?> items = iterator(data.get(loop.loopKey));
+            if (items != null) {
+                loops.add(new PendingLoop(plan.sheetIndex, loop, items));
+            } else {
+                // 不是集合时不展开，其余单元格保持不变
+                replace(sheet, loop.placeholders, data);
+            }
+        }
+        if (xlsx && loops.size() == 1 && loops.get(0).loop.rowIndex == plan.lastRowIndex) {
+            sheet.removeRow(sheet.getRow(plan.lastRowIndex));
+            streams.add(loops.get(0));
+            return;
+        }
+        for (PendingLoop pending : loops) {
+            insert(workbook, sheet, pending.loop, data, pending.items);
+        }
+    }
+
+    private static void replace(Sheet sheet, List<Placeholder> placeholders, Map<String, Object> data) {
+        for (Placeholder placeholder : placeholders) {
+            Cell cell = sheet.getRow(placeholder.rowIndex).getCell(placeholder.columnIndex);
+            write(cell, placeholder.text, resolve(placeholder.text, data, null, null));
+        }
+    }
+
+    private static void stream(SXSSFWorkbook workbook, PendingLoop pending, Map<String, Object> data) {
+        // 通过流式工作簿创建的行超出窗口后写入临时文件
+        Sheet sheet = workbook.getSheetAt(pending.sheetIndex);
+        CellStyle[] styles = pending.loop.styles(workbook);
+        int rowIndex = pending.loop.rowIndex;
+        while (pending.items.hasNext()) {
+            if (rowIndex >= ExcelConstants.MAX_SHEET_ROWS) {
+                throw new ExcelException("循环数据超过工作表的行数上限: " + (rowIndex - pending.loop.rowIndex));
+            }
+            pending.loop.fill(styles, sheet.createRow(rowIndex++), data, pending.items.next());
+        }
+    }
+
+    private static void insert(Workbook workbook, Sheet sheet, LoopRow loop, Map<String, Object> data, Iterator<?> items) {
+        List<Object> list = new ArrayList<>();
+        items.forEachRemaining(list::add);
+        int lastRowNum = sheet.getLastRowNum();
+        if (loop.rowIndex + list.size() > ExcelConstants.MAX_SHEET_ROWS) {
+            throw new ExcelException("循环数据超过工作表的行数上限: " + list.size());
+        }
+        if (list.isEmpty()) {
+            sheet.removeRow(sheet.getRow(loop.rowIndex));
+            if (loop.rowIndex < lastRowNum) {
+                sheet.shiftRows(loop.rowIndex + 1, lastRowNum, -1);
+            }
+            return;
+        }
+        if (list.size() > 1 && loop.rowIndex < lastRowNum) {
+            sheet.shiftRows(loop.rowIndex + 1, lastRowNum, list.size() - 1);
+        }
+        CellStyle[] styles = loop.styles(workbook);
+        for (int i = 0; i < list.size(); i++) {
+            Row row = i == 0 ? sheet.getRow(loop.rowIndex) : sheet.createRow(loop.rowIndex + i);
+            loop.fill(styles, row, data, list.get(i));
+        }
+    }
+
+    /**
+     * 获取循环数据的迭代器
+     *
+     * @param value 数据
+     * @return 迭代器，不是集合时返回null
+     */
+    private static Iterator<?> iterator(Object value) {
+        if (value instanceof Iterable) {
+            return ((Iterable<?>) value).iterator();
+        }
+        if (value instanceof Iterator) {
+            return (Iterator<?>) value;
+        }
+        if (value instanceof Stream) {
+            return ((Stream<?>) value).iterator();
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value).iterator();
+        }
+        return null;
+    }
+
+    /**
+     * 获取占位符的值
+     *
+     * @param text    模板文本
+     * @param data    数据
+     * @param loopKey 循环数据的名称，不在循环行时为null
+     * @param item    循环的当前元素
+     * @return 占位符的值，找不到时为TemplateText.MISSING
+     */
+    private static Object[] resolve(TemplateText text, Map<String, Object> data, String loopKey, Object item) {
+        Object[] values = new Object[text.size()];
+        for (int i = 0; i < values.length; i++) {
+            String key = text.getKey(i);
+            String owner = text.getOwner(i);
+            if (data.containsKey(key)) {
+                values[i] = data.get(key);
+            } else if (owner == null) {
+                values[i] = TemplateText.MISSING;
+            } else if (owner.equals(loopKey)) {
+                values[i] = property(item, text.getProperty(i));
+            } else if (data.containsKey(owner)) {
+                values[i] = property(data.get(owner), text.getProperty(i));
+            } else {
+                values[i] = TemplateText.MISSING;
+            }
+        }
+        return values;
+    }
+
+    private static Object property(Object target, String name) {
+        if (target == null) {
+            return null;
+        }
+        if (target instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) target;
+            return map.containsKey(name) ? map.get(name) : TemplateText.MISSING;
+        }
+        ExcelColumn column = ExcelRowMapping.of(target.getClass()).getExportColumn(name);
+        return column != null ? column.getValue(target) : TemplateText.MISSING;
+    }
+
+    private static void write(Cell cell, TemplateText text, Object[] values) {
+        if (text.isSingle()) {
+            Object value = values[0];
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+                return;
+            }
+            if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+                return;
+            }
+            if ((value instanceof Date || value instanceof LocalDate || value instanceof LocalDateTime) && isDateFormatted(cell)) {
+                if (value instanceof Date) {
+                    cell.setCellValue((Date) value);
+                } else if (value instanceof LocalDate) {
+                    cell.setCellValue((LocalDate) value);
+                } else {
+                    cell.setCellValue((LocalDateTime) value);
+                }
+                return;
+            }
+        }
+        cell.setCellValue(text.render(values));
+    }
+
+    private static boolean isDateFormatted(Cell cell) {
+        CellStyle style = cell.getCellStyle();
+        return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+    }
+
+    /**
+     * 占位符单元格
+     */
+    private static final class Placeholder {
+
+        private final int rowIndex;
+
+        private final int columnIndex;
+
+        private final TemplateText text;
+
+        private Placeholder(int rowIndex, int columnIndex, TemplateText text) {
+            this.rowIndex = rowIndex;
+            this.columnIndex = columnIndex;
+            this.text = text;
+        }
+    }
+
+    /**
+     * 循环行，记录每列的样式、常量值和模板文本，以及不展开时替换的占位符单元格
+     */
+    private static final class LoopRow {
+
+        private final int rowIndex;
+
+        private final String loopKey;
+
+        private final short height;
+
+        /**
+         * 样式索引，没有单元格的列为-1
+         */
+        private final int[] styles;
+
+        private final Object[] constants;
+
+        private final TemplateText[] texts;
+
+        private final List<Placeholder> placeholders;
+
+        private LoopRow(Row row, String loopKey, List<Placeholder> placeholders) {
+            this.rowIndex = row.getRowNum();
+            this.loopKey = loopKey;
+            this.placeholders = placeholders;
+            this.height = row.getHeight();
+            int columns = Math.max(row.getLastCellNum(), 0);
+            this.styles = new int[columns];
+            this.constants = new Object[columns];
+            this.texts = new TemplateText[columns];
+            Arrays.fill(styles, -1);
+            for (Cell cell : row) {
+                int column = cell.getColumnIndex();
+                styles[column] = cell.getCellStyle().getIndex();
+                switch (cell.getCellType()) {
+                    case STRING:
+                        texts[column] = TemplateText.parse(cell.getStringCellValue());
+                        if (texts[column] == null) {
+                            constants[column] = cell.getStringCellValue();
+                        }
+                        break;
+                    case NUMERIC:
+                        constants[column] = cell.getNumericCellValue();
+                        break;
+                    case BOOLEAN:
+                        constants[column] = cell.getBooleanCellValue();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        /**
+         * 获取工作簿中每列的样式
+         */
+        private CellStyle[] styles(Workbook workbook) {
+            CellStyle[] cellStyles = new CellStyle[styles.length];
+            for (int column = 0; column < styles.length; column++) {
+                if (styles[column] >= 0) {
+                    cellStyles[column] = workbook.getCellStyleAt(styles[column]);
+                }
+            }
+            return cellStyles;
+        }
+
+        /**
+         * 按循环行填充展开的一行，已有的单元格被替换
+         */
+        private void fill(CellStyle[] cellStyles, Row row, Map<String, Object> data, Object item) {
+            row.setHeight(height);
+            for (int column = 0; column < cellStyles.length; column++) {
+                if (cellStyles[column] == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(column);
+                cell.setCellStyle(cellStyles[column]);
+                if (texts[column] != null) {
+                    write(cell, texts[column], resolve(texts[column], data, loopKey, item));
+                } else if (constants[column] instanceof String) {
+                    cell.setCellValue((String) constants[column]);
+                } else if (constants[column] instanceof Double) {
+                    cell.setCellValue((Double) constants[column]);
+                } else if (constants[column] instanceof Boolean) {
+                    cell.setCellValue((Boolean) constants[column]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 渲染时的循环数据
+     */
+    private static final class PendingLoop {
+
+        private final int sheetIndex;
+
+        private final LoopRow loop;
+
+        private final Iterator<?> items;
+
+        private PendingLoop(int sheetIndex, LoopRow loop, Iterator<?> items) {
+            this.sheetIndex = sheetIndex;
+            this.loop = loop;
+            this.items = items;
+        }
+    }
+
+    /**
+     * 工作表的编译结果
+     */
+    private static final class SheetPlan {
+
+        private final int sheetIndex;
+
+        /**
+         * 模板中的最后一行
+         */
+        private final int lastRowIndex;
+
+        private final List<Placeholder> placeholders;
+
+        /**
+         * 循环行，按行号从大到小
+         */
+        private final List<LoopRow> loops;
+
+        private SheetPlan(int sheetIndex, int lastRowIndex, List<Placeholder> placeholders, List<LoopRow> loops) {
+            this.sheetIndex = sheetIndex;
+            this.lastRowIndex = lastRowIndex;
+            this.placeholders = placeholders;
+            this.loops = loops;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+package org.aimindflow.common.excel.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模板单元格文本
+ *
+ * 编译时将单元格文本拆分为字面量和占位符${key}，渲染时按顺序拼接，不再逐个数据项查找替换。
+ * 占位符名称中含有“.”时，第一个“.”之前为所属对象，之后为属性名称。
+ *
+ * @author HezaoHezao
+ */
+final class TemplateText {
+
+    private static final String PREFIX = "${";
+
+    private static final String SUFFIX = "}";
+
+    /**
+     * 数据中找不到占位符时的值，渲染时保留占位符原文
+     */
+    static final Object MISSING = new Object();
+
+    /**
+     * 字面量，比占位符多一个
+     */
+    private final String[] literals;
+
+    private final String[] keys;
+
+    /**
+     * 占位符所属对象，名称中不含“.”时为null
+     */
+    private final String[] owners;
+
+    /**
+     * 占位符属性名称，名称中不含“.”时为null
+     */
+    private final String[] properties;
+
+    private TemplateText(List<String> literals, List<String> keys) {
+        this.literals = literals.toArray(new String[0]);
+        this.keys = keys.toArray(new String[0]);
+        this.owners = new String[this.keys.length];
+        this.properties = new String[this.keys.length];
+        for (int i = 0; i < this.keys.length; i++) {
+            int dot = this.keys[i].indexOf('.');
+            if (dot > 0 && dot < this.keys[i].length() - 1) {
+                owners[i] = this.keys[i].substring(0, dot);
+                properties[i] = this.keys[i].substring(dot + 1);
+            }
+        }
+    }
+
+    /**
+     * 解析单元格文本
+     *
+     * @param text 单元格文本
+     * @return 模板文本，不含占位符时返回null
+     */
+    static TemplateText parse(String text) {
+        if (text == null || !text.contains(PREFIX)) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int from = 0;
+        while (true) {
+            int start = text.indexOf(PREFIX, from);
+            int end = start < 0 ? -1 : text.indexOf(SUFFIX, start + PREFIX.length());
+            if (end < 0) {
+                literal.append(text, from, text.length());
+                break;
+            }
+            literal.append(text, from, start);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            keys.add(text.substring(start + PREFIX.length(), end));
+            from = end + SUFFIX.length();
+        }
+        literals.add(literal.toString());
+        return keys.isEmpty() ? null : new TemplateText(literals, keys);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String getKey(int index) {
+        return keys[index];
+    }
+
+    String getOwner(int index) {
+        return owners[index];
+    }
+
+    String getProperty(int index) {
+        return properties[index];
+    }
+
+    /**
+     * 是否只有一个占位符，没有其他文本，此时可按值的类型写入单元格
+     *
+     * @return 是否只有一个占位符
+     */
+    boolean isSingle() {
+        return keys.length == 1 && literals[0].isEmpty() && literals[1].isEmpty();
+    }
+
+    /**
+     * 拼接文本，null值替换为空字符串，MISSING保留占位符原文
+     *
+     * @param values 占位符的值，与占位符顺序一致
+     * @return 文本
+     */
+    String render(Object[] values) {
+        StringBuilder sb = new StringBuilder(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] == MISSING) {
+                sb.append(PREFIX).append(keys[i]).append(SUFFIX);
+            } else if (values[i] != null) {
+                sb.append(values[i]);
+            }
+            sb.append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package org.aimindflow.common.excel.util;
+
+import org.aimindflow.common.excel.constant.ExcelConstants;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.Arrays;
+
+/**
+ * 列宽估算器
+ *
+ * 根据表头和前若干行数据估算列宽，代替需要扫描全部行的autoSizeColumn，流式导出时内存占用与行数无关。
+ * 中日韩等全角字符按两个字符宽度计算。
+ *
+ * @author HezaoHezao
+ */
+public class ColumnWidthEstimator {
+
+    /**
+     * 最小列宽（字符数）
+     */
+    private static final int MIN_WIDTH = 6;
+
+    /**
+     * 单元格两侧留白（字符数）
+     */
+    private static final int PADDING = 2;
+
+    /**
+     * 各列的最大显示宽度（字符数）
+     */
+    private int[] widths = new int[16];
+
+    /**
+     * 采样一个单元格
+     *
+     * @param column 列索引
+     * @param value  单元格值
+     * @return 该列的宽度是否变大
+     */
+    public boolean sample(int column, Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (column >= widths.length) {
+            widths = Arrays.copyOf(widths, Math.max(column + 1, widths.length * 2));
+        }
+        int width = displayWidth(value.toString());
+        if (width > widths[column]) {
+            widths[column] = width;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 获取列宽
+     *
+     * @param column 列索引
+     * @return 列宽，单位为1/256个字符
+     */
+    public int getColumnWidth(int column) {
+        int width = column < widths.length ? widths[column] : 0;
+        return Math.min(Math.max(width + PADDING, MIN_WIDTH), ExcelConstants.MAX_COLUMN_WIDTH) * 256;
+    }
+
+    /**
+     * 将估算的列宽设置到工作表
+     *
+     * @param sheet   工作表
+     * @param columns 列数
+     */
+    public void apply(Sheet sheet, int columns) {
+        for (int i = 0; i < columns; i++) {
+            sheet.setColumnWidth(i, getColumnWidth(i));
+        }
+    }
+
+    /**
+     * 计算显示宽度，全角字符按两个字符计算，超过最大列宽后不再计算
+     *
+     * @param text 文本
+     * @return 显示宽度
+     */
+    private static int displayWidth(String text) {
+        int width = 0;
+        for (int i = 0; i < text.length() && width < ExcelConstants.MAX_COLUMN_WIDTH; i++) {
+            width += text.charAt(i) >= 0x2E80 ? 2 : 1;
+        }
+        return width;
+    }
+}
\ No newline at end of file
@@ -1,12 +1,16 @@
 package org.aimindflow.common.excel.util;
 
+import org.aimindflow.common.excel.model.CellQuery;
+import org.aimindflow.common.excel.model.CellQueryResult;
 import org.aimindflow.common.excel.service.ExcelService;
 import org.aimindflow.common.excel.service.ExcelServiceFactory;
+import org.apache.poi.ss.util.WorkbookUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -65,6 +69,51 @@ public class ExcelUtils {
         return getExcelService().exportExcel(sheetName, dataList, clazz, outputStream);
     }
 
+    /**
+     * 流式导出Excel（基于数据迭代器）
+     *
+     * @param sheetName    sheet名称
+     * @param headers      表头
+     * @param data         数据迭代器
+     * @param outputStream 输出流
+     * @param <T>          数据类型
+     * @return 是否成功
+     */
+    public static <T> boolean exportExcel(String sheetName, String[] headers, Iterator<T> data, OutputStream outputStream) {
+        return getExcelService().exportExcel(sheetName, headers, data, outputStream);
+    }
+
+    /**
+     * 流式导出Excel（基于对象迭代器）
+     *
+     * @param sheetName    sheet名称
+     * @param data         数据迭代器
+     * @param clazz        对象类型
+     * @param outputStream 输出流
+     * @param <T>          数据类型
+     * @return 是否成功
+     */
+    public static <T> boolean exportExcel(String sheetName, Iterator<T> data, Class<T> clazz, OutputStream outputStream) {
+        return getExcelService().exportExcel(sheetName, data, clazz, outputStream);
+    }
+
+    /**
+     * 获取续写工作表的名称，第一个工作表使用原名称，之后依次追加序号
+     *
+     * @param sheetName  sheet名称
+     * @param sheetIndex sheet索引
+     * @return sheet名称
+     */
+    public static String getSheetName(String sheetName, int sheetIndex) {
+        if (sheetIndex == 0) {
+            return sheetName;
+        }
+        // 名称最长31个字符，截断原名称以保留序号
+        String suffix = "_" + (sheetIndex + 1);
+        String name = sheetName.length() + suffix.length() > 31 ? sheetName.substring(0, 31 - suffix.length()) : sheetName;
+        return WorkbookUtil.createSafeSheetName(name + suffix);
+    }
+
     /**
      * 导入Excel（返回对象列表）
      *
@@ -125,6 +174,17 @@ public class ExcelUtils {
         return getExcelService().readColumn(inputStream, sheetIndex, columnIndex);
     }
 
+    /**
+     * 批量读取Excel单元格、行和列
+     *
+     * @param inputStream 输入流
+     * @param query       单元格查询
+     * @return 查询结果
+     */
+    public static CellQueryResult readCells(InputStream inputStream, CellQuery query) {
+        return getExcelService().readCells(inputStream, query);
+    }
+
     /**
      * 获取Excel服务
      *
@@ -0,0 +1,222 @@
+package org.aimindflow.common.excel.mapping;
+
+import lombok.Data;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel行映射基准测试
+ *
+ * 对比按类缓存Field并逐字段反射读写、按值类型判断写入单元格（原实现）与ExcelRowMapping预先解析的字段和单元格读写器，
+ * 每次操作导出或导入一行20个字段的对象，导出写入与PoiExcelServiceImpl相同的SXSSF工作簿。
+ *
+ * 运行方式：mvn test-compile 后执行本类的main方法，或通过org.openjdk.jmh.Main指定本类。
+ *
+ * @author HezaoHezao
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcelRowMappingBenchmark {
+
+    private SXSSFWorkbook workbook;
+
+    private Row row;
+
+    private UserRow data;
+
+    private Field[] fields;
+
+    private String[] headers;
+
+    private Object[] values;
+
+    private ExcelRowMapping<UserRow> mapping;
+
+    @Setup
+    public void setUp() {
+        workbook = new SXSSFWorkbook();
+        row = workbook.createSheet().createRow(1);
+        data = UserRow.sample();
+        fields = UserRow.class.getDeclaredFields();
+        for (Field field : fields) {
+            field.setAccessible(true);
+        }
+        mapping = ExcelRowMapping.of(UserRow.class);
+        headers = mapping.getHeaders();
+        values = new Object[fields.length];
+        List<ExcelColumn> columns = mapping.getExportColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            values[i] = columns.get(i).getValue(data);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    /**
+     * 原实现：反射读取字段，按值类型写入单元格
+     */
+    @Benchmark
+    public Row reflectionExport() throws IllegalAccessException {
+        for (int i = 0; i < fields.length; i++) {
+            setCellValue(row.createCell(i), fields[i].get(data));
+        }
+        return row;
+    }
+
+    /**
+     * 现实现：预先解析的字段和单元格写入器
+     */
+    @Benchmark
+    public Row mappingExport() {
+        List<ExcelColumn> columns = mapping.getExportColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            ExcelColumn column = columns.get(i);
+            column.writeCell(row.createCell(i), column.getValue(data));
+        }
+        return row;
+    }
+
+    /**
+     * 原实现：反射创建对象，按表头名称逐个查找字段并赋值
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public UserRow reflectionImport() throws ReflectiveOperationException {
+        UserRow obj = UserRow.class.newInstance();
+        for (int i = 0; i < headers.length; i++) {
+            Field field = UserRow.class.getDeclaredField(headers[i]);
+            field.setAccessible(true);
+            field.set(obj, values[i]);
+        }
+        return obj;
+    }
+
+    /**
+     * 按类缓存字段后反射赋值，用于区分字段查找与字段赋值的开销
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public UserRow cachedFieldImport() throws ReflectiveOperationException {
+        UserRow obj = UserRow.class.newInstance();
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].set(obj, values[i]);
+        }
+        return obj;
+    }
+
+    /**
+     * 现实现：预先绑定的构造函数和赋值器
+     */
+    @Benchmark
+    public UserRow mappingImport() {
+        UserRow obj = mapping.newInstance();
+        List<ExcelColumn> columns = mapping.getImportColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).setValue(obj, values[i]);
+        }
+        return obj;
+    }
+
+    /**
+     * 原实现的单元格写入
+     */
+    private static void setCellValue(Cell cell, Object value) {
+        if (value == null) {
+            cell.setCellValue("");
+        } else if (value instanceof String) {
+            cell.setCellValue((String) value);
+        } else if (value instanceof Integer) {
+            cell.setCellValue((Integer) value);
+        } else if (value instanceof Long) {
+            cell.setCellValue((Long) value);
+        } else if (value instanceof Double) {
+            cell.setCellValue((Double) value);
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+
+    @Data
+    public static class UserRow {
+
+        private Long id;
+        private String username;
+        private String nickname;
+        private String email;
+        private String phone;
+        private Integer age;
+        private Integer gender;
+        private Boolean enabled;
+        private Double balance;
+        private Long deptId;
+        private String deptName;
+        private String post;
+        private String province;
+        private String city;
+        private String address;
+        private Integer level;
+        private Double score;
+        private Long loginCount;
+        private Boolean locked;
+        private String remark;
+
+        static UserRow sample() {
+            UserRow row = new UserRow();
+            row.setId(10001L);
+            row.setUsername("zhangsan");
+            row.setNickname("张三");
+            row.setEmail("zhangsan@example.com");
+            row.setPhone("13800000000");
+            row.setAge(28);
+            row.setGender(1);
+            row.setEnabled(true);
+            row.setBalance(1024.5);
+            row.setDeptId(103L);
+            row.setDeptName("研发部");
+            row.setPost("工程师");
+            row.setProvince("浙江省");
+            row.setCity("杭州市");
+            row.setAddress("西湖区文三路100号");
+            row.setLevel(3);
+            row.setScore(92.5);
+            row.setLoginCount(356L);
+            row.setLocked(false);
+            row.setRemark("无");
+            return row;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExcelRowMappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
\ No newline at end of file
@@ -46,6 +46,18 @@ public @interface Idempotent {
      */
     boolean deleteKeyAfterExecution() default true;
 
+    /**
+     * 重复请求的处理方式
+     * 默认为拒绝，即抛出IdempotentException
+     */
+    DuplicateStrategy duplicateStrategy() default DuplicateStrategy.REJECT;
+
+    /**
+     * 重复请求等待首次请求结果的最长时间，单位：毫秒
+     * 仅在REPLAY方式下生效，超时后抛出IdempotentException
+     */
+    long replayTimeout() default IdempotentConstants.DEFAULT_REPLAY_TIMEOUT;
+
     /**
      * 幂等Key的生成策略枚举
      */
@@ -65,4 +77,19 @@ public @interface Idempotent {
          */
         SPEL
     }
+
+    /**
+     * 重复请求的处理方式枚举
+     */
+    enum DuplicateStrategy {
+        /**
+         * 拒绝重复请求，抛出IdempotentException
+         */
+        REJECT,
+
+        /**
+         * 返回首次请求的结果，结果在Redis中保存expireTime秒
+         */
+        REPLAY
+    }
 }
\ No newline at end of file
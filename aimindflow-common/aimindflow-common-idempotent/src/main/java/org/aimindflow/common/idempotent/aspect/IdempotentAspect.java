@@ -1,7 +1,10 @@
 package org.aimindflow.common.idempotent.aspect;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.aimindflow.common.idempotent.annotation.Idempotent;
+import org.aimindflow.common.idempotent.constant.IdempotentConstants;
 import org.aimindflow.common.idempotent.exception.IdempotentException;
 import org.aimindflow.common.idempotent.generator.IdempotentKeyGenerator;
 import org.aimindflow.common.idempotent.generator.IdempotentKeyGeneratorFactory;
@@ -10,19 +13,33 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 幂等切面
  *
+ * 两级校验：同一节点上相同Key的并发请求由本地进行中调用表合并，只有第一个请求访问Redis，
+ * 其余请求直接拒绝或等待其结果，不产生网络往返；跨节点的重复请求仍由Redis保证。
+ * REPLAY方式下首次请求的结果以JSON保存在Redis中，重复请求按方法返回类型反序列化后返回。
+ *
  * @author HezaoHezao
  */
 @Slf4j
@@ -41,14 +58,42 @@ public class IdempotentAspect {
     private final IdempotentKeyGeneratorFactory keyGeneratorFactory;
 
     /**
-     * 释放锁的Lua脚本
+     * 释放锁的Lua脚本，按SHA1执行
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    /**
+     * 方法幂等注解缓存，未标注的方法缓存为空
+     */
+    private final Map<Method, Optional<Idempotent>> annotationCache = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点进行中的调用，key为幂等Key
+     */
+    private final Map<String, CompletableFuture<Object>> inflightCalls = new ConcurrentHashMap<>();
+
+    /**
+     * 结果序列化
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Redis中不存在结果的标记，区分方法返回null
      */
-    private static final String RELEASE_LOCK_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private static final Object ABSENT = new Object();
+
+    /**
+     * 轮询结果的最长间隔，单位：毫秒
+     */
+    private static final long MAX_POLL_INTERVAL = 200L;
 
     @Autowired
-    public IdempotentAspect(StringRedisTemplate redisTemplate, IdempotentKeyGeneratorFactory keyGeneratorFactory) {
+    public IdempotentAspect(StringRedisTemplate redisTemplate, IdempotentKeyGeneratorFactory keyGeneratorFactory,
+                            ObjectProvider<ObjectMapper> objectMapper) {
         this.redisTemplate = redisTemplate;
         this.keyGeneratorFactory = keyGeneratorFactory;
+        this.objectMapper = objectMapper.getIfAvailable(ObjectMapper::new);
     }
 
     /**
@@ -72,7 +117,7 @@ public class IdempotentAspect {
         Method method = signature.getMethod();
 
         // 获取Idempotent注解
-        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+        Idempotent idempotent = getAnnotation(method);
         if (idempotent == null) {
             return point.proceed();
         }
@@ -84,6 +129,36 @@ public class IdempotentAspect {
             throw new IdempotentException("生成幂等Key失败");
         }
 
+        // 本地校验，同一节点上的并发重复请求不访问Redis
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> inflight = inflightCalls.putIfAbsent(key, call);
+        if (inflight != null) {
+            return onLocalDuplicate(idempotent, inflight);
+        }
+
+        try {
+            Object result = idempotent.duplicateStrategy() == Idempotent.DuplicateStrategy.REPLAY
+                    ? proceedOrReplay(idempotent, key, point, method) : proceedOnce(idempotent, key, point);
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflightCalls.remove(key, call);
+        }
+    }
+
+    /**
+     * 获取Redis锁后执行方法，获取失败时拒绝
+     *
+     * @param idempotent 幂等注解
+     * @param key        幂等Key
+     * @param point      切点
+     * @return 方法返回值
+     * @throws Throwable 异常
+     */
+    private Object proceedOnce(Idempotent idempotent, String key, ProceedingJoinPoint point) throws Throwable {
         // 获取锁
         String value = String.valueOf(System.currentTimeMillis());
         boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, value, idempotent.expireTime(), TimeUnit.SECONDS);
@@ -103,6 +178,167 @@ public class IdempotentAspect {
         }
     }
 
+    /**
+     * 已有结果时直接返回；获取Redis锁后执行方法并保存结果；其他节点执行中时等待其结果
+     *
+     * @param idempotent 幂等注解
+     * @param key        幂等Key
+     * @param point      切点
+     * @param method     方法
+     * @return 方法返回值或首次请求的结果
+     * @throws Throwable 异常
+     */
+    private Object proceedOrReplay(Idempotent idempotent, String key, ProceedingJoinPoint point, Method method) throws Throwable {
+        String resultKey = key + IdempotentConstants.RESULT_KEY_SUFFIX;
+        Object cached = readResult(idempotent, redisTemplate.opsForValue().get(resultKey), method);
+        if (cached != ABSENT) {
+            return cached;
+        }
+
+        String value = String.valueOf(System.currentTimeMillis());
+        boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, value, idempotent.expireTime(), TimeUnit.SECONDS);
+        if (!acquired) {
+            return awaitResult(idempotent, key, resultKey, method);
+        }
+
+        try {
+            // 首次读取与加锁之间可能已有请求完成并释放锁，加锁后再确认一次
+            cached = readResult(idempotent, redisTemplate.opsForValue().get(resultKey), method);
+            if (cached != ABSENT) {
+                return cached;
+            }
+            Object result = point.proceed();
+            storeResult(resultKey, result, idempotent.expireTime());
+            return result;
+        } finally {
+            if (idempotent.deleteKeyAfterExecution()) {
+                releaseLock(key, value);
+            }
+        }
+    }
+
+    /**
+     * 本节点已有相同Key的调用在执行
+     *
+     * @param idempotent 幂等注解
+     * @param inflight   执行中的调用
+     * @return 首次请求的结果
+     * @throws Throwable 首次请求的异常
+     */
+    private Object onLocalDuplicate(Idempotent idempotent, CompletableFuture<Object> inflight) throws Throwable {
+        if (idempotent.duplicateStrategy() != Idempotent.DuplicateStrategy.REPLAY) {
+            log.warn("幂等性校验失败，请勿重复提交");
+            throw new IdempotentException(idempotent.message());
+        }
+        try {
+            return inflight.get(idempotent.replayTimeout(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            log.warn("等待首次请求结果超时");
+            throw new IdempotentException(idempotent.message());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentException(idempotent.message());
+        }
+    }
+
+    /**
+     * 等待其他节点的首次请求结果，锁已释放但没有结果时说明首次请求失败
+     *
+     * @param idempotent 幂等注解
+     * @param key        幂等Key
+     * @param resultKey  结果Key
+     * @param method     方法
+     * @return 首次请求的结果
+     */
+    private Object awaitResult(Idempotent idempotent, String key, String resultKey, Method method) {
+        long deadline = System.currentTimeMillis() + idempotent.replayTimeout();
+        long interval = 10L;
+        List<String> keys = Arrays.asList(resultKey, key);
+        while (true) {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values != null) {
+                Object cached = readResult(idempotent, values.get(0), method);
+                if (cached != ABSENT) {
+                    return cached;
+                }
+                if (values.get(1) == null) {
+                    break;
+                }
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            try {
+                Thread.sleep(Math.min(interval, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            interval = Math.min(interval * 2, MAX_POLL_INTERVAL);
+        }
+        log.warn("幂等性校验失败，请勿重复提交");
+        throw new IdempotentException(idempotent.message());
+    }
+
+    /**
+     * 按方法返回类型反序列化结果
+     *
+     * 结果存在说明首次请求已执行完成，无法反序列化时按重复请求拒绝，不再重新执行方法。
+     *
+     * @param idempotent 幂等注解
+     * @param json       结果JSON
+     * @param method     方法
+     * @return 结果，不存在时返回ABSENT
+     */
+    private Object readResult(Idempotent idempotent, String json, Method method) {
+        if (json == null) {
+            return ABSENT;
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class || returnType == Void.class) {
+            return null;
+        }
+        try {
+            JavaType type = objectMapper.getTypeFactory().constructType(method.getGenericReturnType());
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            log.error("反序列化幂等结果失败，拒绝重复请求", e);
+            throw new IdempotentException(idempotent.message(), e);
+        }
+    }
+
+    /**
+     * 保存首次请求的结果，保存失败不影响本次返回
+     *
+     * @param resultKey  结果Key
+     * @param result     结果
+     * @param expireTime 过期时间，单位：秒
+     */
+    private void storeResult(String resultKey, Object result, int expireTime) {
+        try {
+            redisTemplate.opsForValue().set(resultKey, objectMapper.writeValueAsString(result), expireTime, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("保存幂等结果失败", e);
+        }
+    }
+
+    /**
+     * 获取方法的幂等注解，先无锁读取，未命中时再解析
+     *
+     * @param method 方法
+     * @return 幂等注解
+     */
+    private Idempotent getAnnotation(Method method) {
+        Optional<Idempotent> idempotent = annotationCache.get(method);
+        if (idempotent == null) {
+            idempotent = annotationCache.computeIfAbsent(method, m -> Optional.ofNullable(m.getAnnotation(Idempotent.class)));
+        }
+        return idempotent.orElse(null);
+    }
+
     /**
      * 生成幂等Key
      *
@@ -124,8 +360,7 @@ public class IdempotentAspect {
      */
     private void releaseLock(String key, String value) {
         try {
-            DefaultRedisScript<Long> script = new DefaultRedisScript<>(RELEASE_LOCK_SCRIPT, Long.class);
-            Long result = redisTemplate.execute(script, Collections.singletonList(key), value);
+            Long result = redisTemplate.execute(RELEASE_LOCK_SCRIPT, Collections.singletonList(key), value);
             if (result == null || result == 0) {
                 log.warn("释放锁失败，可能已过期或被其他线程释放");
             }
@@ -17,6 +17,16 @@ public class IdempotentConstants {
      */
     public static final int DEFAULT_EXPIRE_TIME = 300;
 
+    /**
+     * 默认等待首次请求结果的时间，单位：毫秒
+     */
+    public static final long DEFAULT_REPLAY_TIMEOUT = 3000L;
+
+    /**
+     * 首次请求结果的Key后缀
+     */
+    public static final String RESULT_KEY_SUFFIX = ":result";
+
     /**
      * 默认提示消息
      */
@@ -0,0 +1,528 @@
+package org.aimindflow.common.idempotent.generator.impl;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 方法参数哈希
+ *
+ * 参数按规范的二进制形式逐个写入流式Murmur3 x64 128位哈希，不生成中间字符串：
+ * <ul>
+ *     <li>基本类型、字符串、枚举、日期、UUID按值写入；其他JDK类型使用toString()</li>
+ *     <li>数组与List按顺序写入；Set与Map与迭代顺序无关，equals相等即哈希相等</li>
+ *     <li>其他对象按字段名排序后逐个写入非static、非transient字段，字段列表按类缓存</li>
+ *     <li>Servlet对象与流只写入类型，上传文件写入文件名与大小，不读取内容</li>
+ * </ul>
+ * 循环引用写入回指的层数，嵌套超过最大深度时不再展开。实例非线程安全，由调用方按线程复用。
+ *
+ * @author HezaoHezao
+ */
+final class ArgumentHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * 最大嵌套深度
+     */
+    private static final int MAX_DEPTH = 16;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_BOOLEAN = 1;
+    private static final int TAG_INTEGRAL = 2;
+    private static final int TAG_FLOAT = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_CHAR = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_ENUM = 7;
+    private static final int TAG_DATE = 8;
+    private static final int TAG_UUID = 9;
+    private static final int TAG_ARRAY = 10;
+    private static final int TAG_LIST = 11;
+    private static final int TAG_SET = 12;
+    private static final int TAG_MAP = 13;
+    private static final int TAG_OBJECT = 14;
+    private static final int TAG_OPAQUE = 15;
+    private static final int TAG_FILE = 16;
+    private static final int TAG_TEXT = 17;
+    private static final int TAG_DEPTH_LIMIT = 18;
+    private static final int TAG_CYCLE = 19;
+
+    /**
+     * 只写入类型、不展开的对象
+     */
+    private static final Class<?>[] OPAQUE_TYPES = {
+            ServletRequest.class, ServletResponse.class, HttpSession.class,
+            InputStream.class, OutputStream.class, Reader.class, Writer.class
+    };
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 类的哈希描述缓存
+     */
+    private static final ClassValue<TypeInfo> TYPES = new ClassValue<TypeInfo>() {
+        @Override
+        protected TypeInfo computeValue(Class<?> type) {
+            return new TypeInfo(type);
+        }
+    };
+
+    /**
+     * 哈希器所在的嵌套深度
+     */
+    private int depth;
+
+    /**
+     * 当前哈希器内的嵌套层数
+     */
+    private int nesting;
+
+    /**
+     * 正在展开的对象，用于识别循环引用
+     */
+    private final Object[] expanding = new Object[MAX_DEPTH];
+
+    /**
+     * 计算Set元素与Map条目哈希使用的下一层哈希器，按需创建
+     */
+    private ArgumentHasher child;
+
+    private long h1;
+
+    private long h2;
+
+    /**
+     * 未满一个块时暂存的字
+     */
+    private long pending;
+
+    private boolean hasPending;
+
+    private long words;
+
+    /**
+     * 计算参数的128位哈希并以32位十六进制追加到builder
+     *
+     * @param args    参数
+     * @param builder 输出
+     */
+    void hashTo(Object[] args, StringBuilder builder) {
+        reset();
+        putArray(args);
+        finish();
+        appendHex(builder, h1);
+        appendHex(builder, h2);
+    }
+
+    private void reset() {
+        h1 = 0;
+        h2 = 0;
+        pending = 0;
+        hasPending = false;
+        words = 0;
+    }
+
+    private void put(Object value) {
+        if (value == null) {
+            putWord(TAG_NULL);
+        } else if (value instanceof CharSequence) {
+            putWord(TAG_STRING);
+            putChars((CharSequence) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            putWord(TAG_INTEGRAL);
+            putWord(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            putWord(TAG_BOOLEAN);
+            putWord((Boolean) value ? 1 : 0);
+        } else if (value instanceof Double) {
+            putWord(TAG_DOUBLE);
+            putWord(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Float) {
+            putWord(TAG_FLOAT);
+            putWord(Float.floatToIntBits((Float) value));
+        } else if (value instanceof Character) {
+            putWord(TAG_CHAR);
+            putWord((Character) value);
+        } else if (value instanceof Enum) {
+            putWord(TAG_ENUM);
+            putWord(TYPES.get(((Enum<?>) value).getDeclaringClass()).nameHash);
+            putChars(((Enum<?>) value).name());
+        } else if (value instanceof Date) {
+            putWord(TAG_DATE);
+            putWord(((Date) value).getTime());
+        } else if (value instanceof UUID) {
+            putWord(TAG_UUID);
+            putWord(((UUID) value).getMostSignificantBits());
+            putWord(((UUID) value).getLeastSignificantBits());
+        } else if (depth + nesting >= MAX_DEPTH) {
+            putWord(TAG_DEPTH_LIMIT);
+        } else {
+            for (int i = nesting - 1; i >= 0; i--) {
+                if (expanding[i] == value) {
+                    putWord(TAG_CYCLE);
+                    putWord(nesting - i);
+                    return;
+                }
+            }
+            expanding[nesting++] = value;
+            try {
+                putComposite(value);
+            } finally {
+                expanding[--nesting] = null;
+            }
+        }
+    }
+
+    private void putComposite(Object value) {
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            putArrayValue(value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            putWord(TAG_LIST);
+            putWord(list.size());
+            for (Object element : list) {
+                put(element);
+            }
+        } else if (value instanceof Set) {
+            Set<?> set = (Set<?>) value;
+            putWord(TAG_SET);
+            putUnordered(set, set.size(), false);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            putWord(TAG_MAP);
+            putUnordered(map.entrySet(), map.size(), true);
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            putWord(TAG_LIST);
+            putWord(collection.size());
+            for (Object element : collection) {
+                put(element);
+            }
+        } else if (value instanceof MultipartFile) {
+            MultipartFile file = (MultipartFile) value;
+            putWord(TAG_FILE);
+            put(file.getName());
+            put(file.getOriginalFilename());
+            putWord(file.getSize());
+        } else {
+            TypeInfo typeInfo = TYPES.get(type);
+            if (typeInfo.opaque) {
+                putWord(TAG_OPAQUE);
+                putWord(typeInfo.nameHash);
+            } else if (typeInfo.fields == null) {
+                putWord(TAG_TEXT);
+                putWord(typeInfo.nameHash);
+                putChars(String.valueOf(value));
+            } else {
+                putWord(TAG_OBJECT);
+                putWord(typeInfo.nameHash);
+                for (Field field : typeInfo.fields) {
+                    try {
+                        put(field.get(value));
+                    } catch (IllegalAccessException e) {
+                        putWord(TAG_NULL);
+                    }
+                }
+            }
+        }
+    }
+
+    private void putArray(Object[] array) {
+        putWord(TAG_ARRAY);
+        putWord(array.length);
+        for (Object element : array) {
+            put(element);
+        }
+    }
+
+    private void putArrayValue(Object array) {
+        if (array instanceof Object[]) {
+            putArray((Object[]) array);
+            return;
+        }
+        putWord(TAG_ARRAY);
+        if (array instanceof byte[]) {
+            byte[] bytes = (byte[]) array;
+            putWord(bytes.length);
+            for (int i = 0; i < bytes.length; i += 8) {
+                long word = 0;
+                for (int j = i; j < Math.min(i + 8, bytes.length); j++) {
+                    word = (word << 8) | (bytes[j] & 0xFF);
+                }
+                putWord(word);
+            }
+        } else if (array instanceof char[]) {
+            putChars(new CharArrayView((char[]) array));
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            putWord(values.length);
+            for (int value : values) {
+                putWord(value);
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            putWord(values.length);
+            for (long value : values) {
+                putWord(value);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            putWord(values.length);
+            for (double value : values) {
+                putWord(Double.doubleToLongBits(value));
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            putWord(values.length);
+            for (float value : values) {
+                putWord(Float.floatToIntBits(value));
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            putWord(values.length);
+            for (short value : values) {
+                putWord(value);
+            }
+        } else {
+            boolean[] values = (boolean[]) array;
+            putWord(values.length);
+            for (boolean value : values) {
+                putWord(value ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * 写入与顺序无关的元素：各元素单独哈希后相加
+     *
+     * @param elements 元素
+     * @param size     元素个数
+     * @param entries  元素是否为Map条目
+     */
+    private void putUnordered(Collection<?> elements, int size, boolean entries) {
+        if (child == null) {
+            child = new ArgumentHasher();
+        }
+        child.depth = depth + nesting;
+        long sum1 = 0;
+        long sum2 = 0;
+        for (Object element : elements) {
+            child.reset();
+            if (entries) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+                child.put(entry.getKey());
+                child.put(entry.getValue());
+            } else {
+                child.put(element);
+            }
+            child.finish();
+            sum1 += child.h1;
+            sum2 += child.h2;
+        }
+        putWord(size);
+        putWord(sum1);
+        putWord(sum2);
+    }
+
+    /**
+     * 写入字符序列，每个字存4个字符
+     */
+    private void putChars(CharSequence chars) {
+        int length = chars.length();
+        putWord(length);
+        for (int i = 0; i < length; i += 4) {
+            long word = 0;
+            for (int j = i; j < Math.min(i + 4, length); j++) {
+                word = (word << 16) | chars.charAt(j);
+            }
+            putWord(word);
+        }
+    }
+
+    private void putWord(long word) {
+        words++;
+        if (!hasPending) {
+            pending = word;
+            hasPending = true;
+            return;
+        }
+        hasPending = false;
+        long k1 = pending;
+        long k2 = word;
+
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private void finish() {
+        if (hasPending) {
+            long k1 = pending * C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            hasPending = false;
+        }
+        long length = words * 8;
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static void appendHex(StringBuilder builder, long value) {
+        char[] hex = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            hex[i] = HEX_DIGITS[(int) value & 0xF];
+            value >>>= 4;
+        }
+        builder.append(hex);
+    }
+
+    private static boolean isOpaque(Class<?> type) {
+        for (Class<?> opaqueType : OPAQUE_TYPES) {
+            if (opaqueType.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析类的字段，按字段名排序，父类字段在前
+     *
+     * @param type 类
+     * @return 字段列表，JDK类型或无法访问时返回null
+     */
+    private static Field[] resolveFields(Class<?> type) {
+        String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.")) {
+            return null;
+        }
+        List<Field> fields = new ArrayList<>();
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        try {
+            for (Class<?> current : hierarchy) {
+                List<Field> declared = new ArrayList<>();
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    declared.add(field);
+                }
+                declared.sort(Comparator.comparing(Field::getName));
+                fields.addAll(declared);
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return fields.toArray(new Field[0]);
+    }
+
+    /**
+     * 类的哈希描述
+     */
+    private static final class TypeInfo {
+
+        /**
+         * 类名的哈希，写入一个字代替完整类名
+         */
+        private final long nameHash;
+
+        /**
+         * 是否只写入类型
+         */
+        private final boolean opaque;
+
+        /**
+         * 字段列表，为null时使用toString()
+         */
+        private final Field[] fields;
+
+        private TypeInfo(Class<?> type) {
+            ArgumentHasher hasher = new ArgumentHasher();
+            hasher.putChars(type.getName());
+            hasher.finish();
+            this.nameHash = hasher.h1;
+            this.opaque = isOpaque(type);
+            this.fields = opaque ? null : resolveFields(type);
+        }
+    }
+
+    /**
+     * 字符数组的只读视图，避免复制为字符串
+     */
+    private static final class CharArrayView implements CharSequence {
+
+        private final char[] chars;
+
+        private CharArrayView(char[] chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public int length() {
+            return chars.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+    }
+}
\ No newline at end of file
@@ -6,25 +6,36 @@ import org.aimindflow.common.idempotent.generator.IdempotentKeyGenerator;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
-import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 基于参数的幂等Key生成器
  *
+ * 参数按字段写入128位非加密哈希（见ArgumentHasher），不依赖toString()，也不生成中间字符串。
+ *
  * @author HezaoHezao
  */
 @Slf4j
 @Component
 public class ParamsKeyGenerator implements IdempotentKeyGenerator {
 
+    /**
+     * 方法默认前缀（类名+方法名）缓存
+     */
+    private final Map<Method, String> methodPrefixes = new ConcurrentHashMap<>();
+
+    /**
+     * 按线程复用的参数哈希器
+     */
+    private static final ThreadLocal<ArgumentHasher> HASHERS = ThreadLocal.withInitial(ArgumentHasher::new);
+
     @Override
     public String generateKey(String prefix, ProceedingJoinPoint point) {
         // 获取方法签名
@@ -45,7 +56,11 @@ public class ParamsKeyGenerator implements IdempotentKeyGenerator {
 
         // 如果前缀为空，则使用方法名作为前缀
         if (!StringUtils.hasText(prefix)) {
-            prefix = method.getDeclaringClass().getName() + "." + method.getName();
+            prefix = methodPrefixes.get(method);
+            if (prefix == null) {
+                prefix = methodPrefixes.computeIfAbsent(method,
+                        m -> m.getDeclaringClass().getName() + "." + m.getName());
+            }
         }
 
         // 构建幂等Key
@@ -58,11 +73,8 @@ public class ParamsKeyGenerator implements IdempotentKeyGenerator {
             keyBuilder.append(userKey).append(IdempotentConstants.KEY_SEPARATOR);
         }
 
-        // 添加方法参数
-        String params = Arrays.toString(point.getArgs());
-        // 对参数进行MD5处理，避免参数过长
-        String paramsMd5 = DigestUtils.md5DigestAsHex(params.getBytes(StandardCharsets.UTF_8));
-        keyBuilder.append(paramsMd5);
+        // 添加方法参数哈希，32位十六进制，避免参数过长
+        HASHERS.get().hashTo(point.getArgs(), keyBuilder);
 
         String key = keyBuilder.toString();
         log.debug("生成幂等Key: {}", key);
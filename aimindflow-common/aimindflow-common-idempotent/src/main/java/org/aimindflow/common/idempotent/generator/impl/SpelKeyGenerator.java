@@ -11,6 +11,8 @@ import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
@@ -19,10 +21,14 @@ import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 基于SpEL表达式的幂等Key生成器
  *
+ * 每个方法只解析一次表达式与参数名，表达式以混合编译模式解析，多次执行后编译为字节码。
+ *
  * @author HezaoHezao
  */
 @Slf4j
@@ -30,66 +36,51 @@ import java.nio.charset.StandardCharsets;
 public class SpelKeyGenerator implements IdempotentKeyGenerator {
 
     /**
-     * SpEL表达式解析器
+     * SpEL表达式解析器，混合模式下编译失败时退回解释执行
      */
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelKeyGenerator.class.getClassLoader()));
 
     /**
      * 参数名发现器
      */
     private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+    /**
+     * 方法表达式缓存
+     */
+    private final Map<Method, CompiledKey> compiledKeys = new ConcurrentHashMap<>();
+
     @Override
     public String generateKey(String prefix, ProceedingJoinPoint point) {
         // 获取方法签名
         MethodSignature signature = (MethodSignature) point.getSignature();
         Method method = signature.getMethod();
 
-        // 获取Idempotent注解
-        Idempotent idempotent = method.getAnnotation(Idempotent.class);
-        if (idempotent == null) {
-            log.warn("方法{}未标注@Idempotent注解", method.getName());
-            return null;
-        }
-
-        // 如果前缀为空，则使用方法名作为前缀
-        if (!StringUtils.hasText(prefix)) {
-            prefix = method.getDeclaringClass().getName() + "." + method.getName();
-        }
-
-        // 构建幂等Key
-        StringBuilder keyBuilder = new StringBuilder(IdempotentConstants.REDIS_KEY_PREFIX)
-                .append(prefix)
-                .append(IdempotentConstants.KEY_SEPARATOR);
-
         try {
-            // 获取方法参数名
-            String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
-            if (parameterNames == null) {
-                log.warn("无法获取方法{}的参数名", method.getName());
+            CompiledKey compiledKey = getCompiledKey(method, prefix);
+            if (compiledKey == null) {
                 return null;
             }
 
             // 创建SpEL上下文
+            String[] parameterNames = compiledKey.parameterNames;
             EvaluationContext context = new StandardEvaluationContext();
             Object[] args = point.getArgs();
             for (int i = 0; i < parameterNames.length; i++) {
                 context.setVariable(parameterNames[i], args[i]);
             }
 
-            // 解析SpEL表达式
-            Expression expression = parser.parseExpression(prefix);
-            Object result = expression.getValue(context);
+            // 执行SpEL表达式
+            Object result = compiledKey.expression.getValue(context);
             if (result == null) {
-                log.warn("SpEL表达式{}解析结果为null", prefix);
+                log.warn("SpEL表达式{}解析结果为null", compiledKey.prefix);
                 return null;
             }
 
             // 对结果进行MD5处理，避免结果过长
             String resultMd5 = DigestUtils.md5DigestAsHex(result.toString().getBytes(StandardCharsets.UTF_8));
-            keyBuilder.append(resultMd5);
-
-            String key = keyBuilder.toString();
+            String key = compiledKey.keyPrefix + resultMd5;
             log.debug("生成幂等Key: {}", key);
             return key;
         } catch (Exception e) {
@@ -97,4 +88,73 @@ public class SpelKeyGenerator implements IdempotentKeyGenerator {
             return null;
         }
     }
+
+    /**
+     * 获取方法的已解析表达式，前缀与缓存不一致时重新解析
+     *
+     * @param method 方法
+     * @param prefix 前缀
+     * @return 已解析表达式，方法不支持时返回null
+     */
+    private CompiledKey getCompiledKey(Method method, String prefix) {
+        CompiledKey compiledKey = compiledKeys.get(method);
+        if (compiledKey == null || !compiledKey.matches(prefix)) {
+            compiledKey = compile(method, prefix);
+            if (compiledKey == null) {
+                return null;
+            }
+            compiledKeys.put(method, compiledKey);
+        }
+        return compiledKey;
+    }
+
+    private CompiledKey compile(Method method, String prefix) {
+        // 获取Idempotent注解
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+        if (idempotent == null) {
+            log.warn("方法{}未标注@Idempotent注解", method.getName());
+            return null;
+        }
+
+        // 获取方法参数名
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        if (parameterNames == null) {
+            log.warn("无法获取方法{}的参数名", method.getName());
+            return null;
+        }
+
+        // 如果前缀为空，则使用方法名作为前缀
+        String expressionString = StringUtils.hasText(prefix)
+                ? prefix : method.getDeclaringClass().getName() + "." + method.getName();
+        String keyPrefix = IdempotentConstants.REDIS_KEY_PREFIX + expressionString + IdempotentConstants.KEY_SEPARATOR;
+        return new CompiledKey(prefix, keyPrefix, parameterNames, parser.parseExpression(expressionString));
+    }
+
+    /**
+     * 方法的已解析表达式
+     */
+    private static final class CompiledKey {
+
+        /**
+         * 调用方传入的原始前缀
+         */
+        private final String prefix;
+
+        private final String keyPrefix;
+
+        private final String[] parameterNames;
+
+        private final Expression expression;
+
+        private CompiledKey(String prefix, String keyPrefix, String[] parameterNames, Expression expression) {
+            this.prefix = prefix;
+            this.keyPrefix = keyPrefix;
+            this.parameterNames = parameterNames;
+            this.expression = expression;
+        }
+
+        private boolean matches(String other) {
+            return prefix == other || (prefix != null && prefix.equals(other));
+        }
+    }
 }
\ No newline at end of file
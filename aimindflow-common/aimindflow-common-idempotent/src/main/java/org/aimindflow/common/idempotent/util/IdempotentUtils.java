@@ -6,6 +6,7 @@ import org.aimindflow.common.idempotent.exception.IdempotentException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -29,9 +30,10 @@ public class IdempotentUtils {
     private static StringRedisTemplate redisTemplate;
 
     /**
-     * 释放锁的Lua脚本
+     * 释放锁的Lua脚本，按SHA1执行
      */
-    private static final String RELEASE_LOCK_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
 
     @Autowired
     public void setRedisTemplate(StringRedisTemplate redisTemplate) {
@@ -177,8 +179,7 @@ public class IdempotentUtils {
      */
     private static void releaseLock(String key, String value) {
         try {
-            DefaultRedisScript<Long> script = new DefaultRedisScript<>(RELEASE_LOCK_SCRIPT, Long.class);
-            Long result = redisTemplate.execute(script, Collections.singletonList(key), value);
+            Long result = redisTemplate.execute(RELEASE_LOCK_SCRIPT, Collections.singletonList(key), value);
             if (result == null || result == 0) {
                 log.warn("释放锁失败，可能已过期或被其他线程释放");
             }
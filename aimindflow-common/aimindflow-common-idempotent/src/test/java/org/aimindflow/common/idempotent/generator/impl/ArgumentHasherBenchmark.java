@@ -0,0 +1,129 @@
+package org.aimindflow.common.idempotent.generator.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.DigestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 幂等参数哈希基准测试
+ *
+ * 对比Arrays.toString(args)后做MD5（原实现）与ArgumentHasher按字段流式哈希，
+ * 参数为包含items个明细与扩展属性的订单对象以及一个令牌字符串，对象的toString与Lombok生成的格式一致。
+ *
+ * 运行方式：mvn test-compile 后执行本类的main方法，或通过org.openjdk.jmh.Main指定本类。
+ *
+ * @author HezaoHezao
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentHasherBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    private Object[] args;
+
+    private final ArgumentHasher hasher = new ArgumentHasher();
+
+    private final StringBuilder builder = new StringBuilder(64);
+
+    @Setup
+    public void setUp() {
+        OrderForm form = new OrderForm();
+        form.userId = 10086L;
+        form.remark = "请尽快发货";
+        form.createTime = new Date(1700000000000L);
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.skuId = "SKU-" + i;
+            item.quantity = i % 5 + 1;
+            item.price = new BigDecimal("19.90").add(BigDecimal.valueOf(i));
+            form.items.add(item);
+        }
+        form.attributes.put("channel", "app");
+        form.attributes.put("coupon", "NEWUSER");
+        args = new Object[]{form, "7f3c2a9e"};
+    }
+
+    /**
+     * 原实现：拼接参数字符串后做MD5
+     */
+    @Benchmark
+    public String toStringMd5() {
+        String params = Arrays.toString(args);
+        return DigestUtils.md5DigestAsHex(params.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 现实现：按字段写入128位哈希
+     */
+    @Benchmark
+    public String argumentHasher() {
+        builder.setLength(0);
+        hasher.hashTo(args, builder);
+        return builder.toString();
+    }
+
+    public static class OrderForm {
+
+        private Long userId;
+
+        private String remark;
+
+        private Date createTime;
+
+        private List<OrderItem> items = new ArrayList<>();
+
+        private Map<String, Object> attributes = new HashMap<>();
+
+        @Override
+        public String toString() {
+            return "OrderForm(userId=" + userId + ", remark=" + remark + ", createTime=" + createTime
+                    + ", items=" + items + ", attributes=" + attributes + ")";
+        }
+    }
+
+    public static class OrderItem {
+
+        private String skuId;
+
+        private Integer quantity;
+
+        private BigDecimal price;
+
+        @Override
+        public String toString() {
+            return "OrderItem(skuId=" + skuId + ", quantity=" + quantity + ", price=" + price + ")";
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ArgumentHasherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
\ No newline at end of file
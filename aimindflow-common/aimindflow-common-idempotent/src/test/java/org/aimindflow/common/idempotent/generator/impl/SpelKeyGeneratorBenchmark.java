@@ -0,0 +1,138 @@
+package org.aimindflow.common.idempotent.generator.impl;
+
+import org.aimindflow.common.idempotent.annotation.Idempotent;
+import org.aimindflow.common.idempotent.constant.IdempotentConstants;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.DigestUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpEL幂等Key生成基准测试
+ *
+ * 对比每次调用读取注解、发现参数名并解析表达式（原实现）与按方法缓存解析结果且以混合模式编译表达式，
+ * 两者都对表达式结果做MD5。
+ *
+ * 运行方式：mvn test-compile 后执行本类的main方法，或通过org.openjdk.jmh.Main指定本类。
+ *
+ * @author HezaoHezao
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpelKeyGeneratorBenchmark {
+
+    private static final String PREFIX = "#form.userId + ':' + #token";
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private SpelKeyGenerator generator;
+
+    private ProceedingJoinPoint point;
+
+    private Method method;
+
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        generator = new SpelKeyGenerator();
+        method = OrderController.class.getMethod("submit", OrderForm.class, String.class);
+        args = new Object[]{new OrderForm(10086L), "7f3c2a"};
+        MethodSignature signature = (MethodSignature) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MethodSignature.class}, (proxy, m, a) -> "getMethod".equals(m.getName()) ? method : null);
+        point = (ProceedingJoinPoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ProceedingJoinPoint.class}, (proxy, m, a) -> {
+                    switch (m.getName()) {
+                        case "getSignature":
+                            return signature;
+                        case "getArgs":
+                            return args;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * 原实现：每次调用完整解析
+     */
+    @Benchmark
+    public String perCall() {
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+        if (idempotent == null) {
+            return null;
+        }
+        StringBuilder keyBuilder = new StringBuilder(IdempotentConstants.REDIS_KEY_PREFIX)
+                .append(PREFIX)
+                .append(IdempotentConstants.KEY_SEPARATOR);
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        EvaluationContext context = new StandardEvaluationContext();
+        for (int i = 0; i < parameterNames.length; i++) {
+            context.setVariable(parameterNames[i], args[i]);
+        }
+        Object result = parser.parseExpression(PREFIX).getValue(context);
+        keyBuilder.append(DigestUtils.md5DigestAsHex(result.toString().getBytes(StandardCharsets.UTF_8)));
+        return keyBuilder.toString();
+    }
+
+    /**
+     * 现实现：按方法缓存参数名与表达式
+     */
+    @Benchmark
+    public String cached() {
+        return generator.generateKey(PREFIX, point);
+    }
+
+    public static class OrderController {
+
+        @Idempotent(prefix = PREFIX, strategy = Idempotent.IdempotentStrategy.SPEL)
+        public void submit(OrderForm form, String token) {
+        }
+    }
+
+    public static class OrderForm {
+
+        private final Long userId;
+
+        public OrderForm(Long userId) {
+            this.userId = userId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SpelKeyGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
\ No newline at end of file
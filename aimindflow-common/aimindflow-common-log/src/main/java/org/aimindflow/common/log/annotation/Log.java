@@ -1,5 +1,7 @@
 package org.aimindflow.common.log.annotation;
 
+import org.aimindflow.common.log.constant.LogConstants;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -29,6 +31,11 @@ public @interface Log {
      */
     String description() default "";
 
+    /**
+     * 日志级别，低于配置的最低级别时不记录
+     */
+    String level() default LogConstants.DEFAULT_LOG_LEVEL;
+
     /**
      * 是否记录请求参数
      */
@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.aimindflow.common.log.annotation.Log;
 import org.aimindflow.common.log.constant.LogConstants;
 import org.aimindflow.common.log.entity.LogInfo;
+import org.aimindflow.common.log.pipeline.AsyncLogPipeline;
+import org.aimindflow.common.log.properties.LogProperties;
 import org.aimindflow.common.log.service.LogService;
 import org.aimindflow.common.log.util.LogUtils;
 import org.aspectj.lang.JoinPoint;
@@ -12,6 +14,7 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -20,21 +23,63 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 日志切面
  *
+ * 低于最低级别的方法直接执行，不采集任何日志信息；堆栈与User-Agent解析延迟到日志被读取时进行；
+ * 请求参数与响应结果按字节上限截断。
+ *
  * @author HezaoHezao
  */
 @Slf4j
 @Aspect
 @Component
-public class LogAspect {
+public class LogAspect implements InitializingBean {
 
     @Autowired
     private LogService logService;
 
+    /**
+     * 异步日志管道，未启用时在请求线程中同步调用LogService
+     */
+    @Autowired(required = false)
+    private AsyncLogPipeline asyncLogPipeline;
+
+    @Autowired(required = false)
+    private LogProperties logProperties;
+
+    /**
+     * 方法元数据缓存
+     */
+    private final Map<Method, LogMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    /**
+     * 最低日志级别
+     */
+    private int minLevelRank;
+
+    /**
+     * 请求参数最大字节数
+     */
+    private int maxParamsBytes;
+
+    /**
+     * 响应结果最大字节数
+     */
+    private int maxResultBytes;
+
+    @Override
+    public void afterPropertiesSet() {
+        LogProperties properties = logProperties == null ? new LogProperties() : logProperties;
+        minLevelRank = LogMetadata.rank(properties.getLevel());
+        maxParamsBytes = properties.getCapture().getMaxParamsBytes();
+        maxResultBytes = properties.getCapture().getMaxResultBytes();
+    }
+
     /**
      * 定义切点
      */
@@ -51,12 +96,17 @@ public class LogAspect {
      */
     @Around("logPointcut()")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        LogMetadata metadata = getMetadata(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (!isEnabled(metadata)) {
+            return joinPoint.proceed();
+        }
+        Log logAnnotation = metadata.getLog();
         // 开始时间
         long startTime = System.currentTimeMillis();
         // 执行结果
         Object result = null;
         // 日志信息
-        LogInfo logInfo = createLogInfo(joinPoint);
+        LogInfo logInfo = createLogInfo(joinPoint, metadata);
 
         try {
             // 执行方法
@@ -64,31 +114,29 @@ public class LogAspect {
             // 设置操作状态为成功
             logInfo.setStatus(LogConstants.OPERATION_STATUS_SUCCESS);
             // 记录响应结果
-            if (logInfo.getResponseResult() == null && result != null) {
-                Log logAnnotation = getLogAnnotation(joinPoint);
-                if (logAnnotation.recordResult()) {
-                    logInfo.setResponseResult(LogUtils.toJsonString(result));
-                }
+            if (logInfo.getResponseResult() == null && result != null && logAnnotation.recordResult()) {
+                logInfo.setResponseResult(LogUtils.toJsonString(result, maxResultBytes));
             }
             return result;
         } catch (Throwable e) {
             // 设置操作状态为失败
             logInfo.setStatus(LogConstants.OPERATION_STATUS_FAIL);
-            // 记录异常信息
-            Log logAnnotation = getLogAnnotation(joinPoint);
+            // 记录异常信息，堆栈字符串在读取时生成
             if (logAnnotation.recordException()) {
-                logInfo.setExceptionInfo(LogUtils.getStackTraceAsString(e));
+                logInfo.deferExceptionInfo(e);
             }
             throw e;
         } finally {
             // 设置执行时间
-            long executionTime = System.currentTimeMillis() - startTime;
-            Log logAnnotation = getLogAnnotation(joinPoint);
             if (logAnnotation.recordExecutionTime()) {
-                logInfo.setExecutionTime(executionTime);
+                logInfo.setExecutionTime(System.currentTimeMillis() - startTime);
             }
             // 记录日志
-            logService.log(logInfo);
+            if (asyncLogPipeline != null) {
+                asyncLogPipeline.publish(logInfo);
+            } else {
+                logService.log(logInfo);
+            }
         }
     }
 
@@ -96,11 +144,12 @@ public class LogAspect {
      * 创建日志信息
      *
      * @param joinPoint 连接点
+     * @param metadata  日志元数据
      * @return 日志信息
      */
-    private LogInfo createLogInfo(JoinPoint joinPoint) {
+    private LogInfo createLogInfo(JoinPoint joinPoint, LogMetadata metadata) {
         // 获取注解信息
-        Log logAnnotation = getLogAnnotation(joinPoint);
+        Log logAnnotation = metadata.getLog();
 
         // 创建日志信息
         LogInfo logInfo = new LogInfo();
@@ -109,7 +158,7 @@ public class LogAspect {
         logInfo.setOperationType(logAnnotation.operationType());
         logInfo.setDescription(logAnnotation.description());
         logInfo.setOperationTime(new Date());
-        logInfo.setLogLevel(LogConstants.DEFAULT_LOG_LEVEL);
+        logInfo.setLogLevel(metadata.getLevel());
 
         // 获取类名和方法名
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
@@ -117,10 +166,11 @@ public class LogAspect {
         logInfo.setMethodName(signature.getName());
 
         // 获取线程信息
-        logInfo.setThreadId(String.valueOf(Thread.currentThread().getId()));
-        logInfo.setThreadName(Thread.currentThread().getName());
+        Thread thread = Thread.currentThread();
+        logInfo.setThreadId(String.valueOf(thread.getId()));
+        logInfo.setThreadName(thread.getName());
 
-        // 获取主机信息
+        // 获取主机信息（缓存值）
         logInfo.setHostName(LogUtils.getHostName());
         logInfo.setHostIp(LogUtils.getHostIp());
 
@@ -137,7 +187,7 @@ public class LogAspect {
 
             // 记录请求参数
             if (logAnnotation.recordParams()) {
-                logInfo.setRequestParams(LogUtils.getRequestParams(joinPoint));
+                logInfo.setRequestParams(LogUtils.getRequestParams(joinPoint, maxParamsBytes));
             }
 
             // 记录操作人信息
@@ -146,8 +196,14 @@ public class LogAspect {
                 logInfo.setOperatorId(LogUtils.getCurrentUserId());
                 logInfo.setOperatorName(LogUtils.getCurrentUsername());
                 logInfo.setOperatorIp(LogUtils.getClientIp(request));
-                logInfo.setOperatorBrowser(LogUtils.getBrowser(request));
-                logInfo.setOperatorOs(LogUtils.getOs(request));
+                // 请求对象可能被容器回收，只保存User-Agent，浏览器和操作系统在读取时解析
+                String userAgent = request.getHeader("User-Agent");
+                if (userAgent == null || userAgent.isEmpty()) {
+                    logInfo.setOperatorBrowser(LogConstants.DEFAULT_BROWSER);
+                    logInfo.setOperatorOs(LogConstants.DEFAULT_OS);
+                } else {
+                    logInfo.deferUserAgent(userAgent);
+                }
             }
 
             // 获取租户ID
@@ -158,14 +214,30 @@ public class LogAspect {
     }
 
     /**
-     * 获取日志注解
+     * 方法的日志级别是否需要记录
      *
-     * @param joinPoint 连接点
-     * @return 日志注解
+     * @param metadata 日志元数据
+     * @return 是否记录
      */
-    private Log getLogAnnotation(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        return method.getAnnotation(Log.class);
+    private boolean isEnabled(LogMetadata metadata) {
+        if (metadata.getLevelRank() < minLevelRank) {
+            return false;
+        }
+        // 同步记录时还要看LogService自身的级别
+        return asyncLogPipeline != null || logService.isEnabled(metadata.getLevel());
+    }
+
+    /**
+     * 获取方法的日志元数据
+     *
+     * @param method 方法
+     * @return 日志元数据
+     */
+    private LogMetadata getMetadata(Method method) {
+        LogMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, LogMetadata::of);
+        }
+        return metadata;
     }
 }
\ No newline at end of file
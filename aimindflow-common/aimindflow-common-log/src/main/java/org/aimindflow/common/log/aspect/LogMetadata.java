@@ -0,0 +1,77 @@
+package org.aimindflow.common.log.aspect;
+
+import org.aimindflow.common.log.annotation.Log;
+import org.aimindflow.common.log.constant.LogConstants;
+
+import java.lang.reflect.Method;
+
+/**
+ * 日志方法元数据
+ *
+ * 每个方法解析一次注解并换算日志级别，切面执行时只需比较级别即可决定是否采集。
+ *
+ * @author HezaoHezao
+ */
+final class LogMetadata {
+
+    private final Log log;
+
+    private final String level;
+
+    private final int levelRank;
+
+    private LogMetadata(Log log, String level) {
+        this.log = log;
+        this.level = level;
+        this.levelRank = rank(level);
+    }
+
+    /**
+     * 解析方法的日志元数据
+     *
+     * @param method 方法
+     * @return 日志元数据
+     */
+    static LogMetadata of(Method method) {
+        Log log = method.getAnnotation(Log.class);
+        String level = log.level().isEmpty() ? LogConstants.DEFAULT_LOG_LEVEL : log.level().toUpperCase();
+        return new LogMetadata(log, level);
+    }
+
+    /**
+     * 日志级别的大小，无法识别的级别按默认级别处理
+     *
+     * @param level 日志级别
+     * @return 级别大小，越大越严重
+     */
+    static int rank(String level) {
+        if (level == null) {
+            return rank(LogConstants.DEFAULT_LOG_LEVEL);
+        }
+        switch (level.toUpperCase()) {
+            case LogConstants.LOG_LEVEL_TRACE:
+                return 0;
+            case LogConstants.LOG_LEVEL_DEBUG:
+                return 1;
+            case LogConstants.LOG_LEVEL_WARN:
+                return 3;
+            case LogConstants.LOG_LEVEL_ERROR:
+                return 4;
+            case LogConstants.LOG_LEVEL_INFO:
+            default:
+                return 2;
+        }
+    }
+
+    Log getLog() {
+        return log;
+    }
+
+    String getLevel() {
+        return level;
+    }
+
+    int getLevelRank() {
+        return levelRank;
+    }
+}
\ No newline at end of file
@@ -1,6 +1,10 @@
 package org.aimindflow.common.log.config;
 
+import org.aimindflow.common.log.properties.LogProperties;
+import org.aimindflow.common.log.util.LogUtils;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -8,11 +12,17 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 /**
  * 日志模块自动配置
  *
- * 开启 AOP 并扫描日志相关组件，支持开关控制。
+ * 开启 AOP 并扫描日志相关组件，支持开关控制。启动时即开始在后台解析主机信息。
  */
 @Configuration
 @EnableAspectJAutoProxy
+@EnableConfigurationProperties(LogProperties.class)
 @ConditionalOnProperty(prefix = "aimindflow.log", name = "enabled", havingValue = "true", matchIfMissing = true)
 @ComponentScan("org.aimindflow.common.log")
-public class LogAutoConfiguration {
+public class LogAutoConfiguration implements InitializingBean {
+
+    @Override
+    public void afterPropertiesSet() {
+        LogUtils.initHostInfo();
+    }
 }
\ No newline at end of file
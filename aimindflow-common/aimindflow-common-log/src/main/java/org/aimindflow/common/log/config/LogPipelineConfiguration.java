@@ -0,0 +1,114 @@
+package org.aimindflow.common.log.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.log.pipeline.AsyncLogPipeline;
+import org.aimindflow.common.log.pipeline.JdbcLogSink;
+import org.aimindflow.common.log.pipeline.LogEventSink;
+import org.aimindflow.common.log.pipeline.LogPipelineMetrics;
+import org.aimindflow.common.log.pipeline.LogServiceSink;
+import org.aimindflow.common.log.pipeline.RedisStreamLogSink;
+import org.aimindflow.common.log.pipeline.RollingFileLogSink;
+import org.aimindflow.common.log.properties.LogProperties;
+import org.aimindflow.common.log.service.LogService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.sql.DataSource;
+import java.util.stream.Collectors;
+
+/**
+ * 异步日志管道配置
+ *
+ * 需设置aimindflow.log.async.enabled=true启用，未启用时LogAspect在请求线程中同步调用LogService。
+ *
+ * @author HezaoHezao
+ */
+@Configuration
+@EnableConfigurationProperties(LogProperties.class)
+@ConditionalOnProperty(prefix = "aimindflow.log.async", name = "enabled", havingValue = "true")
+public class LogPipelineConfiguration {
+
+    /**
+     * 异步日志管道
+     *
+     * @param logProperties 日志配置
+     * @param sinks         输出端
+     * @return 异步日志管道
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AsyncLogPipeline asyncLogPipeline(LogProperties logProperties, ObjectProvider<LogEventSink> sinks) {
+        return new AsyncLogPipeline(logProperties.getAsync(), sinks.orderedStream().collect(Collectors.toList()));
+    }
+
+    /**
+     * 交给LogService处理的输出端
+     *
+     * @param logService 日志服务
+     * @return 输出端
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aimindflow.log.async", name = "log-service-sink", havingValue = "true", matchIfMissing = true)
+    public LogServiceSink logServiceSink(LogService logService) {
+        return new LogServiceSink(logService);
+    }
+
+    /**
+     * 本地滚动文件输出端
+     *
+     * @param logProperties 日志配置
+     * @return 输出端
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aimindflow.log.async.file", name = "enabled", havingValue = "true")
+    public RollingFileLogSink rollingFileLogSink(LogProperties logProperties) {
+        return new RollingFileLogSink(logProperties.getAsync().getFile());
+    }
+
+    /**
+     * JDBC批量写入输出端
+     *
+     * @param logProperties 日志配置
+     * @param dataSource    数据源
+     * @return 输出端
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aimindflow.log.async.jdbc", name = "enabled", havingValue = "true")
+    public JdbcLogSink jdbcLogSink(LogProperties logProperties, DataSource dataSource) {
+        return new JdbcLogSink(dataSource, logProperties.getAsync().getJdbc().getTable());
+    }
+
+    /**
+     * Redis Stream输出端配置
+     */
+    @Configuration
+    @ConditionalOnClass(StringRedisTemplate.class)
+    @ConditionalOnProperty(prefix = "aimindflow.log.async.redis-stream", name = "enabled", havingValue = "true")
+    public static class RedisStreamSinkConfiguration {
+
+        @Bean
+        public RedisStreamLogSink redisStreamLogSink(LogProperties logProperties, StringRedisTemplate redisTemplate) {
+            return new RedisStreamLogSink(redisTemplate, logProperties.getAsync().getRedisStream());
+        }
+    }
+
+    /**
+     * 日志管道指标配置，存在 Micrometer 时导出
+     */
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    public static class LogPipelineMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public LogPipelineMetrics logPipelineMetrics(AsyncLogPipeline asyncLogPipeline) {
+            return new LogPipelineMetrics(asyncLogPipeline);
+        }
+    }
+}
\ No newline at end of file
@@ -1,8 +1,15 @@
 package org.aimindflow.common.log.entity;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.Accessors;
+import org.aimindflow.common.log.util.LogUtils;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Date;
 
@@ -161,4 +168,77 @@ public class LogInfo implements Serializable {
      * 扩展字段3
      */
     private String ext3;
+
+    /**
+     * 待转换的异常，首次读取异常信息时才生成堆栈字符串
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient Throwable pendingException;
+
+    /**
+     * 待解析的User-Agent，首次读取浏览器或操作系统时才解析
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient String pendingUserAgent;
+
+    /**
+     * 延迟记录异常信息，堆栈字符串在首次读取时生成，通常位于异步管道的消费线程
+     *
+     * @param throwable 异常
+     * @return 日志信息
+     */
+    public LogInfo deferExceptionInfo(Throwable throwable) {
+        this.exceptionInfo = null;
+        this.pendingException = throwable;
+        return this;
+    }
+
+    /**
+     * 延迟解析浏览器和操作系统
+     *
+     * @param userAgent User-Agent请求头
+     * @return 日志信息
+     */
+    public LogInfo deferUserAgent(String userAgent) {
+        this.operatorBrowser = null;
+        this.operatorOs = null;
+        this.pendingUserAgent = userAgent;
+        return this;
+    }
+
+    public String getExceptionInfo() {
+        if (exceptionInfo == null && pendingException != null) {
+            exceptionInfo = LogUtils.getStackTraceAsString(pendingException);
+            pendingException = null;
+        }
+        return exceptionInfo;
+    }
+
+    public String getOperatorBrowser() {
+        if (operatorBrowser == null && pendingUserAgent != null) {
+            operatorBrowser = LogUtils.getBrowser(pendingUserAgent);
+        }
+        return operatorBrowser;
+    }
+
+    public String getOperatorOs() {
+        if (operatorOs == null && pendingUserAgent != null) {
+            operatorOs = LogUtils.getOs(pendingUserAgent);
+        }
+        return operatorOs;
+    }
+
+    /**
+     * 序列化前生成延迟字段，避免transient字段丢失
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getExceptionInfo();
+        getOperatorBrowser();
+        getOperatorOs();
+        out.defaultWriteObject();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+package org.aimindflow.common.log.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.log.entity.LogInfo;
+import org.aimindflow.common.log.properties.LogProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步日志管道
+ *
+ * 请求线程只把日志写入有界无锁环形缓冲区，由单个消费线程攒批后依次交给各输出端。
+ * 缓冲区满时按配置丢弃、采样或短暂阻塞；关闭时写完缓冲区中剩余的日志。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class AsyncLogPipeline implements InitializingBean, DisposableBean {
+
+    private final LogRingBuffer<LogInfo> buffer;
+
+    private final List<LogEventSink> sinks;
+
+    private final LogProperties.Async config;
+
+    private final int batchSize;
+
+    private final int sampleThreshold;
+
+    private final long flushIntervalNanos;
+
+    private final Thread consumer;
+
+    private volatile boolean running = true;
+
+    /**
+     * 消费线程是否处于等待
+     */
+    private volatile boolean parked;
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder sampled = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param config 异步管道配置
+     * @param sinks  输出端
+     */
+    public AsyncLogPipeline(LogProperties.Async config, List<LogEventSink> sinks) {
+        this.config = config;
+        this.sinks = Collections.unmodifiableList(new ArrayList<>(sinks));
+        this.buffer = new LogRingBuffer<>(config.getBufferSize());
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.sampleThreshold = (int) (buffer.capacity() * config.getSampleThreshold());
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getFlushIntervalMillis()));
+        this.consumer = new Thread(this::consume, "log-pipeline");
+        this.consumer.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        consumer.start();
+    }
+
+    /**
+     * 提交日志
+     *
+     * @param logInfo 日志信息
+     * @return 是否进入缓冲区，被丢弃或采样掉时返回false
+     */
+    public boolean publish(LogInfo logInfo) {
+        published.increment();
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        LogProperties.OverflowPolicy policy = config.getOverflowPolicy();
+        if (policy == LogProperties.OverflowPolicy.SAMPLE && buffer.size() >= sampleThreshold
+                && sampleCounter.getAndIncrement() % Math.max(1, config.getSampleRate()) != 0) {
+            sampled.increment();
+            return false;
+        }
+        if (offer(logInfo)) {
+            return true;
+        }
+        if (policy == LogProperties.OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getBlockTimeoutMillis());
+            while (System.nanoTime() < deadline && running) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                if (offer(logInfo)) {
+                    return true;
+                }
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        for (LogEventSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                log.warn("日志输出端关闭失败: {}", sink.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * 当前缓冲区中的日志数
+     *
+     * @return 日志数
+     */
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    /**
+     * 缓冲区容量
+     *
+     * @return 容量
+     */
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * 提交的日志数
+     *
+     * @return 日志数
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * 丢弃的日志数
+     *
+     * @return 日志数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 采样丢弃的日志数
+     *
+     * @return 日志数
+     */
+    public long getSampledCount() {
+        return sampled.sum();
+    }
+
+    /**
+     * 输出端写入成功的日志数，每个成功的输出端各计一次
+     *
+     * @return 日志数
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * 输出端写入失败的日志数，每个失败的输出端各计一次
+     *
+     * @return 日志数
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * 写入缓冲区，攒满一批或缓冲区已满时唤醒等待中的消费线程
+     */
+    private boolean offer(LogInfo logInfo) {
+        boolean accepted = buffer.offer(logInfo);
+        if (parked && (!accepted || buffer.size() >= batchSize)) {
+            LockSupport.unpark(consumer);
+        }
+        return accepted;
+    }
+
+    /**
+     * 消费循环：攒满一批或等待超过刷新间隔后写出
+     */
+    private void consume() {
+        List<LogInfo> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (true) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            boolean stopping = !running;
+            long now = System.nanoTime();
+            if (!batch.isEmpty() && deadline == 0) {
+                deadline = now + flushIntervalNanos;
+            }
+            if (batch.size() >= batchSize || (!batch.isEmpty() && (now - deadline >= 0 || stopping))) {
+                flush(batch);
+                batch.clear();
+                deadline = 0;
+                continue;
+            }
+            if (stopping) {
+                if (buffer.size() == 0) {
+                    return;
+                }
+                continue;
+            }
+            parked = true;
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(this, deadline == 0 ? flushIntervalNanos : Math.max(0, deadline - now));
+            }
+            parked = false;
+        }
+    }
+
+    private void flush(List<LogInfo> batch) {
+        for (LogEventSink sink : sinks) {
+            try {
+                sink.write(batch);
+                written.add(batch.size());
+            } catch (Throwable e) {
+                failed.add(batch.size());
+                log.error("日志输出端写入失败: {}, 条数: {}", sink.getName(), batch.size(), e);
+            }
+        }
+    }
+}
\ No newline at end of file
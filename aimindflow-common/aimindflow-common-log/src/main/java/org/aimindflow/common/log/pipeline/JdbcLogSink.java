@@ -0,0 +1,111 @@
+package org.aimindflow.common.log.pipeline;
+
+import org.aimindflow.common.log.entity.LogInfo;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC批量写入输出端
+ *
+ * 每批日志在一个事务中以一条预编译语句批量插入，列名为LogInfo字段的下划线形式。
+ *
+ * @author HezaoHezao
+ */
+public class JdbcLogSink implements LogEventSink {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    /**
+     * 列名与取值函数
+     */
+    private static final Map<String, Function<LogInfo, Object>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", LogInfo::getId);
+        COLUMNS.put("module", LogInfo::getModule);
+        COLUMNS.put("operation_type", LogInfo::getOperationType);
+        COLUMNS.put("description", LogInfo::getDescription);
+        COLUMNS.put("operator_id", LogInfo::getOperatorId);
+        COLUMNS.put("operator_name", LogInfo::getOperatorName);
+        COLUMNS.put("operator_ip", LogInfo::getOperatorIp);
+        COLUMNS.put("operator_browser", LogInfo::getOperatorBrowser);
+        COLUMNS.put("operator_os", LogInfo::getOperatorOs);
+        COLUMNS.put("request_method", LogInfo::getRequestMethod);
+        COLUMNS.put("request_url", LogInfo::getRequestUrl);
+        COLUMNS.put("request_params", LogInfo::getRequestParams);
+        COLUMNS.put("response_result", LogInfo::getResponseResult);
+        COLUMNS.put("exception_info", LogInfo::getExceptionInfo);
+        COLUMNS.put("execution_time", LogInfo::getExecutionTime);
+        COLUMNS.put("status", LogInfo::getStatus);
+        COLUMNS.put("operation_time", info -> info.getOperationTime() == null
+                ? null : new Timestamp(info.getOperationTime().getTime()));
+        COLUMNS.put("log_level", LogInfo::getLogLevel);
+        COLUMNS.put("class_name", LogInfo::getClassName);
+        COLUMNS.put("method_name", LogInfo::getMethodName);
+        COLUMNS.put("thread_id", LogInfo::getThreadId);
+        COLUMNS.put("thread_name", LogInfo::getThreadName);
+        COLUMNS.put("tenant_id", LogInfo::getTenantId);
+        COLUMNS.put("application_name", LogInfo::getApplicationName);
+        COLUMNS.put("host_name", LogInfo::getHostName);
+        COLUMNS.put("host_ip", LogInfo::getHostIp);
+        COLUMNS.put("ext1", LogInfo::getExt1);
+        COLUMNS.put("ext2", LogInfo::getExt2);
+        COLUMNS.put("ext3", LogInfo::getExt3);
+    }
+
+    private final DataSource dataSource;
+
+    private final String sql;
+
+    /**
+     * 构造函数
+     *
+     * @param dataSource 数据源
+     * @param table      日志表名
+     */
+    public JdbcLogSink(DataSource dataSource, String table) {
+        if (table == null || !TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("日志表名不合法: " + table);
+        }
+        this.dataSource = dataSource;
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        this.sql = "INSERT INTO " + table + " (" + String.join(", ", COLUMNS.keySet()) + ") VALUES ("
+                + placeholders + ")";
+    }
+
+    @Override
+    public void write(List<LogInfo> batch) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (LogInfo logInfo : batch) {
+                    int index = 1;
+                    for (Function<LogInfo, Object> column : COLUMNS.values()) {
+                        statement.setObject(index++, column.apply(logInfo));
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package org.aimindflow.common.log.pipeline;
+
+import org.aimindflow.common.log.entity.LogInfo;
+
+import java.util.List;
+
+/**
+ * 日志输出端
+ *
+ * 由异步管道的消费线程按批调用，同一输出端不会被并发调用。
+ *
+ * @author HezaoHezao
+ */
+public interface LogEventSink {
+
+    /**
+     * 写入一批日志
+     *
+     * @param batch 日志列表
+     * @throws Exception 写入失败，该批日志计为失败
+     */
+    void write(List<LogInfo> batch) throws Exception;
+
+    /**
+     * 输出端名称，用于日志与指标
+     *
+     * @return 名称
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * 管道关闭时调用，释放资源
+     */
+    default void close() {
+    }
+}
\ No newline at end of file
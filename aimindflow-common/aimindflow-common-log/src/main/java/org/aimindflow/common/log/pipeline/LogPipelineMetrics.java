@@ -0,0 +1,58 @@
+package org.aimindflow.common.log.pipeline;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 异步日志管道指标
+ *
+ * 导出缓冲区深度与容量，以及提交、丢弃、采样丢弃、写出与写入失败的日志数。
+ *
+ * @author HezaoHezao
+ */
+public class LogPipelineMetrics implements MeterBinder {
+
+    /**
+     * 指标名前缀
+     */
+    private static final String PREFIX = "aimindflow.log.pipeline";
+
+    /**
+     * 异步日志管道
+     */
+    private final AsyncLogPipeline pipeline;
+
+    /**
+     * 构造函数
+     *
+     * @param pipeline 异步日志管道
+     */
+    public LogPipelineMetrics(AsyncLogPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(PREFIX + ".queue.depth", pipeline, AsyncLogPipeline::getQueueDepth)
+                .register(registry);
+        Gauge.builder(PREFIX + ".queue.capacity", pipeline, AsyncLogPipeline::getCapacity)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".events", pipeline, AsyncLogPipeline::getPublishedCount)
+                .tag("result", "published")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".events", pipeline, AsyncLogPipeline::getDroppedCount)
+                .tag("result", "dropped")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".events", pipeline, AsyncLogPipeline::getSampledCount)
+                .tag("result", "sampled")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".events", pipeline, AsyncLogPipeline::getWrittenCount)
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".events", pipeline, AsyncLogPipeline::getFailedCount)
+                .tag("result", "failed")
+                .register(registry);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.aimindflow.common.log.pipeline;
+
+import org.aimindflow.common.log.entity.LogInfo;
+import org.aimindflow.common.log.service.LogService;
+
+import java.util.List;
+
+/**
+ * 交给LogService处理的输出端，保持原有的日志处理方式
+ *
+ * 与同步记录一致，跳过LogService未启用级别的日志。
+ *
+ * @author HezaoHezao
+ */
+public class LogServiceSink implements LogEventSink {
+
+    private final LogService logService;
+
+    /**
+     * 构造函数
+     *
+     * @param logService 日志服务
+     */
+    public LogServiceSink(LogService logService) {
+        this.logService = logService;
+    }
+
+    @Override
+    public void write(List<LogInfo> batch) {
+        for (LogInfo logInfo : batch) {
+            if (logService.isEnabled(logInfo.getLogLevel())) {
+                logService.log(logInfo);
+            }
+        }
+    }
+}
\ No newline at end of file
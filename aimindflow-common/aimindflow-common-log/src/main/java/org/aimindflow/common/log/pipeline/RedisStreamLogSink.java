@@ -0,0 +1,60 @@
+package org.aimindflow.common.log.pipeline;
+
+import org.aimindflow.common.log.entity.LogInfo;
+import org.aimindflow.common.log.properties.LogProperties;
+import org.aimindflow.common.log.util.LogUtils;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Redis Stream输出端
+ *
+ * 每条日志以JSON写入data字段，一批日志通过管道一次发送，超过最大长度时近似裁剪。
+ *
+ * @author HezaoHezao
+ */
+public class RedisStreamLogSink implements LogEventSink {
+
+    private static final byte[] FIELD = "data".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final byte[] streamKey;
+
+    private final RedisStreamCommands.XAddOptions options;
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate Redis模板
+     * @param config        Redis Stream配置
+     */
+    public RedisStreamLogSink(StringRedisTemplate redisTemplate, LogProperties.RedisStream config) {
+        this.redisTemplate = redisTemplate;
+        this.streamKey = config.getKey().getBytes(StandardCharsets.UTF_8);
+        this.options = config.getMaxLength() != null && config.getMaxLength() > 0
+                ? RedisStreamCommands.XAddOptions.maxlen(config.getMaxLength()).approximateTrimming(true)
+                : RedisStreamCommands.XAddOptions.none();
+    }
+
+    @Override
+    public void write(List<LogInfo> batch) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (LogInfo logInfo : batch) {
+                byte[] value = LogUtils.toJsonString(logInfo).getBytes(StandardCharsets.UTF_8);
+                MapRecord<byte[], byte[], byte[]> record = StreamRecords.newRecord()
+                        .in(streamKey)
+                        .ofMap(Collections.singletonMap(FIELD, value));
+                connection.streamCommands().xAdd(record, options);
+            }
+            return null;
+        });
+    }
+}
\ No newline at end of file
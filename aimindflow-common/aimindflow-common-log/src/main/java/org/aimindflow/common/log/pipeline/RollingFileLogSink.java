@@ -0,0 +1,111 @@
+package org.aimindflow.common.log.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.log.entity.LogInfo;
+import org.aimindflow.common.log.properties.LogProperties;
+import org.aimindflow.common.log.util.LogUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 本地滚动文件输出端
+ *
+ * 每行一条JSON日志，按日期与文件大小滚动，文件名为 前缀-日期.序号.log。每批写完后刷新一次。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class RollingFileLogSink implements LogEventSink {
+
+    private final Path directory;
+
+    private final String prefix;
+
+    private final long maxFileSize;
+
+    private OutputStream out;
+
+    private LocalDate currentDate;
+
+    private int index;
+
+    private long currentSize;
+
+    /**
+     * 构造函数
+     *
+     * @param config 文件输出配置
+     */
+    public RollingFileLogSink(LogProperties.File config) {
+        this.directory = Paths.get(config.getDirectory());
+        this.prefix = config.getPrefix();
+        this.maxFileSize = Math.max(1024, config.getMaxFileSize());
+    }
+
+    @Override
+    public void write(List<LogInfo> batch) throws IOException {
+        for (LogInfo logInfo : batch) {
+            byte[] line = (LogUtils.toJsonString(logInfo) + "\n").getBytes(StandardCharsets.UTF_8);
+            rollIfNecessary(line.length);
+            out.write(line);
+            currentSize += line.length;
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        closeFile();
+    }
+
+    /**
+     * 日期变化或文件将超过上限时切换到新文件
+     *
+     * @param length 即将写入的字节数
+     * @throws IOException 打开文件失败
+     */
+    private void rollIfNecessary(int length) throws IOException {
+        LocalDate today = LocalDate.now();
+        if (out != null && today.equals(currentDate) && currentSize + length <= maxFileSize) {
+            return;
+        }
+        closeFile();
+        if (!today.equals(currentDate)) {
+            currentDate = today;
+            index = 0;
+        }
+        Files.createDirectories(directory);
+        Path file;
+        while (true) {
+            file = directory.resolve(prefix + "-" + currentDate + "." + index + ".log");
+            if (!Files.exists(file) || Files.size(file) + length <= maxFileSize) {
+                break;
+            }
+            index++;
+        }
+        currentSize = Files.exists(file) ? Files.size(file) : 0;
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                64 * 1024);
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("关闭日志文件失败", e);
+        }
+        out = null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package org.aimindflow.common.log.properties;
+
+import lombok.Data;
+import org.aimindflow.common.log.constant.LogConstants;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 日志配置属性
+ *
+ * @author HezaoHezao
+ */
+@Data
+@ConfigurationProperties(prefix = "aimindflow.log")
+public class LogProperties {
+
+    /**
+     * 是否启用日志模块
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 记录的最低日志级别：TRACE、DEBUG、INFO、WARN、ERROR，低于该级别的@Log方法不采集日志信息
+     */
+    private String level = LogConstants.LOG_LEVEL_INFO;
+
+    /**
+     * 请求参数与响应结果采集配置
+     */
+    private Capture capture = new Capture();
+
+    /**
+     * 异步日志管道配置
+     */
+    private Async async = new Async();
+
+    /**
+     * 请求参数与响应结果采集配置
+     *
+     * 超过字节上限时截断并追加截断标记，字节数组、流、上传文件和Servlet对象只记录摘要
+     */
+    @Data
+    public static class Capture {
+
+        /**
+         * 请求参数最大字节数，小于等于0表示不限制
+         */
+        private Integer maxParamsBytes = 4096;
+
+        /**
+         * 响应结果最大字节数，小于等于0表示不限制
+         */
+        private Integer maxResultBytes = 4096;
+    }
+
+    /**
+     * 异步日志管道配置
+     */
+    @Data
+    public static class Async {
+
+        /**
+         * 是否启用异步管道，默认关闭，关闭时在请求线程中同步调用LogService
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 环形缓冲区容量，向上取整为2的幂
+         */
+        private Integer bufferSize = 8192;
+
+        /**
+         * 单批写入的最大日志数
+         */
+        private Integer batchSize = 256;
+
+        /**
+         * 未攒满一批时的最长等待时间（毫秒）
+         */
+        private Long flushIntervalMillis = 200L;
+
+        /**
+         * 缓冲区满时的处理策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * SAMPLE策略下开始采样的缓冲区占用比例
+         */
+        private Double sampleThreshold = 0.8;
+
+        /**
+         * SAMPLE策略下每N条保留1条
+         */
+        private Integer sampleRate = 10;
+
+        /**
+         * BLOCK策略下的最长阻塞时间（毫秒），超时后丢弃
+         */
+        private Long blockTimeoutMillis = 100L;
+
+        /**
+         * 是否将日志交给LogService处理
+         */
+        private Boolean logServiceSink = true;
+
+        /**
+         * 本地滚动文件输出
+         */
+        private File file = new File();
+
+        /**
+         * JDBC批量写入
+         */
+        private Jdbc jdbc = new Jdbc();
+
+        /**
+         * Redis Stream输出
+         */
+        private RedisStream redisStream = new RedisStream();
+    }
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 直接丢弃
+         */
+        DROP,
+
+        /**
+         * 占用超过阈值后按比例采样，缓冲区满时丢弃
+         */
+        SAMPLE,
+
+        /**
+         * 阻塞请求线程直到有空位或超时
+         */
+        BLOCK
+    }
+
+    /**
+     * 本地滚动文件配置
+     */
+    @Data
+    public static class File {
+
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 日志目录
+         */
+        private String directory = "logs/operation";
+
+        /**
+         * 文件名前缀，文件按日期与序号滚动：前缀-日期.序号.log
+         */
+        private String prefix = "operation";
+
+        /**
+         * 单个文件最大字节数
+         */
+        private Long maxFileSize = 100L * 1024 * 1024;
+    }
+
+    /**
+     * JDBC批量写入配置
+     */
+    @Data
+    public static class Jdbc {
+
+        /**
+         * 是否启用，需要容器中存在DataSource
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 日志表名，列名为LogInfo字段的下划线形式
+         */
+        private String table = "sys_operation_log";
+    }
+
+    /**
+     * Redis Stream配置
+     */
+    @Data
+    public static class RedisStream {
+
+        /**
+         * 是否启用，需要容器中存在StringRedisTemplate
+         */
+        private Boolean enabled = false;
+
+        /**
+         * Stream键
+         */
+        private String key = "aimindflow:log:stream";
+
+        /**
+         * Stream最大长度，近似裁剪，小于等于0表示不裁剪
+         */
+        private Long maxLength = 100000L;
+    }
+}
\ No newline at end of file
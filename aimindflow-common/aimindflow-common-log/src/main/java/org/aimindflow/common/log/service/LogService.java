@@ -16,6 +16,16 @@ public interface LogService {
      */
     void log(LogInfo logInfo);
 
+    /**
+     * 指定级别的日志是否会被记录，返回false时调用方可跳过日志信息的采集
+     *
+     * @param level 日志级别
+     * @return 是否记录
+     */
+    default boolean isEnabled(String level) {
+        return true;
+    }
+
     /**
      * 记录普通日志
      *
@@ -59,6 +59,26 @@ public class DefaultLogServiceImpl implements LogService {
         // 这里可以扩展其他日志记录方式，如数据库、文件、消息队列等
     }
 
+    @Override
+    public boolean isEnabled(String level) {
+        if (level == null) {
+            return log.isInfoEnabled();
+        }
+        switch (level) {
+            case LogConstants.LOG_LEVEL_TRACE:
+                return log.isTraceEnabled();
+            case LogConstants.LOG_LEVEL_DEBUG:
+                return log.isDebugEnabled();
+            case LogConstants.LOG_LEVEL_WARN:
+                return log.isWarnEnabled();
+            case LogConstants.LOG_LEVEL_ERROR:
+                return log.isErrorEnabled();
+            case LogConstants.LOG_LEVEL_INFO:
+            default:
+                return log.isInfoEnabled();
+        }
+    }
+
     @Override
     public void log(String module, String operationType, String description, String status) {
         LogInfo logInfo = new LogInfo()
@@ -0,0 +1,304 @@
+package org.aimindflow.common.log.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * 限长JSON序列化
+ *
+ * 序列化结果直接写入线程复用的字节缓冲区，超过字节上限时立即中止并截断，不会为超大参数生成完整字符串。
+ * 字节数组、流、上传文件和Servlet对象只输出摘要，避免读取文件内容或序列化容器对象。
+ *
+ * @author HezaoHezao
+ */
+final class BoundedJsonWriter {
+
+    /**
+     * 截断标记
+     */
+    static final String TRUNCATED_SUFFIX = "...(truncated)";
+
+    /**
+     * 线程缓冲区的初始大小
+     */
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    /**
+     * 线程缓冲区保留的最大大小，超过时使用后丢弃，避免长期占用内存
+     */
+    private static final int RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectMapper MAPPER = createMapper();
+
+    private static final ThreadLocal<BoundedOutputStream> BUFFERS = ThreadLocal.withInitial(BoundedOutputStream::new);
+
+    private BoundedJsonWriter() {
+    }
+
+    /**
+     * 序列化对象
+     *
+     * @param value    对象
+     * @param maxBytes 最大字节数，小于等于0表示不限制
+     * @return JSON字符串，超过上限时截断并追加截断标记
+     * @throws IOException 序列化失败
+     */
+    static String write(Object value, int maxBytes) throws IOException {
+        return write(generator -> MAPPER.writeValue(generator, value), maxBytes);
+    }
+
+    /**
+     * 将参数名与参数值序列化为一个JSON对象，不创建中间Map
+     *
+     * @param names    参数名
+     * @param values   参数值
+     * @param maxBytes 最大字节数，小于等于0表示不限制
+     * @return JSON字符串，超过上限时截断并追加截断标记
+     * @throws IOException 序列化失败
+     */
+    static String writeFields(String[] names, Object[] values, int maxBytes) throws IOException {
+        return write(generator -> {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(names != null && i < names.length ? names[i] : "arg" + i);
+                MAPPER.writeValue(generator, values[i]);
+            }
+            generator.writeEndObject();
+        }, maxBytes);
+    }
+
+    private static String write(JsonWriteAction action, int maxBytes) throws IOException {
+        BoundedOutputStream out = BUFFERS.get();
+        if (out.inUse) {
+            // 序列化过程中再次进入（如自定义序列化器中记录日志），使用独立缓冲区
+            out = new BoundedOutputStream();
+        }
+        out.open(maxBytes);
+        try {
+            JsonGenerator generator = MAPPER.getFactory().createGenerator(out);
+            try {
+                action.write(generator);
+                generator.flush();
+            } catch (IOException e) {
+                if (!out.exceeded) {
+                    throw e;
+                }
+            } finally {
+                // 超限后不再接收写入，关闭生成器只为归还其内部缓冲区
+                out.closing = true;
+                generator.close();
+            }
+            return out.exceeded ? out.text() + TRUNCATED_SUFFIX : out.text();
+        } finally {
+            out.release();
+        }
+    }
+
+    private static ObjectMapper createMapper() {
+        SimpleModule module = new SimpleModule("bounded-log-json");
+        module.addSerializer(byte[].class, new SummarySerializer<>(byte[].class, v -> "<byte[" + v.length + "]>"));
+        module.addSerializer(ByteBuffer.class, new SummarySerializer<>(ByteBuffer.class,
+                v -> "<ByteBuffer[" + v.remaining() + "]>"));
+        module.addSerializer(InputStream.class, SummarySerializer.typeOnly(InputStream.class));
+        module.addSerializer(OutputStream.class, SummarySerializer.typeOnly(OutputStream.class));
+        module.addSerializer(Reader.class, SummarySerializer.typeOnly(Reader.class));
+        module.addSerializer(Writer.class, SummarySerializer.typeOnly(Writer.class));
+        module.addSerializer(ServletRequest.class, SummarySerializer.typeOnly(ServletRequest.class));
+        module.addSerializer(ServletResponse.class, SummarySerializer.typeOnly(ServletResponse.class));
+        module.addSerializer(HttpSession.class, SummarySerializer.typeOnly(HttpSession.class));
+        module.addSerializer(Resource.class, new SummarySerializer<>(Resource.class, v -> "<" + v.getDescription() + ">"));
+        module.addSerializer(MultipartFile.class, new MultipartFileSerializer());
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.registerModule(module);
+        return mapper;
+    }
+
+    /**
+     * 序列化动作
+     */
+    @FunctionalInterface
+    private interface JsonWriteAction {
+
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * 超过字节上限，不生成堆栈
+     */
+    private static final class BudgetExceededException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException() {
+            super("JSON超过字节上限");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * 有字节上限的输出流，超过上限时保留上限内的字节并抛出异常中止序列化
+     */
+    private static final class BoundedOutputStream extends OutputStream {
+
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+        private int count;
+
+        private int limit;
+
+        private boolean exceeded;
+
+        private boolean closing;
+
+        private boolean inUse;
+
+        void open(int maxBytes) {
+            count = 0;
+            limit = maxBytes > 0 ? maxBytes : Integer.MAX_VALUE;
+            exceeded = false;
+            closing = false;
+            inUse = true;
+        }
+
+        void release() {
+            inUse = false;
+            if (buffer.length > RETAINED_BUFFER_SIZE) {
+                buffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (exceeded || count >= limit) {
+                overflow();
+                return;
+            }
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (exceeded) {
+                overflow();
+                return;
+            }
+            int accepted = Math.min(len, limit - count);
+            ensureCapacity(count + accepted);
+            System.arraycopy(b, off, buffer, count, accepted);
+            count += accepted;
+            if (accepted < len) {
+                overflow();
+            }
+        }
+
+        private void overflow() throws IOException {
+            exceeded = true;
+            if (!closing) {
+                throw BudgetExceededException.INSTANCE;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                int newLength = (int) Math.min(Math.max((long) buffer.length << 1, capacity), Integer.MAX_VALUE - 8);
+                buffer = Arrays.copyOf(buffer, newLength);
+            }
+        }
+
+        /**
+         * 转为字符串，截断时去掉末尾不完整的UTF-8字符
+         */
+        String text() {
+            int length = count;
+            if (exceeded) {
+                int start = length - 1;
+                while (start >= 0 && (buffer[start] & 0xC0) == 0x80) {
+                    start--;
+                }
+                if (start >= 0 && (buffer[start] & 0xC0) == 0xC0) {
+                    int lead = buffer[start] & 0xFF;
+                    int size = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : 2;
+                    if (start + size > length) {
+                        length = start;
+                    }
+                }
+            }
+            return new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 输出摘要字符串的序列化器
+     */
+    private static final class SummarySerializer<T> extends StdSerializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Function<T, String> summary;
+
+        private SummarySerializer(Class<T> type, Function<T, String> summary) {
+            super(type);
+            this.summary = summary;
+        }
+
+        static <T> SummarySerializer<T> typeOnly(Class<T> type) {
+            String text = "<" + type.getSimpleName() + ">";
+            return new SummarySerializer<>(type, v -> text);
+        }
+
+        @Override
+        public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(summary.apply(value));
+        }
+    }
+
+    /**
+     * 上传文件只输出文件信息，不读取文件内容
+     */
+    private static final class MultipartFileSerializer extends StdSerializer<MultipartFile> {
+
+        private static final long serialVersionUID = 1L;
+
+        private MultipartFileSerializer() {
+            super(MultipartFile.class);
+        }
+
+        @Override
+        public void serialize(MultipartFile value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("name", value.getName());
+            generator.writeStringField("originalFilename", value.getOriginalFilename());
+            generator.writeStringField("contentType", value.getContentType());
+            generator.writeNumberField("size", value.getSize());
+            generator.writeEndObject();
+        }
+    }
+}
\ No newline at end of file
@@ -9,12 +9,16 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 日志工具类
@@ -26,6 +30,26 @@ public class LogUtils {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * User-Agent解析结果缓存的最大条目数
+     */
+    private static final int USER_AGENT_CACHE_SIZE = 1024;
+
+    /**
+     * 主机信息刷新间隔（分钟）
+     */
+    private static final long HOST_REFRESH_MINUTES = 5;
+
+    /**
+     * User-Agent解析结果缓存，key为User-Agent，value为[浏览器, 操作系统]
+     */
+    private static final Map<String, String[]> USER_AGENT_CACHE = new LinkedHashMap<String, String[]>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+            return size() > USER_AGENT_CACHE_SIZE;
+        }
+    };
+
     /**
      * 获取堆栈信息
      *
@@ -48,19 +72,21 @@ public class LogUtils {
      * @return 请求参数
      */
     public static String getRequestParams(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String[] parameterNames = signature.getParameterNames();
-        Object[] args = joinPoint.getArgs();
-
-        // 构建参数键值对
-        Map<String, Object> params = new HashMap<>(parameterNames.length);
-        for (int i = 0; i < parameterNames.length; i++) {
-            params.put(parameterNames[i], args[i]);
-        }
+        return getRequestParams(joinPoint, 0);
+    }
 
+    /**
+     * 获取请求参数，按参数顺序流式序列化，超过字节上限时截断
+     *
+     * @param joinPoint 连接点
+     * @param maxBytes  最大字节数，小于等于0表示不限制
+     * @return 请求参数
+     */
+    public static String getRequestParams(JoinPoint joinPoint, int maxBytes) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         try {
-            return objectMapper.writeValueAsString(params);
-        } catch (JsonProcessingException e) {
+            return BoundedJsonWriter.writeFields(signature.getParameterNames(), joinPoint.getArgs(), maxBytes);
+        } catch (IOException | RuntimeException e) {
             log.error("转换请求参数失败", e);
             return "转换请求参数失败";
         }
@@ -84,6 +110,25 @@ public class LogUtils {
         }
     }
 
+    /**
+     * 对象转JSON字符串，超过字节上限时截断；字节数组、流、上传文件和Servlet对象只输出摘要
+     *
+     * @param object   对象
+     * @param maxBytes 最大字节数，小于等于0表示不限制
+     * @return JSON字符串
+     */
+    public static String toJsonString(Object object, int maxBytes) {
+        if (object == null) {
+            return "";
+        }
+        try {
+            return BoundedJsonWriter.write(object, maxBytes);
+        } catch (IOException | RuntimeException e) {
+            log.error("对象转JSON字符串失败", e);
+            return "对象转JSON字符串失败";
+        }
+    }
+
     /**
      * 获取客户端IP
      *
@@ -117,10 +162,66 @@ public class LogUtils {
      * @return 浏览器类型
      */
     public static String getBrowser(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
+        return getBrowser(request.getHeader("User-Agent"));
+    }
+
+    /**
+     * 获取浏览器类型
+     *
+     * @param userAgent User-Agent请求头
+     * @return 浏览器类型
+     */
+    public static String getBrowser(String userAgent) {
         if (userAgent == null || userAgent.isEmpty()) {
             return "未知浏览器";
         }
+        return parseUserAgent(userAgent)[0];
+    }
+
+    /**
+     * 获取操作系统类型
+     *
+     * @param request 请求对象
+     * @return 操作系统类型
+     */
+    public static String getOs(HttpServletRequest request) {
+        return getOs(request.getHeader("User-Agent"));
+    }
+
+    /**
+     * 获取操作系统类型
+     *
+     * @param userAgent User-Agent请求头
+     * @return 操作系统类型
+     */
+    public static String getOs(String userAgent) {
+        if (userAgent == null || userAgent.isEmpty()) {
+            return "未知操作系统";
+        }
+        return parseUserAgent(userAgent)[1];
+    }
+
+    /**
+     * 解析User-Agent，结果按LRU缓存
+     *
+     * @param userAgent User-Agent请求头
+     * @return [浏览器, 操作系统]
+     */
+    private static String[] parseUserAgent(String userAgent) {
+        synchronized (USER_AGENT_CACHE) {
+            String[] parsed = USER_AGENT_CACHE.get(userAgent);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        String[] parsed = {parseBrowser(userAgent), parseOs(userAgent)};
+        synchronized (USER_AGENT_CACHE) {
+            USER_AGENT_CACHE.put(userAgent, parsed);
+        }
+        return parsed;
+    }
+
+    private static String parseBrowser(String userAgent) {
         if (userAgent.contains("MSIE")) {
             return "IE浏览器";
         } else if (userAgent.contains("Firefox")) {
@@ -136,17 +237,7 @@ public class LogUtils {
         }
     }
 
-    /**
-     * 获取操作系统类型
-     *
-     * @param request 请求对象
-     * @return 操作系统类型
-     */
-    public static String getOs(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
-        if (userAgent == null || userAgent.isEmpty()) {
-            return "未知操作系统";
-        }
+    private static String parseOs(String userAgent) {
         if (userAgent.contains("Windows")) {
             return "Windows";
         } else if (userAgent.contains("Mac")) {
@@ -165,31 +256,35 @@ public class LogUtils {
     }
 
     /**
-     * 获取主机名
+     * 获取主机名，返回缓存值，不会触发DNS解析
      *
      * @return 主机名
      */
     public static String getHostName() {
-        try {
-            return InetAddress.getLocalHost().getHostName();
-        } catch (UnknownHostException e) {
-            log.error("获取主机名失败", e);
-            return "未知主机";
-        }
+        return HostHolder.current[0];
     }
 
     /**
-     * 获取主机IP
+     * 获取主机IP，返回缓存值，不会触发DNS解析
      *
      * @return 主机IP
      */
     public static String getHostIp() {
-        try {
-            return InetAddress.getLocalHost().getHostAddress();
-        } catch (UnknownHostException e) {
-            log.error("获取主机IP失败", e);
-            return "未知IP";
-        }
+        return HostHolder.current[1];
+    }
+
+    /**
+     * 启动后台主机信息解析，不等待解析完成，重复调用无效
+     */
+    public static void initHostInfo() {
+        HostHolder.init();
+    }
+
+    /**
+     * 立即重新解析主机信息，解析失败时保留原值
+     */
+    public static void refreshHostInfo() {
+        HostHolder.refresh();
     }
 
     /**
@@ -244,4 +339,42 @@ public class LogUtils {
         }
         return null;
     }
+
+    /**
+     * 主机信息缓存
+     *
+     * 首次使用时启动后台守护线程，立即解析一次并定期刷新。解析完成前返回占位值，
+     * 记录日志的线程不会在DNS解析上阻塞
+     */
+    private static final class HostHolder {
+
+        /**
+         * [主机名, 主机IP]
+         */
+        private static volatile String[] current = {"未知主机", "未知IP"};
+
+        static {
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "log-host-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(HostHolder::refresh, 0, HOST_REFRESH_MINUTES, TimeUnit.MINUTES);
+        }
+
+        /**
+         * 触发类初始化
+         */
+        private static void init() {
+        }
+
+        private static void refresh() {
+            try {
+                InetAddress localHost = InetAddress.getLocalHost();
+                current = new String[]{localHost.getHostName(), localHost.getHostAddress()};
+            } catch (UnknownHostException e) {
+                log.error("获取主机信息失败", e);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package org.aimindflow.common.ratelimiter;
 
+import org.aimindflow.common.ratelimiter.enums.LimitAlgorithm;
+
 /**
  * 限流器接口
  *
@@ -16,4 +18,17 @@ public interface RateLimiter {
      * @return 是否获取成功
      */
     boolean tryAcquire(String key, int count, int time);
+
+    /**
+     * 按指定算法尝试获取令牌，不区分算法的实现忽略该参数
+     *
+     * @param key       限流key
+     * @param count     限流次数
+     * @param time      限流时间窗口（秒）
+     * @param algorithm 限流算法
+     * @return 是否获取成功
+     */
+    default boolean tryAcquire(String key, int count, int time, LimitAlgorithm algorithm) {
+        return tryAcquire(key, count, time);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.aimindflow.common.ratelimiter.annotation;
 
+import org.aimindflow.common.ratelimiter.enums.LimitAlgorithm;
 import org.aimindflow.common.ratelimiter.enums.LimitType;
 
 import java.lang.annotation.*;
@@ -34,6 +35,11 @@ public @interface RateLimit {
      */
     LimitType limitType() default LimitType.DEFAULT;
 
+    /**
+     * 限流算法
+     */
+    LimitAlgorithm algorithm() default LimitAlgorithm.FIXED_WINDOW;
+
     /**
      * 限流提示消息
      */
@@ -19,7 +19,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 限流切面
@@ -45,6 +46,17 @@ public class RateLimitAspect {
     @Value("${spring.application.name:application}")
     private String applicationName;
 
+    /**
+     * IP请求头，按顺序查找
+     */
+    private static final String[] IP_HEADERS = {"X-Forwarded-For", "Proxy-Client-IP", "WL-Proxy-Client-IP",
+            "HTTP_CLIENT_IP", "HTTP_X_FORWARDED_FOR"};
+
+    /**
+     * 方法限流元数据缓存
+     */
+    private final Map<Method, RateLimitMetadata> metadataCache = new ConcurrentHashMap<>();
+
     /**
      * 限流前置通知
      */
@@ -54,17 +66,18 @@ public class RateLimitAspect {
         MethodSignature signature = (MethodSignature) point.getSignature();
         Method method = signature.getMethod();
 
-        // 获取限流注解
-        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        // 获取限流元数据
+        RateLimitMetadata metadata = getMetadata(method);
+        RateLimit rateLimit = metadata.getRateLimit();
         if (rateLimit == null) {
             return;
         }
 
         // 获取限流key
-        String key = getLimitKey(rateLimit, method);
+        String key = getLimitKey(metadata);
 
         // 尝试获取令牌
-        boolean acquired = rateLimiter.tryAcquire(key, rateLimit.count(), rateLimit.time());
+        boolean acquired = rateLimiter.tryAcquire(key, rateLimit.count(), rateLimit.time(), rateLimit.algorithm());
         if (!acquired) {
             log.warn("限流拦截: {}", key);
             throw new RateLimitException(rateLimit.message());
@@ -72,38 +85,39 @@ public class RateLimitAspect {
     }
 
     /**
-     * 获取限流key
+     * 获取方法限流元数据，先无锁读取，未命中时再解析
      *
-     * @param rateLimit 限流注解
-     * @param method    方法
-     * @return 限流key
+     * @param method 方法
+     * @return 限流元数据
      */
-    private String getLimitKey(RateLimit rateLimit, Method method) {
-        StringBuilder key = new StringBuilder("rate_limit:");
-        key.append(applicationName).append(":");
-
-        // 如果设置了自定义key，则使用自定义key
-        if (rateLimit.key().length() > 0) {
-            key.append(rateLimit.key());
-            return key.toString();
+    private RateLimitMetadata getMetadata(Method method) {
+        RateLimitMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, m -> RateLimitMetadata.of(m, applicationName));
         }
+        return metadata;
+    }
 
-        // 默认使用类名+方法名作为key
-        key.append(method.getDeclaringClass().getName()).append(".").append(method.getName());
-
+    /**
+     * 获取限流key
+     *
+     * @param metadata 限流元数据
+     * @return 限流key
+     */
+    private String getLimitKey(RateLimitMetadata metadata) {
         // 根据限流类型追加不同的key
-        if (rateLimit.limitType() == LimitType.IP) {
-            key.append(":").append(getIpAddress());
-        } else if (rateLimit.limitType() == LimitType.USER) {
+        if (metadata.getLimitType() == LimitType.IP) {
+            return metadata.getKeyPrefix() + ":" + getIpAddress();
+        } else if (metadata.getLimitType() == LimitType.USER) {
             // 这里可以根据实际情况获取用户ID
             // 例如从请求头、Session或ThreadLocal中获取
             String userId = getUserId();
             if (userId != null) {
-                key.append(":").append(userId);
+                return metadata.getKeyPrefix() + ":" + userId;
             }
         }
 
-        return key.toString();
+        return metadata.getKeyPrefix();
     }
 
     /**
@@ -117,26 +131,22 @@ public class RateLimitAspect {
             return "unknown";
         }
 
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_CLIENT_IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_X_FORWARDED_FOR");
+        String ip = null;
+        for (String header : IP_HEADERS) {
+            ip = request.getHeader(header);
+            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
+                break;
+            }
+            ip = null;
         }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+        if (ip == null) {
             ip = request.getRemoteAddr();
         }
 
         // 对于通过多个代理的情况，第一个IP为客户端真实IP
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0];
+        int comma = ip == null ? -1 : ip.indexOf(',');
+        if (comma >= 0) {
+            ip = ip.substring(0, comma);
         }
 
         return ip;
@@ -0,0 +1,71 @@
+package org.aimindflow.common.ratelimiter.aspect;
+
+import org.aimindflow.common.ratelimiter.annotation.RateLimit;
+import org.aimindflow.common.ratelimiter.enums.LimitType;
+
+import java.lang.reflect.Method;
+
+/**
+ * 限流方法元数据
+ *
+ * 每个方法解析一次注解并预先拼好key前缀，切面执行时只需按限流类型追加IP或用户ID。
+ *
+ * @author HezaoHezao
+ */
+final class RateLimitMetadata {
+
+    /**
+     * 方法未标注限流注解时的占位
+     */
+    static final RateLimitMetadata NONE = new RateLimitMetadata(null, null, LimitType.DEFAULT);
+
+    private final RateLimit rateLimit;
+
+    private final String keyPrefix;
+
+    private final LimitType limitType;
+
+    private RateLimitMetadata(RateLimit rateLimit, String keyPrefix, LimitType limitType) {
+        this.rateLimit = rateLimit;
+        this.keyPrefix = keyPrefix;
+        this.limitType = limitType;
+    }
+
+    /**
+     * 解析方法的限流元数据
+     *
+     * @param method          方法
+     * @param applicationName 应用名称
+     * @return 限流元数据
+     */
+    static RateLimitMetadata of(Method method, String applicationName) {
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        if (rateLimit == null) {
+            return NONE;
+        }
+        StringBuilder key = new StringBuilder("rate_limit:");
+        key.append(applicationName).append(":");
+
+        // 如果设置了自定义key，则使用自定义key，不再追加IP或用户ID
+        if (rateLimit.key().length() > 0) {
+            key.append(rateLimit.key());
+            return new RateLimitMetadata(rateLimit, key.toString(), LimitType.DEFAULT);
+        }
+
+        // 默认使用类名+方法名作为key
+        key.append(method.getDeclaringClass().getName()).append(".").append(method.getName());
+        return new RateLimitMetadata(rateLimit, key.toString(), rateLimit.limitType());
+    }
+
+    RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    LimitType getLimitType() {
+        return limitType;
+    }
+}
\ No newline at end of file
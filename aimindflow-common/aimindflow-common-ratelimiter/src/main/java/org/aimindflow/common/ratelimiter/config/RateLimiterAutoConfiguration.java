@@ -2,11 +2,14 @@ package org.aimindflow.common.ratelimiter.config;
 
 import org.aimindflow.common.ratelimiter.aspect.RateLimitAspect;
 import org.aimindflow.common.ratelimiter.impl.GuavaRateLimiter;
+import org.aimindflow.common.ratelimiter.impl.HybridRedisRateLimiter;
 import org.aimindflow.common.ratelimiter.impl.RedisRateLimiter;
+import org.aimindflow.common.ratelimiter.properties.RateLimiterProperties;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -19,6 +22,7 @@ import org.springframework.data.redis.core.script.RedisScript;
  * @author HezaoHezao
  */
 @Configuration
+@EnableConfigurationProperties(RateLimiterProperties.class)
 @Import({RedisLimitScript.class})
 public class RateLimiterAutoConfiguration {
 
@@ -32,7 +36,12 @@ public class RateLimiterAutoConfiguration {
 
         @Bean
         @ConditionalOnMissingBean
-        public RedisRateLimiter redisRateLimiter(StringRedisTemplate stringRedisTemplate, RedisScript<Long> limitScript) {
+        public RedisRateLimiter redisRateLimiter(StringRedisTemplate stringRedisTemplate, RedisScript<Long> limitScript,
+                                                 RateLimiterProperties rateLimiterProperties) {
+            RateLimiterProperties.Hybrid hybrid = rateLimiterProperties.getHybrid();
+            if (Boolean.TRUE.equals(hybrid.getEnabled())) {
+                return new HybridRedisRateLimiter(stringRedisTemplate, limitScript, hybrid);
+            }
             return new RedisRateLimiter(stringRedisTemplate, limitScript);
         }
     }
@@ -0,0 +1,30 @@
+package org.aimindflow.common.ratelimiter.enums;
+
+/**
+ * 限流算法
+ *
+ * 仅Redis限流器区分算法，Guava限流器始终为本节点令牌桶
+ *
+ * @author HezaoHezao
+ */
+public enum LimitAlgorithm {
+    /**
+     * 固定窗口计数，窗口边界前后可能出现两倍突发
+     */
+    FIXED_WINDOW,
+
+    /**
+     * 滑动窗口日志，按每个请求的时间精确计数，内存占用与限流次数成正比
+     */
+    SLIDING_WINDOW_LOG,
+
+    /**
+     * 滑动窗口计数，按上一窗口计数加权估算，每个key固定占用一个哈希
+     */
+    SLIDING_WINDOW_COUNTER,
+
+    /**
+     * 通用信元速率算法，只保存理论到达时间，请求均匀放行并允许一个周期内的突发
+     */
+    GCRA
+}
\ No newline at end of file
@@ -0,0 +1,314 @@
+package org.aimindflow.common.ratelimiter.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.ratelimiter.enums.LimitAlgorithm;
+import org.aimindflow.common.ratelimiter.properties.RateLimiterProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地优先的混合Redis限流器
+ *
+ * 按固定时间窗口限流（其他算法仍每次请求执行脚本），窗口按 时间/窗口长度 对齐，各节点共用同一个窗口计数键。每个节点一次从Redis租用一批许可，
+ * 在本地以无锁计数扣减；剩余许可低于阈值时异步补充，用尽时同步租用。租约空闲或节点关闭时归还未用许可。
+ * 租出的许可计入全局计数，因此不会超出限流次数；误差只体现在其他节点持有未用许可时少放行，
+ * 上限为 节点数 × 单次租用数。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class HybridRedisRateLimiter extends RedisRateLimiter implements DisposableBean {
+
+    private static final RedisScript<Long> LEASE_SCRIPT = script("scripts/lease.lua");
+
+    private static final RedisScript<Long> RETURN_SCRIPT = script("scripts/lease_return.lua");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RateLimiterProperties.Hybrid config;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * 构造函数
+     *
+     * @param stringRedisTemplate Redis模板
+     * @param limitScript         限流脚本
+     * @param config              混合限流配置
+     */
+    public HybridRedisRateLimiter(StringRedisTemplate stringRedisTemplate, RedisScript<Long> limitScript,
+                                  RateLimiterProperties.Hybrid config) {
+        super(stringRedisTemplate, limitScript);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.config = config;
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "rate-limit-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100, config.getIdleReturnMillis());
+        executor.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int count, int time) {
+        if (count <= 0 || time <= 0) {
+            return super.tryAcquire(key, count, time, LimitAlgorithm.FIXED_WINDOW);
+        }
+        long now = System.currentTimeMillis();
+        long window = now / (time * 1000L);
+        while (true) {
+            Lease lease = leases.get(key);
+            if (lease == null || lease.window != window) {
+                lease = leases.compute(key, (k, old) -> old != null && old.window == window && !old.isClosed()
+                        ? old : new Lease(k + ":" + window, window, count, time, leaseSize(count)));
+            }
+            lease.lastAccess = now;
+            long left = lease.tryTake();
+            if (left >= 0) {
+                if (left <= lease.refillThreshold) {
+                    refillAsync(key, lease);
+                }
+                return true;
+            }
+            if (lease.isClosed()) {
+                // 租约刚被归还，重新创建
+                leases.remove(key, lease);
+                continue;
+            }
+            return acquireRemote(lease, now);
+        }
+    }
+
+    /**
+     * 只有固定窗口使用租约，其他算法每次请求执行脚本
+     */
+    @Override
+    public boolean tryAcquire(String key, int count, int time, LimitAlgorithm algorithm) {
+        if (algorithm == LimitAlgorithm.FIXED_WINDOW) {
+            return tryAcquire(key, count, time);
+        }
+        return super.tryAcquire(key, count, time, algorithm);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        for (Lease lease : leases.values()) {
+            giveBack(lease);
+        }
+        leases.clear();
+    }
+
+    /**
+     * 本地许可用尽时同步租用
+     *
+     * @param lease 租约
+     * @param now   当前时间
+     * @return 是否获取成功
+     */
+    private boolean acquireRemote(Lease lease, long now) {
+        if (now < lease.exhaustedUntil) {
+            return false;
+        }
+        long granted;
+        try {
+            granted = lease(lease);
+        } catch (Exception e) {
+            log.error("Redis限流器租用许可异常", e);
+            // 当Redis发生异常时，为了系统的可用性，允许请求通过
+            return true;
+        }
+        if (granted <= 0) {
+            // 全局已用尽，其他节点归还许可前不再访问Redis
+            lease.exhaustedUntil = now + config.getIdleReturnMillis();
+            return false;
+        }
+        if (granted > 1 && !lease.add(granted - 1)) {
+            returnRemote(lease.redisKey, granted - 1);
+        }
+        return true;
+    }
+
+    /**
+     * 异步补充租约，同一租约同时只有一个补充任务
+     *
+     * @param key   限流key
+     * @param lease 租约
+     */
+    private void refillAsync(String key, Lease lease) {
+        if (!lease.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long granted = lease(lease);
+                    if (granted <= 0) {
+                        lease.exhaustedUntil = System.currentTimeMillis() + config.getIdleReturnMillis();
+                    } else if (leases.get(key) != lease || !lease.add(granted)) {
+                        returnRemote(lease.redisKey, granted);
+                    }
+                } catch (Exception e) {
+                    log.warn("Redis限流器补充许可失败，key: {}", key, e);
+                } finally {
+                    lease.refilling.set(false);
+                }
+            });
+        } catch (Exception e) {
+            lease.refilling.set(false);
+        }
+    }
+
+    /**
+     * 归还空闲租约并清理已结束窗口的租约
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Lease> entry : leases.entrySet()) {
+            Lease lease = entry.getValue();
+            boolean windowEnded = now / (lease.time * 1000L) != lease.window;
+            if (windowEnded || now - lease.lastAccess >= config.getIdleReturnMillis()) {
+                if (leases.remove(entry.getKey(), lease) && !windowEnded) {
+                    giveBack(lease);
+                } else {
+                    lease.close();
+                }
+            }
+        }
+    }
+
+    private void giveBack(Lease lease) {
+        long unused = lease.close();
+        if (unused > 0) {
+            returnRemote(lease.redisKey, unused);
+        }
+    }
+
+    private long lease(Lease lease) {
+        Long granted = stringRedisTemplate.execute(LEASE_SCRIPT, Collections.singletonList(lease.redisKey),
+                String.valueOf(lease.count), String.valueOf(lease.time), String.valueOf(lease.size));
+        return granted == null ? 0 : granted;
+    }
+
+    private void returnRemote(String redisKey, long unused) {
+        try {
+            stringRedisTemplate.execute(RETURN_SCRIPT, Collections.singletonList(redisKey), String.valueOf(unused));
+        } catch (Exception e) {
+            log.warn("Redis限流器归还许可失败，key: {}, unused: {}", redisKey, unused, e);
+        }
+    }
+
+    /**
+     * 单次租用的许可数
+     *
+     * @param count 限流次数
+     * @return 许可数
+     */
+    private long leaseSize(int count) {
+        long size = (long) Math.ceil(count * config.getTolerance());
+        return Math.max(1, Math.min(size, config.getMaxLeaseSize()));
+    }
+
+    /**
+     * 单个限流key在一个窗口内的本地租约
+     */
+    private final class Lease {
+
+        /**
+         * 已归还的标记，剩余许可为负数表示租约已关闭
+         */
+        private static final long CLOSED = Long.MIN_VALUE / 2;
+
+        private final String redisKey;
+
+        private final long window;
+
+        private final int count;
+
+        private final int time;
+
+        private final long size;
+
+        private final long refillThreshold;
+
+        private final AtomicLong remaining = new AtomicLong();
+
+        private final AtomicBoolean refilling = new AtomicBoolean();
+
+        private volatile long lastAccess;
+
+        /**
+         * 全局用尽后在此时间前直接拒绝
+         */
+        private volatile long exhaustedUntil;
+
+        private Lease(String redisKey, long window, int count, int time, long size) {
+            this.redisKey = redisKey;
+            this.window = window;
+            this.count = count;
+            this.time = time;
+            this.size = size;
+            this.refillThreshold = size > 1 ? (long) (size * config.getRefillRatio()) : -1;
+        }
+
+        /**
+         * 扣减一个许可
+         *
+         * @return 扣减后的剩余许可，无许可或已关闭返回-1
+         */
+        private long tryTake() {
+            while (true) {
+                long current = remaining.get();
+                if (current <= 0) {
+                    return -1;
+                }
+                if (remaining.compareAndSet(current, current - 1)) {
+                    return current - 1;
+                }
+            }
+        }
+
+        /**
+         * 增加许可
+         *
+         * @param permits 许可数
+         * @return 租约已关闭时返回false，许可需归还
+         */
+        private boolean add(long permits) {
+            while (true) {
+                long current = remaining.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current + permits)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 关闭租约
+         *
+         * @return 未使用的许可数
+         */
+        private long close() {
+            return Math.max(0, remaining.getAndSet(CLOSED));
+        }
+
+        private boolean isClosed() {
+            return remaining.get() < 0;
+        }
+    }
+}
\ No newline at end of file
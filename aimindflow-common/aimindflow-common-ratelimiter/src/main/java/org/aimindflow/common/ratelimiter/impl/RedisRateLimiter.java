@@ -1,37 +1,104 @@
 package org.aimindflow.common.ratelimiter.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aimindflow.common.ratelimiter.RateLimiter;
+import org.aimindflow.common.ratelimiter.enums.LimitAlgorithm;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 基于Redis的限流器实现
  *
+ * 每种算法对应一个原子执行的Lua脚本，启动时预加载，之后按SHA1执行。
+ * 固定窗口沿用原有key，其他算法在key后追加算法名，切换算法时互不影响。
+ *
  * @author HezaoHezao
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class RedisRateLimiter implements RateLimiter {
+public class RedisRateLimiter implements RateLimiter, InitializingBean {
 
     private final StringRedisTemplate stringRedisTemplate;
-    private final RedisScript<Long> limitScript;
+
+    private final Map<LimitAlgorithm, RedisScript<Long>> scripts = new EnumMap<>(LimitAlgorithm.class);
+
+    /**
+     * 滑动窗口日志的请求标识前缀，区分不同节点
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param stringRedisTemplate Redis模板
+     * @param limitScript         固定窗口限流脚本
+     */
+    public RedisRateLimiter(StringRedisTemplate stringRedisTemplate, RedisScript<Long> limitScript) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        scripts.put(LimitAlgorithm.FIXED_WINDOW, limitScript);
+        scripts.put(LimitAlgorithm.SLIDING_WINDOW_LOG, script("scripts/sliding_log.lua"));
+        scripts.put(LimitAlgorithm.SLIDING_WINDOW_COUNTER, script("scripts/sliding_counter.lua"));
+        scripts.put(LimitAlgorithm.GCRA, script("scripts/gcra.lua"));
+    }
+
+    /**
+     * 预加载限流脚本，避免首次执行时因脚本未缓存多一次往返；加载失败时执行时自动退化为EVAL
+     */
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+                for (RedisScript<Long> script : scripts.values()) {
+                    connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Redis限流脚本预加载失败，将在首次执行时加载: {}", e.getMessage());
+        }
+    }
 
     @Override
     public boolean tryAcquire(String key, int count, int time) {
+        return tryAcquire(key, count, time, LimitAlgorithm.FIXED_WINDOW);
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int count, int time, LimitAlgorithm algorithm) {
         try {
             // 执行Lua脚本
-            Long result = stringRedisTemplate.execute(
-                    limitScript,
-                    Collections.singletonList(key),
-                    String.valueOf(count),
-                    String.valueOf(time)
-            );
+            Long result;
+            if (algorithm == LimitAlgorithm.FIXED_WINDOW) {
+                result = stringRedisTemplate.execute(
+                        scripts.get(algorithm),
+                        Collections.singletonList(key),
+                        String.valueOf(count),
+                        String.valueOf(time)
+                );
+            } else {
+                result = stringRedisTemplate.execute(
+                        scripts.get(algorithm),
+                        Collections.singletonList(key + ":" + algorithm.name().toLowerCase()),
+                        String.valueOf(count),
+                        String.valueOf(time),
+                        nodeId + ":" + sequence.incrementAndGet()
+                );
+            }
 
             // 判断是否获取到令牌
             return result != null && result == 1L;
@@ -41,4 +108,17 @@ public class RedisRateLimiter implements RateLimiter {
             return true;
         }
     }
+
+    /**
+     * 加载类路径下的限流脚本
+     *
+     * @param path 脚本路径
+     * @return 限流脚本
+     */
+    protected static RedisScript<Long> script(String path) {
+        DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+        redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        redisScript.setResultType(Long.class);
+        return redisScript;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package org.aimindflow.common.ratelimiter.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 限流配置属性
+ *
+ * @author HezaoHezao
+ */
+@Data
+@ConfigurationProperties(prefix = "aimindflow.rate-limit")
+public class RateLimiterProperties {
+
+    /**
+     * 是否启用限流切面
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 限流器类型：redis、guava
+     */
+    private String type = "redis";
+
+    /**
+     * 本地优先的混合限流配置
+     */
+    private Hybrid hybrid = new Hybrid();
+
+    /**
+     * 混合限流配置
+     *
+     * 各节点按批从Redis租用许可并在本地扣减，只有租约用尽或需要补充时才访问Redis
+     */
+    @Data
+    public static class Hybrid {
+
+        /**
+         * 是否启用混合限流，默认关闭，每次请求执行一次限流脚本
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 允许的误差比例，每次租用的许可数为限流次数乘以该比例（至少为1）。
+         * 未用完的租约只会让其他节点少放行，不会超出全局限流次数
+         */
+        private Double tolerance = 0.05;
+
+        /**
+         * 单次租用的最大许可数
+         */
+        private Integer maxLeaseSize = 1000;
+
+        /**
+         * 本地剩余许可低于租用数的该比例时异步补充
+         */
+        private Double refillRatio = 0.2;
+
+        /**
+         * 租约空闲多久（毫秒）后归还未用许可并移除，也是全局用尽后重新向Redis确认的间隔
+         */
+        private Long idleReturnMillis = 1000L;
+    }
+}
\ No newline at end of file
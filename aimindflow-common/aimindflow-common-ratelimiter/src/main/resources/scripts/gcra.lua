@@ -0,0 +1,30 @@
+-- 获取参数
+local key = KEYS[1]
+local count = tonumber(ARGV[1])
+local period = tonumber(ARGV[2]) * 1000000
+
+-- 使用Redis服务器时间（微秒），各节点时钟一致
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+-- 每个请求的发射间隔，允许的突发为一个周期内的限流次数
+local interval = period / count
+
+-- 读取理论到达时间
+local tat = tonumber(redis.call('GET', key) or '0')
+if tat < now then
+    tat = now
+end
+
+-- 新的理论到达时间超出一个周期，返回0
+local newTat = tat + interval
+if newTat - now > period then
+    return 0
+end
+
+-- 保存理论到达时间，过期后等同于空闲
+redis.call('SET', key, string.format('%.0f', newTat), 'PX', math.ceil((newTat - now) / 1000))
+
+-- 返回成功
+return 1
\ No newline at end of file
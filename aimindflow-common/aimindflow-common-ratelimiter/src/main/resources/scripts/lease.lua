@@ -0,0 +1,25 @@
+-- 获取参数
+local key = KEYS[1]
+local count = tonumber(ARGV[1])
+local time = tonumber(ARGV[2])
+local lease = tonumber(ARGV[3])
+
+-- 获取当前窗口已租出的许可数
+local current = tonumber(redis.call('get', key) or "0")
+
+-- 计算本次可租用的许可数，已用尽返回0
+local granted = math.min(lease, count - current)
+if granted <= 0 then
+    return 0
+end
+
+-- 记录租出的许可
+redis.call("INCRBY", key, granted)
+
+-- 窗口首次租用时设置过期时间
+if current == 0 then
+    redis.call("EXPIRE", key, time)
+end
+
+-- 返回租到的许可数
+return granted
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- 获取参数
+local key = KEYS[1]
+local unused = tonumber(ARGV[1])
+
+-- 窗口已过期时无需归还
+if redis.call('exists', key) == 0 then
+    return 0
+end
+
+-- 归还未使用的许可
+redis.call("DECRBY", key, unused)
+return unused
\ No newline at end of file
@@ -0,0 +1,41 @@
+-- 获取参数
+local key = KEYS[1]
+local count = tonumber(ARGV[1])
+local size = tonumber(ARGV[2]) * 1000000
+
+-- 使用Redis服务器时间（微秒），各节点时钟一致
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+local window = math.floor(now / size)
+
+-- 读取窗口编号、当前窗口计数与上一窗口计数
+local data = redis.call('HMGET', key, 'w', 'c', 'p')
+local stored = tonumber(data[1])
+local current = tonumber(data[2]) or 0
+local previous = tonumber(data[3]) or 0
+
+-- 窗口滚动
+if stored == nil then
+    current = 0
+    previous = 0
+elseif stored == window - 1 then
+    previous = current
+    current = 0
+elseif stored ~= window then
+    current = 0
+    previous = 0
+end
+
+-- 按上一窗口在滑动窗口中的剩余比例估算请求数，超出限流大小返回0
+local elapsed = (now - window * size) / size
+if previous * (1 - elapsed) + current + 1 > count then
+    return 0
+end
+
+-- 执行计数器自增
+redis.call('HSET', key, 'w', string.format('%.0f', window), 'c', current + 1, 'p', previous)
+redis.call('PEXPIRE', key, math.ceil(size * 2 / 1000))
+
+-- 返回成功
+return 1
\ No newline at end of file
@@ -0,0 +1,25 @@
+-- 获取参数
+local key = KEYS[1]
+local count = tonumber(ARGV[1])
+local window = tonumber(ARGV[2]) * 1000000
+local member = ARGV[3]
+
+-- 使用Redis服务器时间（微秒），各节点时钟一致
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+-- 移除窗口外的请求记录
+redis.call('ZREMRANGEBYSCORE', key, '-inf', string.format('%.0f', now - window))
+
+-- 窗口内请求数已达上限，返回0
+if redis.call('ZCARD', key) >= count then
+    return 0
+end
+
+-- 记录本次请求
+redis.call('ZADD', key, string.format('%.0f', now), member)
+redis.call('PEXPIRE', key, math.ceil(window / 1000))
+
+-- 返回成功
+return 1
\ No newline at end of file
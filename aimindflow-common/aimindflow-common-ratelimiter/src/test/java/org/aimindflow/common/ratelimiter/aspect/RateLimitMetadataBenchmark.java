@@ -0,0 +1,100 @@
+package org.aimindflow.common.ratelimiter.aspect;
+
+import org.aimindflow.common.ratelimiter.annotation.RateLimit;
+import org.aimindflow.common.ratelimiter.enums.LimitType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流切面key构建基准测试
+ *
+ * 对比每次调用读取注解并拼接key（原实现）与按方法缓存元数据后只追加IP，
+ * 限流类型为IP，IP取固定值以排除请求头读取的影响。
+ *
+ * 运行方式：mvn test-compile 后执行本类的main方法，或通过org.openjdk.jmh.Main指定本类。
+ *
+ * @author HezaoHezao
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitMetadataBenchmark {
+
+    private static final String APPLICATION_NAME = "order-service";
+
+    private static final String IP = "10.0.12.34";
+
+    private final Map<Method, RateLimitMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    private Method method;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = OrderController.class.getMethod("submit", String.class);
+    }
+
+    /**
+     * 原实现：每次读取注解并拼接完整key
+     */
+    @Benchmark
+    public String perCall() {
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        StringBuilder key = new StringBuilder("rate_limit:");
+        key.append(APPLICATION_NAME).append(":");
+        if (rateLimit.key().length() > 0) {
+            key.append(rateLimit.key());
+            return key.toString();
+        }
+        key.append(method.getDeclaringClass().getName()).append(".").append(method.getName());
+        if (rateLimit.limitType() == LimitType.IP) {
+            key.append(":").append(IP);
+        }
+        return key.toString();
+    }
+
+    /**
+     * 现实现：按方法缓存元数据，只追加IP
+     */
+    @Benchmark
+    public String cached() {
+        RateLimitMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, m -> RateLimitMetadata.of(m, APPLICATION_NAME));
+        }
+        if (metadata.getLimitType() == LimitType.IP) {
+            return metadata.getKeyPrefix() + ":" + IP;
+        }
+        return metadata.getKeyPrefix();
+    }
+
+    public static class OrderController {
+
+        @RateLimit(count = 10, time = 1, limitType = LimitType.IP)
+        public String submit(String orderNo) {
+            return orderNo;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimitMetadataBenchmark.class.getSimpleName()).build()).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package org.aimindflow.common.ratelimiter.impl;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.lib.jse.JsePlatform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在LuaJ中执行限流脚本的内存Redis
+ *
+ * 只实现限流脚本用到的命令，TIME返回由测试控制的时间，键按该时间过期，
+ * 用于在没有Redis服务端的情况下精确验证窗口边界上的放行与拒绝。
+ * 同时统计脚本调用的Redis命令数和存活键中的元素数，作为各算法的Redis开销参考。
+ *
+ * @author HezaoHezao
+ */
+class LuaRedisStub {
+
+    /**
+     * redis.call的内存实现，__now为当前时间（微秒）
+     */
+    private static final String REDIS = String.join("\n",
+            "local data, expires = {}, {}",
+            "__calls = 0",
+            "local function alive(k)",
+            "  local e = expires[k]",
+            "  if e ~= nil and e <= __now / 1000 then data[k] = nil; expires[k] = nil end",
+            "  return data[k]",
+            "end",
+            "local function count(t) local n = 0 for _ in pairs(t) do n = n + 1 end return n end",
+            "local commands = {}",
+            "commands.TIME = function()",
+            "  return {string.format('%.0f', math.floor(__now / 1000000)), string.format('%.0f', __now % 1000000)}",
+            "end",
+            "commands.GET = function(k) local v = alive(k) if v == nil then return false end return v end",
+            "commands.SET = function(k, v, px, ms)",
+            "  data[k] = tostring(v)",
+            "  expires[k] = px and (__now / 1000 + tonumber(ms)) or nil",
+            "  return 'OK'",
+            "end",
+            "commands.INCRBY = function(k, n)",
+            "  local v = tonumber(alive(k) or '0') + tonumber(n)",
+            "  data[k] = string.format('%.0f', v)",
+            "  return v",
+            "end",
+            "commands.EXPIRE = function(k, s)",
+            "  if alive(k) == nil then return 0 end",
+            "  expires[k] = __now / 1000 + tonumber(s) * 1000",
+            "  return 1",
+            "end",
+            "commands.PEXPIRE = function(k, ms)",
+            "  if alive(k) == nil then return 0 end",
+            "  expires[k] = __now / 1000 + tonumber(ms)",
+            "  return 1",
+            "end",
+            "commands.ZADD = function(k, score, member)",
+            "  local z = alive(k) or {}",
+            "  data[k] = z; z[member] = tonumber(score)",
+            "  return 1",
+            "end",
+            "commands.ZCARD = function(k) local z = alive(k) if z == nil then return 0 end return count(z) end",
+            "commands.ZREMRANGEBYSCORE = function(k, min, max)",
+            "  local z = alive(k) if z == nil then return 0 end",
+            "  local low = min == '-inf' and -math.huge or tonumber(min)",
+            "  local high = max == '+inf' and math.huge or tonumber(max)",
+            "  local removed = 0",
+            "  for m, s in pairs(z) do if s >= low and s <= high then z[m] = nil; removed = removed + 1 end end",
+            "  return removed",
+            "end",
+            "commands.HMGET = function(k, ...)",
+            "  local h = alive(k) or {}",
+            "  local result = {}",
+            "  for i, f in ipairs({...}) do if h[f] == nil then result[i] = false else result[i] = h[f] end end",
+            "  return result",
+            "end",
+            "commands.HSET = function(k, ...)",
+            "  local h = alive(k) or {}",
+            "  data[k] = h",
+            "  local args = {...}",
+            "  for i = 1, #args, 2 do h[args[i]] = tostring(args[i + 1]) end",
+            "  return 1",
+            "end",
+            "function __entries()",
+            "  local n = 0",
+            "  for k in pairs(data) do",
+            "    local v = alive(k)",
+            "    if type(v) == 'table' then n = n + count(v) elseif v ~= nil then n = n + 1 end",
+            "  end",
+            "  return n",
+            "end",
+            "redis = {",
+            "  call = function(command, ...) __calls = __calls + 1 return commands[string.upper(command)](...) end,",
+            "  replicate_commands = function() return true end",
+            "}");
+
+    private final Globals globals = JsePlatform.standardGlobals();
+
+    private final LuaValue script;
+
+    private long nowMicros;
+
+    /**
+     * 构造函数
+     *
+     * @param script      类路径下的脚本
+     * @param startMicros 起始时间（微秒）
+     * @throws IOException 读取脚本失败
+     */
+    LuaRedisStub(String script, long startMicros) throws IOException {
+        this.nowMicros = startMicros;
+        globals.set("__now", LuaValue.valueOf((double) nowMicros));
+        globals.load(REDIS, "redis").call();
+        try (InputStream in = LuaRedisStub.class.getClassLoader().getResourceAsStream(script);
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            this.script = globals.load(reader, script);
+        }
+    }
+
+    /**
+     * 拨动时钟
+     *
+     * @param amount 时长
+     * @param unit   时间单位
+     */
+    void advance(long amount, TimeUnit unit) {
+        nowMicros += unit.toMicros(amount);
+        globals.set("__now", LuaValue.valueOf((double) nowMicros));
+    }
+
+    /**
+     * 获取脚本累计调用的Redis命令数
+     *
+     * @return 命令数
+     */
+    long calls() {
+        return globals.get("__calls").tolong();
+    }
+
+    /**
+     * 获取存活键中的元素数，字符串计1，哈希按字段数、有序集合按成员数计
+     *
+     * @return 元素数
+     */
+    long entries() {
+        return globals.get("__entries").call().tolong();
+    }
+
+    /**
+     * 执行脚本
+     *
+     * @param key  键
+     * @param argv 参数
+     * @return 脚本返回值
+     */
+    long eval(String key, String... argv) {
+        LuaValue[] args = new LuaValue[argv.length];
+        for (int i = 0; i < argv.length; i++) {
+            args[i] = LuaValue.valueOf(argv[i]);
+        }
+        globals.set("KEYS", LuaValue.listOf(new LuaValue[]{LuaValue.valueOf(key)}));
+        globals.set("ARGV", LuaValue.listOf(args));
+        return script.call().tolong();
+    }
+}
\ No newline at end of file
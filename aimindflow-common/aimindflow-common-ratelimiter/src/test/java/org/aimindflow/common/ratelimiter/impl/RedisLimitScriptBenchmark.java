@@ -0,0 +1,88 @@
+package org.aimindflow.common.ratelimiter.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流脚本开销基准测试
+ *
+ * 在LuaRedisStub中执行四种限流脚本，以限流次数两倍的速率持续请求同一个键（约一半被拒绝），
+ * 每次操作执行一次脚本。结束时输出每次执行调用的Redis命令数与键中保存的元素数。
+ * LuaJ与Redis内置Lua的绝对耗时不同，结果用于比较各算法的相对开销：滑动日志的命令数、
+ * 内存与每次清理的成员数随限流次数增长，其余算法为常数。
+ *
+ * 运行方式：mvn test-compile 后执行本类的main方法，或通过org.openjdk.jmh.Main指定本类。
+ *
+ * @author HezaoHezao
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisLimitScriptBenchmark {
+
+    private static final long START = TimeUnit.SECONDS.toMicros(1700000000L);
+
+    private static final String KEY = "rate_limit:bench";
+
+    @Param({"limit", "sliding_log", "sliding_counter", "gcra"})
+    private String script;
+
+    @Param({"10", "1000"})
+    private int count;
+
+    private LuaRedisStub redis;
+
+    private String limit;
+
+    /**
+     * 两次请求之间的间隔（微秒），请求速率为限流次数的两倍
+     */
+    private long step;
+
+    private long sequence;
+
+    private long evals;
+
+    @Setup
+    public void setUp() throws IOException {
+        redis = new LuaRedisStub("scripts/" + script + ".lua", START);
+        limit = String.valueOf(count);
+        step = Math.max(1, TimeUnit.SECONDS.toMicros(1) / (count * 2L));
+    }
+
+    @Benchmark
+    public long eval() {
+        redis.advance(step, TimeUnit.MICROSECONDS);
+        evals++;
+        return redis.eval(KEY, limit, "1", "node:" + (++sequence));
+    }
+
+    @TearDown
+    public void report() {
+        System.out.printf("%n%s count=%d: %.2f redis calls/eval, %d entries stored%n",
+                script, count, (double) redis.calls() / evals, redis.entries());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RedisLimitScriptBenchmark.class.getSimpleName()).build()).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package org.aimindflow.common.ratelimiter.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 限流脚本窗口边界测试
+ *
+ * 限流1秒3次（GCRA边界用例为1秒2次），起始时间对齐到整秒，逐个请求断言放行（1）或拒绝（0）。
+ * 四种算法共用的用例验证冷启动突发与空闲恢复，其余用例验证各算法自身的窗口边界。
+ *
+ * @author HezaoHezao
+ */
+class RedisLimitScriptTest {
+
+    /**
+     * 起始时间（微秒），对齐到整秒，滑动窗口计数的窗口从此刻开始
+     */
+    private static final long START = TimeUnit.SECONDS.toMicros(1700000000L);
+
+    private static final String KEY = "rate_limit:test";
+
+    private int sequence;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"scripts/limit.lua", "scripts/sliding_log.lua", "scripts/sliding_counter.lua", "scripts/gcra.lua"})
+    void everyAlgorithmAdmitsBurstOfCountAndRecoversAfterIdle(String script) throws IOException {
+        LuaRedisStub redis = new LuaRedisStub(script, START);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(1, acquire(redis, 3), script + " round " + round + " request " + i);
+            }
+            assertEquals(0, acquire(redis, 3), script + " round " + round);
+            // 空闲两个窗口后所有算法都回到初始状态
+            redis.advance(2, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void fixedWindowResetsWhenKeyExpiresOneWindowAfterFirstRequest() throws IOException {
+        LuaRedisStub redis = new LuaRedisStub("scripts/limit.lua", START);
+        // 窗口从第一个请求开始，键在1秒后过期
+        redis.advance(300, TimeUnit.MILLISECONDS);
+        assertEquals(1, acquire(redis, 3));
+        redis.advance(600, TimeUnit.MILLISECONDS);
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(0, acquire(redis, 3));
+
+        // t=1299.999ms：窗口仍未过期，后续请求不会延长窗口
+        redis.advance(399999, TimeUnit.MICROSECONDS);
+        assertEquals(0, acquire(redis, 3));
+        // t=1300ms：键过期，紧接着又可放行3次，边界两侧共6次
+        redis.advance(1, TimeUnit.MICROSECONDS);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, acquire(redis, 3));
+        }
+        assertEquals(0, acquire(redis, 3));
+    }
+
+    @Test
+    void slidingLogReleasesEachRequestExactlyOneWindowLater() throws IOException {
+        LuaRedisStub redis = new LuaRedisStub("scripts/sliding_log.lua", START);
+        assertEquals(1, acquire(redis, 3));
+        redis.advance(100, TimeUnit.MILLISECONDS);
+        assertEquals(1, acquire(redis, 3));
+        redis.advance(100, TimeUnit.MILLISECONDS);
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(0, acquire(redis, 3));
+
+        // t=999.999ms：第一个请求仍在窗口内
+        redis.advance(799999, TimeUnit.MICROSECONDS);
+        assertEquals(0, acquire(redis, 3));
+        // t=1000ms：第一个请求恰好移出窗口
+        redis.advance(1, TimeUnit.MICROSECONDS);
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(0, acquire(redis, 3));
+        // t=1100ms：第二个请求移出窗口
+        redis.advance(100, TimeUnit.MILLISECONDS);
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(0, acquire(redis, 3));
+    }
+
+    @Test
+    void slidingCounterWeightsPreviousWindowByRemainingShare() throws IOException {
+        LuaRedisStub redis = new LuaRedisStub("scripts/sliding_counter.lua", START);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, acquire(redis, 3));
+        }
+        assertEquals(0, acquire(redis, 3));
+
+        // 新窗口起点：上一窗口的3次全部计入
+        redis.advance(1, TimeUnit.SECONDS);
+        assertEquals(0, acquire(redis, 3));
+        // 新窗口过去一半：上一窗口计为1.5次，还可放行1次
+        redis.advance(500, TimeUnit.MILLISECONDS);
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(0, acquire(redis, 3));
+        // 再下一个窗口起点：上一窗口1次，可放行2次
+        redis.advance(500, TimeUnit.MILLISECONDS);
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(1, acquire(redis, 3));
+        assertEquals(0, acquire(redis, 3));
+        // 空闲超过一个完整窗口后计数清零
+        redis.advance(2, TimeUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, acquire(redis, 3));
+        }
+        assertEquals(0, acquire(redis, 3));
+    }
+
+    @Test
+    void gcraAllowsBurstThenOneRequestPerEmissionInterval() throws IOException {
+        LuaRedisStub redis = new LuaRedisStub("scripts/gcra.lua", START);
+        // 1秒2次，发射间隔500ms，允许一个周期的突发
+        assertEquals(1, acquire(redis, 2));
+        assertEquals(1, acquire(redis, 2));
+        assertEquals(0, acquire(redis, 2));
+
+        redis.advance(499999, TimeUnit.MICROSECONDS);
+        assertEquals(0, acquire(redis, 2));
+        // 恰好一个发射间隔后放行一次
+        redis.advance(1, TimeUnit.MICROSECONDS);
+        assertEquals(1, acquire(redis, 2));
+        assertEquals(0, acquire(redis, 2));
+
+        // 空闲一个周期后理论到达时间过期，重新允许突发
+        redis.advance(1, TimeUnit.SECONDS);
+        assertEquals(1, acquire(redis, 2));
+        assertEquals(1, acquire(redis, 2));
+        assertEquals(0, acquire(redis, 2));
+    }
+
+    /**
+     * 以1秒为窗口请求一次，每次使用不同的请求标识
+     */
+    private long acquire(LuaRedisStub redis, int count) {
+        return redis.eval(KEY, String.valueOf(count), "1", "node:" + (++sequence));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package org.aimindflow.common.redis.batch;
+
+/**
+ * 批量操作中单个命令的结果
+ *
+ * 在 {@link RedisBatch#execute()} 完成后才可读取。
+ *
+ * @param <T> 结果类型
+ * @author HezaoHezao
+ */
+public class BatchResult<T> {
+
+    private T value;
+
+    private boolean done;
+
+    BatchResult() {
+    }
+
+    void complete(T value) {
+        this.value = value;
+        this.done = true;
+    }
+
+    /**
+     * 是否已执行
+     *
+     * @return 是否已执行
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * 获取结果
+     *
+     * @return 命令结果
+     * @throws IllegalStateException 批量操作尚未执行
+     */
+    public T get() {
+        if (!done) {
+            throw new IllegalStateException("批量操作尚未执行");
+        }
+        return value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,513 @@
+package org.aimindflow.common.redis.batch;
+
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Redis批量操作
+ *
+ * 先登记命令并拿到 {@link BatchResult}，调用 {@link #execute()} 后通过一次管道发送，再从各结果中读取类型化的值。
+ * 集群模式下MGET/MSET按槽拆分，每条命令的键都在同一个槽内。只使用有返回值的命令，
+ * 保证管道结果与登记的命令一一对应。实例不是线程安全的，也不能重复执行。
+ *
+ * @author HezaoHezao
+ */
+public class RedisBatch {
+
+    /**
+     * 操作类型：通用管道
+     */
+    public static final String OPERATION_PIPELINE = "pipeline";
+
+    /**
+     * 操作类型：批量读取
+     */
+    public static final String OPERATION_MGET = "mget";
+
+    /**
+     * 操作类型：批量写入
+     */
+    public static final String OPERATION_MSET = "mset";
+
+    private final RedisBatchExecutor executor;
+
+    private final Function<String, String> keyMapper;
+
+    private final RedisSerializer<String> keySerializer;
+
+    private final RedisSerializer<Object> valueSerializer;
+
+    private final RedisSerializer<String> hashKeySerializer;
+
+    private final RedisSerializer<Object> hashValueSerializer;
+
+    private final List<Function<RedisConnection, Object>> commands = new ArrayList<>();
+
+    /**
+     * 每条命令的结果处理，与commands一一对应
+     */
+    private final List<Consumer<Object>> handlers = new ArrayList<>();
+
+    private boolean executed;
+
+    @SuppressWarnings("unchecked")
+    RedisBatch(RedisBatchExecutor executor, Function<String, String> keyMapper) {
+        this.executor = executor;
+        this.keyMapper = keyMapper;
+        this.keySerializer = (RedisSerializer<String>) executor.getRedisTemplate().getKeySerializer();
+        this.valueSerializer = (RedisSerializer<Object>) executor.getRedisTemplate().getValueSerializer();
+        this.hashKeySerializer = (RedisSerializer<String>) executor.getRedisTemplate().getHashKeySerializer();
+        this.hashValueSerializer = (RedisSerializer<Object>) executor.getRedisTemplate().getHashValueSerializer();
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key 键
+     * @return 值
+     */
+    public BatchResult<Object> get(String key) {
+        byte[] rawKey = rawKey(key);
+        return add(c -> c.stringCommands().get(rawKey), raw -> valueSerializer.deserialize((byte[]) raw));
+    }
+
+    /**
+     * 批量获取值，集群模式下按槽拆分
+     *
+     * @param keys 键
+     * @return 与键顺序一致的值，不存在的键为null
+     */
+    public BatchResult<List<Object>> mGet(Collection<String> keys) {
+        List<String> keyList = new ArrayList<>(keys);
+        Object[] values = new Object[keyList.size()];
+        BatchResult<List<Object>> result = new BatchResult<>();
+        if (keyList.isEmpty()) {
+            result.complete(Collections.emptyList());
+            return result;
+        }
+        List<int[]> groups = group(keyList);
+        int[] remaining = {groups.size()};
+        for (int[] positions : groups) {
+            byte[][] rawKeys = new byte[positions.length][];
+            for (int i = 0; i < positions.length; i++) {
+                rawKeys[i] = rawKey(keyList.get(positions[i]));
+            }
+            addCommand(c -> c.stringCommands().mGet(rawKeys), raw -> {
+                List<?> rawValues = raw == null ? Collections.emptyList() : (List<?>) raw;
+                for (int i = 0; i < positions.length && i < rawValues.size(); i++) {
+                    values[positions[i]] = valueSerializer.deserialize((byte[]) rawValues.get(i));
+                }
+                if (--remaining[0] == 0) {
+                    result.complete(Arrays.asList(values));
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 设置值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 是否成功
+     */
+    public BatchResult<Boolean> set(String key, Object value) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawValue = valueSerializer.serialize(value);
+        return add(c -> c.stringCommands().set(rawKey, rawValue), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 设置值并指定过期时间
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 过期时间，小于等于0时永不过期
+     * @param unit    时间单位
+     * @return 是否成功
+     */
+    public BatchResult<Boolean> set(String key, Object value, long timeout, TimeUnit unit) {
+        if (timeout <= 0) {
+            return set(key, value);
+        }
+        byte[] rawKey = rawKey(key);
+        byte[] rawValue = valueSerializer.serialize(value);
+        Expiration expiration = Expiration.from(timeout, unit);
+        return add(c -> c.stringCommands().set(rawKey, rawValue, expiration, RedisStringCommands.SetOption.upsert()),
+                RedisBatch::toBoolean);
+    }
+
+    /**
+     * 批量设置值，集群模式下按槽拆分
+     *
+     * @param values 键值对
+     * @return 是否全部成功
+     */
+    public BatchResult<Boolean> mSet(Map<String, Object> values) {
+        List<String> keyList = new ArrayList<>(values.keySet());
+        BatchResult<Boolean> result = new BatchResult<>();
+        if (keyList.isEmpty()) {
+            result.complete(true);
+            return result;
+        }
+        List<int[]> groups = group(keyList);
+        boolean[] success = {true};
+        int[] remaining = {groups.size()};
+        for (int[] positions : groups) {
+            Map<byte[], byte[]> tuple = new LinkedHashMap<>(positions.length * 2);
+            for (int position : positions) {
+                String key = keyList.get(position);
+                tuple.put(rawKey(key), valueSerializer.serialize(values.get(key)));
+            }
+            addCommand(c -> c.stringCommands().mSet(tuple), raw -> {
+                success[0] &= toBoolean(raw);
+                if (--remaining[0] == 0) {
+                    result.complete(success[0]);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 删除键
+     *
+     * @param key 键
+     * @return 是否删除
+     */
+    public BatchResult<Boolean> delete(String key) {
+        byte[] rawKey = rawKey(key);
+        return add(c -> c.keyCommands().del(rawKey), raw -> toLong(raw) > 0);
+    }
+
+    /**
+     * 设置过期时间
+     *
+     * @param key     键
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 是否成功
+     */
+    public BatchResult<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        byte[] rawKey = rawKey(key);
+        long millis = unit.toMillis(timeout);
+        return add(c -> c.keyCommands().pExpire(rawKey, millis), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 递增
+     *
+     * @param key   键
+     * @param delta 增量
+     * @return 递增后的值
+     */
+    public BatchResult<Long> incr(String key, long delta) {
+        byte[] rawKey = rawKey(key);
+        return add(c -> c.stringCommands().incrBy(rawKey, delta), RedisBatch::toLong);
+    }
+
+    /**
+     * 获取哈希项
+     *
+     * @param key  键
+     * @param item 项
+     * @return 值
+     */
+    public BatchResult<Object> hGet(String key, String item) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawItem = hashKeySerializer.serialize(item);
+        return add(c -> c.hashCommands().hGet(rawKey, rawItem),
+                raw -> hashValueSerializer.deserialize((byte[]) raw));
+    }
+
+    /**
+     * 获取哈希的所有项
+     *
+     * @param key 键
+     * @return 所有项
+     */
+    public BatchResult<Map<String, Object>> hGetAll(String key) {
+        byte[] rawKey = rawKey(key);
+        return add(c -> c.hashCommands().hGetAll(rawKey), raw -> {
+            Map<String, Object> map = new LinkedHashMap<>();
+            if (raw != null) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) raw).entrySet()) {
+                    map.put(hashKeySerializer.deserialize((byte[]) entry.getKey()),
+                            hashValueSerializer.deserialize((byte[]) entry.getValue()));
+                }
+            }
+            return map;
+        });
+    }
+
+    /**
+     * 设置哈希项
+     *
+     * @param key   键
+     * @param item  项
+     * @param value 值
+     * @return 是否为新增的项
+     */
+    public BatchResult<Boolean> hSet(String key, String item, Object value) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawItem = hashKeySerializer.serialize(item);
+        byte[] rawValue = hashValueSerializer.serialize(value);
+        return add(c -> c.hashCommands().hSet(rawKey, rawItem, rawValue), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 设置多个哈希项，每项一条HSET命令，以便在管道中得到每条命令的结果
+     *
+     * @param key 键
+     * @param map 项与值
+     * @return 新增的项数
+     */
+    public BatchResult<Long> hSetAll(String key, Map<String, Object> map) {
+        byte[] rawKey = rawKey(key);
+        BatchResult<Long> result = new BatchResult<>();
+        if (map.isEmpty()) {
+            result.complete(0L);
+            return result;
+        }
+        long[] added = {0};
+        int[] remaining = {map.size()};
+        map.forEach((item, value) -> {
+            byte[] rawItem = hashKeySerializer.serialize(item);
+            byte[] rawValue = hashValueSerializer.serialize(value);
+            addCommand(c -> c.hashCommands().hSet(rawKey, rawItem, rawValue), raw -> {
+                if (toBoolean(raw)) {
+                    added[0]++;
+                }
+                if (--remaining[0] == 0) {
+                    result.complete(added[0]);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * 删除哈希项
+     *
+     * @param key   键
+     * @param items 项
+     * @return 删除的项数
+     */
+    public BatchResult<Long> hDelete(String key, String... items) {
+        byte[] rawKey = rawKey(key);
+        byte[][] rawItems = new byte[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            rawItems[i] = hashKeySerializer.serialize(items[i]);
+        }
+        return add(c -> c.hashCommands().hDel(rawKey, rawItems), RedisBatch::toLong);
+    }
+
+    /**
+     * 获取集合的所有成员
+     *
+     * @param key 键
+     * @return 成员
+     */
+    public BatchResult<Set<Object>> sGet(String key) {
+        byte[] rawKey = rawKey(key);
+        return add(c -> c.setCommands().sMembers(rawKey), raw -> {
+            Set<Object> set = new LinkedHashSet<>();
+            if (raw != null) {
+                for (Object member : (Collection<?>) raw) {
+                    set.add(valueSerializer.deserialize((byte[]) member));
+                }
+            }
+            return set;
+        });
+    }
+
+    /**
+     * 判断集合是否包含成员
+     *
+     * @param key   键
+     * @param value 成员
+     * @return 是否包含
+     */
+    public BatchResult<Boolean> sHasKey(String key, Object value) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawValue = valueSerializer.serialize(value);
+        return add(c -> c.setCommands().sIsMember(rawKey, rawValue), RedisBatch::toBoolean);
+    }
+
+    /**
+     * 向集合添加成员
+     *
+     * @param key    键
+     * @param values 成员
+     * @return 新增的成员数
+     */
+    public BatchResult<Long> sSet(String key, Object... values) {
+        byte[] rawKey = rawKey(key);
+        byte[][] rawValues = rawValues(values);
+        return add(c -> c.setCommands().sAdd(rawKey, rawValues), RedisBatch::toLong);
+    }
+
+    /**
+     * 从集合移除成员
+     *
+     * @param key    键
+     * @param values 成员
+     * @return 移除的成员数
+     */
+    public BatchResult<Long> sRemove(String key, Object... values) {
+        byte[] rawKey = rawKey(key);
+        byte[][] rawValues = rawValues(values);
+        return add(c -> c.setCommands().sRem(rawKey, rawValues), RedisBatch::toLong);
+    }
+
+    /**
+     * 获取列表区间内的元素
+     *
+     * @param key   键
+     * @param start 开始
+     * @param end   结束，-1代表所有
+     * @return 元素
+     */
+    public BatchResult<List<Object>> lGet(String key, long start, long end) {
+        byte[] rawKey = rawKey(key);
+        return add(c -> c.listCommands().lRange(rawKey, start, end), raw -> {
+            List<Object> list = new ArrayList<>();
+            if (raw != null) {
+                for (Object element : (Collection<?>) raw) {
+                    list.add(valueSerializer.deserialize((byte[]) element));
+                }
+            }
+            return list;
+        });
+    }
+
+    /**
+     * 向列表尾部追加元素
+     *
+     * @param key    键
+     * @param values 元素
+     * @return 追加后的列表长度
+     */
+    public BatchResult<Long> lSet(String key, Object... values) {
+        byte[] rawKey = rawKey(key);
+        byte[][] rawValues = rawValues(values);
+        return add(c -> c.listCommands().rPush(rawKey, rawValues), RedisBatch::toLong);
+    }
+
+    /**
+     * 获取已登记的命令数
+     *
+     * @return 命令数
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * 通过一次管道执行所有命令
+     */
+    public void execute() {
+        execute(OPERATION_PIPELINE);
+    }
+
+    /**
+     * 通过一次管道执行所有命令
+     *
+     * @param operation 操作类型，用于统计
+     */
+    public void execute(String operation) {
+        if (executed) {
+            throw new IllegalStateException("批量操作不能重复执行");
+        }
+        executed = true;
+        List<Object> results = executor.execute(operation, commands);
+        for (int i = 0; i < results.size(); i++) {
+            handlers.get(i).accept(results.get(i));
+        }
+    }
+
+    private <T> BatchResult<T> add(Function<RedisConnection, Object> command, Function<Object, T> converter) {
+        BatchResult<T> result = new BatchResult<>();
+        addCommand(command, raw -> result.complete(converter.apply(raw)));
+        return result;
+    }
+
+    private void addCommand(Function<RedisConnection, Object> command, Consumer<Object> handler) {
+        if (executed) {
+            throw new IllegalStateException("批量操作已执行");
+        }
+        commands.add(command);
+        handlers.add(handler);
+    }
+
+    /**
+     * 将键分组，同组的键位于同一个槽（非集群模式不区分槽）且不超过单条命令的键数
+     *
+     * @return 每组键在原列表中的位置
+     */
+    private List<int[]> group(List<String> keys) {
+        int commandSize = executor.getCommandSize();
+        Map<Integer, List<Integer>> bySlot = new TreeMap<>();
+        boolean cluster = executor.isCluster();
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = cluster ? ClusterSlotHashUtil.calculateSlot(keyMapper.apply(keys.get(i))) : 0;
+            bySlot.computeIfAbsent(slot, k -> new ArrayList<>()).add(i);
+        }
+        List<int[]> groups = new ArrayList<>();
+        for (List<Integer> positions : bySlot.values()) {
+            for (int from = 0; from < positions.size(); from += commandSize) {
+                List<Integer> chunk = positions.subList(from, Math.min(positions.size(), from + commandSize));
+                int[] group = new int[chunk.size()];
+                for (int i = 0; i < group.length; i++) {
+                    group[i] = chunk.get(i);
+                }
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    private byte[] rawKey(String key) {
+        return keySerializer.serialize(keyMapper.apply(key));
+    }
+
+    private byte[][] rawValues(Object[] values) {
+        byte[][] rawValues = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            rawValues[i] = valueSerializer.serialize(values[i]);
+        }
+        return rawValues;
+    }
+
+    private static Boolean toBoolean(Object raw) {
+        if (raw instanceof Boolean) {
+            return (Boolean) raw;
+        }
+        if (raw instanceof Number) {
+            return ((Number) raw).longValue() > 0;
+        }
+        return raw != null && "OK".equalsIgnoreCase(raw.toString());
+    }
+
+    private static Long toLong(Object raw) {
+        return raw instanceof Number ? ((Number) raw).longValue() : 0L;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,237 @@
+package org.aimindflow.common.redis.batch;
+
+import org.aimindflow.common.redis.config.RedisProperties;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 批量命令执行器
+ *
+ * 通过管道一次发送所有命令并按顺序返回原始结果；连接不支持管道时（如Jedis集群）退化为在同一连接上依次执行。
+ * 按操作类型统计批次数、命令数与耗时，并将每个批次的耗时通知给监听器，用于记录耗时分布。
+ *
+ * @author HezaoHezao
+ */
+public class RedisBatchExecutor {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final RedisProperties.Batch config;
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private final List<BatchListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 是否为集群连接，首次使用时检测
+     */
+    private volatile Boolean cluster;
+
+    /**
+     * 连接是否支持管道
+     */
+    private volatile boolean pipelineSupported = true;
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate   Redis模板
+     * @param redisProperties Redis属性配置
+     */
+    public RedisBatchExecutor(RedisTemplate<String, Object> redisTemplate, RedisProperties redisProperties) {
+        this.redisTemplate = redisTemplate;
+        this.config = redisProperties.getBatch();
+    }
+
+    /**
+     * 创建批量操作
+     *
+     * @param keyMapper 键转换函数，例如添加前缀
+     * @return 批量操作
+     */
+    public RedisBatch batch(Function<String, String> keyMapper) {
+        return new RedisBatch(this, keyMapper);
+    }
+
+    /**
+     * 执行命令并返回与命令一一对应的原始结果
+     *
+     * @param operation 操作类型，用于统计
+     * @param commands  命令，管道模式下返回值被忽略
+     * @return 原始结果
+     */
+    List<Object> execute(String operation, List<Function<RedisConnection, Object>> commands) {
+        if (commands.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        try {
+            List<Object> results = pipelineSupported ? executePipelined(commands) : null;
+            if (results == null) {
+                results = executeSequentially(commands);
+            }
+            if (results.size() != commands.size()) {
+                throw new IllegalStateException("批量操作结果数量不匹配，命令数: " + commands.size()
+                        + "，结果数: " + results.size());
+            }
+            return results;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            stats.computeIfAbsent(operation, k -> new Stats()).record(commands.size(), elapsed);
+            for (BatchListener listener : listeners) {
+                listener.onBatch(operation, commands.size(), elapsed);
+            }
+        }
+    }
+
+    /**
+     * 是否为集群连接
+     *
+     * @return 是否为集群连接
+     */
+    boolean isCluster() {
+        Boolean result = cluster;
+        if (result == null) {
+            RedisConnection connection = redisTemplate.getRequiredConnectionFactory().getConnection();
+            try {
+                result = connection instanceof RedisClusterConnection;
+            } finally {
+                connection.close();
+            }
+            cluster = result;
+        }
+        return result;
+    }
+
+    /**
+     * 单条多键命令包含的最大键数
+     *
+     * @return 键数
+     */
+    int getCommandSize() {
+        return Math.max(1, config.getCommandSize());
+    }
+
+    RedisTemplate<String, Object> getRedisTemplate() {
+        return redisTemplate;
+    }
+
+    /**
+     * 添加批次监听器
+     *
+     * @param listener 批次监听器
+     */
+    public void addListener(BatchListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 获取已统计的操作类型
+     *
+     * @return 操作类型
+     */
+    public List<String> getOperations() {
+        return new ArrayList<>(stats.keySet());
+    }
+
+    /**
+     * 获取批次数
+     *
+     * @param operation 操作类型
+     * @return 批次数
+     */
+    public long getBatchCount(String operation) {
+        Stats s = stats.get(operation);
+        return s == null ? 0 : s.batches.sum();
+    }
+
+    /**
+     * 获取命令总数
+     *
+     * @param operation 操作类型
+     * @return 命令总数
+     */
+    public long getCommandCount(String operation) {
+        Stats s = stats.get(operation);
+        return s == null ? 0 : s.commands.sum();
+    }
+
+    /**
+     * 获取总耗时（纳秒）
+     *
+     * @param operation 操作类型
+     * @return 总耗时
+     */
+    public long getTotalNanos(String operation) {
+        Stats s = stats.get(operation);
+        return s == null ? 0 : s.nanos.sum();
+    }
+
+    private List<Object> executePipelined(List<Function<RedisConnection, Object>> commands) {
+        try {
+            return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Function<RedisConnection, Object> command : commands) {
+                    command.apply(connection);
+                }
+                return null;
+            }, null);
+        } catch (UnsupportedOperationException e) {
+            pipelineSupported = false;
+            return null;
+        }
+    }
+
+    private List<Object> executeSequentially(List<Function<RedisConnection, Object>> commands) {
+        return redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            List<Object> results = new ArrayList<>(commands.size());
+            for (Function<RedisConnection, Object> command : commands) {
+                results.add(command.apply(connection));
+            }
+            return results;
+        });
+    }
+
+    /**
+     * 批次监听器，在执行批次的线程上回调，实现不应阻塞
+     */
+    public interface BatchListener {
+
+        /**
+         * 批次执行完成，包括执行失败
+         *
+         * @param operation    操作类型
+         * @param commands     命令数
+         * @param elapsedNanos 耗时（纳秒）
+         */
+        void onBatch(String operation, int commands, long elapsedNanos);
+    }
+
+    /**
+     * 操作统计
+     */
+    private static final class Stats {
+
+        private final LongAdder batches = new LongAdder();
+
+        private final LongAdder commands = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        void record(int size, long elapsed) {
+            batches.increment();
+            commands.add(size);
+            nanos.add(elapsed);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package org.aimindflow.common.redis.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * getOrSet写入的缓存元数据
+ *
+ * 与缓存值分开存放在独立的键中，缓存值的键保持原有格式，直接读取该键的调用方不受影响。
+ * 空结果只写入元数据，不写入缓存值。
+ *
+ * @author HezaoHezao
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheMeta implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 逻辑过期时间（毫秒时间戳）
+     */
+    private long expireAt;
+
+    /**
+     * 加载耗时（毫秒）
+     */
+    private long loadMillis;
+
+    /**
+     * 加载结果是否为null
+     */
+    private boolean nullValue;
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package org.aimindflow.common.redis.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * getOrSet读取的缓存值包装
+ *
+ * 由缓存值与{@link CacheMeta}组合而成，只保存在本地近端缓存中，不写入Redis。
+ * 记录逻辑过期时间与加载耗时，用于提前刷新的概率计算；值为null表示缓存的空结果。
+ *
+ * @author HezaoHezao
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheValue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 缓存值，为null表示空结果
+     */
+    private Object value;
+
+    /**
+     * 逻辑过期时间（毫秒时间戳）
+     */
+    private long expireAt;
+
+    /**
+     * 加载耗时（毫秒）
+     */
+    private long loadMillis;
+}
\ No newline at end of file
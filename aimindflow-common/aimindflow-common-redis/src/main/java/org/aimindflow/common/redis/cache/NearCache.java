@@ -0,0 +1,363 @@
+package org.aimindflow.common.redis.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.redis.config.RedisProperties;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 本地近端缓存
+ *
+ * 作为 RedisCacheManager 的一级缓存，按键前缀划分区域，每个区域有独立的过期时间与最大权重，
+ * 权重按值序列化后的字节数估算。本节点写入或删除缓存时先清除本地条目，再通过Redis发布订阅
+ * 通知其他节点清除；失效消息丢失时，本地数据最多在区域过期时间内保持陈旧。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class NearCache implements MessageListener {
+
+    /**
+     * 失效消息类型：单个键
+     */
+    private static final char TYPE_KEY = 'K';
+
+    /**
+     * 失效消息类型：通配符模式
+     */
+    private static final char TYPE_PATTERN = 'P';
+
+    /**
+     * 失效消息类型：清空
+     */
+    private static final char TYPE_CLEAR = 'C';
+
+    /**
+     * 每个条目的固定开销估算（字节）
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    /**
+     * 节点标识，用于忽略本节点发出的失效消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 失效消息频道
+     */
+    private final String channel;
+
+    /**
+     * 默认区域
+     */
+    private final NearCacheRegion defaultRegion;
+
+    /**
+     * 按前缀长度降序排列的区域
+     */
+    private final List<NearCacheRegion> regions;
+
+    private final AtomicLong localHits = new AtomicLong();
+
+    private final AtomicLong remoteHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate   Redis模板，用于估算权重与发布失效消息
+     * @param redisProperties Redis属性配置
+     */
+    public NearCache(RedisTemplate<String, Object> redisTemplate, RedisProperties redisProperties) {
+        RedisProperties.NearCache config = redisProperties.getNearCache();
+        this.redisTemplate = redisTemplate;
+        this.channel = redisProperties.getCachePrefix() + config.getChannel();
+        this.defaultRegion = new NearCacheRegion("", config.getMaximumWeight(), config.getExpiration());
+        this.regions = new ArrayList<>(config.getRegions().size());
+        for (Map.Entry<String, RedisProperties.NearCache.Region> entry : config.getRegions().entrySet()) {
+            RedisProperties.NearCache.Region region = entry.getValue();
+            regions.add(new NearCacheRegion(entry.getKey(), region.getMaximumWeight(), region.getExpiration()));
+        }
+        regions.sort(Comparator.comparingInt((NearCacheRegion r) -> r.getPrefix().length()).reversed());
+    }
+
+    /**
+     * 读取本地缓存
+     *
+     * @param key 缓存键
+     * @return 缓存值，不存在时返回null
+     */
+    public Object get(String key) {
+        Object value = region(key).get(key);
+        if (value != null) {
+            localHits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * 获取键所在区域的失效序号，在读取二级缓存之前调用
+     *
+     * @param key 缓存键
+     * @return 失效序号
+     */
+    public long sequence(String key) {
+        return region(key).sequence();
+    }
+
+    /**
+     * 回填本地缓存，读取二级缓存期间该区域发生过失效时放弃回填
+     *
+     * @param key      缓存键
+     * @param value    缓存值
+     * @param sequence 读取二级缓存之前获取的失效序号
+     */
+    @SuppressWarnings("unchecked")
+    public void put(String key, Object value, long sequence) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+        } catch (Exception e) {
+            log.debug("本地缓存权重估算失败，跳过回填，key: {}", key, e);
+            return;
+        }
+        long weight = (bytes == null ? 0 : bytes.length) + key.length() * 2L + ENTRY_OVERHEAD;
+        region(key).put(key, value, weight, sequence);
+    }
+
+    /**
+     * 记录二级缓存命中
+     */
+    public void recordRemoteHit() {
+        remoteHits.incrementAndGet();
+    }
+
+    /**
+     * 记录未命中
+     */
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * 清除本地条目并通知其他节点
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(String key) {
+        region(key).invalidate(key);
+        publish(TYPE_KEY, key);
+    }
+
+    /**
+     * 按通配符模式清除本地条目并通知其他节点
+     *
+     * @param pattern 缓存键模式，语法与Redis KEYS命令一致
+     */
+    public void invalidatePattern(String pattern) {
+        invalidatePatternLocally(pattern);
+        publish(TYPE_PATTERN, pattern);
+    }
+
+    /**
+     * 清空本地缓存并通知其他节点
+     */
+    public void clear() {
+        clearLocally();
+        publish(TYPE_CLEAR, "");
+    }
+
+    /**
+     * 处理其他节点发出的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('\n');
+        if (separator < 0 || separator + 1 >= body.length()) {
+            log.warn("无法识别的本地缓存失效消息: {}", body);
+            return;
+        }
+        if (body.regionMatches(0, nodeId, 0, separator) && separator == nodeId.length()) {
+            return;
+        }
+        char type = body.charAt(separator + 1);
+        String payload = body.substring(separator + 2);
+        switch (type) {
+            case TYPE_KEY:
+                region(payload).invalidate(payload);
+                break;
+            case TYPE_PATTERN:
+                invalidatePatternLocally(payload);
+                break;
+            case TYPE_CLEAR:
+                clearLocally();
+                break;
+            default:
+                log.warn("无法识别的本地缓存失效消息类型: {}", type);
+        }
+    }
+
+    /**
+     * 获取失效消息频道
+     *
+     * @return 频道名称
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * 获取本地缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getLocalHits() {
+        return localHits.get();
+    }
+
+    /**
+     * 获取二级缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getRemoteHits() {
+        return remoteHits.get();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 获取本地缓存条目数
+     *
+     * @return 条目数
+     */
+    public long getSize() {
+        long size = defaultRegion.size();
+        for (NearCacheRegion region : regions) {
+            size += region.size();
+        }
+        return size;
+    }
+
+    /**
+     * 获取本地缓存总权重
+     *
+     * @return 总权重
+     */
+    public long getWeightedSize() {
+        long size = defaultRegion.weightedSize();
+        for (NearCacheRegion region : regions) {
+            size += region.weightedSize();
+        }
+        return size;
+    }
+
+    /**
+     * 获取淘汰次数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        long count = defaultRegion.evictionCount();
+        for (NearCacheRegion region : regions) {
+            count += region.evictionCount();
+        }
+        return count;
+    }
+
+    private NearCacheRegion region(String key) {
+        for (NearCacheRegion region : regions) {
+            if (key.startsWith(region.getPrefix())) {
+                return region;
+            }
+        }
+        return defaultRegion;
+    }
+
+    private void invalidatePatternLocally(String pattern) {
+        Pattern regex = Pattern.compile(globToRegex(pattern));
+        defaultRegion.invalidateIf(key -> regex.matcher(key).matches());
+        for (NearCacheRegion region : regions) {
+            region.invalidateIf(key -> regex.matcher(key).matches());
+        }
+    }
+
+    private void clearLocally() {
+        defaultRegion.clear();
+        for (NearCacheRegion region : regions) {
+            region.clear();
+        }
+    }
+
+    private void publish(char type, String payload) {
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        byte[] message = (nodeId + '\n' + type + payload).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, message));
+        } catch (Exception e) {
+            log.warn("本地缓存失效消息发布失败，其他节点将在过期后刷新，payload: {}", payload, e);
+        }
+    }
+
+    /**
+     * 将Redis通配符模式转换为正则表达式
+     */
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        boolean inClass = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '\\' && i + 1 < glob.length()) {
+                regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+                regex.append(c);
+            } else if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (c == '[') {
+                inClass = true;
+                regex.append(c);
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '^') {
+                    regex.append('^');
+                    i++;
+                }
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        if (inClass) {
+            regex.append(']');
+        }
+        return regex.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,204 @@
+package org.aimindflow.common.redis.cache;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 本地近端缓存区域
+ *
+ * 读取不加锁，只设置访问标记；写入、失效与淘汰在区域锁内进行。
+ * 超过最大权重时按CLOCK（二次机会）算法淘汰：被访问过的条目清除标记后放回队尾，未被访问的条目被淘汰。
+ *
+ * @author HezaoHezao
+ */
+final class NearCacheRegion {
+
+    /**
+     * 区域对应的键前缀，默认区域为空字符串
+     */
+    private final String prefix;
+
+    private final long maximumWeight;
+
+    private final long expirationNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * CLOCK淘汰队列，可能包含已被移除的条目
+     */
+    private final ArrayDeque<Entry> clock = new ArrayDeque<>();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * 当前总权重
+     */
+    private long weightedSize;
+
+    /**
+     * 队列中已被移除的条目数
+     */
+    private int removedInClock;
+
+    /**
+     * 失效序号，每次失效递增，用于丢弃与失效并发的回填
+     */
+    private volatile long invalidationSequence;
+
+    NearCacheRegion(String prefix, long maximumWeight, long expirationSeconds) {
+        this.prefix = prefix;
+        this.maximumWeight = maximumWeight;
+        this.expirationNanos = TimeUnit.SECONDS.toNanos(expirationSeconds);
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expireAt >= 0) {
+            synchronized (this) {
+                if (entries.remove(key, entry)) {
+                    unlink(entry);
+                }
+            }
+            return null;
+        }
+        entry.referenced = true;
+        return entry.value;
+    }
+
+    long sequence() {
+        return invalidationSequence;
+    }
+
+    /**
+     * 写入条目，读取二级缓存期间区域发生过失效时放弃写入
+     */
+    void put(String key, Object value, long weight, long sequence) {
+        if (weight > maximumWeight) {
+            return;
+        }
+        synchronized (this) {
+            if (invalidationSequence != sequence) {
+                return;
+            }
+            Entry entry = new Entry(key, value, weight, System.nanoTime() + expirationNanos);
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                unlink(previous);
+            }
+            clock.addLast(entry);
+            weightedSize += weight;
+            evict();
+        }
+    }
+
+    synchronized void invalidate(String key) {
+        invalidationSequence++;
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    synchronized void invalidateIf(Predicate<String> predicate) {
+        invalidationSequence++;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (predicate.test(entry.key)) {
+                iterator.remove();
+                unlink(entry);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        invalidationSequence++;
+        entries.clear();
+        clock.clear();
+        weightedSize = 0;
+        removedInClock = 0;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    synchronized long weightedSize() {
+        return weightedSize;
+    }
+
+    long evictionCount() {
+        return evictionCount.get();
+    }
+
+    private void unlink(Entry entry) {
+        entry.removed = true;
+        weightedSize -= entry.weight;
+        removedInClock++;
+        // 已移除条目过多时压缩队列，避免频繁失效导致队列无限增长
+        if (removedInClock > entries.size() && removedInClock > 64) {
+            clock.removeIf(e -> e.removed);
+            removedInClock = 0;
+        }
+    }
+
+    private void evict() {
+        while (weightedSize > maximumWeight) {
+            Entry entry = clock.pollFirst();
+            if (entry == null) {
+                return;
+            }
+            if (entry.removed) {
+                removedInClock--;
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.addLast(entry);
+                continue;
+            }
+            entries.remove(entry.key, entry);
+            entry.removed = true;
+            weightedSize -= entry.weight;
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final String key;
+
+        private final Object value;
+
+        private final long weight;
+
+        private final long expireAt;
+
+        private volatile boolean referenced;
+
+        private boolean removed;
+
+        Entry(String key, Object value, long weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+    }
+}
\ No newline at end of file
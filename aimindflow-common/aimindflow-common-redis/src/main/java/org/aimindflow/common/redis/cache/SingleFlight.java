@@ -0,0 +1,105 @@
+package org.aimindflow.common.redis.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 按键合并并发加载
+ *
+ * 相同键的并发调用只有第一个真正执行加载，其余调用等待并共享同一结果或异常。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author HezaoHezao
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * 执行中的加载
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * 在调用线程上加载，已有相同键的加载时等待其结果
+     *
+     * @param key    键
+     * @param loader 加载函数
+     * @return 加载结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * 在执行器上异步加载，已有相同键的加载时不再提交
+     *
+     * @param key      键
+     * @param loader   加载函数
+     * @param executor 执行器
+     * @return 是否提交了新的加载
+     */
+    public boolean executeAsync(K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        if (calls.putIfAbsent(key, call) != null) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    call.complete(loader.get());
+                } catch (Throwable e) {
+                    call.completeExceptionally(e);
+                } finally {
+                    calls.remove(key, call);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            calls.remove(key, call);
+            call.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    /**
+     * 获取执行中的加载数
+     *
+     * @return 加载数
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
\ No newline at end of file
@@ -1,18 +1,30 @@
 package org.aimindflow.common.redis.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.redis.cache.NearCache;
+import org.aimindflow.common.redis.lock.LockNotifier;
 import org.aimindflow.common.redis.lock.RedisDistributedLock;
+import org.aimindflow.common.redis.lock.RedisLockClient;
 import org.aimindflow.common.redis.manager.RedisCacheManager;
+import org.aimindflow.common.redis.metrics.RedisBatchMetrics;
+import org.aimindflow.common.redis.metrics.RedisNearCacheMetrics;
+import org.aimindflow.common.redis.scan.RedisKeyScanner;
 import org.aimindflow.common.redis.utils.RedisUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * Redis自动配置类
@@ -20,7 +32,7 @@ import org.springframework.data.redis.core.*;
  * @author HezaoHezao
  */
 @Configuration
-@AutoConfigureAfter(RedisAutoConfiguration.class)
+@AutoConfigureAfter(org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class)
 @EnableConfigurationProperties(RedisProperties.class)
 @ConditionalOnProperty(prefix = "aimindflow.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
 @Import(RedisConfig.class)
@@ -36,6 +48,7 @@ public class RedisAutoConfiguration {
      * @param setOperations     集合操作模板
      * @param zSetOperations    有序集合操作模板
      * @param redisProperties   Redis属性配置
+     * @param keyScanner        Redis键扫描器
      * @return Redis工具类
      */
     @Bean
@@ -48,9 +61,25 @@ public class RedisAutoConfiguration {
                                 ListOperations<String, Object> listOperations,
                                 SetOperations<String, Object> setOperations,
                                 ZSetOperations<String, Object> zSetOperations,
-                                RedisProperties redisProperties) {
+                                RedisProperties redisProperties,
+                                RedisKeyScanner keyScanner) {
         return new RedisUtils(redisTemplate, valueOperations, hashOperations, 
-                             listOperations, setOperations, zSetOperations, redisProperties);
+                             listOperations, setOperations, zSetOperations, redisProperties, keyScanner);
+    }
+
+    /**
+     * Redis键扫描器
+     *
+     * @param redisTemplate   Redis模板
+     * @param redisProperties Redis属性配置
+     * @return Redis键扫描器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisTemplate.class)
+    public RedisKeyScanner redisKeyScanner(RedisTemplate<String, Object> redisTemplate,
+                                           RedisProperties redisProperties) {
+        return new RedisKeyScanner(redisTemplate, redisProperties);
     }
 
     /**
@@ -58,25 +87,143 @@ public class RedisAutoConfiguration {
      *
      * @param redisUtils      Redis工具类
      * @param redisProperties Redis属性配置
+     * @param nearCache       本地近端缓存
+     * @param distributedLock 分布式锁
      * @return Redis缓存管理器
      */
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(RedisUtils.class)
-    public RedisCacheManager redisCacheManager(RedisUtils redisUtils, RedisProperties redisProperties) {
-        return new RedisCacheManager(redisUtils, redisProperties);
+    public RedisCacheManager redisCacheManager(RedisUtils redisUtils, RedisProperties redisProperties,
+                                               ObjectProvider<NearCache> nearCache,
+                                               ObjectProvider<RedisDistributedLock> distributedLock) {
+        return new RedisCacheManager(redisUtils, redisProperties, nearCache.getIfAvailable(),
+                distributedLock.getIfAvailable());
     }
 
     /**
      * Redis分布式锁
      *
      * @param redisTemplate Redis模板
+     * @param notifier      锁释放通知
      * @return Redis分布式锁
      */
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(RedisTemplate.class)
-    public RedisDistributedLock redisDistributedLock(RedisTemplate<String, Object> redisTemplate) {
-        return new RedisDistributedLock(redisTemplate);
+    public RedisDistributedLock redisDistributedLock(RedisTemplate<String, Object> redisTemplate,
+                                                     ObjectProvider<LockNotifier> notifier) {
+        return new RedisDistributedLock(redisTemplate, notifier.getIfAvailable());
+    }
+
+    /**
+     * 锁释放通知
+     *
+     * @param redisTemplate   Redis模板
+     * @param redisProperties Redis属性配置
+     * @return 锁释放通知
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisTemplate.class)
+    public LockNotifier redisLockNotifier(RedisTemplate<String, Object> redisTemplate, RedisProperties redisProperties) {
+        return new LockNotifier(redisTemplate, redisProperties);
+    }
+
+    /**
+     * Redis消息监听容器，应用已定义监听容器时不创建
+     *
+     * @param connectionFactory Redis连接工厂
+     * @return 监听容器
+     */
+    @Bean
+    @ConditionalOnMissingBean(RedisMessageListenerContainer.class)
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * 将锁释放通知与本地缓存失效消息注册到唯一的监听容器上，与应用自身的订阅共用一个容器
+     *
+     * @param containers 监听容器
+     * @param notifier   锁释放通知
+     * @param nearCache  本地近端缓存
+     * @return 注册器
+     */
+    @Bean
+    public SmartInitializingSingleton redisListenerRegistrar(ObjectProvider<RedisMessageListenerContainer> containers,
+                                                             ObjectProvider<LockNotifier> notifier,
+                                                             ObjectProvider<NearCache> nearCache) {
+        return () -> {
+            RedisMessageListenerContainer container = containers.getIfUnique();
+            if (container == null) {
+                return;
+            }
+            notifier.ifAvailable(n -> container.addMessageListener(n, new ChannelTopic(n.getChannel())));
+            nearCache.ifAvailable(c -> container.addMessageListener(c, new ChannelTopic(c.getChannel())));
+        };
+    }
+
+    /**
+     * Redis锁客户端
+     *
+     * @param redisTemplate   Redis模板
+     * @param notifier        锁释放通知
+     * @param redisProperties Redis属性配置
+     * @return Redis锁客户端
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(LockNotifier.class)
+    public RedisLockClient redisLockClient(RedisTemplate<String, Object> redisTemplate, LockNotifier notifier,
+                                           RedisProperties redisProperties) {
+        return new RedisLockClient(redisTemplate, notifier, redisProperties);
+    }
+
+    /**
+     * 本地近端缓存配置
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "aimindflow.redis.near-cache", name = "enabled", havingValue = "true")
+    public static class NearCacheConfiguration {
+
+        /**
+         * 本地近端缓存
+         *
+         * @param redisTemplate   Redis模板
+         * @param redisProperties Redis属性配置
+         * @return 本地近端缓存
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public NearCache redisNearCache(RedisTemplate<String, Object> redisTemplate, RedisProperties redisProperties) {
+            return new NearCache(redisTemplate, redisProperties);
+        }
+
+    }
+
+    /**
+     * 本地近端缓存与批量操作指标配置，存在 Micrometer 时导出
+     */
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    public static class RedisMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(NearCache.class)
+        public RedisNearCacheMetrics redisNearCacheMetrics(NearCache nearCache) {
+            return new RedisNearCacheMetrics(nearCache);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(RedisUtils.class)
+        public RedisBatchMetrics redisBatchMetrics(RedisUtils redisUtils) {
+            return new RedisBatchMetrics(redisUtils.getBatchExecutor());
+        }
     }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package org.aimindflow.common.redis.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Redis属性配置
  *
@@ -26,4 +29,258 @@ public class RedisProperties {
      * 默认过期时间（秒）
      */
     private long defaultExpiration = 3600;
+
+    /**
+     * 本地近端缓存配置
+     */
+    private NearCache nearCache = new NearCache();
+
+    /**
+     * getOrSet加载配置
+     */
+    private Loader loader = new Loader();
+
+    /**
+     * 按模式遍历与批量删除配置
+     */
+    private Scan scan = new Scan();
+
+    /**
+     * 值序列化配置
+     */
+    private Serializer serializer = new Serializer();
+
+    /**
+     * 批量操作配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 分布式锁配置
+     */
+    private Lock lock = new Lock();
+
+    /**
+     * 本地近端缓存配置
+     *
+     * 在 RedisCacheManager 前增加进程内缓存，各节点通过Redis发布订阅广播失效消息。
+     * 本地缓存直接返回同一个对象实例，调用方不应修改读取到的缓存值。
+     */
+    @Data
+    public static class NearCache {
+        /**
+         * 是否启用本地近端缓存
+         */
+        private boolean enabled = false;
+
+        /**
+         * 默认区域的最大权重（按序列化后的字节数估算）
+         */
+        private long maximumWeight = 64L * 1024 * 1024;
+
+        /**
+         * 默认区域的过期时间（秒），也是失效消息丢失时本地数据的最长陈旧时间
+         */
+        private long expiration = 60;
+
+        /**
+         * 失效消息频道，实际频道会加上缓存前缀
+         */
+        private String channel = "near-cache:invalidate";
+
+        /**
+         * 按键前缀划分的区域配置，键匹配最长的前缀
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        /**
+         * 区域配置
+         */
+        @Data
+        public static class Region {
+            /**
+             * 最大权重（按序列化后的字节数估算）
+             */
+            private long maximumWeight = 8L * 1024 * 1024;
+
+            /**
+             * 过期时间（秒）
+             */
+            private long expiration = 60;
+        }
+    }
+
+    /**
+     * getOrSet加载配置
+     *
+     * 同一JVM内相同键的加载始终合并为一次；以下配置控制跨节点加载锁、提前刷新与空值缓存。
+     */
+    @Data
+    public static class Loader {
+        /**
+         * 是否使用分布式锁保证集群内同一时刻只有一个节点加载相同的键
+         */
+        private boolean distributedLockEnabled = false;
+
+        /**
+         * 加载锁的过期时间（秒），应大于加载耗时
+         */
+        private long lockExpiration = 10;
+
+        /**
+         * 未获得加载锁时等待其他节点写入缓存的最长时间（毫秒），超时后自行加载
+         */
+        private long lockWaitTime = 3000;
+
+        /**
+         * 是否在缓存即将过期时按概率提前在后台刷新
+         */
+        private boolean refreshAheadEnabled = false;
+
+        /**
+         * 提前刷新系数，越大越早刷新，1.0为推荐值
+         */
+        private double refreshBeta = 1.0;
+
+        /**
+         * 后台刷新线程数
+         */
+        private int refreshThreads = 2;
+
+        /**
+         * 加载结果为null时的缓存时间（秒），默认为0不缓存空值
+         */
+        private long nullValueExpiration = 0;
+    }
+
+    /**
+     * 按模式遍历与批量删除配置
+     *
+     * 使用SCAN游标增量遍历，集群模式下依次遍历每个主节点，避免KEYS命令长时间阻塞服务端。
+     */
+    @Data
+    public static class Scan {
+        /**
+         * 每次SCAN的COUNT提示值
+         */
+        private int count = 1000;
+
+        /**
+         * 每批删除的键数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 单条UNLINK命令包含的键数，一批删除通过管道发送多条命令
+         */
+        private int commandSize = 100;
+
+        /**
+         * 每秒最多删除的键数，为0时不限速
+         */
+        private long maxKeysPerSecond = 0;
+
+        /**
+         * 是否使用UNLINK异步释放内存，Redis 4.0以下版本需关闭以改用DEL
+         */
+        private boolean unlink = true;
+    }
+
+    /**
+     * 值序列化配置
+     *
+     * 两种格式写入的值都可以被读取，切换格式不需要清空已有缓存。
+     */
+    @Data
+    public static class Serializer {
+        /**
+         * 写入格式
+         */
+        private Format format = Format.JSON;
+
+        /**
+         * 压缩算法，仅对二进制格式生效
+         */
+        private Compression compression = Compression.NONE;
+
+        /**
+         * 启用压缩的最小字节数，小于该值的数据不压缩
+         */
+        private int compressionThreshold = 1024;
+
+        /**
+         * 压缩级别，DEFLATE为1-9，ZSTD为1-22
+         */
+        private int compressionLevel = 3;
+
+        /**
+         * 类型编号与类名的映射，二进制格式用编号代替类名写入类型信息。
+         * 编号一经使用不可修改，1-63为内置类型保留，自定义编号从64开始
+         */
+        private Map<Integer, String> classIds = new LinkedHashMap<>();
+
+        /**
+         * 序列化格式枚举
+         */
+        public enum Format {
+            /**
+             * JSON，类型信息为完整类名
+             */
+            JSON,
+            /**
+             * 带版本头的CBOR二进制格式，类型信息为编号
+             */
+            BINARY
+        }
+
+        /**
+         * 压缩算法枚举
+         */
+        public enum Compression {
+            /**
+             * 不压缩
+             */
+            NONE,
+            /**
+             * JDK内置的DEFLATE
+             */
+            DEFLATE,
+            /**
+             * ZSTD，需要引入zstd-jni依赖
+             */
+            ZSTD
+        }
+    }
+
+    /**
+     * 批量操作配置
+     */
+    @Data
+    public static class Batch {
+        /**
+         * 单条MGET/MSET命令包含的最大键数，超过时拆分为多条命令在同一管道中发送
+         */
+        private int commandSize = 500;
+    }
+
+    /**
+     * 分布式锁配置
+     */
+    @Data
+    public static class Lock {
+        /**
+         * 未指定租期时的锁租期（毫秒），持有期间由看门狗每隔三分之一租期续期
+         */
+        private long watchdogTimeout = 30000;
+
+        /**
+         * 公平锁排队者的心跳超时（毫秒），超时未刷新的排队者被移出队列
+         */
+        private long fairWaiterTimeout = 5000;
+
+        /**
+         * 锁释放通知频道，实际频道会加上缓存前缀
+         */
+        private String channel = "lock:release";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package org.aimindflow.common.redis.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.redis.config.RedisProperties;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 锁释放通知
+ *
+ * 锁释放时向频道发布锁键，本节点等待该锁的线程被唤醒后重新尝试获取，代替固定间隔轮询。
+ * 所有锁共用一个频道，订阅在启动时建立；消息丢失时等待者最迟在锁过期时重试。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class LockNotifier implements MessageListener {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final String channel;
+
+    private final Map<String, Waiters> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate   Redis模板
+     * @param redisProperties Redis属性配置
+     */
+    public LockNotifier(RedisTemplate<String, Object> redisTemplate, RedisProperties redisProperties) {
+        this.redisTemplate = redisTemplate;
+        this.channel = redisProperties.getCachePrefix() + redisProperties.getLock().getChannel();
+    }
+
+    /**
+     * 获取通知频道
+     *
+     * @return 频道名称
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * 登记等待，必须在尝试获取锁之前调用，避免错过释放通知
+     *
+     * @param lockKey 锁键
+     * @return 等待者
+     */
+    public Waiters subscribe(String lockKey) {
+        return waiters.compute(lockKey, (k, w) -> {
+            Waiters result = w == null ? new Waiters(k) : w;
+            result.count++;
+            return result;
+        });
+    }
+
+    /**
+     * 取消等待
+     *
+     * @param w 等待者
+     */
+    public void unsubscribe(Waiters w) {
+        waiters.computeIfPresent(w.lockKey, (k, current) -> --current.count == 0 ? null : current);
+    }
+
+    /**
+     * 发布锁释放通知
+     *
+     * @param lockKey 锁键
+     */
+    public void publish(String lockKey) {
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        byte[] message = lockKey.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, message));
+        } catch (Exception e) {
+            log.warn("锁释放通知发布失败，等待者将在锁过期后重试，key: {}", lockKey, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        wakeUp(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 唤醒本节点等待指定锁的所有线程
+     *
+     * @param lockKey 锁键
+     */
+    void wakeUp(String lockKey) {
+        Waiters w = waiters.get(lockKey);
+        if (w != null) {
+            w.semaphore.release(Math.max(1, w.count));
+        }
+    }
+
+    /**
+     * 同一个锁的本地等待者
+     */
+    public static final class Waiters {
+
+        private final String lockKey;
+
+        private final Semaphore semaphore = new Semaphore(0);
+
+        /**
+         * 等待线程数，只在ConcurrentHashMap的compute中修改
+         */
+        private volatile int count;
+
+        private Waiters(String lockKey) {
+            this.lockKey = lockKey;
+        }
+
+        /**
+         * 等待释放通知
+         *
+         * @param timeoutMillis 最长等待时间（毫秒）
+         * @return 是否收到通知
+         * @throws InterruptedException 等待被中断
+         */
+        public boolean await(long timeoutMillis) throws InterruptedException {
+            return semaphore.tryAcquire(Math.max(1, timeoutMillis), TimeUnit.MILLISECONDS);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.aimindflow.common.redis.lock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 锁续期看门狗
+ *
+ * 每个持有中的锁（按锁键与持有者区分）记录一个本地持有计数，与Redis中的重入次数一致，
+ * 指定租期与看门狗续期的获取都计入；存在看门狗续期的获取时创建续期任务，每隔三分之一租期续期一次，
+ * 本地持有计数归零或续期发现锁已不属于持有者时停止。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+final class LockWatchdog {
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, Renewal> renewals = new ConcurrentHashMap<>();
+
+    LockWatchdog() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+    }
+
+    /**
+     * 记录一次获取并增加持有计数，本次需要续期且尚无续期任务时创建任务
+     *
+     * @param id          锁键与持有者组成的标识
+     * @param leaseMillis 租期（毫秒）
+     * @param renew       续期操作，返回false表示锁已丢失
+     * @param enabled     本次获取是否需要续期
+     */
+    void acquired(String id, long leaseMillis, BooleanSupplier renew, boolean enabled) {
+        renewals.compute(id, (k, renewal) -> {
+            if (renewal == null) {
+                renewal = new Renewal();
+            } else {
+                renewal.holds++;
+            }
+            if (enabled && renewal.future == null) {
+                long period = Math.max(1, leaseMillis / 3);
+                renewal.future = scheduler.scheduleWithFixedDelay(() -> renew(k, renew), period, period,
+                        TimeUnit.MILLISECONDS);
+            }
+            return renewal;
+        });
+    }
+
+    /**
+     * 记录一次释放
+     *
+     * @param id       锁键与持有者组成的标识
+     * @param fully    锁是否已完全释放
+     */
+    void released(String id, boolean fully) {
+        renewals.computeIfPresent(id, (k, renewal) -> {
+            if (!fully && --renewal.holds > 0) {
+                return renewal;
+            }
+            if (renewal.future != null) {
+                renewal.future.cancel(false);
+            }
+            return null;
+        });
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+        renewals.clear();
+    }
+
+    private void renew(String id, BooleanSupplier renew) {
+        try {
+            if (!renew.getAsBoolean()) {
+                log.warn("分布式锁续期失败，锁已过期或被强制释放，lock: {}", id);
+                released(id, true);
+            }
+        } catch (Exception e) {
+            log.warn("分布式锁续期异常，将在下个周期重试，lock: {}", id, e);
+        }
+    }
+
+    /**
+     * 续期任务
+     */
+    private static final class Renewal {
+
+        private int holds = 1;
+
+        /**
+         * 续期任务，只有指定租期的获取时为null
+         */
+        private ScheduledFuture<?> future;
+    }
+}
\ No newline at end of file
@@ -1,9 +1,10 @@
 package org.aimindflow.common.redis.lock;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -13,22 +14,53 @@ import java.util.concurrent.TimeUnit;
 /**
  * Redis分布式锁
  *
+ * 简单的非重入锁。需要可重入、自动续期、公平或读写锁时使用 {@link RedisLockClient}。
+ *
  * @author HezaoHezao
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class RedisDistributedLock {
 
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * 锁释放通知，为空时重试退化为固定间隔休眠
+     */
+    private final LockNotifier notifier;
+
     private static final String LOCK_PREFIX = "lock:";
-    private static final String UNLOCK_SCRIPT = 
+
+    /**
+     * 解锁脚本，Spring按SHA1执行，脚本未缓存时自动退化为EVAL
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
         "if redis.call('get', KEYS[1]) == ARGV[1] then " +
         "return redis.call('del', KEYS[1]) " +
         "else " +
         "return 0 " +
-        "end";
+        "end", Long.class);
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate Redis模板
+     */
+    public RedisDistributedLock(RedisTemplate<String, Object> redisTemplate) {
+        this(redisTemplate, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate Redis模板
+     * @param notifier      锁释放通知
+     */
+    @Autowired
+    public RedisDistributedLock(RedisTemplate<String, Object> redisTemplate, LockNotifier notifier) {
+        this.redisTemplate = redisTemplate;
+        this.notifier = notifier;
+    }
 
     /**
      * 尝试获取锁
@@ -73,6 +105,8 @@ public class RedisDistributedLock {
     /**
      * 尝试获取锁（带重试）
      *
+     * 启用锁释放通知时，每次重试前最多等待重试间隔，锁释放后立即重试
+     *
      * @param key        锁键
      * @param expireTime 过期时间（秒）
      * @param retryTimes 重试次数
@@ -80,21 +114,32 @@ public class RedisDistributedLock {
      * @return 锁标识，获取失败返回null
      */
     public String tryLockWithRetry(String key, long expireTime, int retryTimes, long sleepTime) {
-        for (int i = 0; i <= retryTimes; i++) {
-            String lockValue = tryLock(key, expireTime);
-            if (lockValue != null) {
-                return lockValue;
-            }
-            
-            if (i < retryTimes) {
-                try {
-                    Thread.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("获取分布式锁重试被中断，key: {}", key);
-                    return null;
+        LockNotifier.Waiters waiters = notifier != null ? notifier.subscribe(LOCK_PREFIX + key) : null;
+        try {
+            for (int i = 0; i <= retryTimes; i++) {
+                String lockValue = tryLock(key, expireTime);
+                if (lockValue != null) {
+                    return lockValue;
+                }
+
+                if (i < retryTimes) {
+                    try {
+                        if (waiters != null) {
+                            waiters.await(sleepTime);
+                        } else {
+                            Thread.sleep(sleepTime);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        log.warn("获取分布式锁重试被中断，key: {}", key);
+                        return null;
+                    }
                 }
             }
+        } finally {
+            if (waiters != null) {
+                notifier.unsubscribe(waiters);
+            }
         }
         
         log.warn("获取分布式锁重试失败，key: {}, retryTimes: {}", key, retryTimes);
@@ -111,12 +156,14 @@ public class RedisDistributedLock {
     public boolean unlock(String key, String lockValue) {
         try {
             String lockKey = LOCK_PREFIX + key;
-            DefaultRedisScript<Long> script = new DefaultRedisScript<>(UNLOCK_SCRIPT, Long.class);
-            Long result = redisTemplate.execute(script, Collections.singletonList(lockKey), lockValue);
+            Long result = redisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey), lockValue);
             
             boolean success = Long.valueOf(1).equals(result);
             if (success) {
                 log.debug("释放分布式锁成功，key: {}, value: {}", lockKey, lockValue);
+                if (notifier != null) {
+                    notifier.publish(lockKey);
+                }
             } else {
                 log.warn("释放分布式锁失败，锁可能已过期或被其他线程释放，key: {}, value: {}", lockKey, lockValue);
             }
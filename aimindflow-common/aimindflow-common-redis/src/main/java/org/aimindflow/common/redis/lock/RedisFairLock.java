@@ -0,0 +1,96 @@
+package org.aimindflow.common.redis.lock;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * 公平Redis锁
+ *
+ * 等待者按请求顺序进入队列（列表），锁空闲时只有队首可以获取。每个等待者在有序集合中记录心跳截止时间，
+ * 每次重试刷新；超过截止时间未刷新的队首（如进程已退出）在下次获取时被移出队列，避免阻塞后续等待者。
+ *
+ * @author HezaoHezao
+ */
+public class RedisFairLock extends RedisLock {
+
+    /**
+     * KEYS: 锁、队列、截止时间；ARGV: 持有者、租期、当前时间、等待者超时。
+     * 成功返回nil，失败返回建议等待的毫秒数
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "while true do " +
+            "local first = redis.call('lindex', KEYS[2], 0) " +
+            "if first == false then break end " +
+            "local deadline = redis.call('zscore', KEYS[3], first) " +
+            "if deadline ~= false and tonumber(deadline) > tonumber(ARGV[3]) then break end " +
+            "redis.call('zrem', KEYS[3], first) " +
+            "redis.call('lpop', KEYS[2]) " +
+            "end " +
+            "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then " +
+            "redis.call('hincrby', KEYS[1], ARGV[1], 1) " +
+            "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "return nil " +
+            "end " +
+            "if redis.call('exists', KEYS[1]) == 0 then " +
+            "local first = redis.call('lindex', KEYS[2], 0) " +
+            "if first == false or first == ARGV[1] then " +
+            "if first ~= false then " +
+            "redis.call('lpop', KEYS[2]) " +
+            "redis.call('zrem', KEYS[3], ARGV[1]) " +
+            "end " +
+            "redis.call('hincrby', KEYS[1], ARGV[1], 1) " +
+            "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "return nil " +
+            "end " +
+            "end " +
+            "if redis.call('zscore', KEYS[3], ARGV[1]) == false then " +
+            "redis.call('rpush', KEYS[2], ARGV[1]) " +
+            "end " +
+            "redis.call('zadd', KEYS[3], tonumber(ARGV[3]) + tonumber(ARGV[4]), ARGV[1]) " +
+            "redis.call('pexpire', KEYS[2], ARGV[4]) " +
+            "redis.call('pexpire', KEYS[3], ARGV[4]) " +
+            "local ttl = redis.call('pttl', KEYS[1]) " +
+            "if ttl <= 0 then ttl = tonumber(ARGV[4]) end " +
+            "return ttl", Long.class);
+
+    /**
+     * 移出队列，锁空闲时通知下一个等待者
+     */
+    private static final RedisScript<Long> CANCEL_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('lrem', KEYS[2], 0, ARGV[1]) " +
+            "redis.call('zrem', KEYS[3], ARGV[1]) " +
+            "if redis.call('exists', KEYS[1]) == 0 then " +
+            "redis.call('publish', ARGV[2], KEYS[1]) " +
+            "end " +
+            "return 1", Long.class);
+
+    private final String queueKey;
+
+    private final String timeoutKey;
+
+    RedisFairLock(RedisLockClient client, String name) {
+        super(client, name);
+        this.queueKey = key + ":queue";
+        this.timeoutKey = key + ":timeouts";
+    }
+
+    @Override
+    protected Long tryAcquire(String owner, long leaseMillis) {
+        return client.execute(ACQUIRE_SCRIPT, keys(key, queueKey, timeoutKey), owner,
+                String.valueOf(leaseMillis), String.valueOf(System.currentTimeMillis()),
+                String.valueOf(client.getFairWaiterTimeout()));
+    }
+
+    @Override
+    protected void cancelWaiting(String owner) {
+        client.execute(CANCEL_SCRIPT, keys(key, queueKey, timeoutKey), owner, client.getNotifier().getChannel());
+    }
+
+    /**
+     * 等待者需在超时前刷新心跳，因此单次最多等待超时时间的一半
+     */
+    @Override
+    protected long maxWaitSlice() {
+        return Math.max(1, client.getFairWaiterTimeout() / 2);
+    }
+}
\ No newline at end of file
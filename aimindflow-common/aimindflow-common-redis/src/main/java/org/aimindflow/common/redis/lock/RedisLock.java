@@ -0,0 +1,351 @@
+package org.aimindflow.common.redis.lock;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 可重入Redis锁
+ *
+ * 锁以哈希存储，字段为持有者（节点标识与线程ID），值为重入次数。未指定租期时租期为看门狗超时，
+ * 持有期间由看门狗自动续期；指定租期时到期自动释放、不续期。等待时先登记本地等待者，
+ * 由锁释放通知唤醒后重试，不再固定间隔轮询。同一节点上的同一线程可以重入，其他线程或节点需等待。
+ *
+ * @author HezaoHezao
+ */
+public class RedisLock implements Lock {
+
+    /**
+     * 获取锁，成功返回nil，失败返回锁的剩余毫秒数
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 or redis.call('hexists', KEYS[1], ARGV[1]) == 1 then " +
+            "redis.call('hincrby', KEYS[1], ARGV[1], 1) " +
+            "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "return nil " +
+            "end " +
+            "return redis.call('pttl', KEYS[1])", Long.class);
+
+    /**
+     * 释放一次持有。不是持有者返回nil，仍有持有返回0，锁可被其他人获取时发布通知并返回1。
+     * ARGV[3]为锁哈希中的元数据字段数，ARGV[4]非空时在仍有其他持有者的情况下将模式改为该值并发布通知
+     */
+    static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then " +
+            "return nil " +
+            "end " +
+            "if redis.call('hincrby', KEYS[1], ARGV[1], -1) > 0 then " +
+            "return 0 " +
+            "end " +
+            "redis.call('hdel', KEYS[1], ARGV[1]) " +
+            "if redis.call('hlen', KEYS[1]) > tonumber(ARGV[3]) then " +
+            "if ARGV[4] ~= '' then " +
+            "redis.call('hset', KEYS[1], 'mode', ARGV[4]) " +
+            "redis.call('publish', ARGV[2], KEYS[1]) " +
+            "end " +
+            "return 0 " +
+            "end " +
+            "redis.call('del', KEYS[1]) " +
+            "redis.call('publish', ARGV[2], KEYS[1]) " +
+            "return 1", Long.class);
+
+    /**
+     * 续期，持有者仍持有时返回1。只延长不缩短过期时间，共享的读锁哈希上不会截短其他读者更长的租期
+     */
+    static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then " +
+            "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then " +
+            "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 1 " +
+            "end " +
+            "return 0", Long.class);
+
+    /**
+     * 强制释放，删除成功时发布通知
+     */
+    static final RedisScript<Long> FORCE_RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('del', KEYS[1]) == 1 then " +
+            "redis.call('publish', ARGV[1], KEYS[1]) " +
+            "return 1 " +
+            "end " +
+            "return 0", Long.class);
+
+    protected final RedisLockClient client;
+
+    protected final String name;
+
+    /**
+     * 锁键，使用哈希标签保证相关键位于同一个集群槽
+     */
+    protected final String key;
+
+    /**
+     * 构造函数
+     *
+     * @param client 锁客户端
+     * @param name   锁名称
+     */
+    protected RedisLock(RedisLockClient client, String name) {
+        this.client = client;
+        this.name = name;
+        this.key = RedisLockClient.LOCK_PREFIX + "{" + name + "}";
+    }
+
+    /**
+     * 获取锁名称
+     *
+     * @return 锁名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void lock() {
+        try {
+            acquire(-1, -1, false);
+        } catch (InterruptedException e) {
+            // 不可中断模式下不会抛出
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 获取锁并指定租期，到期自动释放、不续期
+     *
+     * @param leaseTime 租期
+     * @param unit      时间单位
+     */
+    public void lock(long leaseTime, TimeUnit unit) {
+        try {
+            acquire(-1, unit.toMillis(leaseTime), false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        acquire(-1, -1, true);
+    }
+
+    @Override
+    public boolean tryLock() {
+        try {
+            return acquire(0, -1, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        return acquire(unit.toMillis(time), -1, true);
+    }
+
+    /**
+     * 在等待时间内尝试获取锁并指定租期
+     *
+     * @param waitTime  最长等待时间
+     * @param leaseTime 租期，小于等于0时由看门狗续期
+     * @param unit      时间单位
+     * @return 是否获取成功
+     * @throws InterruptedException 等待被中断
+     */
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        return acquire(unit.toMillis(waitTime), leaseTime > 0 ? unit.toMillis(leaseTime) : -1, true);
+    }
+
+    @Override
+    public void unlock() {
+        String field = field(client.owner());
+        Long result = client.execute(RELEASE_SCRIPT, Collections.singletonList(key), field,
+                client.getNotifier().getChannel(), String.valueOf(metaFields()), modeAfterRelease());
+        String id = key + ":" + field;
+        if (result == null) {
+            client.getWatchdog().released(id, true);
+            throw new IllegalMonitorStateException("当前线程未持有锁：" + name);
+        }
+        client.getWatchdog().released(id, result == 1);
+    }
+
+    /**
+     * 不检查持有者直接释放锁
+     *
+     * @return 锁是否存在并被删除
+     */
+    public boolean forceUnlock() {
+        Long result = client.execute(FORCE_RELEASE_SCRIPT, Collections.singletonList(key),
+                client.getNotifier().getChannel());
+        return Long.valueOf(1).equals(result);
+    }
+
+    /**
+     * 锁是否被任何人持有
+     *
+     * @return 是否被持有
+     */
+    public boolean isLocked() {
+        return Boolean.TRUE.equals(client.getRedisTemplate().hasKey(key));
+    }
+
+    /**
+     * 锁是否被当前线程持有
+     *
+     * @return 是否被当前线程持有
+     */
+    public boolean isHeldByCurrentThread() {
+        return client.getRedisTemplate().opsForHash().hasKey(key, field(client.owner()));
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("Redis锁不支持Condition");
+    }
+
+    /**
+     * 尝试获取一次
+     *
+     * @param owner       持有者
+     * @param leaseMillis 租期（毫秒）
+     * @return 获取成功返回null，否则返回锁的剩余毫秒数
+     */
+    protected Long tryAcquire(String owner, long leaseMillis) {
+        return client.execute(ACQUIRE_SCRIPT, Collections.singletonList(key), field(owner),
+                String.valueOf(leaseMillis));
+    }
+
+    /**
+     * 放弃等待，公平锁需要将自己移出队列
+     *
+     * @param owner 持有者
+     */
+    protected void cancelWaiting(String owner) {
+    }
+
+    /**
+     * 单次等待的最长时间（毫秒）
+     *
+     * @return 最长时间，小于等于0表示不限制
+     */
+    protected long maxWaitSlice() {
+        return 0;
+    }
+
+    /**
+     * 持有者在锁哈希中的字段名
+     *
+     * @param owner 持有者
+     * @return 字段名
+     */
+    protected String field(String owner) {
+        return owner;
+    }
+
+    /**
+     * 锁哈希中的元数据字段数
+     *
+     * @return 字段数
+     */
+    protected int metaFields() {
+        return 0;
+    }
+
+    /**
+     * 释放后仍有其他持有者时设置的模式，空字符串表示不修改
+     *
+     * @return 模式
+     */
+    protected String modeAfterRelease() {
+        return "";
+    }
+
+    /**
+     * 获取锁
+     *
+     * @param waitMillis    最长等待时间，小于0表示一直等待
+     * @param leaseMillis   租期，小于等于0表示由看门狗续期
+     * @param interruptible 是否响应中断
+     * @return 是否获取成功
+     * @throws InterruptedException 可中断模式下等待被中断
+     */
+    private boolean acquire(long waitMillis, long leaseMillis, boolean interruptible) throws InterruptedException {
+        String owner = client.owner();
+        boolean watchdog = leaseMillis <= 0;
+        long lease = watchdog ? client.getWatchdogTimeout() : leaseMillis;
+        if (waitMillis == 0) {
+            Long ttl = acquireOnce(owner, lease, watchdog);
+            if (ttl != null) {
+                cancelWaiting(owner);
+            }
+            return ttl == null;
+        }
+        long deadline = waitMillis < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + waitMillis;
+        boolean interrupted = false;
+        LockNotifier.Waiters waiters = client.getNotifier().subscribe(key);
+        try {
+            Long ttl = acquireOnce(owner, lease, watchdog);
+            while (ttl != null) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    cancelWaiting(owner);
+                    return false;
+                }
+                long slice = Math.min(remaining, ttl > 0 ? ttl : remaining);
+                long maxSlice = maxWaitSlice();
+                if (maxSlice > 0) {
+                    slice = Math.min(slice, maxSlice);
+                }
+                try {
+                    waiters.await(slice);
+                } catch (InterruptedException e) {
+                    if (interruptible) {
+                        cancelWaiting(owner);
+                        throw e;
+                    }
+                    interrupted = true;
+                }
+                ttl = acquireOnce(owner, lease, watchdog);
+            }
+            return true;
+        } finally {
+            client.getNotifier().unsubscribe(waiters);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Long acquireOnce(String owner, long leaseMillis, boolean watchdog) {
+        Long ttl = tryAcquire(owner, leaseMillis);
+        if (ttl == null) {
+            String field = field(owner);
+            client.getWatchdog().acquired(key + ":" + field, leaseMillis, () -> renew(field, leaseMillis), watchdog);
+        }
+        return ttl;
+    }
+
+    private boolean renew(String field, long leaseMillis) {
+        Long result = client.execute(RENEW_SCRIPT, Collections.singletonList(key), field,
+                String.valueOf(leaseMillis));
+        return Long.valueOf(1).equals(result);
+    }
+
+    /**
+     * 执行脚本的键列表
+     *
+     * @param keys 键
+     * @return 键列表
+     */
+    protected static List<String> keys(String... keys) {
+        return Arrays.asList(keys);
+    }
+}
\ No newline at end of file
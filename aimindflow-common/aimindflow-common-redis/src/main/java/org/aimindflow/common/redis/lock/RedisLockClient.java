@@ -0,0 +1,133 @@
+package org.aimindflow.common.redis.lock;
+
+import org.aimindflow.common.redis.config.RedisProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis锁客户端
+ *
+ * 创建可重入锁、公平锁与读写锁，持有本节点的看门狗与释放通知。锁的持有者由节点标识与线程ID组成，
+ * 同一线程在同一节点上可以重入。脚本参数统一按字符串序列化，脚本由Spring以EVALSHA执行，
+ * 脚本未缓存时自动退化为EVAL。
+ *
+ * @author HezaoHezao
+ */
+public class RedisLockClient implements DisposableBean {
+
+    /**
+     * 锁键前缀
+     */
+    static final String LOCK_PREFIX = "lock:";
+
+    private static final RedisSerializer<Long> RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final LockNotifier notifier;
+
+    private final LockWatchdog watchdog = new LockWatchdog();
+
+    private final RedisProperties.Lock config;
+
+    /**
+     * 节点标识，区分不同JVM中ID相同的线程
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate   Redis模板
+     * @param notifier        锁释放通知
+     * @param redisProperties Redis属性配置
+     */
+    public RedisLockClient(RedisTemplate<String, Object> redisTemplate, LockNotifier notifier,
+                           RedisProperties redisProperties) {
+        this.redisTemplate = redisTemplate;
+        this.notifier = notifier;
+        this.config = redisProperties.getLock();
+    }
+
+    /**
+     * 获取可重入锁
+     *
+     * @param name 锁名称
+     * @return 可重入锁
+     */
+    public RedisLock getLock(String name) {
+        return new RedisLock(this, name);
+    }
+
+    /**
+     * 获取公平锁，按请求顺序获取
+     *
+     * @param name 锁名称
+     * @return 公平锁
+     */
+    public RedisLock getFairLock(String name) {
+        return new RedisFairLock(this, name);
+    }
+
+    /**
+     * 获取读写锁
+     *
+     * @param name 锁名称
+     * @return 读写锁
+     */
+    public RedisReadWriteLock getReadWriteLock(String name) {
+        return new RedisReadWriteLock(this, name);
+    }
+
+    @Override
+    public void destroy() {
+        watchdog.shutdown();
+    }
+
+    /**
+     * 当前线程的持有者标识
+     *
+     * @return 持有者标识
+     */
+    String owner() {
+        return nodeId + ":" + Thread.currentThread().getId();
+    }
+
+    /**
+     * 执行锁脚本
+     *
+     * @param script 脚本
+     * @param keys   键
+     * @param args   参数
+     * @return 脚本结果
+     */
+    Long execute(RedisScript<Long> script, List<String> keys, Object... args) {
+        return redisTemplate.execute(script, RedisSerializer.string(), RESULT_SERIALIZER, keys, args);
+    }
+
+    long getWatchdogTimeout() {
+        return config.getWatchdogTimeout();
+    }
+
+    long getFairWaiterTimeout() {
+        return config.getFairWaiterTimeout();
+    }
+
+    RedisTemplate<String, Object> getRedisTemplate() {
+        return redisTemplate;
+    }
+
+    LockNotifier getNotifier() {
+        return notifier;
+    }
+
+    LockWatchdog getWatchdog() {
+        return watchdog;
+    }
+}
\ No newline at end of file
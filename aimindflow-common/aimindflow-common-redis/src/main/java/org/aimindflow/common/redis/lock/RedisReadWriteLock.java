@@ -0,0 +1,122 @@
+package org.aimindflow.common.redis.lock;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Redis读写锁
+ *
+ * 读锁与写锁共用一个哈希，mode字段记录当前模式，读持有者字段为 r:持有者，写持有者字段为 w:持有者。
+ * 多个读者可同时持有；写锁独占，持有写锁的线程可以再获取读锁（降级），写锁释放后若仍有读者则切换为读模式。
+ * 所有持有者共用一个过期时间，获取与续期时都只延长不缩短，取各自租期中较长者。
+ *
+ * @author HezaoHezao
+ */
+public class RedisReadWriteLock implements ReadWriteLock {
+
+    private final ReadLock readLock;
+
+    private final WriteLock writeLock;
+
+    RedisReadWriteLock(RedisLockClient client, String name) {
+        this.readLock = new ReadLock(client, name);
+        this.writeLock = new WriteLock(client, name);
+    }
+
+    @Override
+    public RedisLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public RedisLock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * 读锁
+     */
+    private static final class ReadLock extends RedisLock {
+
+        /**
+         * ARGV: 读字段、租期、同一持有者的写字段
+         */
+        private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+                "local mode = redis.call('hget', KEYS[1], 'mode') " +
+                "if mode == false or mode == 'read' or redis.call('hexists', KEYS[1], ARGV[3]) == 1 then " +
+                "if mode == false then redis.call('hset', KEYS[1], 'mode', 'read') end " +
+                "redis.call('hincrby', KEYS[1], ARGV[1], 1) " +
+                "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then " +
+                "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                "end " +
+                "return nil " +
+                "end " +
+                "return redis.call('pttl', KEYS[1])", Long.class);
+
+        private ReadLock(RedisLockClient client, String name) {
+            super(client, name);
+        }
+
+        @Override
+        protected Long tryAcquire(String owner, long leaseMillis) {
+            return client.execute(ACQUIRE_SCRIPT, Collections.singletonList(key), field(owner),
+                    String.valueOf(leaseMillis), "w:" + owner);
+        }
+
+        @Override
+        protected String field(String owner) {
+            return "r:" + owner;
+        }
+
+        @Override
+        protected int metaFields() {
+            return 1;
+        }
+    }
+
+    /**
+     * 写锁
+     */
+    private static final class WriteLock extends RedisLock {
+
+        private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+                "local mode = redis.call('hget', KEYS[1], 'mode') " +
+                "if mode == false or (mode == 'write' and redis.call('hexists', KEYS[1], ARGV[1]) == 1) then " +
+                "redis.call('hset', KEYS[1], 'mode', 'write') " +
+                "redis.call('hincrby', KEYS[1], ARGV[1], 1) " +
+                "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then " +
+                "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+                "end " +
+                "return nil " +
+                "end " +
+                "return redis.call('pttl', KEYS[1])", Long.class);
+
+        private WriteLock(RedisLockClient client, String name) {
+            super(client, name);
+        }
+
+        @Override
+        protected Long tryAcquire(String owner, long leaseMillis) {
+            return client.execute(ACQUIRE_SCRIPT, Collections.singletonList(key), field(owner),
+                    String.valueOf(leaseMillis));
+        }
+
+        @Override
+        protected String field(String owner) {
+            return "w:" + owner;
+        }
+
+        @Override
+        protected int metaFields() {
+            return 1;
+        }
+
+        @Override
+        protected String modeAfterRelease() {
+            return "read";
+        }
+    }
+}
\ No newline at end of file
@@ -1,27 +1,140 @@
 package org.aimindflow.common.redis.manager;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.redis.batch.BatchResult;
+import org.aimindflow.common.redis.batch.RedisBatch;
+import org.aimindflow.common.redis.cache.CacheMeta;
+import org.aimindflow.common.redis.cache.CacheValue;
+import org.aimindflow.common.redis.cache.NearCache;
+import org.aimindflow.common.redis.cache.SingleFlight;
 import org.aimindflow.common.redis.config.RedisProperties;
+import org.aimindflow.common.redis.lock.RedisDistributedLock;
+import org.aimindflow.common.redis.scan.ScanProgressListener;
 import org.aimindflow.common.redis.utils.RedisUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
  * Redis缓存管理器
  *
+ * 配置了本地近端缓存时，读取先查本地缓存，未命中再访问Redis并回填；写入与删除会通知所有节点清除本地条目。
+ * getOrSet在同一JVM内合并相同键的并发加载，可选地通过分布式锁让集群内只有一个节点加载，
+ * 并支持缓存即将过期时在后台提前刷新以及缓存空结果。
+ * 提前刷新与空结果所需的元数据写入独立的键（缓存键加“#meta”后缀），缓存值的键始终保持原有格式。
+ *
  * @author HezaoHezao
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class RedisCacheManager {
+public class RedisCacheManager implements DisposableBean {
+
+    /**
+     * 加载锁键前缀
+     */
+    private static final String LOAD_LOCK_PREFIX = "cache-load:";
+
+    /**
+     * 元数据键后缀
+     */
+    private static final String META_SUFFIX = "#meta";
+
+    /**
+     * 等待其他节点加载时的轮询间隔（毫秒）
+     */
+    private static final long LOCK_POLL_INTERVAL = 50;
+
+    /**
+     * 后台刷新队列长度
+     */
+    private static final int REFRESH_QUEUE_SIZE = 1024;
+
+    /**
+     * 表示缓存未命中的标记，用于区分缓存的空结果
+     */
+    private static final Object MISS = new Object();
 
     private final RedisUtils redisUtils;
     private final RedisProperties redisProperties;
 
+    /**
+     * 本地近端缓存，未启用时为null
+     */
+    private final NearCache nearCache;
+
+    /**
+     * 分布式锁，未启用加载锁时为null
+     */
+    private final RedisDistributedLock distributedLock;
+
+    /**
+     * 前台加载合并
+     */
+    private final SingleFlight<String, Object> loads = new SingleFlight<>();
+
+    /**
+     * 后台刷新合并
+     */
+    private final SingleFlight<String, Object> refreshes = new SingleFlight<>();
+
+    /**
+     * 后台刷新线程池，未启用提前刷新时为null
+     */
+    private final ThreadPoolExecutor refreshExecutor;
+
+    /**
+     * 是否读写元数据键，启用提前刷新或空结果缓存时为true
+     */
+    private final boolean metaEnabled;
+
+    /**
+     * 构造函数
+     *
+     * @param redisUtils      Redis工具类
+     * @param redisProperties Redis属性配置
+     */
+    @Autowired
+    public RedisCacheManager(RedisUtils redisUtils, RedisProperties redisProperties) {
+        this(redisUtils, redisProperties, null, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param redisUtils      Redis工具类
+     * @param redisProperties Redis属性配置
+     * @param nearCache       本地近端缓存，可为null
+     */
+    public RedisCacheManager(RedisUtils redisUtils, RedisProperties redisProperties, NearCache nearCache) {
+        this(redisUtils, redisProperties, nearCache, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param redisUtils      Redis工具类
+     * @param redisProperties Redis属性配置
+     * @param nearCache       本地近端缓存，可为null
+     * @param distributedLock 分布式锁，可为null
+     */
+    public RedisCacheManager(RedisUtils redisUtils, RedisProperties redisProperties, NearCache nearCache,
+                             RedisDistributedLock distributedLock) {
+        this.redisUtils = redisUtils;
+        this.redisProperties = redisProperties;
+        this.nearCache = nearCache;
+        RedisProperties.Loader loader = redisProperties.getLoader();
+        this.distributedLock = loader.isDistributedLockEnabled() ? distributedLock : null;
+        this.refreshExecutor = loader.isRefreshAheadEnabled() ? createRefreshExecutor(loader.getRefreshThreads()) : null;
+        this.metaEnabled = refreshExecutor != null || loader.getNullValueExpiration() > 0;
+    }
+
     /**
      * 获取缓存，如果不存在则执行supplier并缓存结果
      *
@@ -31,12 +144,14 @@ public class RedisCacheManager {
      * @return 缓存数据
      */
     public <T> T getOrSet(String key, Supplier<T> supplier) {
-        return getOrSet(key, supplier, redisProperties.getDefaultExpireTime(), TimeUnit.SECONDS);
+        return getOrSet(key, supplier, redisProperties.getDefaultExpiration(), TimeUnit.SECONDS);
     }
 
     /**
      * 获取缓存，如果不存在则执行supplier并缓存结果
      *
+     * 相同键的并发调用只执行一次supplier；Redis不可用时直接执行supplier。
+     *
      * @param key      缓存键
      * @param supplier 数据提供者
      * @param timeout  过期时间
@@ -46,22 +161,26 @@ public class RedisCacheManager {
      */
     @SuppressWarnings("unchecked")
     public <T> T getOrSet(String key, Supplier<T> supplier, long timeout, TimeUnit unit) {
+        String cacheKey = buildCacheKey(key);
+        Object cached;
         try {
-            String cacheKey = buildCacheKey(key);
-            Object cached = redisUtils.get(cacheKey);
-            if (cached != null) {
-                return (T) cached;
-            }
-
-            T data = supplier.get();
-            if (data != null) {
-                redisUtils.set(cacheKey, data, timeout, unit);
-            }
-            return data;
+            cached = lookup(key, cacheKey);
         } catch (Exception e) {
             log.error("Redis缓存操作失败，key: {}", key, e);
             return supplier.get();
         }
+        if (cached instanceof CacheValue) {
+            CacheValue cacheValue = (CacheValue) cached;
+            if (shouldRefreshEarly(cacheValue)) {
+                refreshes.executeAsync(cacheKey, () -> load(key, cacheKey, supplier, timeout, unit, true),
+                        refreshExecutor);
+            }
+            return (T) cacheValue.getValue();
+        }
+        if (cached != null) {
+            return (T) cached;
+        }
+        return (T) loads.execute(cacheKey, () -> load(key, cacheKey, supplier, timeout, unit, false));
     }
 
     /**
@@ -71,7 +190,7 @@ public class RedisCacheManager {
      * @param value 缓存值
      */
     public void set(String key, Object value) {
-        set(key, value, redisProperties.getDefaultExpireTime(), TimeUnit.SECONDS);
+        set(key, value, redisProperties.getDefaultExpiration(), TimeUnit.SECONDS);
     }
 
     /**
@@ -86,6 +205,12 @@ public class RedisCacheManager {
         try {
             String cacheKey = buildCacheKey(key);
             redisUtils.set(cacheKey, value, timeout, unit);
+            if (metaEnabled) {
+                redisUtils.delete(cacheKey + META_SUFFIX);
+            }
+            if (nearCache != null) {
+                nearCache.invalidate(key);
+            }
         } catch (Exception e) {
             log.error("Redis缓存设置失败，key: {}", key, e);
         }
@@ -101,8 +226,8 @@ public class RedisCacheManager {
     @SuppressWarnings("unchecked")
     public <T> T get(String key) {
         try {
-            String cacheKey = buildCacheKey(key);
-            return (T) redisUtils.get(cacheKey);
+            Object cached = lookup(key, buildCacheKey(key));
+            return (T) (cached instanceof CacheValue ? ((CacheValue) cached).getValue() : cached);
         } catch (Exception e) {
             log.error("Redis缓存获取失败，key: {}", key, e);
             return null;
@@ -117,7 +242,14 @@ public class RedisCacheManager {
     public void delete(String key) {
         try {
             String cacheKey = buildCacheKey(key);
-            redisUtils.del(cacheKey);
+            if (metaEnabled) {
+                redisUtils.delete(cacheKey, cacheKey + META_SUFFIX);
+            } else {
+                redisUtils.delete(cacheKey);
+            }
+            if (nearCache != null) {
+                nearCache.invalidate(key);
+            }
         } catch (Exception e) {
             log.error("Redis缓存删除失败，key: {}", key, e);
         }
@@ -129,11 +261,27 @@ public class RedisCacheManager {
      * @param pattern 缓存键模式
      */
     public void deleteByPattern(String pattern) {
+        deleteByPattern(pattern, null);
+    }
+
+    /**
+     * 删除缓存（支持通配符），通过SCAN分批删除，每删除一批回调一次进度
+     *
+     * @param pattern  缓存键模式
+     * @param listener 进度监听器，可为null
+     * @return 删除的键数，失败时返回0
+     */
+    public long deleteByPattern(String pattern, ScanProgressListener listener) {
         try {
             String cachePattern = buildCacheKey(pattern);
-            redisUtils.delByPattern(cachePattern);
+            return redisUtils.delByPattern(cachePattern, listener);
         } catch (Exception e) {
             log.error("Redis缓存批量删除失败，pattern: {}", pattern, e);
+            return 0;
+        } finally {
+            if (nearCache != null) {
+                nearCache.invalidatePattern(pattern);
+            }
         }
     }
 
@@ -185,6 +333,225 @@ public class RedisCacheManager {
         }
     }
 
+    /**
+     * 获取本地近端缓存
+     *
+     * @return 本地近端缓存，未启用时为null
+     */
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 依次查询本地缓存与Redis，本地未命中时回填；已过逻辑过期时间的包装值视为未命中
+     *
+     * @param key      缓存键
+     * @param cacheKey 带前缀的缓存键
+     * @return 缓存的原始值，未命中时返回null
+     */
+    private Object lookup(String key, String cacheKey) {
+        if (nearCache != null) {
+            Object local = nearCache.get(key);
+            if (local != null && !isExpired(local)) {
+                return local;
+            }
+        }
+        long sequence = nearCache != null ? nearCache.sequence(key) : 0;
+        Object cached = readRemote(cacheKey);
+        if (cached != null && isExpired(cached)) {
+            cached = null;
+        }
+        if (nearCache != null) {
+            if (cached != null) {
+                nearCache.recordRemoteHit();
+                nearCache.put(key, cached, sequence);
+            } else {
+                nearCache.recordMiss();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * 读取Redis中的缓存值，启用元数据时通过一次管道同时读取元数据并组合为包装值
+     *
+     * @param cacheKey 带前缀的缓存键
+     * @return 缓存值或包装值，未命中时返回null
+     */
+    private Object readRemote(String cacheKey) {
+        if (!metaEnabled) {
+            return redisUtils.get(cacheKey);
+        }
+        RedisBatch batch = redisUtils.batch();
+        BatchResult<Object> value = batch.get(cacheKey);
+        BatchResult<Object> meta = batch.get(cacheKey + META_SUFFIX);
+        batch.execute(RedisBatch.OPERATION_MGET);
+        if (!(meta.get() instanceof CacheMeta)) {
+            return value.get();
+        }
+        CacheMeta cacheMeta = (CacheMeta) meta.get();
+        if (value.get() == null) {
+            // 值不存在时只有空结果的元数据有效，其余为被外部删除的残留
+            return cacheMeta.isNullValue()
+                    ? new CacheValue(null, cacheMeta.getExpireAt(), cacheMeta.getLoadMillis()) : null;
+        }
+        if (cacheMeta.isNullValue()) {
+            // 值被外部直接写入，以值为准
+            return value.get();
+        }
+        return new CacheValue(value.get(), cacheMeta.getExpireAt(), cacheMeta.getLoadMillis());
+    }
+
+    /**
+     * 加载数据并写入缓存
+     *
+     * @param key      缓存键
+     * @param cacheKey 带前缀的缓存键
+     * @param supplier 数据提供者
+     * @param timeout  过期时间
+     * @param unit     时间单位
+     * @param refresh  是否为后台刷新，刷新时未获得加载锁直接放弃
+     * @return 加载结果
+     */
+    private Object load(String key, String cacheKey, Supplier<?> supplier, long timeout, TimeUnit unit,
+                        boolean refresh) {
+        String lockKey = LOAD_LOCK_PREFIX + cacheKey;
+        String lockValue = null;
+        if (distributedLock != null) {
+            lockValue = distributedLock.tryLock(lockKey, redisProperties.getLoader().getLockExpiration());
+            if (lockValue == null) {
+                if (refresh) {
+                    return null;
+                }
+                Object loaded = awaitOtherNode(cacheKey);
+                if (loaded != MISS) {
+                    return loaded;
+                }
+                log.warn("等待其他节点加载缓存超时，自行加载，key: {}", key);
+            } else if (!refresh) {
+                // 获得锁之前其他节点可能已完成加载
+                Object loaded = readFresh(cacheKey);
+                if (loaded != MISS) {
+                    distributedLock.unlock(lockKey, lockValue);
+                    return loaded;
+                }
+            }
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Object value = supplier.get();
+            store(key, cacheKey, value, System.currentTimeMillis() - start, unit.toMillis(timeout));
+            return value;
+        } finally {
+            if (lockValue != null) {
+                distributedLock.unlock(lockKey, lockValue);
+            }
+        }
+    }
+
+    /**
+     * 写入加载结果，并通知所有节点清除旧的本地条目
+     */
+    private void store(String key, String cacheKey, Object value, long loadMillis, long timeoutMillis) {
+        long ttlMillis = timeoutMillis;
+        if (value == null) {
+            long nullExpiration = redisProperties.getLoader().getNullValueExpiration();
+            if (nullExpiration <= 0) {
+                return;
+            }
+            ttlMillis = Math.min(ttlMillis, TimeUnit.SECONDS.toMillis(nullExpiration));
+        }
+        try {
+            if (metaEnabled) {
+                CacheMeta meta = new CacheMeta(System.currentTimeMillis() + ttlMillis, loadMillis, value == null);
+                RedisBatch batch = redisUtils.batch();
+                if (value == null) {
+                    batch.delete(cacheKey);
+                } else {
+                    batch.set(cacheKey, value, ttlMillis, TimeUnit.MILLISECONDS);
+                }
+                batch.set(cacheKey + META_SUFFIX, meta, ttlMillis, TimeUnit.MILLISECONDS);
+                batch.execute();
+            } else {
+                redisUtils.set(cacheKey, value, ttlMillis, TimeUnit.MILLISECONDS);
+            }
+            if (nearCache != null) {
+                nearCache.invalidate(key);
+            }
+        } catch (Exception e) {
+            log.error("Redis缓存设置失败，key: {}", key, e);
+        }
+    }
+
+    /**
+     * 未获得加载锁时轮询等待其他节点写入缓存
+     *
+     * @return 其他节点写入的值，超时返回MISS
+     */
+    private Object awaitOtherNode(String cacheKey) {
+        long deadline = System.currentTimeMillis() + redisProperties.getLoader().getLockWaitTime();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return MISS;
+            }
+            Object loaded = readFresh(cacheKey);
+            if (loaded != MISS) {
+                return loaded;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * 直接读取Redis中未过期的值
+     *
+     * @return 缓存值，未命中返回MISS
+     */
+    private Object readFresh(String cacheKey) {
+        Object cached = readRemote(cacheKey);
+        if (cached == null || isExpired(cached)) {
+            return MISS;
+        }
+        return cached instanceof CacheValue ? ((CacheValue) cached).getValue() : cached;
+    }
+
+    /**
+     * 按加载耗时与剩余时间判断是否提前刷新，越接近过期、加载越慢，提前刷新的概率越大
+     */
+    private boolean shouldRefreshEarly(CacheValue cacheValue) {
+        if (refreshExecutor == null) {
+            return false;
+        }
+        double gap = -Math.max(1, cacheValue.getLoadMillis()) * redisProperties.getLoader().getRefreshBeta()
+                * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= cacheValue.getExpireAt();
+    }
+
+    private static boolean isExpired(Object cached) {
+        return cached instanceof CacheValue && ((CacheValue) cached).getExpireAt() <= System.currentTimeMillis();
+    }
+
+    private static ThreadPoolExecutor createRefreshExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_SIZE), r -> {
+                    Thread thread = new Thread(r, "redis-cache-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
     /**
      * 构建缓存键
      *
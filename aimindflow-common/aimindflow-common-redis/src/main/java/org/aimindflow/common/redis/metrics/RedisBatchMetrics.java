@@ -0,0 +1,90 @@
+package org.aimindflow.common.redis.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.redis.batch.RedisBatchExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量操作指标
+ *
+ * 按操作类型记录每个批次的耗时分布（含P50、P95、P99）与命令数，平均批次大小为命令数除以批次数。
+ * 操作类型在首次执行时注册，不限于内置的pipeline、mget与mset。
+ *
+ * @author HezaoHezao
+ */
+public class RedisBatchMetrics implements MeterBinder, RedisBatchExecutor.BatchListener {
+
+    /**
+     * 指标名前缀
+     */
+    private static final String PREFIX = "aimindflow.redis.batch";
+
+    /**
+     * 发布的耗时百分位
+     */
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    /**
+     * 批量命令执行器
+     */
+    private final RedisBatchExecutor executor;
+
+    /**
+     * 按操作类型缓存的指标
+     */
+    private final Map<String, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * 构造函数
+     *
+     * @param executor 批量命令执行器
+     */
+    public RedisBatchMetrics(RedisBatchExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        executor.addListener(this);
+    }
+
+    @Override
+    public void onBatch(String operation, int commands, long elapsedNanos) {
+        MeterRegistry current = registry;
+        if (current == null) {
+            return;
+        }
+        OperationMeters m = meters.computeIfAbsent(operation, op -> new OperationMeters(current, op));
+        m.timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        m.commands.increment(commands);
+    }
+
+    /**
+     * 单个操作类型的指标
+     */
+    private static final class OperationMeters {
+
+        private final Timer timer;
+
+        private final Counter commands;
+
+        OperationMeters(MeterRegistry registry, String operation) {
+            this.timer = Timer.builder(PREFIX)
+                    .tag("operation", operation)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+            this.commands = Counter.builder(PREFIX + ".commands")
+                    .tag("operation", operation)
+                    .register(registry);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package org.aimindflow.common.redis.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aimindflow.common.redis.cache.NearCache;
+
+/**
+ * 本地近端缓存指标
+ *
+ * 导出本地缓存与Redis的命中次数、未命中次数、条目数、总权重以及淘汰次数。
+ *
+ * @author HezaoHezao
+ */
+public class RedisNearCacheMetrics implements MeterBinder {
+
+    /**
+     * 指标名前缀
+     */
+    private static final String PREFIX = "aimindflow.redis.cache";
+
+    /**
+     * 本地近端缓存
+     */
+    private final NearCache nearCache;
+
+    /**
+     * 构造函数
+     *
+     * @param nearCache 本地近端缓存
+     */
+    public RedisNearCacheMetrics(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(PREFIX + ".requests", nearCache, NearCache::getLocalHits)
+                .tag("result", "hit").tag("tier", "local")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".requests", nearCache, NearCache::getRemoteHits)
+                .tag("result", "hit").tag("tier", "redis")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".requests", nearCache, NearCache::getMisses)
+                .tag("result", "miss").tag("tier", "none")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".evictions", nearCache, NearCache::getEvictionCount)
+                .tag("tier", "local")
+                .register(registry);
+        Gauge.builder(PREFIX + ".size", nearCache, NearCache::getSize)
+                .tag("tier", "local")
+                .register(registry);
+        Gauge.builder(PREFIX + ".weight", nearCache, NearCache::getWeightedSize)
+                .tag("tier", "local")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package org.aimindflow.common.redis.scan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 键游标
+ *
+ * 基于SCAN命令增量遍历匹配的键，每次只从服务端取回一批；集群模式下依次遍历每个主节点。
+ * 游标占用一个Redis连接，遍历完成后自动释放，提前结束时必须调用 {@link #close()}。
+ * SCAN只保证遍历期间一直存在的键至少返回一次，同一个键可能返回多次。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class KeyCursor implements Iterator<String>, Closeable {
+
+    private final RedisConnection connection;
+
+    private final ScanOptions options;
+
+    private final RedisSerializer<String> keySerializer;
+
+    /**
+     * 待遍历的集群主节点，单机模式为空
+     */
+    private final Iterator<RedisClusterNode> nodes;
+
+    /**
+     * 当前节点的游标
+     */
+    private Cursor<byte[]> current;
+
+    /**
+     * 已返回的键数
+     */
+    private long scanned;
+
+    private boolean closed;
+
+    /**
+     * 构造函数
+     *
+     * @param connection    Redis连接，由游标负责关闭
+     * @param options       SCAN参数
+     * @param keySerializer 键序列化器
+     */
+    KeyCursor(RedisConnection connection, ScanOptions options, RedisSerializer<String> keySerializer) {
+        this.connection = connection;
+        this.options = options;
+        this.keySerializer = keySerializer;
+        if (connection instanceof RedisClusterConnection) {
+            List<RedisClusterNode> masters = new ArrayList<>();
+            for (RedisClusterNode node : ((RedisClusterConnection) connection).clusterGetNodes()) {
+                if (node.isMaster()) {
+                    masters.add(node);
+                }
+            }
+            this.nodes = masters.iterator();
+        } else {
+            this.nodes = Collections.emptyIterator();
+            this.current = connection.keyCommands().scan(options);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!closed) {
+            if (current != null && current.hasNext()) {
+                return true;
+            }
+            closeCurrent();
+            if (!nodes.hasNext()) {
+                close();
+                return false;
+            }
+            current = ((RedisClusterConnection) connection).scan(nodes.next(), options);
+        }
+        return false;
+    }
+
+    @Override
+    public String next() {
+        return keySerializer.deserialize(nextRaw());
+    }
+
+    /**
+     * 返回下一个键的原始字节
+     *
+     * @return 键的原始字节
+     */
+    byte[] nextRaw() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        scanned++;
+        return current.next();
+    }
+
+    /**
+     * 获取已返回的键数
+     *
+     * @return 键数
+     */
+    public long getScanned() {
+        return scanned;
+    }
+
+    /**
+     * 是否为集群模式
+     *
+     * @return 是否为集群模式
+     */
+    boolean isCluster() {
+        return connection instanceof RedisClusterConnection;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeCurrent();
+        try {
+            connection.close();
+        } catch (Exception e) {
+            log.warn("关闭键游标连接失败", e);
+        }
+    }
+
+    private void closeCurrent() {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (Exception e) {
+            log.debug("关闭SCAN游标失败", e);
+        }
+        current = null;
+    }
+}
\ No newline at end of file
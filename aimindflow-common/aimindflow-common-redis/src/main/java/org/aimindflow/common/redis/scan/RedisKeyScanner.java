@@ -0,0 +1,173 @@
+package org.aimindflow.common.redis.scan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.redis.config.RedisProperties;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis键扫描器
+ *
+ * 用SCAN游标代替KEYS命令遍历键，并按批通过管道发送UNLINK删除，可按每秒删除键数限速。
+ * 集群模式下不使用管道，多键命令由客户端按槽拆分发送到各节点。
+ *
+ * @author HezaoHezao
+ */
+@Slf4j
+public class RedisKeyScanner {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final RedisProperties.Scan config;
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate   Redis模板
+     * @param redisProperties Redis属性配置
+     */
+    public RedisKeyScanner(RedisTemplate<String, Object> redisTemplate, RedisProperties redisProperties) {
+        this.redisTemplate = redisTemplate;
+        this.config = redisProperties.getScan();
+    }
+
+    /**
+     * 打开匹配模式的键游标，使用完毕后需关闭
+     *
+     * @param pattern 完整的键模式，语法与KEYS命令一致
+     * @return 键游标
+     */
+    public KeyCursor scan(String pattern) {
+        return scan(pattern, config.getCount());
+    }
+
+    /**
+     * 打开匹配模式的键游标，使用完毕后需关闭
+     *
+     * @param pattern 完整的键模式，语法与KEYS命令一致
+     * @param count   每次SCAN的COUNT提示值
+     * @return 键游标
+     */
+    public KeyCursor scan(String pattern, int count) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        RedisConnection connection = redisTemplate.getRequiredConnectionFactory().getConnection();
+        try {
+            return new KeyCursor(connection, options, keySerializer());
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 删除匹配模式的所有键
+     *
+     * @param pattern 完整的键模式
+     * @return 删除的键数
+     */
+    public long delete(String pattern) {
+        return delete(pattern, null);
+    }
+
+    /**
+     * 删除匹配模式的所有键，每删除一批回调一次进度
+     *
+     * 线程被中断时停止删除并返回已删除的键数。
+     *
+     * @param pattern  完整的键模式
+     * @param listener 进度监听器，可为null
+     * @return 删除的键数
+     */
+    public long delete(String pattern, ScanProgressListener listener) {
+        int batchSize = Math.max(1, config.getBatchSize());
+        long startNanos = System.nanoTime();
+        long deleted = 0;
+        try (KeyCursor cursor = scan(pattern)) {
+            List<byte[]> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext()) {
+                batch.add(cursor.nextRaw());
+                if (batch.size() < batchSize && cursor.hasNext()) {
+                    continue;
+                }
+                deleted += deleteBatch(batch, cursor.isCluster());
+                batch.clear();
+                if (listener != null) {
+                    listener.onProgress(cursor.getScanned(), deleted);
+                }
+                if (!throttle(startNanos, cursor.getScanned())) {
+                    log.warn("批量删除被中断，pattern: {}，已删除: {}", pattern, deleted);
+                    break;
+                }
+            }
+            log.debug("批量删除完成，pattern: {}，遍历: {}，删除: {}，耗时: {}ms", pattern, cursor.getScanned(),
+                    deleted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+        return deleted;
+    }
+
+    private long deleteBatch(List<byte[]> batch, boolean cluster) {
+        int commandSize = Math.max(1, config.getCommandSize());
+        boolean unlink = config.isUnlink();
+        if (cluster) {
+            Long count = redisTemplate.execute((RedisCallback<Long>) connection ->
+                    remove(connection.keyCommands(), batch.toArray(new byte[0][]), unlink));
+            return count == null ? 0 : count;
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < batch.size(); from += commandSize) {
+                List<byte[]> command = batch.subList(from, Math.min(batch.size(), from + commandSize));
+                remove(connection.keyCommands(), command.toArray(new byte[0][]), unlink);
+            }
+            return null;
+        }, redisTemplate.getStringSerializer());
+        long count = 0;
+        for (Object result : results) {
+            if (result instanceof Number) {
+                count += ((Number) result).longValue();
+            }
+        }
+        return count;
+    }
+
+    private static Long remove(RedisKeyCommands commands, byte[][] keys, boolean unlink) {
+        return unlink ? commands.unlink(keys) : commands.del(keys);
+    }
+
+    /**
+     * 按每秒删除键数限速
+     *
+     * @return 线程被中断时返回false
+     */
+    private boolean throttle(long startNanos, long processed) {
+        long rate = config.getMaxKeysPerSecond();
+        if (rate <= 0) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        long expectedNanos = TimeUnit.SECONDS.toNanos(processed) / rate;
+        long waitNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (waitNanos <= 0) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<String> keySerializer() {
+        RedisSerializer<?> serializer = redisTemplate.getKeySerializer();
+        return serializer != null ? (RedisSerializer<String>) serializer : RedisSerializer.string();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.aimindflow.common.redis.scan;
+
+/**
+ * 批量删除进度监听器
+ *
+ * @author HezaoHezao
+ */
+@FunctionalInterface
+public interface ScanProgressListener {
+
+    /**
+     * 每删除一批键后回调
+     *
+     * @param scanned 已遍历的键数
+     * @param deleted 已删除的键数
+     */
+    void onProgress(long scanned, long deleted);
+}
\ No newline at end of file
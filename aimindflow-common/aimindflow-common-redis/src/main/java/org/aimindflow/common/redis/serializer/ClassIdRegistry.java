@@ -0,0 +1,119 @@
+package org.aimindflow.common.redis.serializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类型编号注册表
+ *
+ * 二进制序列化时用编号代替完整类名写入类型信息。编号会持久化在Redis中，一经使用不可修改或复用；
+ * 1-63为内置类型保留，未注册的类型仍写入完整类名。
+ *
+ * @author HezaoHezao
+ */
+public class ClassIdRegistry {
+
+    /**
+     * 自定义编号的最小值
+     */
+    public static final int MIN_CUSTOM_ID = 64;
+
+    /**
+     * 内置类型，按编号顺序排列，只能在末尾追加
+     */
+    private static final String[] BUILT_IN = {
+            "java.util.ArrayList",
+            "java.util.LinkedList",
+            "java.util.HashMap",
+            "java.util.LinkedHashMap",
+            "java.util.TreeMap",
+            "java.util.HashSet",
+            "java.util.LinkedHashSet",
+            "java.util.TreeSet",
+            "java.util.concurrent.ConcurrentHashMap",
+            "java.util.concurrent.CopyOnWriteArrayList",
+            "java.util.Date",
+            "java.sql.Timestamp",
+            "java.math.BigDecimal",
+            "java.math.BigInteger",
+            "org.aimindflow.common.redis.cache.CacheValue",
+            "org.aimindflow.common.redis.cache.CacheMeta"
+    };
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数，注册内置类型
+     */
+    public ClassIdRegistry() {
+        for (int i = 0; i < BUILT_IN.length; i++) {
+            add(i + 1, BUILT_IN[i]);
+        }
+    }
+
+    /**
+     * 构造函数，注册内置类型与自定义类型
+     *
+     * @param classIds 自定义类型编号与类名的映射
+     */
+    public ClassIdRegistry(Map<Integer, String> classIds) {
+        this();
+        classIds.forEach(this::register);
+    }
+
+    /**
+     * 注册自定义类型
+     *
+     * @param id        类型编号，不小于64
+     * @param className 完整类名
+     */
+    public void register(int id, String className) {
+        if (id < MIN_CUSTOM_ID) {
+            throw new IllegalArgumentException("自定义类型编号必须不小于" + MIN_CUSTOM_ID + "：" + id);
+        }
+        add(id, className);
+    }
+
+    /**
+     * 注册自定义类型
+     *
+     * @param id    类型编号，不小于64
+     * @param clazz 类型
+     */
+    public void register(int id, Class<?> clazz) {
+        register(id, clazz.getName());
+    }
+
+    /**
+     * 根据类名获取编号
+     *
+     * @param className 完整类名
+     * @return 类型编号，未注册时返回null
+     */
+    public Integer getId(String className) {
+        return idsByName.get(className);
+    }
+
+    /**
+     * 根据编号获取类名
+     *
+     * @param id 类型编号
+     * @return 完整类名，未注册时返回null
+     */
+    public String getClassName(int id) {
+        return namesById.get(id);
+    }
+
+    private synchronized void add(int id, String className) {
+        String existingName = namesById.get(id);
+        Integer existingId = idsByName.get(className);
+        if ((existingName != null && !existingName.equals(className))
+                || (existingId != null && existingId != id)) {
+            throw new IllegalArgumentException("类型编号冲突：" + id + " -> " + className);
+        }
+        namesById.put(id, className);
+        idsByName.put(className, id);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package org.aimindflow.common.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * 使用类型编号的默认类型解析器
+ *
+ * 与 {@link ObjectMapper#activateDefaultTyping} 的行为一致，只是已注册的类型写入"~编号"而不是完整类名。
+ *
+ * @author HezaoHezao
+ */
+class ClassIdTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 类型编号前缀，类名不会以该字符开头
+     */
+    private static final char ID_PREFIX = '~';
+
+    private final transient ClassIdRegistry registry;
+
+    ClassIdTypeResolverBuilder(ObjectMapper.DefaultTyping typing, PolymorphicTypeValidator validator,
+                               ClassIdRegistry registry) {
+        super(typing, validator);
+        this.registry = registry;
+    }
+
+    private ClassIdTypeResolverBuilder(ClassIdTypeResolverBuilder base, Class<?> defaultImpl) {
+        super(base, defaultImpl);
+        this.registry = base.registry;
+    }
+
+    @Override
+    public ObjectMapper.DefaultTypeResolverBuilder withDefaultImpl(Class<?> defaultImpl) {
+        return new ClassIdTypeResolverBuilder(this, defaultImpl);
+    }
+
+    @Override
+    protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                                        PolymorphicTypeValidator subtypeValidator, Collection<NamedType> subtypes,
+                                        boolean forSer, boolean forDeser) {
+        if (_idType != JsonTypeInfo.Id.CLASS) {
+            return super.idResolver(config, baseType, subtypeValidator, subtypes, forSer, forDeser);
+        }
+        return new ClassIdResolver(baseType, config.getTypeFactory(), subtypeValidator, registry);
+    }
+
+    /**
+     * 类型编号解析器
+     */
+    private static final class ClassIdResolver extends ClassNameIdResolver {
+
+        private final ClassIdRegistry registry;
+
+        ClassIdResolver(JavaType baseType, TypeFactory typeFactory, PolymorphicTypeValidator validator,
+                        ClassIdRegistry registry) {
+            super(baseType, typeFactory, validator);
+            this.registry = registry;
+        }
+
+        @Override
+        protected String _idFrom(Object value, Class<?> cls, TypeFactory typeFactory) {
+            String className = super._idFrom(value, cls, typeFactory);
+            Integer id = registry.getId(className);
+            return id == null ? className : ID_PREFIX + Integer.toString(id);
+        }
+
+        @Override
+        protected JavaType _typeFromId(String id, DatabindContext context) throws IOException {
+            if (!id.isEmpty() && id.charAt(0) == ID_PREFIX) {
+                String className;
+                try {
+                    className = registry.getClassName(Integer.parseInt(id.substring(1)));
+                } catch (NumberFormatException e) {
+                    className = null;
+                }
+                if (className == null) {
+                    // 返回null由Jackson按未知类型处理
+                    return null;
+                }
+                return super._typeFromId(className, context);
+            }
+            return super._typeFromId(id, context);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,253 @@
+package org.aimindflow.common.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.aimindflow.common.redis.config.RedisProperties;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis值序列化器
+ *
+ * 支持JSON与二进制两种写入格式，读取时根据首字节自动识别，因此切换格式后旧数据仍可读取。
+ * 二进制格式为"魔数、版本、压缩算法、[原始长度]、CBOR数据"，类型信息使用 {@link ClassIdRegistry} 中的编号，
+ * 超过阈值的数据按配置压缩，压缩后没有变小时按原样存储。
+ *
+ * @author HezaoHezao
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 二进制格式魔数，不会出现在JSON数据的首字节
+     */
+    private static final byte MAGIC = (byte) 0xAF;
+
+    /**
+     * 二进制格式版本
+     */
+    private static final byte VERSION = 1;
+
+    private static final byte CODEC_NONE = 0;
+
+    private static final byte CODEC_DEFLATE = 1;
+
+    private static final byte CODEC_ZSTD = 2;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final boolean ZSTD_PRESENT =
+            ClassUtils.isPresent("com.github.luben.zstd.Zstd", CompactRedisSerializer.class.getClassLoader());
+
+    private final ObjectMapper jsonMapper;
+
+    private final ObjectMapper binaryMapper;
+
+    private final RedisProperties.Serializer.Format format;
+
+    private final byte codec;
+
+    private final int compressionThreshold;
+
+    private final int compressionLevel;
+
+    /**
+     * 构造函数
+     *
+     * @param config 值序列化配置
+     */
+    public CompactRedisSerializer(RedisProperties.Serializer config) {
+        ClassIdRegistry registry = new ClassIdRegistry(config.getClassIds());
+        this.jsonMapper = configure(new ObjectMapper());
+        this.jsonMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL);
+        this.binaryMapper = configure(new ObjectMapper(new CBORFactory()));
+        this.binaryMapper.setDefaultTyping(new ClassIdTypeResolverBuilder(ObjectMapper.DefaultTyping.NON_FINAL,
+                LaissezFaireSubTypeValidator.instance, registry)
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.WRAPPER_ARRAY));
+        this.format = config.getFormat();
+        this.codec = codec(config.getCompression());
+        this.compressionThreshold = config.getCompressionThreshold();
+        this.compressionLevel = config.getCompressionLevel();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        try {
+            if (format == RedisProperties.Serializer.Format.JSON) {
+                return jsonMapper.writeValueAsBytes(value);
+            }
+            return encode(binaryMapper.writeValueAsBytes(value));
+        } catch (Exception e) {
+            throw new SerializationException("序列化失败：" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes[0] != MAGIC) {
+                return jsonMapper.readValue(bytes, Object.class);
+            }
+            return binaryMapper.readValue(decode(bytes), Object.class);
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("反序列化失败：" + e.getMessage(), e);
+        }
+    }
+
+    private byte[] encode(byte[] payload) {
+        byte usedCodec = CODEC_NONE;
+        byte[] body = payload;
+        if (codec != CODEC_NONE && payload.length >= compressionThreshold) {
+            byte[] compressed = codec == CODEC_ZSTD ? ZstdCodec.compress(payload, compressionLevel)
+                    : deflate(payload, compressionLevel);
+            if (compressed.length < payload.length) {
+                usedCodec = codec;
+                body = compressed;
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + 8);
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.write(usedCodec);
+        if (usedCodec != CODEC_NONE) {
+            writeVarInt(out, payload.length);
+        }
+        out.write(body, 0, body.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] decode(byte[] bytes) throws DataFormatException {
+        if (bytes.length < 3 || bytes[1] != VERSION) {
+            throw new SerializationException("不支持的序列化版本：" + (bytes.length < 2 ? "?" : bytes[1]));
+        }
+        byte usedCodec = bytes[2];
+        if (usedCodec == CODEC_NONE) {
+            byte[] payload = new byte[bytes.length - 3];
+            System.arraycopy(bytes, 3, payload, 0, payload.length);
+            return payload;
+        }
+        int position = 3;
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position >= bytes.length || shift > 28) {
+                throw new SerializationException("序列化数据头损坏");
+            }
+            b = bytes[position++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        byte[] body = new byte[bytes.length - position];
+        System.arraycopy(bytes, position, body, 0, body.length);
+        if (usedCodec == CODEC_DEFLATE) {
+            return inflate(body, length);
+        }
+        if (usedCodec == CODEC_ZSTD) {
+            if (!ZSTD_PRESENT) {
+                throw new SerializationException("数据使用ZSTD压缩，但未引入zstd-jni依赖");
+            }
+            return ZstdCodec.decompress(body, length);
+        }
+        throw new SerializationException("不支持的压缩算法：" + usedCodec);
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        return mapper;
+    }
+
+    private static byte codec(RedisProperties.Serializer.Compression compression) {
+        switch (compression) {
+            case DEFLATE:
+                return CODEC_DEFLATE;
+            case ZSTD:
+                if (!ZSTD_PRESENT) {
+                    throw new IllegalStateException("使用ZSTD压缩需要引入com.github.luben:zstd-jni依赖");
+                }
+                return CODEC_ZSTD;
+            default:
+                return CODEC_NONE;
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static byte[] deflate(byte[] data, int level) {
+        Deflater deflater = new Deflater(Math.max(1, Math.min(9, level)), true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[Math.min(8192, data.length + 16)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int length) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] result = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int n = inflater.inflate(result, offset, length - offset);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != length) {
+                throw new SerializationException("解压后的长度与数据头不一致");
+            }
+            return result;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * ZSTD压缩，单独成类以便未引入zstd-jni时不加载
+     */
+    private static final class ZstdCodec {
+
+        static byte[] compress(byte[] data, int level) {
+            return com.github.luben.zstd.Zstd.compress(data, level);
+        }
+
+        static byte[] decompress(byte[] data, int length) {
+            return com.github.luben.zstd.Zstd.decompress(data, length);
+        }
+    }
+}
\ No newline at end of file
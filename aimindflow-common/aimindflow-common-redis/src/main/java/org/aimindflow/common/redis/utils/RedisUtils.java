@@ -1,8 +1,14 @@
 package org.aimindflow.common.redis.utils;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.aimindflow.common.redis.batch.BatchResult;
+import org.aimindflow.common.redis.batch.RedisBatch;
+import org.aimindflow.common.redis.batch.RedisBatchExecutor;
 import org.aimindflow.common.redis.config.RedisProperties;
+import org.aimindflow.common.redis.scan.KeyCursor;
+import org.aimindflow.common.redis.scan.RedisKeyScanner;
+import org.aimindflow.common.redis.scan.ScanProgressListener;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.*;
 import org.springframework.stereotype.Component;
 
@@ -16,7 +22,6 @@ import java.util.concurrent.TimeUnit;
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class RedisUtils {
 
     private final RedisTemplate<String, Object> redisTemplate;
@@ -26,6 +31,62 @@ public class RedisUtils {
     private final SetOperations<String, Object> setOperations;
     private final ZSetOperations<String, Object> zSetOperations;
     private final RedisProperties redisProperties;
+    private final RedisKeyScanner keyScanner;
+    private final RedisBatchExecutor batchExecutor;
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate   Redis模板
+     * @param valueOperations 字符串操作模板
+     * @param hashOperations  哈希操作模板
+     * @param listOperations  列表操作模板
+     * @param setOperations   集合操作模板
+     * @param zSetOperations  有序集合操作模板
+     * @param redisProperties Redis属性配置
+     */
+    public RedisUtils(RedisTemplate<String, Object> redisTemplate,
+                      ValueOperations<String, Object> valueOperations,
+                      HashOperations<String, String, Object> hashOperations,
+                      ListOperations<String, Object> listOperations,
+                      SetOperations<String, Object> setOperations,
+                      ZSetOperations<String, Object> zSetOperations,
+                      RedisProperties redisProperties) {
+        this(redisTemplate, valueOperations, hashOperations, listOperations, setOperations, zSetOperations,
+                redisProperties, new RedisKeyScanner(redisTemplate, redisProperties));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param redisTemplate   Redis模板
+     * @param valueOperations 字符串操作模板
+     * @param hashOperations  哈希操作模板
+     * @param listOperations  列表操作模板
+     * @param setOperations   集合操作模板
+     * @param zSetOperations  有序集合操作模板
+     * @param redisProperties Redis属性配置
+     * @param keyScanner      Redis键扫描器
+     */
+    @Autowired
+    public RedisUtils(RedisTemplate<String, Object> redisTemplate,
+                      ValueOperations<String, Object> valueOperations,
+                      HashOperations<String, String, Object> hashOperations,
+                      ListOperations<String, Object> listOperations,
+                      SetOperations<String, Object> setOperations,
+                      ZSetOperations<String, Object> zSetOperations,
+                      RedisProperties redisProperties,
+                      RedisKeyScanner keyScanner) {
+        this.redisTemplate = redisTemplate;
+        this.valueOperations = valueOperations;
+        this.hashOperations = hashOperations;
+        this.listOperations = listOperations;
+        this.setOperations = setOperations;
+        this.zSetOperations = zSetOperations;
+        this.redisProperties = redisProperties;
+        this.keyScanner = keyScanner;
+        this.batchExecutor = new RedisBatchExecutor(redisTemplate, redisProperties);
+    }
 
     /**
      * 获取完整的key
@@ -56,6 +117,26 @@ public class RedisUtils {
         }
     }
 
+    /**
+     * 指定缓存失效时间
+     *
+     * @param key     键
+     * @param timeout 时间
+     * @param unit    时间单位
+     * @return 是否成功
+     */
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        try {
+            if (timeout > 0) {
+                redisTemplate.expire(getKey(key), timeout, unit);
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("设置缓存失效时间异常", e);
+            return false;
+        }
+    }
+
     /**
      * 根据key获取过期时间
      *
@@ -149,6 +230,29 @@ public class RedisUtils {
         }
     }
 
+    /**
+     * 普通缓存放入并设置时间
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 时间 time要大于0 如果time小于等于0 将设置无限期
+     * @param unit    时间单位
+     * @return true成功 false失败
+     */
+    public boolean set(String key, Object value, long timeout, TimeUnit unit) {
+        try {
+            if (timeout > 0) {
+                valueOperations.set(getKey(key), value, timeout, unit);
+            } else {
+                set(key, value);
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("缓存放入并设置时间异常", e);
+            return false;
+        }
+    }
+
     /**
      * 递增
      *
@@ -582,15 +686,163 @@ public class RedisUtils {
     /**
      * 获取指定前缀的所有key
      *
+     * 通过SCAN增量遍历，不会阻塞Redis服务端，但结果会全部加载到内存，键数量较多时请使用 {@link #scan(String)}。
+     *
      * @param pattern 前缀
      * @return 匹配的key集合
      */
     public Set<String> keys(String pattern) {
-        try {
-            return redisTemplate.keys(getKey(pattern));
+        try (KeyCursor cursor = keyScanner.scan(getKey(pattern))) {
+            Set<String> keys = new LinkedHashSet<>();
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+            }
+            return keys;
         } catch (Exception e) {
             log.error("获取指定前缀的所有key异常", e);
             return Collections.emptySet();
         }
     }
+
+    /**
+     * 打开匹配模式的键游标，逐批从Redis取回完整的key，使用完毕后需关闭
+     *
+     * @param pattern 模式
+     * @return 键游标
+     */
+    public KeyCursor scan(String pattern) {
+        return keyScanner.scan(getKey(pattern));
+    }
+
+    /**
+     * 删除匹配指定模式的所有key
+     *
+     * @param pattern 模式
+     * @return 删除的key数量
+     */
+    public long delByPattern(String pattern) {
+        return delByPattern(pattern, null);
+    }
+
+    /**
+     * 删除匹配指定模式的所有key，按配置分批删除并限速
+     *
+     * @param pattern  模式
+     * @param listener 进度监听器，可为null
+     * @return 删除的key数量
+     */
+    public long delByPattern(String pattern, ScanProgressListener listener) {
+        return keyScanner.delete(getKey(pattern), listener);
+    }
+
+    /**
+     * 批量获取
+     *
+     * 通过一次管道发送，集群模式下按槽拆分为多条MGET。
+     *
+     * @param keys 键
+     * @return 键与值的映射，顺序与传入一致，不存在的键对应null
+     */
+    public Map<String, Object> mGet(Collection<String> keys) {
+        List<String> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        Map<String, Object> result = new LinkedHashMap<>(keyList.size() * 2);
+        try {
+            RedisBatch batch = batch();
+            BatchResult<List<Object>> values = batch.mGet(keyList);
+            batch.execute(RedisBatch.OPERATION_MGET);
+            List<Object> list = values.get();
+            for (int i = 0; i < keyList.size(); i++) {
+                result.put(keyList.get(i), list.get(i));
+            }
+        } catch (Exception e) {
+            log.error("批量获取缓存异常", e);
+        }
+        return result;
+    }
+
+    /**
+     * 批量放入
+     *
+     * @param values 键值对
+     * @return true成功 false失败
+     */
+    public boolean mSet(Map<String, Object> values) {
+        try {
+            RedisBatch batch = batch();
+            BatchResult<Boolean> result = batch.mSet(values);
+            batch.execute(RedisBatch.OPERATION_MSET);
+            return result.get();
+        } catch (Exception e) {
+            log.error("批量放入缓存异常", e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量放入并设置相同的过期时间
+     *
+     * @param values  键值对
+     * @param timeout 时间 小于等于0时永不过期
+     * @param unit    时间单位
+     * @return true成功 false失败
+     */
+    public boolean mSet(Map<String, Object> values, long timeout, TimeUnit unit) {
+        if (timeout <= 0) {
+            return mSet(values);
+        }
+        Map<String, Long> timeouts = new HashMap<>(values.size() * 2);
+        for (String key : values.keySet()) {
+            timeouts.put(key, timeout);
+        }
+        return mSet(values, timeouts, unit);
+    }
+
+    /**
+     * 批量放入并为每个键设置过期时间
+     *
+     * 每个键一条SET命令，通过一次管道发送。
+     *
+     * @param values   键值对
+     * @param timeouts 每个键的过期时间，缺失或小于等于0时永不过期
+     * @param unit     时间单位
+     * @return true成功 false失败
+     */
+    public boolean mSet(Map<String, Object> values, Map<String, Long> timeouts, TimeUnit unit) {
+        try {
+            RedisBatch batch = batch();
+            List<BatchResult<Boolean>> results = new ArrayList<>(values.size());
+            values.forEach((key, value) -> {
+                Long timeout = timeouts.get(key);
+                results.add(batch.set(key, value, timeout == null ? 0 : timeout, unit));
+            });
+            batch.execute(RedisBatch.OPERATION_MSET);
+            for (BatchResult<Boolean> result : results) {
+                if (!Boolean.TRUE.equals(result.get())) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("批量放入缓存并设置时间异常", e);
+            return false;
+        }
+    }
+
+    /**
+     * 创建管道批量操作，可混合字符串、哈希、集合与列表命令，键会自动添加前缀
+     *
+     * @return 批量操作
+     */
+    public RedisBatch batch() {
+        return batchExecutor.batch(this::getKey);
+    }
+
+    /**
+     * 获取批量命令执行器
+     *
+     * @return 批量命令执行器
+     */
+    public RedisBatchExecutor getBatchExecutor() {
+        return batchExecutor;
+    }
 }
\ No newline at end of file
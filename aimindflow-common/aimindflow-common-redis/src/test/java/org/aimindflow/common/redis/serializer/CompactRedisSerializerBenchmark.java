@@ -0,0 +1,109 @@
+package org.aimindflow.common.redis.serializer;
+
+import org.aimindflow.common.redis.config.RedisProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis值序列化基准测试
+ *
+ * 对比JSON（原格式）、BINARY以及BINARY加DEFLATE、ZSTD压缩的序列化与反序列化耗时，
+ * 值为包含嵌套对象、列表与常见JDK类型的订单列表，压缩阈值为0以保证每次都压缩。
+ * 序列化后的字节数在Setup阶段输出。
+ *
+ * 运行方式：mvn test-compile 后执行本类的main方法，或通过org.openjdk.jmh.Main指定本类。
+ *
+ * @author HezaoHezao
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactRedisSerializerBenchmark {
+
+    @Param({"JSON", "BINARY", "BINARY_DEFLATE", "BINARY_ZSTD"})
+    private String mode;
+
+    @Param({"10", "100"})
+    private int items;
+
+    private CompactRedisSerializer serializer;
+
+    private Object value;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        RedisProperties.Serializer config = new RedisProperties.Serializer();
+        String[] parts = mode.split("_");
+        config.setFormat(RedisProperties.Serializer.Format.valueOf(parts[0]));
+        if (parts.length > 1) {
+            config.setCompression(RedisProperties.Serializer.Compression.valueOf(parts[1]));
+            config.setCompressionThreshold(0);
+        }
+        serializer = new CompactRedisSerializer(config);
+        value = orders(items);
+        bytes = serializer.serialize(value);
+        System.out.println(mode + " " + items + " items: " + bytes.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+
+    private static List<Map<String, Object>> orders(int count) {
+        List<Map<String, Object>> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> order = new LinkedHashMap<>();
+            order.put("orderId", 100000L + i);
+            order.put("status", i % 3 == 0 ? "PAID" : "CREATED");
+            order.put("amount", new BigDecimal("128.50").add(BigDecimal.valueOf(i)));
+            order.put("createTime", new Date(1700000000000L + i * 1000L));
+            Map<String, Object> customer = new HashMap<>();
+            customer.put("userId", 2000 + i % 17);
+            customer.put("nickname", "用户" + (i % 17));
+            customer.put("vip", i % 5 == 0);
+            order.put("customer", customer);
+            List<String> tags = new ArrayList<>();
+            tags.add("express");
+            tags.add("region-" + i % 4);
+            order.put("tags", tags);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CompactRedisSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
\ No newline at end of file